@@ -51,6 +51,15 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+
+    testOptions {
+        // 로컬 단위 테스트에서 android.util.Log 등 스텁 메서드가 예외 대신 기본값을 반환하도록 함
+        unitTests.isReturnDefaultValues = true
+        // 시간 측정 벤치마크 테스트는 ./gradlew test -Pbench 로 요청했을 때만 실행
+        unitTests.all {
+            it.systemProperty("bench", project.hasProperty("bench").toString())
+        }
+    }
 }
 
 dependencies {
@@ -0,0 +1,164 @@
+package com.example.quantiztest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 인터프리터 설정 후보(스레드 수, NNAPI, XNNPACK)마다 몇 번 추론해 보고 가장 빠른 설정을 고르는 자동 튜너입니다.
+ * 설정마다 예열 실행 뒤 측정 실행의 중앙값을 비교하며, 열거나 실행하다 실패한 설정은 후보에서 빼고 결과에 사유를 남깁니다.
+ * 추론은 InferenceBackend를 통해서만 하므로 가짜 백엔드로 데스크톱 JVM에서 검증할 수 있습니다.
+ */
+public class Autotuner {
+    public static final int DEFAULT_WARMUP_RUNS = 2;
+    public static final int DEFAULT_MEASURED_RUNS = 5;
+    private static final int[] THREAD_CANDIDATES = {1, 2, 4, 8};
+
+    private final InferenceBackend backend;
+    private final int warmupRuns;
+    private final int measuredRuns;
+
+    public Autotuner(InferenceBackend backend) {
+        this(backend, DEFAULT_WARMUP_RUNS, DEFAULT_MEASURED_RUNS);
+    }
+
+    /**
+     * @param warmupRuns   설정마다 측정 전에 버리는 실행 수
+     * @param measuredRuns 설정마다 중앙값을 낼 실행 수
+     */
+    public Autotuner(InferenceBackend backend, int warmupRuns, int measuredRuns) {
+        if (warmupRuns < 0 || measuredRuns < 1) {
+            throw new IllegalArgumentException("잘못된 실행 횟수: " + warmupRuns + "/" + measuredRuns);
+        }
+        this.backend = backend;
+        this.warmupRuns = warmupRuns;
+        this.measuredRuns = measuredRuns;
+    }
+
+    /**
+     * 튜닝 후보: 코어 수 이하의 스레드 수(1/2/4/8)마다 XNNPACK 켜기/끄기, NNAPI를 쓸 수 있으면 NNAPI 하나
+     */
+    public static List<InferenceConfig> candidates(int cores, boolean nnapiAvailable) {
+        List<InferenceConfig> configs = new ArrayList<>();
+        for (int threads : THREAD_CANDIDATES) {
+            if (threads > Math.max(1, cores)) {
+                break;
+            }
+            configs.add(new InferenceConfig(threads, false, true));
+            configs.add(new InferenceConfig(threads, false, false));
+        }
+        if (nnapiAvailable) {
+            configs.add(InferenceConfig.defaults(cores, true));
+        }
+        return configs;
+    }
+
+    /**
+     * 후보를 차례로 측정해 가장 빠른 설정을 고릅니다. (시간이 걸리므로 백그라운드 스레드에서 호출)
+     * 호출 스레드가 인터럽트되면 남은 후보를 측정하지 않고 그때까지의 결과를 돌려줍니다.
+     */
+    public Result tune(List<InferenceConfig> candidates) {
+        Map<InferenceConfig, Float> millis = new LinkedHashMap<>();
+        Map<InferenceConfig, String> failures = new LinkedHashMap<>();
+        InferenceConfig best = null;
+        float bestMillis = Float.MAX_VALUE;
+        for (InferenceConfig config : candidates) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            float median;
+            try {
+                median = measure(config);
+            } catch (Exception e) {
+                failures.put(config, String.valueOf(e.getMessage()));
+                continue;
+            }
+            millis.put(config, median);
+            if (median < bestMillis) {
+                bestMillis = median;
+                best = config;
+            }
+        }
+        return new Result(best, best != null ? bestMillis : Float.NaN, millis, failures);
+    }
+
+    /**
+     * 한 설정의 측정 실행 중앙값 (ms)
+     */
+    private float measure(InferenceConfig config) throws Exception {
+        InferenceBackend.Session session = backend.open(config);
+        try {
+            for (int i = 0; i < warmupRuns; i++) {
+                session.run();
+            }
+            float[] samples = new float[measuredRuns];
+            for (int i = 0; i < measuredRuns; i++) {
+                long start = System.nanoTime();
+                session.run();
+                samples[i] = (System.nanoTime() - start) / 1e6f;
+            }
+            Arrays.sort(samples);
+            return samples[measuredRuns / 2];
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * 튜닝 결과 (모든 후보가 실패하면 best가 null)
+     */
+    public static class Result {
+        private final InferenceConfig best;
+        private final float bestMillis;
+        private final Map<InferenceConfig, Float> millis;
+        private final Map<InferenceConfig, String> failures;
+
+        Result(InferenceConfig best, float bestMillis, Map<InferenceConfig, Float> millis,
+               Map<InferenceConfig, String> failures) {
+            this.best = best;
+            this.bestMillis = bestMillis;
+            this.millis = Collections.unmodifiableMap(millis);
+            this.failures = Collections.unmodifiableMap(failures);
+        }
+
+        public InferenceConfig getBest() {
+            return best;
+        }
+
+        public float getBestMillis() {
+            return bestMillis;
+        }
+
+        /**
+         * 측정에 성공한 설정별 중앙값 (측정 순서)
+         */
+        public Map<InferenceConfig, Float> getMillis() {
+            return millis;
+        }
+
+        /**
+         * 열거나 실행하다 실패한 설정별 사유 (측정 순서)
+         */
+        public Map<InferenceConfig, String> getFailures() {
+            return failures;
+        }
+
+        /**
+         * 로그용 한 줄 요약
+         */
+        public String summary() {
+            StringBuilder builder = new StringBuilder();
+            builder.append("최적=").append(best != null ? best + String.format("(%.1fms)", bestMillis) : "-");
+            for (Map.Entry<InferenceConfig, Float> entry : millis.entrySet()) {
+                builder.append(", ").append(entry.getKey()).append(String.format("=%.1fms", entry.getValue()));
+            }
+            for (Map.Entry<InferenceConfig, String> entry : failures.entrySet()) {
+                builder.append(", ").append(entry.getKey()).append("=실패(").append(entry.getValue()).append(')');
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.quantiztest;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 카메라별 추론 설정을 나타내는 클래스입니다.
+ * assets/camera_profiles.txt 에서 카메라 ID별로 읽어 오며, 등록되지 않은 카메라는 기본값을 사용합니다.
+ *
+ * 파일 형식 (한 줄에 카메라 하나, '#'으로 시작하면 주석):
+ * <pre>
+ * cameraId resizeMode padValue [tileSize tileOverlap tilesPerFrame]
+ * 0        LETTERBOX  114
+ * 1        LETTERBOX  114      640      64          3
+ * </pre>
+ * 타일 설정은 선택 사항이며, tileSize가 0이거나 없으면 타일 추론을 쓰지 않습니다.
+ */
+public class CameraProfile {
+    private static final String TAG = "CameraProfile";
+    public static final String ASSET_NAME = "camera_profiles.txt";
+    public static final int DEFAULT_PAD_VALUE = 114; // YOLO 계열 학습 시 사용하는 회색 패딩
+    public static final int DEFAULT_TILE_OVERLAP = 64;
+    private static final int MIN_TILE_SIZE = 64;
+
+    private final String cameraId;
+    private final ResizeTransform.Mode resizeMode;
+    private final int padValue;
+    // 고해상도 타일 추론 설정 (tileSize 0이면 사용 안 함)
+    private final int tileSize;
+    private final int tileOverlap;
+    private final int tilesPerFrame;
+
+    public CameraProfile(String cameraId, ResizeTransform.Mode resizeMode, int padValue) {
+        this(cameraId, resizeMode, padValue, 0, 0, 0);
+    }
+
+    /**
+     * @param tileSize      원본 해상도 기준 타일 한 변 (모델 입력 크기와 같으면 축소 없이 추론, 0이면 타일 사용 안 함)
+     * @param tileOverlap   이웃 타일이 겹치는 폭 (px)
+     * @param tilesPerFrame 프레임마다 추론할 타일 수 (부족하면 프레임마다 돌아가며 처리)
+     */
+    public CameraProfile(String cameraId, ResizeTransform.Mode resizeMode, int padValue,
+                         int tileSize, int tileOverlap, int tilesPerFrame) {
+        if (padValue < 0 || padValue > 255) {
+            throw new IllegalArgumentException("패딩 값은 0~255 범위여야 합니다: " + padValue);
+        }
+        if (tileSize != 0 && (tileSize < MIN_TILE_SIZE || tileOverlap < 0 || tileOverlap >= tileSize
+                || tilesPerFrame < 1 || tilesPerFrame > PipelineFrame.MAX_PASSES)) {
+            throw new IllegalArgumentException("잘못된 타일 설정: " + tileSize + "/" + tileOverlap + "/" + tilesPerFrame);
+        }
+        this.cameraId = cameraId;
+        this.resizeMode = resizeMode;
+        this.padValue = padValue;
+        this.tileSize = tileSize;
+        this.tileOverlap = tileOverlap;
+        this.tilesPerFrame = tilesPerFrame;
+    }
+
+    /**
+     * 설정 파일에 없는 카메라용 기본 프로필 (기존 동작과 같은 늘리기 방식)
+     */
+    public static CameraProfile defaults(String cameraId) {
+        return new CameraProfile(cameraId, ResizeTransform.Mode.STRETCH, DEFAULT_PAD_VALUE);
+    }
+
+    /**
+     * assets 폴더에서 카메라 프로필 목록을 로드합니다. 파일이 없으면 빈 맵을 반환합니다.
+     */
+    public static Map<String, CameraProfile> loadFromAssets(Context context) {
+        try (Reader reader = new InputStreamReader(context.getAssets().open(ASSET_NAME))) {
+            Map<String, CameraProfile> profiles = parse(reader);
+            Log.d(TAG, "로드된 카메라 프로필 수: " + profiles.size());
+            return profiles;
+        } catch (IOException e) {
+            Log.w(TAG, "카메라 프로필 파일을 읽을 수 없어 기본값을 사용합니다: " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * 카메라 프로필 텍스트를 파싱합니다.
+     */
+    public static Map<String, CameraProfile> parse(Reader source) throws IOException {
+        Map<String, CameraProfile> profiles = new HashMap<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            try {
+                String cameraId = fields[0];
+                ResizeTransform.Mode mode = fields.length > 1
+                        ? ResizeTransform.Mode.valueOf(fields[1].toUpperCase())
+                        : ResizeTransform.Mode.STRETCH;
+                int padValue = fields.length > 2 ? Integer.parseInt(fields[2]) : DEFAULT_PAD_VALUE;
+                int tileSize = fields.length > 3 ? Integer.parseInt(fields[3]) : 0;
+                int tileOverlap = fields.length > 4 ? Integer.parseInt(fields[4]) : DEFAULT_TILE_OVERLAP;
+                int tilesPerFrame = fields.length > 5 ? Integer.parseInt(fields[5]) : PipelineFrame.MAX_PASSES;
+                profiles.put(cameraId, new CameraProfile(cameraId, mode, padValue, tileSize, tileOverlap, tilesPerFrame));
+            } catch (IllegalArgumentException e) {
+                throw new IOException(ASSET_NAME + " " + lineNumber + "번째 줄 형식 오류: " + line, e);
+            }
+        }
+        return profiles;
+    }
+
+    public String getCameraId() {
+        return cameraId;
+    }
+
+    public ResizeTransform.Mode getResizeMode() {
+        return resizeMode;
+    }
+
+    public int getPadValue() {
+        return padValue;
+    }
+
+    public boolean isTilingEnabled() {
+        return tileSize > 0;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getTileOverlap() {
+        return tileOverlap;
+    }
+
+    public int getTilesPerFrame() {
+        return tilesPerFrame;
+    }
+
+    @Override
+    public String toString() {
+        return "CameraProfile{" + cameraId + ", " + resizeMode + ", pad=" + padValue
+                + (isTilingEnabled() ? ", tile=" + tileSize + "/" + tileOverlap + "x" + tilesPerFrame : "") + "}";
+    }
+}
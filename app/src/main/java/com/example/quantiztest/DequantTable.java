@@ -0,0 +1,97 @@
+package com.example.quantiztest;
+
+/**
+ * UINT8/INT8 양자화 텐서 하나에 대한 256칸 역양자화 테이블입니다.
+ * 모델 로드 시 한 번 만들어 두고, 프레임마다 곱셈/뺄셈 대신 배열 조회로 값을 구합니다.
+ * 테이블은 "키" 순서로 저장합니다. UINT8은 키가 원시 값 그대로이고,
+ * INT8은 부호 비트를 뒤집어(-128~127 -> 0~255) 키 순서와 값의 대소 순서가 같도록 합니다.
+ */
+public class DequantTable {
+    private final float scale;
+    private final int zeroPoint;
+    private final boolean signed;
+    // 원시 바이트 -> 키 변환에 XOR 할 값 (UINT8: 0, INT8: 0x80)
+    private final int keyFlip;
+    private final float[] values = new float[256];
+
+    public DequantTable(float scale, int zeroPoint) {
+        this(scale, zeroPoint, false, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param maxValue 역양자화 결과의 상한 (신뢰도처럼 1.0으로 자르는 값에 사용)
+     */
+    public DequantTable(float scale, int zeroPoint, float maxValue) {
+        this(scale, zeroPoint, false, maxValue);
+    }
+
+    /**
+     * @param signed INT8 텐서이면 true
+     */
+    public DequantTable(float scale, int zeroPoint, boolean signed, float maxValue) {
+        if (scale <= 0 || Float.isNaN(scale)) {
+            throw new IllegalArgumentException("양자화 스케일은 양수여야 합니다: " + scale);
+        }
+        this.scale = scale;
+        this.zeroPoint = zeroPoint;
+        this.signed = signed;
+        this.keyFlip = signed ? 0x80 : 0;
+        for (int key = 0; key < 256; key++) {
+            int q = signed ? key - 128 : key;
+            values[key] = Math.min((q - zeroPoint) * scale, maxValue);
+        }
+    }
+
+    /**
+     * 원시 바이트를 대소 비교용 키(0~255)로 변환합니다.
+     */
+    public int key(byte raw) {
+        return (raw & 0xFF) ^ keyFlip;
+    }
+
+    /**
+     * 원시 바이트를 float 값으로 역양자화합니다.
+     */
+    public float get(byte raw) {
+        return values[(raw & 0xFF) ^ keyFlip];
+    }
+
+    /**
+     * 키에 해당하는 역양자화 값 (0: 최솟값, 255: 최댓값)
+     */
+    public float valueAtKey(int key) {
+        return values[key];
+    }
+
+    /**
+     * 역양자화 값이 threshold보다 큰 가장 작은 키를 구합니다.
+     * key(raw) >= 반환값 이면 get(raw) > threshold 와 같습니다. 해당 값이 없으면 256을 반환합니다.
+     */
+    public int thresholdKey(float threshold) {
+        for (int key = 0; key < 256; key++) {
+            if (values[key] > threshold) {
+                return key;
+            }
+        }
+        return 256;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public int getZeroPoint() {
+        return zeroPoint;
+    }
+
+    public boolean isSigned() {
+        return signed;
+    }
+
+    /**
+     * 원시 바이트 -> 키 변환에 XOR 하는 값 (UINT8: 0, INT8: 0x80)
+     */
+    public int getKeyFlip() {
+        return keyFlip;
+    }
+}
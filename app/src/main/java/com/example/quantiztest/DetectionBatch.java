@@ -0,0 +1,141 @@
+package com.example.quantiztest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 한 프레임의 탐지 결과를 병렬 기본형 배열로 담는 재사용 버퍼입니다.
+ * 탐지기가 채우고 추적기가 인덱스로 읽으므로 탐지마다 객체를 만들지 않으며,
+ * Detection 객체는 UI/직렬화에 필요할 때만 get/toList로 만듭니다.
+ * 스레드 안전하지 않으므로 채우는 쪽과 읽는 쪽이 같은 락 안에서 사용해야 합니다.
+ */
+public class DetectionBatch {
+    private int[] classIds;
+    private float[] scores;
+    private float[] lefts;
+    private float[] tops;
+    private float[] rights;
+    private float[] bottoms;
+    private int count;
+
+    public DetectionBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        classIds = new int[capacity];
+        scores = new float[capacity];
+        lefts = new float[capacity];
+        tops = new float[capacity];
+        rights = new float[capacity];
+        bottoms = new float[capacity];
+    }
+
+    /**
+     * 기존 Detection 목록을 담은 배치를 만듭니다.
+     */
+    public static DetectionBatch of(List<YoloImageProcessor.Detection> detections) {
+        DetectionBatch batch = new DetectionBatch(detections.size());
+        batch.addAll(detections);
+        return batch;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public void add(int classId, float score, float left, float top, float right, float bottom) {
+        if (count == classIds.length) {
+            grow();
+        }
+        int i = count++;
+        classIds[i] = classId;
+        scores[i] = score;
+        lefts[i] = left;
+        tops[i] = top;
+        rights[i] = right;
+        bottoms[i] = bottom;
+    }
+
+    public void addAll(List<YoloImageProcessor.Detection> detections) {
+        for (YoloImageProcessor.Detection d : detections) {
+            add(d.getClassId(), d.getConfidence(), d.getLeft(), d.getTop(), d.getRight(), d.getBottom());
+        }
+    }
+
+    /**
+     * 다른 배치의 내용으로 바꿉니다. (추론을 건너뛴 프레임에 마지막 결과를 재사용할 때)
+     */
+    public void copyFrom(DetectionBatch other) {
+        clear();
+        for (int i = 0; i < other.count; i++) {
+            add(other.classIds[i], other.scores[i], other.lefts[i], other.tops[i], other.rights[i], other.bottoms[i]);
+        }
+    }
+
+    private void grow() {
+        int capacity = classIds.length * 2;
+        classIds = Arrays.copyOf(classIds, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+        lefts = Arrays.copyOf(lefts, capacity);
+        tops = Arrays.copyOf(tops, capacity);
+        rights = Arrays.copyOf(rights, capacity);
+        bottoms = Arrays.copyOf(bottoms, capacity);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int getClassId(int i) {
+        return classIds[i];
+    }
+
+    public float getScore(int i) {
+        return scores[i];
+    }
+
+    public float getLeft(int i) {
+        return lefts[i];
+    }
+
+    public float getTop(int i) {
+        return tops[i];
+    }
+
+    public float getRight(int i) {
+        return rights[i];
+    }
+
+    public float getBottom(int i) {
+        return bottoms[i];
+    }
+
+    public float getCenterX(int i) {
+        return (lefts[i] + rights[i]) / 2;
+    }
+
+    public float getCenterY(int i) {
+        return (tops[i] + bottoms[i]) / 2;
+    }
+
+    /**
+     * i번째 탐지 결과의 객체 뷰 (호출할 때마다 새로 만듦)
+     */
+    public YoloImageProcessor.Detection get(int i) {
+        return new YoloImageProcessor.Detection(classIds[i], scores[i], lefts[i], tops[i], rights[i], bottoms[i]);
+    }
+
+    /**
+     * 전체 탐지 결과의 객체 목록 (UI/직렬화용)
+     */
+    public List<YoloImageProcessor.Detection> toList() {
+        List<YoloImageProcessor.Detection> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(get(i));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,564 @@
+package com.example.quantiztest;
+
+import android.content.Context;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.socket.client.IO;
+import io.socket.client.Socket;
+
+/**
+ * 앱 프로세스 하나에 하나만 두는 탐지 엔진입니다. (QuantiztestApplication이 소유)
+ * YOLO/얼굴 모델 인터프리터, 추적기, 웹소켓을 액티비티 생명주기와 상관없이 유지하므로
+ * 화면 회전이나 액티비티 재생성 때 모델을 다시 로드하지 않고 추적 ID도 이어집니다.
+ *
+ * 모델 로드는 UI 스레드를 막지 않도록 엔진 전용 로드 스레드에서 하며, 끝나면 getReadiness()가 완료됩니다.
+ * 액티비티는 준비가 끝난 뒤에 추적기/카탈로그/얼굴 탐지기를 가져가고, 카메라 파이프라인은 예열까지 끝나야
+ * 완료되는 getWarmUpReadiness()를 기다려 시작합니다.
+ *
+ * 액티비티는 attach/detach로 서버 요청을 받는 관찰자로 붙었다 떨어지며,
+ * 붙은 관찰자가 없을 때 온 요청은 로그만 남기고 버립니다.
+ *
+ * YOLO 모델은 ModelSlot에 두어 앱을 재시작하지 않고 재학습 모델로 교체(swapModel)하거나
+ * 직전 모델로 되돌릴(rollbackModel) 수 있습니다. 처리 중인 프레임은 시작할 때 빌린 모델로 끝납니다.
+ */
+public class DetectionEngine {
+    private static final String TAG = "DetectionEngine";
+
+    // YOLO 인터프리터 풀 (0이면 코어 수로 결정: 8코어 이상이면 2개 x 4스레드, 아니면 1개)
+    private static final int INFERENCE_POOL_SIZE = 0;
+    private static final int INFERENCE_THREADS_PER_INTERPRETER = 0;
+    // 튜닝 결과가 없는 기기에서는 첫 실행 때 예열 직후(카메라 파이프라인 시작 전) 스레드/NNAPI/XNNPACK 조합을
+    // 벤치마크해 다음 실행부터 적용
+    private static final boolean AUTOTUNE_INFERENCE = true;
+    private static final String TUNING_FILE_NAME = "inference_tuning.txt";
+    // 모델 로드 직후 인터프리터마다 돌리는 예열 추론 횟수 (카메라 파이프라인은 예열이 끝난 뒤 시작)
+    private static final int MODEL_WARMUP_RUNS = TFLiteLoader.DEFAULT_WARMUP_RUNS;
+    // YOLO 추론 한 번의 기한 = 예열 후 추론 지연 x 배수 (최소값 이상) - 넘기면 실행을 취소하고 마지막 추적 결과로 대신함
+    // 예열이 끝나기 전이나 예열 지연을 모르면 InferenceWatchdog.DEFAULT_DEADLINE_MS
+    private static final float INFERENCE_DEADLINE_FACTOR = 4f;
+    private static final long MIN_INFERENCE_DEADLINE_MS = 150;
+
+    /**
+     * 서버 요청을 처리하는 관찰자 (웹소켓 스레드에서 호출)
+     */
+    public interface Listener {
+        /** 키오스크에 가장 가까운 사람 찾기 요청 */
+        void onFindNearestPerson(String kioskId);
+
+        /** 지정한 사람들의 얼굴 찾기 요청 */
+        void onRequestPersonFaceFind(List<Integer> personIds);
+    }
+
+    private final Context context;
+    private final String connectUrl;
+    // 추적기와 YOLO 후처리 작업 배열을 쓰는 모든 탐지 경로가 잡는 락 (액티비티가 바뀌어도 같은 객체)
+    private final Object lock = new Object();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private boolean started;
+    // 모델 로드/해제를 차례로 실행하는 스레드 (close 뒤 다시 start해도 해제가 끝난 뒤 로드)
+    private final ExecutorService loadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "DetectionEngineLoad");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 모델 로드가 끝나면 완료 (로드 실패도 정상 완료 - 실패한 모델은 getter가 null)
+    private volatile CompletableFuture<Void> readiness = new CompletableFuture<>();
+    // YOLO 예열(첫 실행이면 자동 튜닝 포함)과 추론 기한 설정이 끝나면 완료 (로드 스레드에서 설정)
+    private volatile CompletableFuture<Void> modelWarmUp = CompletableFuture.completedFuture(null);
+    private volatile TFLiteLoader tfliteLoader;
+    private volatile TFLiteLoader tfliteLoaderface;
+    // 현재/예비 YOLO 모델 (로드 실패 시 null)
+    private volatile ModelSlot<YoloImageProcessor> modelSlot;
+    // 슬롯의 각 프로세서를 만든 로더 - 모델이 닫힐 때 예열 스레드와 인터프리터를 함께 정리
+    private final Map<YoloImageProcessor, TFLiteLoader> processorLoaders = new ConcurrentHashMap<>();
+    private final Object swapLock = new Object(); // 모델 교체는 한 번에 하나씩
+    // 카메라 프로필의 리사이즈 방식 (교체/되돌린 모델에도 적용, resizeLock으로 보호)
+    private final Object resizeLock = new Object();
+    private ResizeTransform.Mode resizeMode;
+    private int padValue;
+    private volatile InferenceWatchdog watchdog; // 교체되는 모델도 같은 감시자를 써서 지연 통계가 이어짐
+    private volatile FaceDetector faceDetector;
+    private volatile ProductCatalog productCatalog;
+    private volatile SimpleTracker tracker;
+    // 추적 ID별 선 통과/사람 등장 상태 (추적기와 함께 유지)
+    private final TrackEventState trackEvents = new TrackEventState();
+    private Socket socket;
+
+    /**
+     * @param context    애플리케이션 컨텍스트 (액티비티를 넘기면 액티비티가 누수됨)
+     * @param connectUrl Socket.IO 서버 URL
+     */
+    public DetectionEngine(Context context, String connectUrl) {
+        this.context = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        this.connectUrl = connectUrl;
+    }
+
+    /**
+     * 웹소켓을 연결하고 모델 로드를 로드 스레드에서 시작합니다. 프로세스에서 처음 호출될 때만 실제로 로드하며,
+     * 이번 호출에서 로드를 시작했으면 true, 이미 시작되어 있었으면 false를 돌려줍니다. (UI 스레드, 바로 돌아옴)
+     */
+    public synchronized boolean start() {
+        if (started) {
+            Log.i(TAG, "이미 시작된 엔진 재사용: " + summary());
+            return false;
+        }
+        started = true;
+
+        setupSocket();
+
+        watchdog = new InferenceWatchdog(InferenceWatchdog.DEFAULT_DEADLINE_MS);
+        CompletableFuture<Void> loaded = readiness;
+        loadExecutor.execute(() -> {
+            try {
+                loadModels();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "모델 로드 중 오류: " + e.getMessage(), e);
+            } finally {
+                loaded.complete(null);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * YOLO/얼굴 모델을 로드하고 추적기를 만듭니다. (로드 스레드)
+     */
+    private void loadModels() {
+        long start = System.nanoTime();
+        TFLiteLoader loader = createYoloLoader("yolonas_quantized.tflite");
+        // 교체 모델은 파이프라인이 도는 중에 로드되므로 시작 모델만 준비 완료 전에 튜닝
+        loader.setAutotuneOnWarmUp(AUTOTUNE_INFERENCE);
+        tfliteLoader = loader;
+        ProductCatalog catalog = null;
+        if (loader.loadModelFromAssets()) {
+            Log.i("yolo", "YOLONas TFLite 모델이 성공적으로 로드되었습니다.");
+            YoloImageProcessor imageProcessor = createProcessor(loader);
+            synchronized (resizeLock) {
+                applyResizeMode(imageProcessor); // 로드 중에 카메라 프로필이 먼저 적용되었을 수 있음
+                modelSlot = new ModelSlot<>(imageProcessor, this::closeProcessor);
+            }
+            Log.i("yolo", "추론 " + loader.getInterpreterPool().summary() + ", 모델 로드 "
+                    + loader.getLoadTimeMs() + "ms (" + loader.getLoadSource() + ")");
+            modelWarmUp = loader.getReadiness().handle((ignored, error) -> {
+                if (error == null) {
+                    Log.i("yolo", "모델 예열 완료: 첫 추론 " + loader.getColdLatencyMs() + "ms, 예열 후 "
+                            + loader.getWarmLatencyMs() + "ms, 추론 기한 " + applyDeadline(loader) + "ms"
+                            + (loader.isTuned() ? "" : ", 현재 " + loader.getInferenceConfig()));
+                }
+                return null;
+            });
+            catalog = imageProcessor.getCatalog();
+        } else {
+            Log.e(TAG, "YOLONas TFLite 모델 로드에 실패했습니다.");
+        }
+
+        // 추적기 - 사람 클래스 ID는 카탈로그에서 결정
+        if (catalog == null) {
+            catalog = ProductCatalog.defaults(new ArrayList<>());
+        }
+        productCatalog = catalog;
+        tracker = new SimpleTracker(catalog.getPersonClass());
+
+        TFLiteLoader faceLoader = new TFLiteLoader(context, "face_det_lite_quantized.tflite", FaceDetector.SIGNATURE);
+        tfliteLoaderface = faceLoader;
+        if (faceLoader.loadModelFromAssets()) {
+            Log.i("face", "Face TFLite 모델이 성공적으로 로드되었습니다.");
+            faceDetector = new FaceDetector(context, faceLoader.getTfliteInterpreter(), faceLoader.getBinding());
+        } else {
+            Log.e("face", "Face TFLite 모델 로드에 실패했습니다.");
+        }
+        Log.i(TAG, "모델 로드 완료 (" + (System.nanoTime() - start) / 1_000_000L + "ms): " + summary());
+    }
+
+    /**
+     * 모델 로드가 끝나면 완료됩니다. (로드에 실패해도 정상 완료 - getImageProcessor/getFaceDetector가 null)
+     * 완료 전에는 추적기/카탈로그/얼굴 탐지기가 없으므로 액티비티는 이것을 기다린 뒤 가져갑니다.
+     */
+    public CompletableFuture<Void> getReadiness() {
+        return readiness;
+    }
+
+    /**
+     * 모델 로드에 이어 YOLO 예열(첫 실행이면 자동 튜닝 포함)과 추론 기한 설정까지 끝나면 완료됩니다.
+     * 카메라 파이프라인은 이것을 기다려 시작하므로 예열/튜닝이 실제 추론과 CPU를 다투지 않습니다.
+     */
+    public CompletableFuture<Void> getWarmUpReadiness() {
+        return readiness.thenCompose(ignored -> modelWarmUp);
+    }
+
+    private TFLiteLoader createYoloLoader(String modelName) {
+        TFLiteLoader loader = new TFLiteLoader(context, modelName, YoloImageProcessor.SIGNATURE);
+        loader.setInterpreterPool(INFERENCE_POOL_SIZE, INFERENCE_THREADS_PER_INTERPRETER);
+        loader.setTuningStore(new TuningStore(new File(context.getFilesDir(), TUNING_FILE_NAME)));
+        loader.setWarmUpRuns(MODEL_WARMUP_RUNS);
+        return loader;
+    }
+
+    private YoloImageProcessor createProcessor(TFLiteLoader loader) {
+        YoloImageProcessor processor = new YoloImageProcessor(context, loader.getTfliteInterpreter(), loader.getBinding());
+        processor.setInterpreterPool(loader.getInterpreterPool());
+        processor.setWatchdog(watchdog);
+        processorLoaders.put(processor, loader);
+        return processor;
+    }
+
+    /**
+     * 현재 모델의 예열 후 추론 지연으로 추론 기한을 다시 정합니다.
+     *
+     * @return 새 기한 (ms)
+     */
+    private long applyDeadline(TFLiteLoader loader) {
+        long deadlineMs = InferenceWatchdog.deadlineFor(loader.getWarmLatencyMs(),
+                INFERENCE_DEADLINE_FACTOR, MIN_INFERENCE_DEADLINE_MS);
+        InferenceWatchdog dog = watchdog;
+        if (dog != null) {
+            dog.setDeadlineMs(deadlineMs);
+        }
+        return deadlineMs;
+    }
+
+    /**
+     * 교체되어 더 이상 빌려 간 프레임이 없는 모델의 로더를 닫습니다. (예열 스레드를 멈추고 인터프리터 풀을 닫음)
+     */
+    private void closeProcessor(YoloImageProcessor processor) {
+        TFLiteLoader loader = processorLoaders.remove(processor);
+        if (loader != null) {
+            loader.close();
+        }
+        Log.i("yolo", "모델 닫기: 남은 모델 " + processorLoaders.size() + "개");
+    }
+
+    /**
+     * 새 YOLO 모델 파일을 백그라운드에서 로드/예열/검증한 뒤 실행 중인 파이프라인의 모델과 바꿉니다.
+     * 입출력 버퍼 형식이 현재 모델과 다르면 교체하지 않습니다. 교체 전 모델은 rollbackModel용으로 남습니다.
+     *
+     * @return 교체된 모델의 세대 번호로 완료 (실패 시 예외로 완료)
+     */
+    public CompletableFuture<Integer> swapModel(File modelFile) {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        new Thread(() -> {
+            synchronized (swapLock) {
+                try {
+                    result.complete(loadAndSwap(modelFile));
+                } catch (Exception e) {
+                    Log.e(TAG, "모델 교체 실패 (" + modelFile.getName() + "): " + e.getMessage(), e);
+                    result.completeExceptionally(e);
+                }
+            }
+        }, "ModelSwap").start();
+        return result;
+    }
+
+    private int loadAndSwap(File modelFile) throws Exception {
+        ModelSlot<YoloImageProcessor> slot = modelSlot;
+        YoloImageProcessor current = slot != null ? slot.get() : null;
+        if (current == null) {
+            throw new IllegalStateException("교체할 현재 모델이 없습니다");
+        }
+        TFLiteLoader loader = createYoloLoader(modelFile.getName());
+        // 로드 단계에서 기대 형상/타입(ModelSignature)을 검증
+        if (!loader.loadModelFromFile(modelFile)) {
+            throw new IllegalArgumentException("모델 로드/검증 실패: " + modelFile);
+        }
+        try {
+            loader.getReadiness().get();
+        } catch (ExecutionException e) {
+            loader.close();
+            throw e;
+        }
+        // 파이프라인이 돌려 쓰는 FrameContext를 그대로 쓸 수 있어야 프레임 사이에 교체 가능
+        if (!current.getBinding().isBufferCompatible(loader.getBinding())) {
+            loader.close();
+            throw new IllegalArgumentException("입출력 버퍼 형식이 현재 모델과 다릅니다: " + modelFile.getName());
+        }
+        YoloImageProcessor next = createProcessor(loader);
+        int generation;
+        synchronized (resizeLock) {
+            applyResizeMode(next);
+            generation = slot.swap(next);
+        }
+        applyDeadline(loader);
+        Log.i("yolo", "모델 교체 완료: " + modelFile.getName() + " (로드 " + loader.getLoadTimeMs() + "ms, 예열 후 "
+                + loader.getWarmLatencyMs() + "ms), " + slot.summary());
+        return generation;
+    }
+
+    /**
+     * 직전 모델로 즉시 되돌립니다. 다시 호출하면 교체한 모델로 돌아갑니다.
+     *
+     * @return 되돌릴 모델이 없으면 false
+     */
+    public boolean rollbackModel() {
+        ModelSlot<YoloImageProcessor> slot = modelSlot;
+        if (slot == null) {
+            return false;
+        }
+        synchronized (resizeLock) {
+            if (!slot.rollback()) {
+                return false;
+            }
+            applyResizeMode(slot.get());
+        }
+        TFLiteLoader loader = processorLoaders.get(slot.get());
+        if (loader != null) {
+            applyDeadline(loader);
+        }
+        Log.i("yolo", "모델 되돌림: " + slot.summary());
+        return true;
+    }
+
+    /**
+     * 현재와 이후 교체되는 모든 YOLO 모델에 카메라 프로필의 리사이즈 방식을 적용합니다.
+     */
+    public void setResizeMode(ResizeTransform.Mode mode, int padValue) {
+        synchronized (resizeLock) {
+            this.resizeMode = mode;
+            this.padValue = padValue;
+            applyResizeMode(getImageProcessor());
+        }
+    }
+
+    private void applyResizeMode(YoloImageProcessor processor) {
+        if (processor != null && resizeMode != null) {
+            processor.setResizeMode(resizeMode, padValue);
+        }
+    }
+
+    /**
+     * 웹소켓을 연결하고 서버 요청을 붙어 있는 관찰자에게 넘기도록 등록합니다.
+     */
+    private void setupSocket() {
+        try {
+            socket = IO.socket(connectUrl);  // Socket.IO 서버 URL
+            Log.d("socketcheck", "웹소켓 연결시도");
+        } catch (Exception e) {
+            Log.e("socketcheck", "웹소켓 생성 실패: " + e.getMessage(), e);
+            return;
+        }
+        socket.connect();
+        // 연결 성공 시
+        socket.on(Socket.EVENT_CONNECT, args -> {
+            Log.d("socketcheck", "success");
+            try {
+                JSONObject connectMsg = new JSONObject();
+                connectMsg.put("type", "connect");
+                connectMsg.put("message", "Android app connected");
+                socket.emit("message", connectMsg.toString());  // 서버의 @socketio.on('message')와 매칭
+                Log.d("socket", "연결 메시지 전송 완료");
+            } catch (Exception e) {
+                Log.e("socketcheck", "fail: " + e.getMessage());
+            }
+        });
+
+        // 연결 종료 시
+        socket.on(Socket.EVENT_DISCONNECT, args -> Log.d("socket", "웹소켓 연결 종료"));
+
+        // 메시지 수신
+        socket.on("response", args -> Log.d("socket", "서버로부터 메시지 수신: " + args[0].toString()));
+
+        // 가장 가까운 사람 찾기 요청
+        socket.on("find_nearest_person", args -> {
+            try {
+                JSONObject data = new JSONObject(args[0].toString());
+                String kioskId = data.getString("kioskId");
+                Log.d("socket", "키오스크 " + kioskId + "에서 가장 가까운 사람 찾기 요청 수신");
+                if (listeners.isEmpty()) {
+                    Log.w(TAG, "붙은 화면이 없어 가장 가까운 사람 찾기 요청을 무시합니다");
+                }
+                for (Listener listener : listeners) {
+                    listener.onFindNearestPerson(kioskId);
+                }
+            } catch (Exception e) {
+                Log.e("socket", "가장 가까운 사람 찾기 요청 처리 오류: " + e.getMessage());
+            }
+        });
+
+        // personIds 배열로 받은 사람들의 얼굴 찾기 요청
+        socket.on("requestPersonFaceFind", args -> {
+            try {
+                JSONObject data = new JSONObject(args[0].toString());
+                JSONArray personIdsArray = data.getJSONArray("personIds");
+                List<Integer> personIdsList = new ArrayList<>();
+                for (int i = 0; i < personIdsArray.length(); i++) {
+                    personIdsList.add(personIdsArray.getInt(i));
+                }
+                if (listeners.isEmpty()) {
+                    Log.w(TAG, "붙은 화면이 없어 얼굴 찾기 요청을 무시합니다: " + personIdsList);
+                }
+                for (Listener listener : listeners) {
+                    listener.onRequestPersonFaceFind(personIdsList);
+                }
+            } catch (Exception e) {
+                Log.e("socket", "얼굴 찾기 요청 처리 오류: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 서버 요청을 받을 관찰자를 붙입니다. (액티비티 onCreate)
+     */
+    public void attach(Listener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+        Log.d(TAG, "관찰자 연결: " + listeners.size() + "개");
+    }
+
+    /**
+     * 관찰자를 뗍니다. 모델과 추적기는 그대로 유지합니다. (액티비티 onDestroy)
+     */
+    public void detach(Listener listener) {
+        listeners.remove(listener);
+        Log.d(TAG, "관찰자 해제: " + listeners.size() + "개");
+    }
+
+    /**
+     * 모델과 웹소켓을 모두 해제합니다. 이후에는 start()로 다시 로드해야 합니다.
+     * 모델 해제는 로드 스레드에서 하므로 로드 중에 호출해도 로드가 끝난 뒤 해제됩니다.
+     */
+    public synchronized void close() {
+        if (socket != null) {
+            socket.off();
+            socket.disconnect();
+            socket = null;
+        }
+        InferenceWatchdog dog = watchdog;
+        watchdog = null;
+        listeners.clear();
+        started = false;
+        readiness = new CompletableFuture<>();
+        loadExecutor.execute(() -> {
+            releaseModels();
+            if (dog != null) {
+                dog.shutdown();
+            }
+        });
+    }
+
+    /**
+     * 로드한 모델과 추적 상태를 해제합니다. (로드 스레드)
+     */
+    private void releaseModels() {
+        if (modelSlot != null) {
+            modelSlot.close(); // 빌려 간 프레임이 반납되면 로더(예열 스레드, 인터프리터)를 닫음
+            modelSlot = null;
+        }
+        // 슬롯에 들어가지 못한 로더(로드 실패)는 여기서 닫음
+        if (tfliteLoader != null && !processorLoaders.containsValue(tfliteLoader)) {
+            tfliteLoader.close();
+        }
+        if (tfliteLoaderface != null) {
+            tfliteLoaderface.close();
+        }
+        modelWarmUp = CompletableFuture.completedFuture(null);
+        tfliteLoader = null;
+        tfliteLoaderface = null;
+        faceDetector = null;
+        tracker = null;
+        productCatalog = null;
+        trackEvents.clear();
+    }
+
+    /**
+     * 추적기와 YOLO 후처리 작업 배열을 쓰는 동안 잡는 락
+     */
+    public Object getLock() {
+        return lock;
+    }
+
+    public TFLiteLoader getTfliteLoader() {
+        return tfliteLoader;
+    }
+
+    public TFLiteLoader getFaceLoader() {
+        return tfliteLoaderface;
+    }
+
+    /**
+     * 현재 YOLO 프로세서 (로드 전이거나 모델 로드 실패 시 null)
+     * 교체 후 닫힐 수 있으므로 추론에 쓰려면 acquireImageProcessor로 빌려야 합니다.
+     */
+    public YoloImageProcessor getImageProcessor() {
+        ModelSlot<YoloImageProcessor> slot = modelSlot;
+        return slot != null ? slot.get() : null;
+    }
+
+    /**
+     * 현재 YOLO 프로세서를 빌립니다. 반납(close)할 때까지 교체되어도 닫히지 않습니다. (모델이 없으면 null)
+     */
+    public ModelSlot.Lease<YoloImageProcessor> acquireImageProcessor() {
+        ModelSlot<YoloImageProcessor> slot = modelSlot;
+        return slot != null ? slot.acquire() : null;
+    }
+
+    /**
+     * 얼굴 탐지기 (로드 전이거나 모델 로드 실패 시 null)
+     */
+    public FaceDetector getFaceDetector() {
+        return faceDetector;
+    }
+
+    /**
+     * 추적 클래스 카탈로그 (로드가 끝나기 전이면 null)
+     */
+    public ProductCatalog getProductCatalog() {
+        return productCatalog;
+    }
+
+    /**
+     * 추적기 (로드가 끝나기 전이면 null)
+     */
+    public SimpleTracker getTracker() {
+        return tracker;
+    }
+
+    /**
+     * 추적 ID별 이벤트 판정 상태 (엔진이 살아 있는 동안 같은 객체)
+     */
+    public TrackEventState getTrackEvents() {
+        return trackEvents;
+    }
+
+    /**
+     * 서버 웹소켓 (생성 실패 시 null)
+     */
+    public Socket getSocket() {
+        return socket;
+    }
+
+    /**
+     * YOLO 추론 기한 감시자 (기한 초과 수, 추론 지연 p50/p99/max, 시작 전이면 null)
+     */
+    public InferenceWatchdog getWatchdog() {
+        return watchdog;
+    }
+
+    /**
+     * 로그용 한 줄 요약
+     */
+    public String summary() {
+        ModelSlot<YoloImageProcessor> slot = modelSlot;
+        YoloImageProcessor current = slot != null ? slot.get() : null;
+        InferenceWatchdog dog = watchdog;
+        return "yolo=" + (current != null ? slot.summary() + ", " + current.getInterpreterPool().summary() : "없음")
+                + (dog != null ? ", " + dog.summary() : "")
+                + ", face=" + (faceDetector != null ? "로드됨" : "없음")
+                + ", 관찰자 " + listeners.size() + "개"
+                + ", 웹소켓 " + (socket != null && socket.connected() ? "연결됨" : "끊김");
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.quantiztest;
+
+import java.util.List;
+
+/**
+ * N프레임마다 한 번만 탐지(YOLO)를 돌리고, 사이 프레임은 추적기의 속도 모델로만 박스를 옮기도록 정하는 스케줄러입니다.
+ *
+ * N은 추론 시간이 프레임 간격에서 차지하는 비율이 예산(기본 50%)을 넘지 않도록 고르고(1~maxInterval),
+ * 객체가 탐지 간격마다 박스 크기에 비해 크게 움직이면 절반으로 줄이며,
+ * 추적 객체 수가 바뀌는 등 장면이 바뀌면 안정될 때까지 매 프레임 탐지합니다.
+ * 선 통과처럼 바로 확인해야 하는 일이 생기면 requestDetection으로 다음 프레임 탐지를 요청합니다.
+ *
+ * shouldDetect는 전처리, onInference는 추론, onTracks는 추적 단계에서 호출하므로 메서드 단위로 동기화합니다.
+ */
+public class DetectionScheduler {
+    public static final int DEFAULT_MAX_INTERVAL = 4;
+    public static final float DEFAULT_INFERENCE_BUDGET = 0.5f; // 프레임 간격 중 추론에 쓸 비율
+    public static final float DEFAULT_FAST_MOTION = 0.25f;     // 탐지 간격당 박스 크기 대비 이동량
+
+    private static final float INFERENCE_SMOOTHING = 0.2f;     // 추론 시간 EWMA 가중치
+
+    private final int maxInterval;
+    private final float inferenceBudget;
+    private final float fastMotion;
+
+    private float inferenceEwmaMs;
+    private long frameIntervalMs;
+    private boolean fastMoving;
+    private boolean sceneChanged;
+    private int lastTrackCount = -1;
+
+    private int interval = 1;
+    private int framesSinceDetect;
+    private boolean detectRequested = true;
+
+    // 지표
+    private long detectedFrames;
+    private long propagatedFrames;
+    private long requestedDetections;
+
+    public DetectionScheduler() {
+        this(DEFAULT_MAX_INTERVAL, DEFAULT_INFERENCE_BUDGET, DEFAULT_FAST_MOTION);
+    }
+
+    /**
+     * @param maxInterval     탐지 간격 N의 상한 (1이면 매 프레임 탐지)
+     * @param inferenceBudget 프레임 간격 중 추론에 쓸 수 있는 비율 (0~1)
+     * @param fastMotion      탐지 간격당 이동량이 박스 짧은 변의 이 비율을 넘으면 빠른 움직임으로 봄
+     */
+    public DetectionScheduler(int maxInterval, float inferenceBudget, float fastMotion) {
+        if (maxInterval < 1 || inferenceBudget <= 0 || inferenceBudget > 1 || fastMotion <= 0) {
+            throw new IllegalArgumentException("잘못된 탐지 간격 설정: " + maxInterval + "/" + inferenceBudget + "/" + fastMotion);
+        }
+        this.maxInterval = maxInterval;
+        this.inferenceBudget = inferenceBudget;
+        this.fastMotion = fastMotion;
+    }
+
+    /**
+     * 전처리 단계: 이번 프레임에 탐지를 돌릴지 정합니다. false면 추적기 전파만 합니다.
+     */
+    public synchronized boolean shouldDetect() {
+        if (detectRequested || ++framesSinceDetect >= interval) {
+            detectRequested = false;
+            framesSinceDetect = 0;
+            detectedFrames++;
+            return true;
+        }
+        propagatedFrames++;
+        return false;
+    }
+
+    /**
+     * 전파 프레임 하나가 탐지 간격에서 차지하는 비율 (추적기 속도가 탐지 간격당 이동량이므로 1/N)
+     */
+    public synchronized float getPropagationFraction() {
+        return 1f / interval;
+    }
+
+    /**
+     * 다음 프레임은 반드시 탐지하도록 요청합니다. (선 통과, 파이프라인 재시작 등)
+     */
+    public synchronized void requestDetection() {
+        if (!detectRequested) {
+            detectRequested = true;
+            requestedDetections++;
+        }
+    }
+
+    /**
+     * 추론 단계: 한 프레임의 추론 시간(모든 패스 합)과 현재 캡처 간격을 반영합니다.
+     */
+    public synchronized void onInference(long inferenceMs, long frameIntervalMs) {
+        inferenceEwmaMs = inferenceEwmaMs == 0
+                ? inferenceMs
+                : INFERENCE_SMOOTHING * inferenceMs + (1 - INFERENCE_SMOOTHING) * inferenceEwmaMs;
+        this.frameIntervalMs = frameIntervalMs;
+        updateInterval();
+    }
+
+    /**
+     * 추적 단계: 탐지 결과로 갱신된 추적 객체로 장면 변화와 움직임 속도를 판단합니다. (전파 프레임에서는 호출하지 않음)
+     */
+    public synchronized void onTracks(List<SimpleTracker.TrackedObject> trackedObjects) {
+        int count = trackedObjects.size();
+        sceneChanged = lastTrackCount >= 0 && count != lastTrackCount;
+        lastTrackCount = count;
+
+        fastMoving = false;
+        for (SimpleTracker.TrackedObject obj : trackedObjects) {
+            float size = Math.min(obj.getRight() - obj.getLeft(), obj.getBottom() - obj.getTop());
+            float vx = obj.getVelocityX();
+            float vy = obj.getVelocityY();
+            float limit = fastMotion * size;
+            if (size > 0 && vx * vx + vy * vy > limit * limit) {
+                fastMoving = true;
+                break;
+            }
+        }
+        updateInterval();
+    }
+
+    private void updateInterval() {
+        int n = 1;
+        if (inferenceEwmaMs > 0 && frameIntervalMs > 0) {
+            n = (int) Math.ceil(inferenceEwmaMs / (frameIntervalMs * inferenceBudget));
+        }
+        n = Math.max(1, Math.min(maxInterval, n));
+        if (sceneChanged) {
+            n = 1;
+        } else if (fastMoving) {
+            n = Math.max(1, n / 2);
+        }
+        interval = n;
+    }
+
+    /**
+     * 다음 탐지까지 상태를 처음으로 되돌립니다. (파이프라인 재시작)
+     */
+    public synchronized void reset() {
+        inferenceEwmaMs = 0;
+        frameIntervalMs = 0;
+        fastMoving = false;
+        sceneChanged = false;
+        lastTrackCount = -1;
+        interval = 1;
+        framesSinceDetect = 0;
+        detectRequested = true;
+    }
+
+    /**
+     * 현재 탐지 간격 N (N프레임마다 한 번 탐지)
+     */
+    public synchronized int getInterval() {
+        return interval;
+    }
+
+    public synchronized long getDetectedFrames() {
+        return detectedFrames;
+    }
+
+    public synchronized long getPropagatedFrames() {
+        return propagatedFrames;
+    }
+
+    public int getMaxInterval() {
+        return maxInterval;
+    }
+
+    /**
+     * 로그용 한 줄 요약
+     */
+    public synchronized String summary() {
+        return String.format("N=%d 탐지=%d 전파=%d 요청=%d 추론=%.0fms%s",
+                interval, detectedFrames, propagatedFrames, requestedDetections, inferenceEwmaMs,
+                sceneChanged ? " (장면 변화)" : fastMoving ? " (빠른 움직임)" : "");
+    }
+}
@@ -2,30 +2,82 @@ package com.example.quantiztest;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.Matrix;
 import android.util.Log;
 
 import org.tensorflow.lite.Interpreter;
 
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class FaceDetector {
     private static final String TAG = "FaceDetector";
     private static final int INPUT_SIZE = 320; // 얼굴 검출 모델 입력 크기 (필요에 따라 조정)
     private static final int NUM_DETECTIONS = 100; // 최대 검출 수
+    private static final int MODEL_WIDTH = 640; // 실제 모델 입력 너비
+    private static final int MODEL_HEIGHT = 480; // 실제 모델 입력 높이
+
+    private static final int GRID_WIDTH = 80; // 출력 그리드 너비
+    private static final int GRID_HEIGHT = 60; // 출력 그리드 높이
+    private static final float SCORE_THRESHOLD = 0.8f; // 정규화된 히트맵 점수 임계값
+    private static final float NMS_IOU_THRESHOLD = 0.1f;
+
+    // 이 탐지기가 기대하는 모델 입출력 형상 (양자화 모델만 지원)
+    static final ModelSignature SIGNATURE = new ModelSignature("FaceDetLite",
+            new int[]{1, MODEL_HEIGHT, MODEL_WIDTH, 1},
+            new int[][]{
+                    {1, GRID_HEIGHT, GRID_WIDTH, 1},  // 히트맵
+                    {1, GRID_HEIGHT, GRID_WIDTH, 4},  // 박스
+                    {1, GRID_HEIGHT, GRID_WIDTH, 10}  // 랜드마크
+            },
+            false);
 
     private Interpreter interpreter;
     private Context context;
 
-    public FaceDetector(Context context, Interpreter interpreter) {
+    // 프레임마다 재사용하는 입출력 버퍼와 그레이스케일 전처리 커널
+    private final FrameContext frameContext;
+    private final ImagePreprocessor preprocessor;
+    // ImageReader YUV 프레임의 Y 평면을 그레이스케일 입력으로 바로 쓰는 커널
+    private final YuvConverter yuvConverter;
+
+    // 로드 시 만든 역양자화 테이블
+    private final DequantTable heatmapTable;
+    private final DequantTable boxTable;
+    // 히트맵 키 -> 정규화 점수 (0~1), 임계값을 넘는 가장 작은 키
+    private final float[] normalizedScores = new float[256];
+    private final int scoreThresholdKey;
+
+    // 그리드 셀 수만큼 미리 잡아 둔 NMS 엔진과 결과 인덱스 배열
+    private final NmsEngine nmsEngine = new NmsEngine(GRID_WIDTH * GRID_HEIGHT, NMS_IOU_THRESHOLD);
+    private final int[] keptIndices = new int[GRID_WIDTH * GRID_HEIGHT];
+
+    public FaceDetector(Context context, Interpreter interpreter, ModelBinding binding) {
         this.context = context;
         this.interpreter = interpreter;
+        this.frameContext = binding.createFrameContext();
+        this.preprocessor = new ImagePreprocessor(MODEL_WIDTH, MODEL_HEIGHT, 1,
+                ImagePreprocessor.Interpolation.NEAREST, ResizeTransform.Mode.STRETCH, 0,
+                binding.getInputEncoding());
+        this.yuvConverter = new YuvConverter(MODEL_WIDTH, MODEL_HEIGHT, 1,
+                ResizeTransform.Mode.STRETCH, 0, binding.getInputEncoding());
+
+        // 양자화 파라미터는 ModelBinding이 로드 때 검증 (없는 모델은 로드 단계에서 거부됨)
+        this.heatmapTable = binding.getOutput(0).createDequantTable(Float.POSITIVE_INFINITY);
+        this.boxTable = binding.getOutput(1).createDequantTable(Float.POSITIVE_INFINITY);
+
+        float minScore = heatmapTable.valueAtKey(0);
+        float maxScore = heatmapTable.valueAtKey(255);
+        int thresholdKey = 256;
+        for (int key = 0; key < 256; key++) {
+            normalizedScores[key] = (heatmapTable.valueAtKey(key) - minScore) / (maxScore - minScore);
+            if (thresholdKey == 256 && normalizedScores[key] > SCORE_THRESHOLD) {
+                thresholdKey = key;
+            }
+        }
+        this.scoreThresholdKey = thresholdKey;
+        Log.d(TAG, "히트맵 스케일: " + heatmapTable.getScale() + ", 제로포인트: " + heatmapTable.getZeroPoint()
+                + ", 박스 스케일: " + boxTable.getScale() + ", 제로포인트: " + boxTable.getZeroPoint());
     }
 
     /**
@@ -35,133 +87,78 @@ public class FaceDetector {
      */
 
     public List<Face> detectFaces(Bitmap bitmap) {
-        // 텐서 정보 출력
-        Log.d(TAG, "입력 텐서 수: " + interpreter.getInputTensorCount());
-        Log.d(TAG, "출력 텐서 수: " + interpreter.getOutputTensorCount());
-
-        for (int i = 0; i < interpreter.getOutputTensorCount(); i++) {
-            Log.d(TAG, "출력 텐서 #" + i + " 타입: " + interpreter.getOutputTensor(i).dataType());
-            Log.d(TAG, "출력 텐서 #" + i + " 형상: " + java.util.Arrays.toString(interpreter.getOutputTensor(i).shape()));
-        }
-
-        // 입력 이미지 준비
-        Bitmap resizedBitmap = resizeBitmap(bitmap, 640, 480);
-
-        // 양자화된 모델용 UINT8 입력 버퍼 준비
-        ByteBuffer inputBuffer = ByteBuffer.allocateDirect(1 * 480 * 640);
-        inputBuffer.order(ByteOrder.nativeOrder());
-
-        int[] pixels = new int[480 * 640];
-        resizedBitmap.getPixels(pixels, 0, 640, 0, 0, 640, 480);
+        // 입력 이미지 준비 - 원본 픽셀을 그레이스케일 입력 버퍼로 바로 리사이즈/패킹
+        int srcWidth = bitmap.getWidth();
+        int srcHeight = bitmap.getHeight();
+        int[] sourcePixels = frameContext.getSourcePixels(srcWidth, srcHeight);
+        bitmap.getPixels(sourcePixels, 0, srcWidth, 0, 0, srcWidth, srcHeight);
+        preprocessor.configure(srcWidth, srcHeight);
+        preprocessor.pack(sourcePixels, srcWidth, frameContext.getInputBuffer());
+        return runAndDecode(srcWidth, srcHeight);
+    }
 
-        for (int i = 0; i < 480 * 640; ++i) {
-            int pixel = pixels[i];
-            int r = (pixel >> 16) & 0xFF;
-            int g = (pixel >> 8) & 0xFF;
-            int b = pixel & 0xFF;
-            int gray = (r + g + b) / 3;
-            inputBuffer.put((byte) gray);
-        }
-        inputBuffer.rewind(); // 버퍼 위치를 처음으로 되돌림
+    /**
+     * ImageReader YUV 프레임에서 얼굴 탐지를 수행합니다. Y 평면을 회전/리사이즈해 바로 입력으로 씁니다.
+     * @return 회전 후 영상 좌표 기준의 얼굴 목록
+     */
+    public List<Face> detectFaces(YuvFrame frame) {
+        yuvConverter.pack(frame, frameContext.getInputBuffer());
+        return runAndDecode(frame.getUprightWidth(), frame.getUprightHeight());
+    }
 
+    /**
+     * 입력 버퍼가 채워진 상태에서 모델을 실행하고 원본 크기 기준 얼굴 박스로 디코딩합니다.
+     */
+    private List<Face> runAndDecode(int srcWidth, int srcHeight) {
         try {
-            Log.d(TAG, "모델 입력 텐서 타입: " + interpreter.getInputTensor(0).dataType());
-            Log.d(TAG, "모델 입력 텐서 형상: " + java.util.Arrays.toString(interpreter.getInputTensor(0).shape()));
-
-            // 모델의 실제 출력 형식에 맞게 출력 버퍼 준비 - 마지막 차원 추가
-            byte[][][][] outputHeatmap = new byte[1][60][80][1];  // 출력 텐서 #0: [1, 60, 80, 1]
-            byte[][][][] outputBoxes = new byte[1][60][80][4];    // 출력 텐서 #1: [1, 60, 80, 4]
-            byte[][][][] outputLandmarks = new byte[1][60][80][10]; // 출력 텐서 #2: [1, 60, 80, 10]
-
-            // 모델 실행을 위한 입출력 매핑
-            Map<Integer, Object> outputs = new HashMap<>();
-            outputs.put(0, outputHeatmap);
-            outputs.put(1, outputBoxes);
-            outputs.put(2, outputLandmarks);
+            // 출력 텐서 #0: [1, 60, 80, 1], #1: [1, 60, 80, 4] (바인딩 시 할당된 flat 버퍼를 오프셋으로 읽음)
+            ByteBuffer outputHeatmap = frameContext.getOutput(0);
+            ByteBuffer outputBoxes = frameContext.getOutput(1);
 
+            frameContext.rewindOutputs();
             long startTime = System.currentTimeMillis();
-            interpreter.runForMultipleInputsOutputs(new Object[]{inputBuffer}, outputs);
+            interpreter.runForMultipleInputsOutputs(frameContext.getInputs(), frameContext.getOutputs());
             long endTime = System.currentTimeMillis();
             Log.d(TAG, "얼굴 탐지 추론 시간: " + (endTime - startTime) + "ms");
 
-            // 히트맵 및 박스 양자화 파라미터
-            float heatmapScale = interpreter.getOutputTensor(0).quantizationParams().getScale();
-            int heatmapZeroPoint = interpreter.getOutputTensor(0).quantizationParams().getZeroPoint();
-            float boxScale = interpreter.getOutputTensor(1).quantizationParams().getScale();
-            int boxZeroPoint = interpreter.getOutputTensor(1).quantizationParams().getZeroPoint();
-            Log.d(TAG, "heatmapScale : "+ heatmapScale);
-            Log.d(TAG, "heatmapZeroPoint : "+ heatmapZeroPoint);
-            Log.d(TAG, "boxScale : "+ boxScale);
-            Log.d(TAG, "boxZeroPoint : "+ boxZeroPoint);
-
-
-            if (heatmapScale == 0 || Float.isNaN(heatmapScale)) {
-                heatmapScale = 0.01f;
-                heatmapZeroPoint = 0;
-            }
-
-            if (boxScale == 0 || Float.isNaN(boxScale)) {
-                boxScale = 0.01f;
-                boxZeroPoint = 0;
-            }
-
-            Log.d(TAG, "heatmapScale : "+ heatmapScale);
-            Log.d(TAG, "heatmapZeroPoint : "+ heatmapZeroPoint);
-            Log.d(TAG, "boxScale : "+ boxScale);
-            Log.d(TAG, "boxZeroPoint : "+ boxZeroPoint);
-
-
-            // 얼굴 탐지 결과를 저장할 리스트
-            List<Face> allFaces = new ArrayList<>();
-            float confidenceThreshold = 0.1f;
-
-            // 히트맵 기반 얼굴 검출 부분 수정
-            for (int y = 0; y < 60; y++) {
-                for (int x = 0; x < 80; x++) {
-                    // 히트맵 원시 값
-                      //
-                    float rawValue = outputHeatmap[0][y][x][0] & 0xFF;
-                    float score = (rawValue - heatmapZeroPoint) * heatmapScale;
+            // 후보 박스는 NMS 엔진의 기본형 배열에 바로 기록
+            nmsEngine.clear();
 
-                    float minScore = (0 - heatmapZeroPoint) * heatmapScale;
-                    float maxScore = (255 - heatmapZeroPoint) * heatmapScale;
+            // 히트맵 기반 얼굴 검출 - 정규화 점수 임계값을 키 비교로 판정
+            for (int y = 0; y < GRID_HEIGHT; y++) {
+                for (int x = 0; x < GRID_WIDTH; x++) {
+                    int cell = y * GRID_WIDTH + x;
+                    int key = heatmapTable.key(outputHeatmap.get(cell));
+                    if (key >= scoreThresholdKey) {
+                        float normalizedScore = normalizedScores[key];
 
-                    float normalizedScore = (score - minScore) / (maxScore - minScore);
-
-//                    float score = (rawValue - heatmapZeroPoint) * heatmapScale;
-
-                    // Log.d(TAG, "rawValue : "+ rawValue + " -> score : "+score + "normalizedScore : "+normalizedScore);
-                    // 신뢰도 계산 - 원시 값이 heatmapZeroPoint보다 큰 경우만 고려
-                    if (normalizedScore > 0.8) {
                         // 박스 오프셋 구하기
-                        float offsetX = ((outputBoxes[0][y][x][0] & 0xFF) - boxZeroPoint) * boxScale;
-                        float offsetY = ((outputBoxes[0][y][x][1] & 0xFF) - boxZeroPoint) * boxScale;
-                        float offsetW = ((outputBoxes[0][y][x][2] & 0xFF) - boxZeroPoint) * boxScale;
-                        float offsetH = ((outputBoxes[0][y][x][3] & 0xFF) - boxZeroPoint) * boxScale;
+                        int boxOffset = cell * 4;
+                        float offsetW = boxTable.get(outputBoxes.get(boxOffset + 2));
+                        float offsetH = boxTable.get(outputBoxes.get(boxOffset + 3));
 
                         // 중심점 계산 (그리드 위치 + 오프셋)
-                        float centerX = x/80.f;  // 그리드 위치를 0-1 범위로 정규화
-                        float centerY = y/60.f;
+                        float centerX = x / (float) GRID_WIDTH;  // 그리드 위치를 0-1 범위로 정규화
+                        float centerY = y / (float) GRID_HEIGHT;
 
                         // 너비와 높이 계산
-                        float width = offsetW / 80.0f;  // 너비도 0-1 범위로 정규화
-                        float height = offsetH / 60.0f;
+                        float width = offsetW / GRID_WIDTH;  // 너비도 0-1 범위로 정규화
+                        float height = offsetH / GRID_HEIGHT;
 
 
                         // 너비와 높이 계산
-                        float realwidth = width*bitmap.getWidth(); // 너비도 0-1 범위로 정규화
-                        float realheight = height * bitmap.getHeight();
+                        float realwidth = width*srcWidth; // 너비도 0-1 범위로 정규화
+                        float realheight = height * srcHeight;
 
 
-                        float left = Math.max(0, centerX - width/2) * bitmap.getWidth()    - (realwidth*0.7f);
-                        float top = Math.max(0, centerY - height/2) * bitmap.getHeight() - (realheight*0.7f);
-                        float right = Math.min(1, centerX + width/2) * bitmap.getWidth()+ (realwidth*0.7f);
-                        float bottom = Math.min(1, centerY + height/2) * bitmap.getHeight()+ (realheight*0.7f);
+                        float left = Math.max(0, centerX - width/2) * srcWidth    - (realwidth*0.7f);
+                        float top = Math.max(0, centerY - height/2) * srcHeight - (realheight*0.7f);
+                        float right = Math.min(1, centerX + width/2) * srcWidth+ (realwidth*0.7f);
+                        float bottom = Math.min(1, centerY + height/2) * srcHeight+ (realheight*0.7f);
 
                         // 박스가 유효한지 확인
                         if (right > left && bottom > top) {
-                            Face face = new Face(normalizedScore, left, top, right, bottom);
-                            allFaces.add(face);
+                            nmsEngine.add(0, normalizedScore, left, top, right, bottom);
                             Log.d(TAG, "얼굴 탐지: 신뢰도=" + normalizedScore + ", 좌표=" + left + "," + top + "," + right + "," + bottom);
                         }
                     }
@@ -170,95 +167,22 @@ public class FaceDetector {
 
 
 
-            // 중복 제거
-            return applyNMS(allFaces, 0.1f);
+            // 중복 제거 - 남은 후보만 Face 객체로 만듦
+            int kept = nmsEngine.run(keptIndices);
+            List<Face> faces = new ArrayList<>(kept);
+            for (int k = 0; k < kept; k++) {
+                int i = keptIndices[k];
+                faces.add(new Face(nmsEngine.getScore(i), nmsEngine.getLeft(i), nmsEngine.getTop(i),
+                        nmsEngine.getRight(i), nmsEngine.getBottom(i)));
+            }
+            Log.d(TAG, "NMS 적용 전 얼굴 수: " + nmsEngine.size() + ", 적용 후: " + kept);
+            return faces;
 
         } catch (Exception e) {
             Log.e(TAG, "모델 실행 중 오류 발생: " + e.getMessage(), e);
             e.printStackTrace();
             return new ArrayList<>();
-        } finally {
-            // 리사이즈된 비트맵 메모리 해제
-            if (resizedBitmap != null && resizedBitmap != bitmap) {
-                resizedBitmap.recycle();
-            }
-        }
-    }
-
-
-
-    /**
-     * 중복 탐지 제거를 위한 NMS 적용
-     */
-    private List<Face> applyNMS(List<Face> faces, float iouThreshold) {
-        if (faces.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        // 신뢰도 기준으로 내림차순 정렬
-        List<Face> sortedFaces = new ArrayList<>(faces);
-        Collections.sort(sortedFaces, (f1, f2) -> Float.compare(f2.getConfidence(), f1.getConfidence()));
-
-        List<Face> selectedFaces = new ArrayList<>();
-        boolean[] isRemoved = new boolean[sortedFaces.size()];
-
-        for (int i = 0; i < sortedFaces.size(); i++) {
-            if (isRemoved[i]) continue;
-
-            Face current = sortedFaces.get(i);
-            selectedFaces.add(current);
-
-            for (int j = i + 1; j < sortedFaces.size(); j++) {
-                if (isRemoved[j]) continue;
-
-                Face next = sortedFaces.get(j);
-
-                // IoU 계산
-                float iou = calculateIoU(current, next);
-
-                // IoU가 임계값보다 크면 중복으로 간주하고 제거
-                if (iou > iouThreshold) {
-                    isRemoved[j] = true;
-                }
-            }
         }
-
-        Log.d(TAG, "NMS 적용 전 얼굴 수: " + faces.size() + ", 적용 후: " + selectedFaces.size());
-        return selectedFaces;
-    }
-
-    /**
-     * 두 바운딩 박스 간의 IoU(Intersection over Union)를 계산합니다.
-     */
-    private float calculateIoU(Face f1, Face f2) {
-        // 겹치는 영역 계산
-        float xLeft = Math.max(f1.getLeft(), f2.getLeft());
-        float yTop = Math.max(f1.getTop(), f2.getTop());
-        float xRight = Math.min(f1.getRight(), f2.getRight());
-        float yBottom = Math.min(f1.getBottom(), f2.getBottom());
-
-        // 겹치는 영역이 없으면 0 반환
-        if (xRight < xLeft || yBottom < yTop) return 0;
-
-        float intersectionArea = (xRight - xLeft) * (yBottom - yTop);
-
-        // 각 바운딩 박스의 면적 계산
-        float f1Area = (f1.getRight() - f1.getLeft()) * (f1.getBottom() - f1.getTop());
-        float f2Area = (f2.getRight() - f2.getLeft()) * (f2.getBottom() - f2.getTop());
-
-        // IoU 계산
-        return intersectionArea / (f1Area + f2Area - intersectionArea);
-    }
-
-    /**
-     * 비트맵을 지정된 크기로 리사이즈합니다.
-     */
-    private Bitmap resizeBitmap(Bitmap bitmap, int width, int height) {
-        float scaleWidth = ((float) width) / bitmap.getWidth();
-        float scaleHeight = ((float) height) / bitmap.getHeight();
-        Matrix matrix = new Matrix();
-        matrix.postScale(scaleWidth, scaleHeight);
-        return Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, false);
     }
 
     /**
@@ -0,0 +1,54 @@
+package com.example.quantiztest;
+
+import java.nio.ByteBuffer;
+
+/**
+ * FLOAT32 YOLONas 출력을 해석하는 디코더입니다.
+ * 출력 버퍼는 ModelBinding.createFrameContext()가 할당한 네이티브 순서 ByteBuffer이며, 4바이트 단위 오프셋으로 읽습니다.
+ */
+public class FloatDecoder implements YoloDecoder {
+    private final float confidenceThreshold;
+
+    public FloatDecoder(float confidenceThreshold) {
+        this.confidenceThreshold = confidenceThreshold;
+    }
+
+    @Override
+    public int selectCandidates(FrameContext ctx, int[] outIndices) {
+        ByteBuffer scores = ctx.getOutput(1);
+        int count = scores.capacity() / 4;
+        float threshold = confidenceThreshold;
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            if (scores.getFloat(i * 4) > threshold) {
+                outIndices[found++] = i;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public float score(FrameContext ctx, int anchor) {
+        return Math.min(ctx.getOutput(1).getFloat(anchor * 4), 1.0f);
+    }
+
+    @Override
+    public int classIndex(FrameContext ctx, int anchor) {
+        return (int) ctx.getOutput(2).getFloat(anchor * 4);
+    }
+
+    @Override
+    public void box(FrameContext ctx, int anchor, float[] out) {
+        ByteBuffer boxes = ctx.getOutput(0);
+        int offset = anchor * 16;
+        out[0] = boxes.getFloat(offset);
+        out[1] = boxes.getFloat(offset + 4);
+        out[2] = boxes.getFloat(offset + 8);
+        out[3] = boxes.getFloat(offset + 12);
+    }
+
+    @Override
+    public float getConfidenceThreshold() {
+        return confidenceThreshold;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.quantiztest;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 한 모델의 프레임 처리에 필요한 입출력 버퍼를 묶어 재사용하는 클래스입니다.
+ * 모델 형상마다 한 번만 할당하고, 이후 프레임에서는 같은 버퍼를 다시 채워서 사용합니다.
+ */
+public class FrameContext {
+    private final int inputWidth;
+    private final int inputHeight;
+    private final int channels;
+    private final int bytesPerElement;
+
+    // 모델 입력 버퍼 (NHWC, 요소 타입은 모델에 따라 UINT8/INT8/FLOAT32)
+    private final ByteBuffer inputBuffer;
+    private final Object[] inputs;
+
+    // 원본 프레임의 ARGB 픽셀 (원본 해상도가 커질 때만 다시 할당)
+    private int[] sourcePixels = new int[0];
+
+    // 모델 출력 인덱스 -> 출력 버퍼 (네이티브 바이트 순서의 direct 버퍼, 오프셋으로 읽음)
+    private final Map<Integer, Object> outputs = new HashMap<>();
+    private ByteBuffer[] outputBuffers = new ByteBuffer[0];
+
+    public FrameContext(int inputWidth, int inputHeight, int channels) {
+        this(inputWidth, inputHeight, channels, 1);
+    }
+
+    /**
+     * @param bytesPerElement 입력 요소 하나의 바이트 수 (UINT8/INT8은 1, FLOAT32는 4)
+     */
+    public FrameContext(int inputWidth, int inputHeight, int channels, int bytesPerElement) {
+        if (channels != 1 && channels != 3) {
+            throw new IllegalArgumentException("지원하지 않는 채널 수: " + channels);
+        }
+        this.inputWidth = inputWidth;
+        this.inputHeight = inputHeight;
+        this.channels = channels;
+        this.bytesPerElement = bytesPerElement;
+
+        this.inputBuffer = ByteBuffer.allocateDirect(inputWidth * inputHeight * channels * bytesPerElement);
+        this.inputBuffer.order(ByteOrder.nativeOrder());
+        this.inputs = new Object[]{inputBuffer};
+    }
+
+    /**
+     * 출력 버퍼를 등록합니다. 컨텍스트를 만들 때 한 번만 호출합니다.
+     */
+    public void putOutput(int index, ByteBuffer buffer) {
+        outputs.put(index, buffer);
+        if (index >= outputBuffers.length) {
+            outputBuffers = java.util.Arrays.copyOf(outputBuffers, index + 1);
+        }
+        outputBuffers[index] = buffer;
+    }
+
+    /**
+     * 추론 직전에 호출합니다. 인터프리터가 출력을 복사하면서 버퍼 위치를 옮기므로 처음으로 되돌립니다.
+     */
+    public void rewindOutputs() {
+        for (ByteBuffer buffer : outputBuffers) {
+            if (buffer != null) {
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * 원본 프레임 픽셀을 담을 배열을 반환합니다.
+     * 같은 해상도의 프레임이 계속 들어오면 같은 배열을 재사용합니다.
+     */
+    public int[] getSourcePixels(int width, int height) {
+        int required = width * height;
+        if (sourcePixels.length < required) {
+            sourcePixels = new int[required];
+        }
+        return sourcePixels;
+    }
+
+    public int getInputWidth() {
+        return inputWidth;
+    }
+
+    public int getInputHeight() {
+        return inputHeight;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public int getBytesPerElement() {
+        return bytesPerElement;
+    }
+
+    public ByteBuffer getInputBuffer() {
+        return inputBuffer;
+    }
+
+    /**
+     * runForMultipleInputsOutputs에 그대로 전달할 입력 배열
+     */
+    public Object[] getInputs() {
+        return inputs;
+    }
+
+    public ByteBuffer getOutput(int index) {
+        return outputBuffers[index];
+    }
+
+    /**
+     * runForMultipleInputsOutputs에 그대로 전달할 출력 맵
+     */
+    public Map<Integer, Object> getOutputs() {
+        return outputs;
+    }
+}
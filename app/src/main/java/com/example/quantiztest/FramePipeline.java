@@ -0,0 +1,448 @@
+package com.example.quantiztest;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 카메라 프레임을 캡처 -> 전처리 -> 추론 -> 후처리/NMS -> 추적 -> 이벤트 -> 게시 순서로 흘려보내는 단계별 파이프라인입니다.
+ * 단계마다 전용 스레드가 있고 단계 사이는 고정 크기 SpscQueue로 이어지므로,
+ * 프레임 N을 추론하는 동안 프레임 N+1을 전처리할 수 있습니다.
+ * 큐가 가득 차면 설정된 정책으로 프레임을 버리며, 버려지거나 끝까지 처리된 프레임은 recycler로 돌려줍니다.
+ * 병렬 단계(addParallelStage)는 작업 스레드 여러 개가 프레임을 동시에 처리하고,
+ * 재정렬 버퍼로 들어온 순서를 되살려 다음 단계에 넘깁니다.
+ *
+ * @param <T> 단계 사이를 오가는 프레임 작업 객체 (단계는 같은 객체를 채워 다음 단계로 넘김)
+ */
+public class FramePipeline<T> {
+    private static final String TAG = "FramePipeline";
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final long JOIN_TIMEOUT_MS = 1000;
+
+    /**
+     * 파이프라인 한 단계의 처리 로직
+     */
+    public interface Stage<T> {
+        /**
+         * @return 다음 단계로 넘기려면 true, 이 프레임을 여기서 끝내려면 false
+         */
+        boolean process(T frame) throws Exception;
+    }
+
+    /**
+     * 처리가 끝났거나 버려진 프레임을 돌려받는 콜백 (프레임 풀 반납용)
+     */
+    public interface Recycler<T> {
+        void recycle(T frame);
+    }
+
+    private final String name;
+    private final int queueCapacity;
+    private final SpscQueue.DropPolicy dropPolicy;
+    private final Recycler<T> recycler;
+    private final SpscQueue.DropListener<T> dropListener;
+    private final List<StageRunner> stages = new ArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * @param queueCapacity 단계 앞 큐의 최대 대기 프레임 수
+     * @param dropPolicy 큐가 가득 찼을 때 버릴 프레임
+     * @param recycler 끝난/버려진 프레임을 받을 콜백 (null 가능)
+     */
+    public FramePipeline(String name, int queueCapacity, SpscQueue.DropPolicy dropPolicy, Recycler<T> recycler) {
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.dropPolicy = dropPolicy;
+        this.recycler = recycler;
+        this.dropListener = this::finish;
+    }
+
+    /**
+     * 단계를 추가합니다. start 전에만 호출할 수 있습니다.
+     */
+    public FramePipeline<T> addStage(String stageName, Stage<T> stage) {
+        if (running) {
+            throw new IllegalStateException("실행 중인 파이프라인에는 단계를 추가할 수 없습니다");
+        }
+        stages.add(new StageRunner(stageName, stage, new SpscQueue<T>(queueCapacity, dropPolicy), 1));
+        return this;
+    }
+
+    /**
+     * 작업 스레드 workers개가 프레임을 동시에 처리하는 단계를 추가합니다. start 전에만 호출할 수 있습니다.
+     * 단계 로직은 여러 스레드에서 동시에 호출되므로 스레드 안전해야 하며, 결과는 들어온 순서대로 다음 단계에 넘어갑니다.
+     * workers가 1이면 addStage와 같습니다.
+     */
+    public FramePipeline<T> addParallelStage(String stageName, int workers, Stage<T> stage) {
+        if (running) {
+            throw new IllegalStateException("실행 중인 파이프라인에는 단계를 추가할 수 없습니다");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("작업 스레드 수는 1 이상이어야 합니다: " + workers);
+        }
+        stages.add(new StageRunner(stageName, stage, new SpscQueue<T>(queueCapacity, dropPolicy), workers));
+        return this;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        if (stages.isEmpty()) {
+            throw new IllegalStateException("단계가 없습니다");
+        }
+        running = true;
+        for (int i = 0; i < stages.size(); i++) {
+            StageRunner runner = stages.get(i);
+            runner.next = i + 1 < stages.size() ? stages.get(i + 1) : null;
+            runner.thread = new Thread(runner, name + "-" + runner.name);
+            runner.thread.start();
+            for (int w = 0; w < runner.workers.size(); w++) {
+                Worker worker = runner.workers.get(w);
+                worker.thread = new Thread(worker, name + "-" + runner.name + "-" + w);
+                worker.thread.start();
+            }
+        }
+    }
+
+    /**
+     * 모든 단계 스레드를 멈추고 대기 중인 프레임을 반납합니다.
+     * 인터럽트에 반응하지 않는 처리(추론 등)가 JOIN_TIMEOUT_MS 안에 끝나지 않으면 기다리지 않고 돌아오며,
+     * 그 프레임은 처리가 끝난 스레드가 다음 큐에 넣지 않고 바로 반납합니다.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (StageRunner runner : stages) {
+            runner.thread.interrupt();
+            for (Worker worker : runner.workers) {
+                worker.thread.interrupt();
+            }
+        }
+        for (StageRunner runner : stages) {
+            join(runner.thread);
+            for (Worker worker : runner.workers) {
+                join(worker.thread);
+            }
+        }
+        // 앞 단계가 마지막으로 넘긴 프레임까지 반납되도록 모든 스레드가 끝난 뒤 비움
+        for (StageRunner runner : stages) {
+            runner.queue.drain(dropListener);
+            runner.drainWorkers();
+        }
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join(JOIN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 첫 단계에 프레임을 넣습니다. 캡처 스레드 하나에서만 호출해야 합니다.
+     *
+     * @return 큐에 들어갔으면 true (실행 중이 아니거나 DROP_NEWEST로 거부되면 false, 프레임은 반납됨)
+     */
+    public boolean submit(T frame) {
+        if (!running) {
+            finish(frame);
+            return false;
+        }
+        return stages.get(0).queue.offer(frame, dropListener);
+    }
+
+    private void finish(T frame) {
+        if (recycler != null) {
+            recycler.recycle(frame);
+        }
+    }
+
+    /**
+     * 단계별 큐 깊이/버림/처리 통계의 스냅샷
+     */
+    public List<StageStats> getStats() {
+        List<StageStats> stats = new ArrayList<>(stages.size());
+        for (StageRunner runner : stages) {
+            stats.add(new StageStats(runner));
+        }
+        return Collections.unmodifiableList(stats);
+    }
+
+    public String statsSummary() {
+        StringBuilder builder = new StringBuilder();
+        for (StageStats stats : getStats()) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(stats);
+        }
+        return builder.toString();
+    }
+
+    private class StageRunner implements Runnable {
+        final String name;
+        final Stage<T> stage;
+        final SpscQueue<T> queue;
+        StageRunner next;
+        Thread thread;
+
+        // 병렬 단계의 작업 스레드와 재정렬 버퍼 (순차 단계는 비어 있음/null)
+        // 티켓은 재정렬 버퍼에서 내보낼 때 반납하므로, 느린 프레임 뒤에 쌓이는 프레임도 작업 스레드 수를 넘지 않음
+        final List<Worker> workers = new ArrayList<>();
+        final BlockingQueue<Worker> idleWorkers;
+        final Semaphore inFlight;
+        final ReorderBuffer<T> reorder;
+        final ReorderBuffer.Sink<T> reorderSink;
+        long nextTicket; // 이 단계 스레드만 씀
+
+        // 관측용 카운터 (순차 단계는 이 단계 스레드만, 병렬 단계는 재정렬 버퍼 잠금 안에서만 씀)
+        volatile long processedCount;
+        volatile long rejectedCount;
+        volatile long failedCount;
+        volatile long totalNanos;
+
+        StageRunner(String name, Stage<T> stage, SpscQueue<T> queue, int workerCount) {
+            this.name = name;
+            this.stage = stage;
+            this.queue = queue;
+            if (workerCount > 1) {
+                for (int i = 0; i < workerCount; i++) {
+                    workers.add(new Worker(this));
+                }
+                this.idleWorkers = new ArrayBlockingQueue<>(workerCount, false, workers);
+                this.inFlight = new Semaphore(workerCount);
+                this.reorder = new ReorderBuffer<>(workerCount);
+                this.reorderSink = (frame, forward) -> {
+                    forward(frame, forward);
+                    inFlight.release();
+                };
+            } else {
+                this.idleWorkers = null;
+                this.inFlight = null;
+                this.reorder = null;
+                this.reorderSink = null;
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                T frame = queue.poll(POLL_TIMEOUT_MS);
+                if (frame == null) {
+                    continue;
+                }
+                if (reorder != null) {
+                    dispatch(frame);
+                    continue;
+                }
+                long start = System.nanoTime();
+                boolean forward = process(frame);
+                totalNanos += System.nanoTime() - start;
+                forward(frame, forward);
+            }
+        }
+
+        /**
+         * 병렬 단계: 티켓과 쉬는 작업 스레드가 생길 때까지 기다렸다가 순서 번호와 함께 넘깁니다.
+         */
+        private void dispatch(T frame) {
+            Worker worker;
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                finish(frame); // 중지 중
+                return;
+            }
+            try {
+                worker = idleWorkers.take();
+            } catch (InterruptedException e) {
+                inFlight.release();
+                finish(frame);
+                return;
+            }
+            worker.ticket = nextTicket++;
+            worker.inbox.offer(frame, dropListener);
+        }
+
+        boolean process(T frame) {
+            try {
+                return stage.process(frame);
+            } catch (Exception e) {
+                Log.e(TAG, name + " 단계 처리 중 오류: " + e.getMessage(), e);
+                if (reorder == null) {
+                    failedCount++;
+                } else {
+                    synchronized (reorder) {
+                        failedCount++;
+                    }
+                }
+                return false;
+            }
+        }
+
+        /**
+         * 처리한 프레임을 다음 단계로 넘기거나 끝냅니다. (병렬 단계는 재정렬 버퍼가 순서대로 호출)
+         */
+        void forward(T frame, boolean forward) {
+            processedCount++;
+            if (!forward) {
+                rejectedCount++;
+                finish(frame);
+            } else if (next != null && running) {
+                // 중지된 뒤에 끝난 프레임은 이미 비운 큐에 넣지 않고 바로 반납
+                next.queue.offer(frame, dropListener);
+            } else {
+                finish(frame);
+            }
+        }
+
+        /**
+         * 작업 스레드에 넘겼거나 재정렬을 기다리던 프레임을 반납합니다. (모든 스레드가 끝난 뒤 호출)
+         */
+        void drainWorkers() {
+            if (reorder == null) {
+                return;
+            }
+            for (Worker worker : workers) {
+                worker.inbox.drain(dropListener);
+            }
+            reorder.drain((frame, forward) -> finish(frame));
+            idleWorkers.clear();
+            idleWorkers.addAll(workers);
+            inFlight.drainPermits();
+            inFlight.release(workers.size());
+            nextTicket = 0;
+        }
+    }
+
+    /**
+     * 병렬 단계의 작업 스레드 하나 (단계 스레드가 한 번에 프레임 하나씩 넘김)
+     */
+    private class Worker implements Runnable {
+        final StageRunner runner;
+        final SpscQueue<T> inbox = new SpscQueue<>(1, SpscQueue.DropPolicy.DROP_NEWEST);
+        volatile long ticket;
+        Thread thread;
+
+        Worker(StageRunner runner) {
+            this.runner = runner;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                T frame = inbox.poll(POLL_TIMEOUT_MS);
+                if (frame == null) {
+                    continue;
+                }
+                long frameTicket = ticket;
+                long start = System.nanoTime();
+                boolean forward = runner.process(frame);
+                long elapsed = System.nanoTime() - start;
+                if (!running) {
+                    // 중지된 뒤에 끝난 프레임은 앞 순번이 다시 오지 않으므로 재정렬 버퍼에 넣지 않고 바로 반납
+                    finish(frame);
+                    continue;
+                }
+                runner.reorder.put(frameTicket, frame, forward, runner.reorderSink);
+                synchronized (runner.reorder) {
+                    runner.totalNanos += elapsed;
+                }
+                runner.idleWorkers.offer(this);
+            }
+        }
+    }
+
+    /**
+     * 한 단계의 통계 스냅샷
+     */
+    public static class StageStats {
+        private final String name;
+        private final int queueDepth;
+        private final int maxQueueDepth;
+        private final long droppedCount;
+        private final long processedCount;
+        private final long rejectedCount;
+        private final long failedCount;
+        private final float averageMillis;
+        private final int workers;
+        private final long reorderedCount;
+
+        private StageStats(FramePipeline<?>.StageRunner runner) {
+            this.name = runner.name;
+            this.queueDepth = runner.queue.size();
+            this.maxQueueDepth = runner.queue.getMaxDepth();
+            this.droppedCount = runner.queue.getDroppedCount();
+            this.processedCount = runner.processedCount;
+            this.rejectedCount = runner.rejectedCount;
+            this.failedCount = runner.failedCount;
+            this.averageMillis = processedCount > 0 ? runner.totalNanos / 1e6f / processedCount : 0f;
+            this.workers = Math.max(1, runner.workers.size());
+            this.reorderedCount = runner.reorder != null ? runner.reorder.getReorderedCount() : 0;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public int getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        public long getProcessedCount() {
+            return processedCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        public float getAverageMillis() {
+            return averageMillis;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        /**
+         * 병렬 단계에서 앞 프레임보다 먼저 끝나 순서를 기다린 프레임 수
+         */
+        public long getReorderedCount() {
+            return reorderedCount;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{depth=" + queueDepth + "/" + maxQueueDepth + ", dropped=" + droppedCount
+                    + ", processed=" + processedCount + ", rejected=" + rejectedCount
+                    + String.format(", avg=%.1fms", averageMillis)
+                    + (workers > 1 ? ", workers=" + workers + ", reordered=" + reorderedCount : "") + "}";
+        }
+    }
+}
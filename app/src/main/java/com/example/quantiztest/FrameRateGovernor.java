@@ -0,0 +1,185 @@
+package com.example.quantiztest;
+
+/**
+ * 탐지 파이프라인에 프레임을 넣는 간격을 정하는 적응형 프레임레이트 조절기입니다.
+ * 게시 단계에서 프레임마다 캡처~게시 지연, CPU 사용률, 장면 활동(정지/움직임/선 통과)을 받아
+ * 설정된 범위(minFps~maxFps) 안에서 처리 속도를 고르고, 고른 속도와 이유를 지표로 제공합니다.
+ *
+ * 활동이 생기면 바로 올리고, 장면이 조용해지면 유지 시간이 지난 뒤 조금씩 내립니다.
+ * 지연이나 CPU가 한계에 가까우면 활동과 관계없이 상한을 둡니다.
+ */
+public class FrameRateGovernor {
+
+    /**
+     * 게시된 프레임에서 관측한 장면 활동
+     */
+    public enum Activity {
+        IDLE,     // 움직이는 객체 없음
+        MOVING,   // 추적 객체가 움직이는 중
+        CROSSING  // 상품이 가상 선을 통과함
+    }
+
+    /**
+     * 현재 속도를 고른 이유
+     */
+    public enum Reason {
+        STARTUP,
+        IDLE,
+        MOTION,
+        LINE_CROSSING,
+        LATENCY_BOUND,
+        CPU_BOUND
+    }
+
+    public static final float DEFAULT_MIN_FPS = 2f;
+    public static final float DEFAULT_MOTION_FPS = 15f;
+    public static final float DEFAULT_MAX_FPS = 30f;
+
+    private static final float LATENCY_SMOOTHING = 0.2f;    // 지연 EWMA 가중치
+    private static final float CPU_HIGH_WATERMARK = 0.85f;  // 이 이상이면 속도를 줄임
+    private static final float CPU_BACKOFF = 0.8f;           // CPU 한계 시 프레임마다 곱하는 비율
+    private static final float IDLE_DECAY = 0.85f;           // 조용할 때 프레임마다 곱하는 비율
+    private static final long IDLE_HOLD_MS = 2000;           // 활동이 끝난 뒤 속도를 유지하는 시간
+    private static final long CROSSING_HOLD_MS = 3000;       // 선 통과 후 최고 속도를 유지하는 시간
+
+    private final float minFps;
+    private final float motionFps;
+    private final float maxFps;
+
+    private float latencyEwmaMs;
+    private float cpuLoad;
+    private long lastMotionMs = Long.MIN_VALUE / 2;
+    private long lastCrossingMs = Long.MIN_VALUE / 2;
+
+    // 캡처 스레드가 읽는 값
+    private volatile float targetFps;
+    private volatile long intervalMs;
+    private volatile Reason reason = Reason.STARTUP;
+    private volatile long reasonChanges;
+
+    public FrameRateGovernor() {
+        this(DEFAULT_MIN_FPS, DEFAULT_MOTION_FPS, DEFAULT_MAX_FPS);
+    }
+
+    /**
+     * @param minFps    조용한 장면에서 내려가는 최저 속도
+     * @param motionFps 객체가 움직일 때의 목표 속도
+     * @param maxFps    선 통과 직후의 최고 속도
+     */
+    public FrameRateGovernor(float minFps, float motionFps, float maxFps) {
+        if (minFps <= 0 || minFps > motionFps || motionFps > maxFps) {
+            throw new IllegalArgumentException("잘못된 프레임레이트 범위: " + minFps + "/" + motionFps + "/" + maxFps);
+        }
+        this.minFps = minFps;
+        this.motionFps = motionFps;
+        this.maxFps = maxFps;
+        setTarget(motionFps, Reason.STARTUP);
+    }
+
+    /**
+     * 게시가 끝난 프레임의 측정값을 반영해 다음 캡처 간격을 다시 정합니다. (게시 단계 스레드)
+     *
+     * @param nowMs     현재 시각 (ms)
+     * @param latencyMs 캡처~게시 지연 (ms)
+     * @param cpuLoad   최근 프로세스 CPU 사용률 (0~1, 코어 수로 나눈 값, 모르면 음수)
+     * @param activity  이 프레임의 장면 활동
+     */
+    public synchronized void onFrameProcessed(long nowMs, long latencyMs, float cpuLoad, Activity activity) {
+        latencyEwmaMs = latencyEwmaMs == 0
+                ? latencyMs
+                : LATENCY_SMOOTHING * latencyMs + (1 - LATENCY_SMOOTHING) * latencyEwmaMs;
+        if (cpuLoad >= 0) {
+            this.cpuLoad = cpuLoad;
+        }
+        if (activity == Activity.CROSSING) {
+            lastCrossingMs = nowMs;
+            lastMotionMs = nowMs;
+        } else if (activity == Activity.MOVING) {
+            lastMotionMs = nowMs;
+        }
+
+        // 1. 장면 활동으로 원하는 속도 결정
+        float fps;
+        Reason why;
+        if (nowMs - lastCrossingMs < CROSSING_HOLD_MS) {
+            fps = maxFps;
+            why = Reason.LINE_CROSSING;
+        } else if (nowMs - lastMotionMs < IDLE_HOLD_MS) {
+            fps = motionFps;
+            why = Reason.MOTION;
+        } else {
+            // 갑자기 떨어뜨리지 않고 조금씩 내림
+            fps = Math.max(minFps, targetFps * IDLE_DECAY);
+            why = Reason.IDLE;
+        }
+
+        // 2. 지연 한계: 한 프레임이 끝나기 전에 다음 프레임을 넣어 봐야 큐에서 버려질 뿐
+        if (latencyEwmaMs > 0) {
+            float latencyBound = 1000f / latencyEwmaMs;
+            if (latencyBound < fps) {
+                fps = latencyBound;
+                why = Reason.LATENCY_BOUND;
+            }
+        }
+
+        // 3. CPU 여유가 없으면 현재 속도에서 더 줄임
+        if (this.cpuLoad > CPU_HIGH_WATERMARK && targetFps * CPU_BACKOFF < fps) {
+            fps = targetFps * CPU_BACKOFF;
+            why = Reason.CPU_BOUND;
+        }
+
+        setTarget(Math.max(minFps, Math.min(maxFps, fps)), why);
+    }
+
+    private void setTarget(float fps, Reason why) {
+        targetFps = fps;
+        intervalMs = Math.round(1000f / fps);
+        if (reason != why) {
+            reason = why;
+            reasonChanges++;
+        }
+    }
+
+    /**
+     * 다음 프레임까지 기다릴 간격 (ms)
+     */
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public float getTargetFps() {
+        return targetFps;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public long getReasonChanges() {
+        return reasonChanges;
+    }
+
+    public synchronized float getLatencyEwmaMs() {
+        return latencyEwmaMs;
+    }
+
+    public synchronized float getCpuLoad() {
+        return cpuLoad;
+    }
+
+    public float getMinFps() {
+        return minFps;
+    }
+
+    public float getMaxFps() {
+        return maxFps;
+    }
+
+    /**
+     * 로그용 한 줄 요약
+     */
+    public synchronized String summary() {
+        return String.format("%.1ffps(%s) 간격=%dms 지연=%.0fms CPU=%.0f%%",
+                targetFps, reason, intervalMs, latencyEwmaMs, cpuLoad * 100);
+    }
+}
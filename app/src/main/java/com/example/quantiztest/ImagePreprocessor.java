@@ -0,0 +1,294 @@
+package com.example.quantiztest;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * 원본 프레임의 ARGB 픽셀을 중간 비트맵 없이 모델 입력 버퍼로 바로 샘플링하는 전처리 커널입니다.
+ * 리사이즈 좌표는 원본 해상도가 바뀔 때만 인덱스 테이블로 다시 계산하고,
+ * 출력은 한 행씩 바이트 배열에 모은 뒤 한 번에 기록합니다.
+ * 레터박스 모드에서는 종횡비를 유지하고 남는 영역을 패딩 값으로 채웁니다.
+ * 입력 텐서 타입에 따라 UINT8 그대로, INT8(값 - 128), FLOAT32(값 / 255)로 기록합니다.
+ * 안드로이드 API에 의존하지 않으므로 데스크톱 JVM에서도 테스트/벤치마크할 수 있습니다.
+ */
+public class ImagePreprocessor {
+
+    /**
+     * 샘플링 방식
+     */
+    public enum Interpolation {
+        NEAREST,
+        BILINEAR
+    }
+
+    /**
+     * 모델 입력 텐서의 요소 인코딩
+     */
+    public enum Encoding {
+        UINT8,   // 0~255 그대로
+        INT8,    // 0~255 -> -128~127 (zeroPoint -128 입력 양자화)
+        FLOAT32  // 0~255 -> 0.0~1.0
+    }
+
+    // 양선형 보간 가중치의 고정소수점 정밀도 (8비트)
+    private static final int WEIGHT_BITS = 8;
+    private static final int WEIGHT_ONE = 1 << WEIGHT_BITS;
+    private static final int WEIGHT_ROUND = 1 << (2 * WEIGHT_BITS - 1);
+
+    private final int dstWidth;
+    private final int dstHeight;
+    private final int channels;
+    private final Interpolation interpolation;
+    private final ResizeTransform.Mode resizeMode;
+    private final byte padValue;
+    private final Encoding encoding;
+
+    // 한 행 분량의 출력 (bulk put 용) - 레터박스 좌우 여백은 미리 패딩으로 채워 둠
+    private final byte[] rowBuffer;
+    // 레터박스 상하 여백 행
+    private final byte[] padRow;
+
+    // FLOAT32 입력용 행 버퍼와 대상 버퍼의 float 뷰 (대상 버퍼가 바뀔 때만 다시 만듦)
+    private final float[] floatRow;
+    private ByteBuffer floatTarget;
+    private FloatBuffer floatView;
+
+    // 원본 해상도별 변환과 인덱스 테이블 (해상도가 바뀔 때만 재계산)
+    private ResizeTransform transform;
+    private final int[] xIndex0;
+    private final int[] xIndex1;
+    private final int[] xWeight;
+    private final int[] yIndex0;
+    private final int[] yIndex1;
+    private final int[] yWeight;
+
+    public ImagePreprocessor(int dstWidth, int dstHeight, int channels, Interpolation interpolation) {
+        this(dstWidth, dstHeight, channels, interpolation, ResizeTransform.Mode.STRETCH, 0);
+    }
+
+    /**
+     * @param resizeMode 늘리기 또는 레터박스
+     * @param padValue   레터박스 여백에 채울 값 (0~255)
+     */
+    public ImagePreprocessor(int dstWidth, int dstHeight, int channels, Interpolation interpolation,
+                             ResizeTransform.Mode resizeMode, int padValue) {
+        this(dstWidth, dstHeight, channels, interpolation, resizeMode, padValue, Encoding.UINT8);
+    }
+
+    /**
+     * @param encoding 입력 텐서 타입에 맞는 인코딩 (ModelBinding.getInputEncoding())
+     */
+    public ImagePreprocessor(int dstWidth, int dstHeight, int channels, Interpolation interpolation,
+                             ResizeTransform.Mode resizeMode, int padValue, Encoding encoding) {
+        if (channels != 1 && channels != 3) {
+            throw new IllegalArgumentException("지원하지 않는 채널 수: " + channels);
+        }
+        this.dstWidth = dstWidth;
+        this.dstHeight = dstHeight;
+        this.channels = channels;
+        this.interpolation = interpolation;
+        this.resizeMode = resizeMode;
+        this.padValue = (byte) padValue;
+        this.encoding = encoding;
+        this.rowBuffer = new byte[dstWidth * channels];
+        this.padRow = new byte[dstWidth * channels];
+        // INT8은 행 버퍼에 이미 부호 변환된 값을 두므로 패딩도 미리 변환해 둠
+        java.util.Arrays.fill(padRow, encoding == Encoding.INT8 ? (byte) (padValue ^ 0x80) : this.padValue);
+        this.floatRow = encoding == Encoding.FLOAT32 ? new float[dstWidth * channels] : null;
+        this.xIndex0 = new int[dstWidth];
+        this.xIndex1 = new int[dstWidth];
+        this.xWeight = new int[dstWidth];
+        this.yIndex0 = new int[dstHeight];
+        this.yIndex1 = new int[dstHeight];
+        this.yWeight = new int[dstHeight];
+    }
+
+    /**
+     * 원본 해상도에 맞는 인덱스 테이블을 준비합니다. 해상도가 같으면 아무것도 하지 않습니다.
+     */
+    public void configure(int srcWidth, int srcHeight) {
+        if (transform != null && transform.matches(resizeMode, srcWidth, srcHeight)) {
+            return;
+        }
+        if (srcWidth <= 0 || srcHeight <= 0) {
+            throw new IllegalArgumentException("잘못된 원본 크기: " + srcWidth + "x" + srcHeight);
+        }
+        ResizeTransform newTransform = new ResizeTransform(resizeMode, srcWidth, srcHeight, dstWidth, dstHeight);
+        buildAxis(srcWidth, newTransform.getContentWidth(), xIndex0, xIndex1, xWeight);
+        buildAxis(srcHeight, newTransform.getContentHeight(), yIndex0, yIndex1, yWeight);
+
+        // 콘텐츠 영역 밖의 좌우 여백은 모든 행에서 동일하므로 미리 채워 둠
+        System.arraycopy(padRow, 0, rowBuffer, 0, rowBuffer.length);
+        this.transform = newTransform;
+    }
+
+    private void buildAxis(int srcSize, int dstSize, int[] index0, int[] index1, int[] weight) {
+        float scale = (float) srcSize / dstSize;
+        for (int d = 0; d < dstSize; d++) {
+            if (interpolation == Interpolation.NEAREST) {
+                // 픽셀 중심 기준 최근접 샘플
+                int s = (int) ((d + 0.5f) * scale);
+                index0[d] = Math.min(s, srcSize - 1);
+                index1[d] = index0[d];
+                weight[d] = 0;
+            } else {
+                float s = (d + 0.5f) * scale - 0.5f;
+                if (s < 0) s = 0;
+                int s0 = Math.min((int) s, srcSize - 1);
+                index0[d] = s0;
+                index1[d] = Math.min(s0 + 1, srcSize - 1);
+                weight[d] = Math.round((s - s0) * WEIGHT_ONE);
+            }
+        }
+    }
+
+    /**
+     * 원본 픽셀을 리사이즈하면서 모델 입력 버퍼에 기록합니다.
+     * 3채널이면 RGB, 1채널이면 (R+G+B)/3 그레이스케일로 변환합니다.
+     *
+     * @param src       원본 ARGB 픽셀 (Bitmap.getPixels 결과)
+     * @param srcStride 원본 한 행의 픽셀 수
+     * @param dst       모델 입력 버퍼 (처음부터 채운 뒤 rewind 됨, FLOAT32는 네이티브 바이트 순서)
+     */
+    public void pack(int[] src, int srcStride, ByteBuffer dst) {
+        if (transform == null) {
+            throw new IllegalStateException("configure()가 먼저 호출되어야 합니다.");
+        }
+        int padY = transform.getPadY();
+        int contentHeight = transform.getContentHeight();
+        int contentWidth = transform.getContentWidth();
+        int rowStart = transform.getPadX() * channels;
+        int rowEnd = rowStart + contentWidth * channels;
+
+        dst.clear();
+        if (encoding == Encoding.FLOAT32 && dst != floatTarget) {
+            floatView = dst.asFloatBuffer();
+            floatTarget = dst;
+        }
+        if (floatView != null) {
+            floatView.clear();
+        }
+        for (int dy = 0; dy < padY; dy++) {
+            writeRow(dst, padRow);
+        }
+        for (int cy = 0; cy < contentHeight; cy++) {
+            if (interpolation == Interpolation.NEAREST) {
+                packNearestRow(src, yIndex0[cy] * srcStride, rowStart, contentWidth);
+            } else {
+                packBilinearRow(src, yIndex0[cy] * srcStride, yIndex1[cy] * srcStride, yWeight[cy],
+                        rowStart, contentWidth);
+            }
+            if (encoding == Encoding.INT8) {
+                byte[] row = rowBuffer;
+                for (int i = rowStart; i < rowEnd; i++) {
+                    row[i] ^= (byte) 0x80;
+                }
+            }
+            writeRow(dst, rowBuffer);
+        }
+        for (int dy = padY + contentHeight; dy < dstHeight; dy++) {
+            writeRow(dst, padRow);
+        }
+        dst.rewind(); // 버퍼 위치를 처음으로 되돌림
+    }
+
+    private void writeRow(ByteBuffer dst, byte[] row) {
+        if (encoding != Encoding.FLOAT32) {
+            dst.put(row);
+            return;
+        }
+        float[] out = floatRow;
+        for (int i = 0; i < row.length; i++) {
+            out[i] = (row[i] & 0xFF) * (1f / 255f);
+        }
+        floatView.put(out);
+    }
+
+    private void packNearestRow(int[] src, int rowOffset, int rowStart, int contentWidth) {
+        byte[] row = rowBuffer;
+        int[] xs = xIndex0;
+        if (channels == 3) {
+            for (int dx = 0, o = rowStart; dx < contentWidth; dx++, o += 3) {
+                int pixel = src[rowOffset + xs[dx]];
+                row[o] = (byte) (pixel >> 16);     // R
+                row[o + 1] = (byte) (pixel >> 8);  // G
+                row[o + 2] = (byte) pixel;         // B
+            }
+        } else {
+            for (int dx = 0, o = rowStart; dx < contentWidth; dx++, o++) {
+                int pixel = src[rowOffset + xs[dx]];
+                row[o] = (byte) ((((pixel >> 16) & 0xFF) + ((pixel >> 8) & 0xFF) + (pixel & 0xFF)) / 3);
+            }
+        }
+    }
+
+    private void packBilinearRow(int[] src, int rowOffset0, int rowOffset1, int wy,
+                                 int rowStart, int contentWidth) {
+        byte[] row = rowBuffer;
+        int iwy = WEIGHT_ONE - wy;
+        for (int dx = 0; dx < contentWidth; dx++) {
+            int x0 = xIndex0[dx];
+            int x1 = xIndex1[dx];
+            int wx = xWeight[dx];
+            int iwx = WEIGHT_ONE - wx;
+            int p00 = src[rowOffset0 + x0];
+            int p01 = src[rowOffset0 + x1];
+            int p10 = src[rowOffset1 + x0];
+            int p11 = src[rowOffset1 + x1];
+
+            int r = blend((p00 >> 16) & 0xFF, (p01 >> 16) & 0xFF, (p10 >> 16) & 0xFF, (p11 >> 16) & 0xFF, wx, iwx, wy, iwy);
+            int g = blend((p00 >> 8) & 0xFF, (p01 >> 8) & 0xFF, (p10 >> 8) & 0xFF, (p11 >> 8) & 0xFF, wx, iwx, wy, iwy);
+            int b = blend(p00 & 0xFF, p01 & 0xFF, p10 & 0xFF, p11 & 0xFF, wx, iwx, wy, iwy);
+
+            if (channels == 3) {
+                int o = rowStart + dx * 3;
+                row[o] = (byte) r;
+                row[o + 1] = (byte) g;
+                row[o + 2] = (byte) b;
+            } else {
+                row[rowStart + dx] = (byte) ((r + g + b) / 3);
+            }
+        }
+    }
+
+    private static int blend(int c00, int c01, int c10, int c11, int wx, int iwx, int wy, int iwy) {
+        int top = c00 * iwx + c01 * wx;
+        int bottom = c10 * iwx + c11 * wx;
+        return (top * iwy + bottom * wy + WEIGHT_ROUND) >> (2 * WEIGHT_BITS);
+    }
+
+    public int getDstWidth() {
+        return dstWidth;
+    }
+
+    public int getDstHeight() {
+        return dstHeight;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    public ResizeTransform.Mode getResizeMode() {
+        return resizeMode;
+    }
+
+    public int getPadValue() {
+        return padValue & 0xFF;
+    }
+
+    /**
+     * 마지막 configure()로 계산된 좌표 변환 (configure 전에는 null)
+     */
+    public ResizeTransform getTransform() {
+        return transform;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.quantiztest;
+
+/**
+ * 자동 튜닝이 설정별 추론 시간을 재는 데 쓰는 추론 백엔드입니다.
+ * 기기에서는 TFLite 인터프리터로, 데스크톱 JVM 테스트에서는 가짜 백엔드로 구현합니다.
+ */
+public interface InferenceBackend {
+
+    /**
+     * 한 설정으로 준비된 추론 세션 (같은 입력으로 반복 실행)
+     */
+    interface Session {
+        void run() throws Exception;
+
+        void close();
+    }
+
+    /**
+     * 설정에 맞는 세션을 만듭니다. 기기가 지원하지 않는 설정이면 예외를 던집니다.
+     */
+    Session open(InferenceConfig config) throws Exception;
+}
@@ -0,0 +1,68 @@
+package com.example.quantiztest;
+
+/**
+ * 인터프리터 실행 설정(CPU 스레드 수, NNAPI, XNNPACK) 한 가지를 나타내는 값 클래스입니다.
+ * 자동 튜닝 후보와 저장된 튜닝 결과를 같은 형식으로 다룹니다.
+ */
+public class InferenceConfig {
+    private final int threads;
+    private final boolean nnapi;
+    private final boolean xnnpack;
+
+    public InferenceConfig(int threads, boolean nnapi, boolean xnnpack) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("스레드 수는 1 이상이어야 합니다: " + threads);
+        }
+        this.threads = threads;
+        this.nnapi = nnapi;
+        this.xnnpack = xnnpack;
+    }
+
+    /**
+     * 튜닝 결과가 없을 때의 기본 설정 (코어 최대 4개, API 28 이상이면 NNAPI)
+     */
+    public static InferenceConfig defaults(int cores, boolean nnapiAvailable) {
+        return new InferenceConfig(Math.max(1, Math.min(4, cores)), nnapiAvailable, true);
+    }
+
+    /**
+     * 스레드 수만 바꾼 설정 (인터프리터 풀에서 코어를 나눌 때)
+     */
+    public InferenceConfig withThreads(int threads) {
+        return threads == this.threads ? this : new InferenceConfig(threads, nnapi, xnnpack);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isNnapi() {
+        return nnapi;
+    }
+
+    public boolean isXnnpack() {
+        return xnnpack;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InferenceConfig)) {
+            return false;
+        }
+        InferenceConfig other = (InferenceConfig) o;
+        return threads == other.threads && nnapi == other.nnapi && xnnpack == other.xnnpack;
+    }
+
+    @Override
+    public int hashCode() {
+        return threads * 4 + (nnapi ? 2 : 0) + (xnnpack ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return threads + "스레드" + (nnapi ? "+NNAPI" : "") + (xnnpack ? "+XNNPACK" : "");
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.quantiztest;
+
+import android.util.Log;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 추론 한 번마다 기한을 걸고, 기한을 넘긴 추론을 취소하는 감시자입니다.
+ * 발열 스로틀링이나 NNAPI 드라이버 지연으로 추론이 멈추면 취소 동작(인터프리터 setCancelled 등)을 호출해
+ * 호출자가 마지막 추적 결과로 대신할 수 있게 하고, 기한 초과 횟수와 추론 지연(p50/p99/max)을 집계합니다.
+ *
+ * 사용법: run(Task)로 추론을 감싸거나, arm으로 기한을 건 뒤 추론이 끝나면(성공/실패 모두) 반드시 finish를 호출합니다.
+ */
+public class InferenceWatchdog {
+    private static final String TAG = "InferenceWatchdog";
+    // 예열 지연을 모를 때 쓰는 기한
+    public static final long DEFAULT_DEADLINE_MS = 500;
+
+    /**
+     * 기한을 걸어 실행할 추론 한 번 (인터프리터 실행과 취소 플래그)
+     */
+    public interface Task {
+        /** 추론을 실행합니다. 취소되면 런타임 예외로 끝날 수 있습니다. */
+        void run();
+
+        /** 실행 중인 추론을 멈추거나(true), 다음 실행을 위해 취소 상태를 풉니다(false). */
+        void setCancelled(boolean cancelled);
+    }
+
+    private final ScheduledThreadPoolExecutor timer;
+    private volatile long deadlineMs;
+    private final LatencyStats latency = new LatencyStats();
+    private final AtomicLong missedCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+
+    /**
+     * @param deadlineMs 추론 한 번의 기한 (0이면 기한 없이 지연만 집계)
+     */
+    public InferenceWatchdog(long deadlineMs) {
+        setDeadlineMs(deadlineMs);
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "InferenceWatchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    public void setDeadlineMs(long deadlineMs) {
+        if (deadlineMs < 0) {
+            throw new IllegalArgumentException("잘못된 추론 기한: " + deadlineMs);
+        }
+        this.deadlineMs = deadlineMs;
+    }
+
+    public long getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    /**
+     * 예열 후 추론 지연으로 기한을 정합니다. 발열 스로틀링 여유를 곱하고 최소 기한을 둡니다.
+     *
+     * @param warmLatencyMs 예열 후 추론 지연 (모르면 0 이하 - DEFAULT_DEADLINE_MS)
+     * @param factor        지연에 곱할 여유 배수
+     * @param minMs         최소 기한
+     */
+    public static long deadlineFor(long warmLatencyMs, float factor, long minMs) {
+        if (warmLatencyMs <= 0) {
+            return DEFAULT_DEADLINE_MS;
+        }
+        return Math.max(minMs, (long) Math.ceil(warmLatencyMs * factor));
+    }
+
+    /**
+     * 기한을 걸고 추론을 실행합니다. 기한을 넘기면 감시 스레드에서 task.setCancelled(true)를 호출합니다.
+     * 취소되어 끝난 실행의 예외는 삼키고, 기한 안에 난 예외는 실제 오류이므로 그대로 던집니다.
+     *
+     * @return 기한 안에 끝났으면 true (false면 출력이 유효하지 않으므로 마지막 추적 결과로 대신)
+     */
+    public boolean run(Task task) {
+        Deadline deadline = arm(() -> task.setCancelled(true));
+        boolean inTime;
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            // 취소된 실행이 어떤 예외로 끝나는지는 런타임마다 다름 (TFLite 2.12는 IllegalArgumentException)
+            if (deadline.finish()) {
+                throw e;
+            }
+        } finally {
+            inTime = deadline.finish();
+            if (!inTime) {
+                // finish 이후에는 감시자가 취소하지 않으므로, 여기서 풀면 다음 추론에 취소 상태가 남지 않음
+                task.setCancelled(false);
+            }
+        }
+        return inTime;
+    }
+
+    /**
+     * 추론 시작 직전에 기한을 겁니다.
+     *
+     * @param canceller 기한을 넘기면 감시 스레드에서 한 번 호출할 취소 동작
+     *                  (런타임이 취소를 지원하지 않으면 예외를 던져도 됨 - 기한 초과로만 집계)
+     */
+    public Deadline arm(Runnable canceller) {
+        Deadline deadline = new Deadline(canceller);
+        long limit = deadlineMs;
+        if (limit > 0) {
+            synchronized (deadline) {
+                deadline.timeout = timer.schedule(deadline::expire, limit, TimeUnit.MILLISECONDS);
+            }
+        }
+        return deadline;
+    }
+
+    /**
+     * 감시 스레드를 멈춥니다. 이후에는 arm을 호출하면 안 됩니다. (엔진 종료 시)
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    public LatencyStats getLatency() {
+        return latency;
+    }
+
+    /**
+     * 기한을 넘긴 추론 수
+     */
+    public long getMissedCount() {
+        return missedCount.get();
+    }
+
+    /**
+     * 기한을 넘겨 취소 동작까지 성공한 추론 수
+     */
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    /**
+     * 로그용 한 줄 요약
+     */
+    public String summary() {
+        return "추론 " + latency.summary() + ", 기한 " + deadlineMs + "ms 초과=" + missedCount.get()
+                + " (취소=" + cancelledCount.get() + ")";
+    }
+
+    /**
+     * 추론 한 번의 기한
+     */
+    public class Deadline {
+        private final Runnable canceller;
+        private final long startNanos = System.nanoTime();
+        private ScheduledFuture<?> timeout;
+        private boolean finished;
+        private boolean expired;
+
+        Deadline(Runnable canceller) {
+            this.canceller = canceller;
+        }
+
+        /**
+         * 감시 스레드: 아직 끝나지 않았으면 기한 초과로 표시하고 취소합니다.
+         * finish와 같은 락을 잡으므로 finish가 돌아온 뒤에는 취소 동작이 더 호출되지 않습니다.
+         */
+        private synchronized void expire() {
+            if (finished) {
+                return;
+            }
+            expired = true;
+            missedCount.incrementAndGet();
+            try {
+                canceller.run();
+                cancelledCount.incrementAndGet();
+                Log.w(TAG, "추론 기한 " + deadlineMs + "ms 초과 - 취소 요청");
+            } catch (RuntimeException e) {
+                Log.w(TAG, "추론 기한 " + deadlineMs + "ms 초과 - 취소를 지원하지 않음: " + e.getMessage());
+            }
+        }
+
+        /**
+         * 추론이 끝났을 때(성공/실패 모두) 호출합니다. 지연을 기록하고 기한 감시를 풉니다.
+         *
+         * @return 기한 안에 끝났으면 true (false면 결과를 버리고 마지막 추적 결과로 대신해야 함)
+         */
+        public synchronized boolean finish() {
+            if (finished) {
+                return !expired;
+            }
+            finished = true;
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            latency.record((System.nanoTime() - startNanos) / 1e6f);
+            return !expired;
+        }
+    }
+}
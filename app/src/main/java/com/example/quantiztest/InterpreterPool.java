@@ -0,0 +1,123 @@
+package com.example.quantiztest;
+
+import android.util.Log;
+
+import org.tensorflow.lite.Interpreter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 같은 모델 버퍼를 공유하는 인터프리터 여러 개를 빌려 쓰는 풀입니다.
+ * 코어가 많은 기기에서는 넓은 인터프리터 하나보다 스레드가 적은 인터프리터 여러 개로
+ * 여러 프레임을 동시에 추론하는 편이 처리량이 높습니다.
+ *
+ * 인터프리터는 스레드 안전하지 않으므로 acquire로 빌린 인터프리터는 release할 때까지 혼자 씁니다.
+ * 모든 인터프리터는 같은 모델이므로 텐서 인덱스/형상이 같고, FrameContext는 어느 인터프리터에나 쓸 수 있습니다.
+ */
+public class InterpreterPool {
+    private static final String TAG = "InterpreterPool";
+
+    // 인터프리터 하나가 효율적으로 쓰는 최대 스레드 수
+    public static final int MAX_THREADS_PER_INTERPRETER = 4;
+    // 이 코어 수 이상이면 인터프리터를 여러 개 둠
+    private static final int MULTI_INTERPRETER_MIN_CORES = 8;
+
+    private final List<Interpreter> interpreters;
+    private final BlockingQueue<Interpreter> idle;
+    private final int threadsPerInterpreter;
+
+    // 지표
+    private final AtomicLong acquiredCount = new AtomicLong();
+    private final AtomicLong waitedCount = new AtomicLong();
+
+    /**
+     * @param interpreters          같은 모델로 만든 인터프리터 (첫 번째가 바인딩 검증에 쓴 기본 인터프리터)
+     * @param threadsPerInterpreter 인터프리터마다 설정한 스레드 수 (로그/지표용)
+     */
+    public InterpreterPool(List<Interpreter> interpreters, int threadsPerInterpreter) {
+        if (interpreters.isEmpty()) {
+            throw new IllegalArgumentException("인터프리터가 없습니다");
+        }
+        this.interpreters = Collections.unmodifiableList(new ArrayList<>(interpreters));
+        this.idle = new ArrayBlockingQueue<>(interpreters.size(), false, interpreters);
+        this.threadsPerInterpreter = threadsPerInterpreter;
+    }
+
+    /**
+     * 코어 수에 맞는 인터프리터 수 (8코어 이상이면 2개, 아니면 1개)
+     */
+    public static int recommendedSize(int cores) {
+        return cores >= MULTI_INTERPRETER_MIN_CORES ? 2 : 1;
+    }
+
+    /**
+     * 인터프리터 수에 맞춰 코어를 나눈 인터프리터당 스레드 수 (1~MAX_THREADS_PER_INTERPRETER)
+     */
+    public static int recommendedThreads(int cores, int size) {
+        return Math.max(1, Math.min(MAX_THREADS_PER_INTERPRETER, cores / Math.max(1, size)));
+    }
+
+    /**
+     * 쉬는 인터프리터를 빌립니다. 모두 사용 중이면 하나가 반납될 때까지 기다립니다.
+     */
+    public Interpreter acquire() throws InterruptedException {
+        Interpreter interpreter = idle.poll();
+        if (interpreter == null) {
+            waitedCount.incrementAndGet();
+            interpreter = idle.take();
+        }
+        acquiredCount.incrementAndGet();
+        return interpreter;
+    }
+
+    /**
+     * 빌린 인터프리터를 반납합니다.
+     */
+    public void release(Interpreter interpreter) {
+        if (!idle.offer(interpreter)) {
+            Log.w(TAG, "풀에 속하지 않은 인터프리터 반납");
+        }
+    }
+
+    public int size() {
+        return interpreters.size();
+    }
+
+    public int getThreadsPerInterpreter() {
+        return threadsPerInterpreter;
+    }
+
+    /**
+     * 기본 인터프리터 (바인딩 검증용)
+     */
+    public Interpreter getPrimary() {
+        return interpreters.get(0);
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * 모든 인터프리터를 닫습니다. 빌려 간 인터프리터가 없을 때 호출해야 합니다.
+     */
+    public void close() {
+        for (Interpreter interpreter : interpreters) {
+            interpreter.close();
+        }
+        idle.clear();
+    }
+
+    /**
+     * 로그용 한 줄 요약
+     */
+    public String summary() {
+        return String.format("인터프리터 %d개 x %d스레드, 대여=%d 대기=%d",
+                interpreters.size(), threadsPerInterpreter, acquiredCount.get(), waitedCount.get());
+    }
+}
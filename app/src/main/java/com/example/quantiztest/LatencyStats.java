@@ -0,0 +1,88 @@
+package com.example.quantiztest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 최근 지연 시간 표본으로 p50/p99를, 전체 기간으로 최댓값을 내는 통계입니다.
+ * 기록은 고정 크기 링에 덮어쓰므로 O(1)이고, 백분위는 요약할 때만 정렬해 계산합니다.
+ */
+public class LatencyStats {
+    public static final int DEFAULT_WINDOW = 256;
+
+    private final float[] samples;
+    private int next;
+    private int size;
+    private long count;
+    private float max;
+
+    public LatencyStats() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param window 백분위 계산에 쓸 최근 표본 수
+     */
+    public LatencyStats(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("표본 수는 1 이상이어야 합니다: " + window);
+        }
+        this.samples = new float[window];
+    }
+
+    public synchronized void record(float millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+        count++;
+        if (millis > max) {
+            max = millis;
+        }
+    }
+
+    /**
+     * 최근 표본의 백분위 값 (ms, 표본이 없으면 0)
+     *
+     * @param percentile 0~100
+     */
+    public synchronized float percentile(float percentile) {
+        if (size == 0) {
+            return 0f;
+        }
+        float[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100f * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    public float getP50() {
+        return percentile(50f);
+    }
+
+    public float getP99() {
+        return percentile(99f);
+    }
+
+    /**
+     * 지금까지 기록된 최대 지연 (ms)
+     */
+    public synchronized float getMax() {
+        return max;
+    }
+
+    /**
+     * 지금까지 기록된 표본 수
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * 로그용 한 줄 요약
+     */
+    public String summary() {
+        return String.format(Locale.US, "p50=%.1fms p99=%.1fms max=%.1fms (n=%d)", getP50(), getP99(), getMax(), getCount());
+    }
+}
@@ -7,6 +7,7 @@ import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.DashPathEffect;
+import android.graphics.ImageFormat;
 import android.graphics.Paint;
 import android.graphics.PixelFormat;
 import android.graphics.PorterDuff;
@@ -19,9 +20,12 @@ import android.hardware.camera2.CameraDevice;
 import android.hardware.camera2.CameraManager;
 import android.hardware.camera2.CaptureRequest;
 import android.hardware.camera2.params.StreamConfigurationMap;
+import android.media.Image;
+import android.media.ImageReader;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.HandlerThread;
+import android.os.Process;
 import android.util.Base64;
 import android.util.Log;
 import android.util.Size;
@@ -50,14 +54,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
-import io.socket.client.IO;
 import io.socket.client.Socket;
 
 
@@ -66,19 +72,12 @@ import io.socket.client.Socket;
  */
 public class MainActivity extends AppCompatActivity implements TextureView.SurfaceTextureListener {
     // 대각선 가상 선 관련 변수
-    // 대각선 가상 선 관련 변수 부분에 추가
-    // 객체가 선의 위에 있었는지 여부를 저장하는 맵
-    private Map<Integer, Boolean> wasAboveLine;
     private float virtualLineStartX, virtualLineStartY; // 가상 선의 시작점
     private float virtualLineEndX, virtualLineEndY; // 가상 선의 끝점
-    private Map<Integer, Float> previousDistanceToLine; // 객체별 이전 선과의 거리
-    private Map<Integer, Long> lastEventTime; // 객체별 마지막 이벤트 발생 시간
     private TextView tvEvent; // 이벤트 표시용 TextView
     private static final long EVENT_COOLDOWN = 1000; // 이벤트 쿨다운 시간 (밀리초)
-
-    // 대각선 가상 선 관련 변수 부분에 이전 위치 추적을 위한 맵 추가
-    private Map<Integer, Float> previousCenterX; // 객체별 이전 X 좌표
-    private Map<Integer, Float> previousCenterY; // 객체별 이전 Y 좌표
+    // 객체별 선 위/아래 여부, 마지막 이벤트 시간 등 추적 ID별 이벤트 상태 (추적기와 함께 엔진이 소유)
+    private TrackEventState trackEvents;
 
     // 로그 태그 상수 (디버깅 시 로그를 필터링하는 데 사용)
     private static final String TAG = "MainActivity";
@@ -87,12 +86,13 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
 
     private SimpleTracker tracker;
 
-    // TFLite 모델을 로드하고 관리하는 클래스 인스턴스
-    private TFLiteLoader tfliteLoader;
-    private TFLiteLoader tfliteLoaderface;
+    // 카메라 ID별 추론 설정 (assets/camera_profiles.txt)
+    private Map<String, CameraProfile> cameraProfiles;
+    private CameraProfile currentCameraProfile;
 
     // 이미지 처리 및 객체 탐지를 담당하는 클래스 인스턴스
-    private YoloImageProcessor imageProcessor;
+    // 추적 클래스 카탈로그 (클래스 ID -> 이름 변환은 UI/소켓 전송 시에만)
+    private ProductCatalog productCatalog;
 
     // UI 요소들
     // 이미지 선택 버튼
@@ -111,20 +111,54 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
     private CameraCaptureSession cameraCaptureSession;
     private CaptureRequest.Builder captureRequestBuilder;
     private Size imageDimension;
+    // YUV 캡처 경로 (TextureView 비트맵 readback 대신 ImageReader 평면을 바로 모델 입력으로 변환)
+    private static final boolean USE_YUV_CAPTURE = true;
+    private static final int YUV_MAX_IMAGES = 2;
+    private static final int YUV_MIN_SHORT_SIDE = 640; // 모델 입력보다 작지 않은 가장 작은 해상도 선택
+    private ImageReader imageReader;
+    private Size yuvDimension;
+    private int sensorOrientation = 90;
+    private long lastYuvSubmitTime;
+    // 표시/전송용 비트맵을 만드는 YUV -> ARGB 변환기 (후처리 단계 스레드에서만 사용)
+    private final YuvConverter displayConverter = YuvConverter.forDisplay();
     private Handler backgroundHandler;
     private HandlerThread backgroundThread;
     private Semaphore cameraOpenCloseLock = new Semaphore(1);
-    private boolean isProcessingFrame = false;
     private boolean isCameraMode = false;
-    //ip변경부분
-    final String connectUrl="https://97f1-223-194-133-239.ngrok-free.app";
+    // 프로세스 전역 탐지 엔진 (모델, 추적기, 웹소켓 소유)
+    private DetectionEngine detectionEngine;
+    // 엔진의 모델 로드가 끝나 tracker/productCatalog/faceDetector를 가져왔는지 여부
+    private volatile boolean engineReady;
+    private volatile boolean destroyed;
     private Socket mSocket;
+    private static final String STATE_CAMERA_MODE = "cameraMode";
 
-    // 지금까지 본 모든 사람 ID들
-    private Map<Integer, Integer> personIdCountMap = new HashMap<>(); // 사람 ID와 미싱 카운트를 저장
-    private static final int DISAPPEARANCE_THRESHOLD = 10; // 약 2초 (100ms 간격으로 20프레임)
+    // 엔진이 받은 서버 요청을 이 화면에서 처리 (웹소켓 스레드)
+    private final DetectionEngine.Listener engineListener = new DetectionEngine.Listener() {
+        @Override
+        public void onFindNearestPerson(String kioskId) {
+            if (!engineReady) {
+                Log.w(TAG, "모델 로드 중이라 가장 가까운 사람 찾기 요청을 무시합니다");
+                return;
+            }
+            // 현재 프레임에서 키오스크에 가장 가까운 사람 찾기
+            findNearestPersonToKiosk();
+        }
 
+        @Override
+        public void onRequestPersonFaceFind(List<Integer> personIds) {
+            if (!engineReady) {
+                Log.w(TAG, "모델 로드 중이라 얼굴 찾기 요청을 무시합니다: " + personIds);
+                return;
+            }
+            captureAndSendNewFaces(personIds);
+        }
+    };
 
+    // 사라짐/등장 확정에 필요한 연속 미탐지/탐지 시간 (사람 ID별 시각은 trackEvents)
+    // 캡처 간격이 2~30fps로 바뀌므로 프레임 수 대신 캡처 시각으로 판정 (기존 100ms 간격 10프레임과 같음)
+    private static final long DISAPPEARANCE_MS = 1000;
+    private static final long APPEARANCE_MS = 1000;
 
     // 키오스크 영역 관련 변수 (대각선 가상 선 관련 변수 아래 부분에 추가)
     private float kioskLeft, kioskTop, kioskRight, kioskBottom; // 키오스크 영역 좌표
@@ -134,16 +168,65 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
     // 1. 클래스 변수 추가
     private FaceDetector faceDetector;
 
-
-    // 사람 ID별 연속 탐지 횟수를 저장할 맵
-    private Map<Integer, Integer> personAppearanceCount = new HashMap<>();
-    // 연속 탐지 필요 횟수 상수
-    private static final int APPEARANCE_THRESHOLD = 10;
-
-
-
-
-    private final Object imageLock=new Object();
+    // 엔진이 소유한 추적기/후처리 작업 배열을 쓰는 동안 잡는 락 (엔진과 공유)
+    private Object imageLock;
+    // 탐지기 -> 추적기로 넘기는 재사용 배치 (imageLock 안에서만 사용)
+    private final DetectionBatch detectionBatch = new DetectionBatch(YoloImageProcessor.DEFAULT_TOP_K);
+
+    // 카메라 탐지 파이프라인 설정 (단계 사이 큐 크기/버림 정책, 동시에 처리할 프레임 수)
+    private static final int PIPELINE_QUEUE_CAPACITY = 1;
+    private static final SpscQueue.DropPolicy PIPELINE_DROP_POLICY = SpscQueue.DropPolicy.DROP_OLDEST;
+    private static final int PIPELINE_FRAME_POOL_SIZE = 8;
+    // 추론 단계 작업 스레드 수 상한 (인터프리터 풀 크기만큼 프레임을 동시에 추론)
+    private static final int PIPELINE_MAX_INFERENCE_WORKERS = 2;
+    // 전처리 N+1과 추론 N(작업 스레드 수만큼)을 겹치기 위한 입출력 버퍼 수 (ROI/타일 프레임은 패스마다 하나씩 빌림)
+    // 서버 요청(얼굴 찾기, 가장 가까운 사람 찾기) 탐지용으로 풀에 더 넣어 두는 입출력 버퍼 수와 빌릴 때 기다리는 시간
+    private static final int SERVER_REQUEST_CONTEXTS = 1;
+    private static final long SERVER_REQUEST_CONTEXT_WAIT_MS = 200;
+    private static final int PIPELINE_CONTEXT_POOL_SIZE =
+            (1 + PIPELINE_MAX_INFERENCE_WORKERS) * PipelineFrame.MAX_PASSES + SERVER_REQUEST_CONTEXTS;
+    private static final int PIPELINE_STATS_INTERVAL = 50;
+    private volatile FramePipeline<PipelineFrame> detectionPipeline;
+    private final ArrayBlockingQueue<PipelineFrame> framePool = new ArrayBlockingQueue<>(PIPELINE_FRAME_POOL_SIZE);
+    private final ArrayBlockingQueue<FrameContext> frameContextPool = new ArrayBlockingQueue<>(PIPELINE_CONTEXT_POOL_SIZE);
+    private long captureSequence;
+    private long captureSkippedCount;
+    // 캡처~게시 지연 (게시 단계 스레드에서 기록하고 파이프라인 통계 로그에만 요약)
+    private final LatencyStats publishLatency = new LatencyStats();
+
+    // 캡처 간격 조절 (지연/CPU/장면 활동에 따라 2~30fps)
+    private final FrameRateGovernor frameRateGovernor = new FrameRateGovernor();
+    private static final float MOTION_THRESHOLD_PX = 3f;   // 프레임당 이 이상 움직이면 움직이는 장면
+    private static final long CPU_SAMPLE_INTERVAL_MS = 1000;
+    // 아래 값은 게시 단계 스레드에서만 사용
+    private boolean lineCrossingDetected;
+    private long cpuSampleWallMs;
+    private long cpuSampleCpuMs;
+    private float cpuLoad = -1f;
+
+    // 움직임 게이트: 장면이 그대로면 추론을 건너뛰고 마지막 탐지 결과로 추적만 진행
+    private static final boolean USE_MOTION_GATE = true;
+    private static final long MOTION_GATE_FORCE_INTERVAL_MS = 3000; // 변화가 없어도 이 간격마다 전체 추론
+    private final MotionGate motionGate = new MotionGate(MOTION_GATE_FORCE_INTERVAL_MS); // 전처리 단계 스레드 전용
+    private final int[] motionGatePixels = new int[MotionGate.DEFAULT_GRID_WIDTH * MotionGate.DEFAULT_GRID_HEIGHT];
+    private final DetectionBatch lastDetections = new DetectionBatch(YoloImageProcessor.DEFAULT_TOP_K); // 후처리 단계 스레드 전용
+
+    // ROI 추론: 활성 추적 객체와 가상 선 주변 구역만 잘라서 추론하고, 주기적으로 전체 프레임을 돌림
+    private static final boolean USE_ROI_INFERENCE = true;
+    private static final float ROI_LINE_ZONE_HALF_HEIGHT = 64f; // 640 기준 가상 선 위아래 구역 높이
+    private RoiPlanner roiPlanner;
+    private final int[] roiRects = new int[PipelineFrame.MAX_PASSES * 4]; // 전처리 단계 스레드 전용
+
+    // 타일 추론: 카메라 프로필에 타일 설정이 있으면 ROI 대신 원본 해상도 타일을 돌아가며 추론
+    private TileScheduler tileScheduler;
+    private final int[] plannedTiles = new int[PipelineFrame.MAX_PASSES]; // 전처리 단계 스레드 전용
+    // 아래 값은 후처리 단계 스레드에서만 사용
+    private final DetectionBatch tileBatch = new DetectionBatch(YoloImageProcessor.DEFAULT_TOP_K);
+    private DetectionBatch[] tileResults = new DetectionBatch[0];
+
+    // N프레임마다 탐지: 사이 프레임은 추적기 속도 모델로만 박스를 옮기고 선 통과/오버레이는 매 프레임 갱신
+    private static final boolean USE_DETECTION_INTERVAL = true;
+    private final DetectionScheduler detectionScheduler = new DetectionScheduler();
 
     /**
      * 액티비티가 생성될 때 호출되는 메서드
@@ -170,13 +253,6 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
         FrameLayout previewContainer = findViewById(R.id.previewContainer);
         previewContainer.addView(tvEvent);
 
-        // 이전 위치 맵 초기화
-        previousCenterX = new HashMap<>();
-        previousCenterY = new HashMap<>();
-
-
-        // wasAboveLine 초기화
-        wasAboveLine = new HashMap<>();
 // 대각선 가상 선 초기화 (640x640 기준)
 // 왼쪽 상단에서 오른쪽 하단으로 대각선
         // onCreate 메서드 내에서 선 초기화 부분 수정
@@ -194,15 +270,6 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
         kioskBottom = 420;
 
 
-// 객체 추적 맵 초기화
-        previousDistanceToLine = new HashMap<>();
-        lastEventTime = new HashMap<>();
-
-
-
-        // 웹소켓 설정
-        setupSocket();
-
         // UI 요소 초기화 - ID로 뷰 찾기
 
         btnStartCamera = findViewById(R.id.btnStartCamera);
@@ -231,8 +298,8 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
         // TextureView 리스너 설정
         textureView.setSurfaceTextureListener(this);
 
-        // 초기화 코드 아래에 추가
-        tracker = new SimpleTracker();
+        // 카메라별 추론 설정 로드
+        cameraProfiles = CameraProfile.loadFromAssets(this);
 
         // 초기 UI 상태 설정
         textureView.setVisibility(View.GONE);
@@ -241,42 +308,15 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
         // 필요한 권한(저장소 읽기/쓰기, 카메라) 확인 및 요청
         checkAndRequestPermissions();
 
-        // TFLite 모델 로더 인스턴스 생성
-        tfliteLoader = new TFLiteLoader(this,"yolonas_quantized.tflite");
-
-
-        // TFLite 모델 로더 인스턴스 생성
-        tfliteLoaderface = new TFLiteLoader(this,"face_det_lite_quantized.tflite");
-
-
-        // assets 폴더에서 모델 로드 시도
-        if (tfliteLoader.loadModelFromAssets()) {
-            // 모델 로드 성공 시 로그 출력 및 토스트 메시지 표시
-            Log.i("yolo", "YOLONas TFLite 모델이 성공적으로 로드되었습니다.");
-            Toast.makeText(this, "yolo 모델 로드 성공!", Toast.LENGTH_SHORT).show();
-
-            // 이미지 프로세서 초기화 - 로드된 인터프리터 전달
-            imageProcessor = new YoloImageProcessor(this, tfliteLoader.getTfliteInterpreter());
-        } else {
-            // 모델 로드 실패 시 로그 출력 및 토스트 메시지 표시
-            Log.e(TAG, "YOLONas TFLite 모델 로드에 실패했습니다.");
-            Toast.makeText(this, "yolo 모델 로드 실패!", Toast.LENGTH_SHORT).show();
-        }
-
-        if (tfliteLoaderface.loadModelFromAssets()) {
-            // 모델 로드 성공 시 로그 출력 및 토스트 메시지 표시
-            Log.i("face", "Face TFLite 모델이 성공적으로 로드되었습니다.");
-            Toast.makeText(this, "face 모델 로드 성공!", Toast.LENGTH_SHORT).show();
-            // FaceDetector 초기화
-            faceDetector = new FaceDetector(this, tfliteLoaderface.getTfliteInterpreter());
-        } else {
-            // 모델 로드 실패 시 로그 출력 및 토스트 메시지 표시
-            Log.e("face", "Face TFLite 모델 로드에 실패했습니다.");
-            Toast.makeText(this, "face 모델 로드 실패!", Toast.LENGTH_SHORT).show();
-        }
-
-
-
+        // 모델/추적기/웹소켓은 프로세스 전역 엔진이 소유 - 회전 등으로 액티비티가 다시 만들어지면 그대로 재사용
+        // 모델 로드는 엔진의 로드 스레드에서 하므로, 모델을 쓰는 필드는 로드가 끝난 뒤 onEngineReady에서 가져옴
+        detectionEngine = ((QuantiztestApplication) getApplication()).getDetectionEngine();
+        boolean loadedNow = detectionEngine.start();
+        mSocket = detectionEngine.getSocket();
+        imageLock = detectionEngine.getLock();
+        trackEvents = detectionEngine.getTrackEvents();
+        detectionEngine.attach(engineListener);
+        detectionEngine.getReadiness().thenRun(() -> runOnUiThread(() -> onEngineReady(loadedNow)));
 
         // 카메라 시작 버튼 클릭 이벤트 설정
         btnStartCamera.setOnClickListener(v -> {
@@ -290,85 +330,43 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
                 btnStartCamera.setText("카메라 중지");
             }
         });
-    }
-
-
-
-
-
 
-
-
-
-    //웹소켓
-    private void setupSocket() {
-        try {
-            mSocket = IO.socket(connectUrl);  // Socket.IO 서버 URL
-            Log.d("socketcheck", "웹소켓 연결시도");
-        } catch (Exception e) {
-            e.printStackTrace();
+        // 회전 등으로 다시 만들어졌으면 카메라 모드를 이어감 (추적기는 엔진에 남아 있어 ID 유지)
+        if (savedInstanceState != null && savedInstanceState.getBoolean(STATE_CAMERA_MODE, false)) {
+            startCamera();
+            btnStartCamera.setText("카메라 중지");
         }
-        mSocket.connect();  // 연결 시작
-        Log.d("socketcheck", "socket try");
-        // 연결 성공 시
-        mSocket.on(Socket.EVENT_CONNECT, args -> {
-            Log.d("socketcheck", "success");
-            try {
-                JSONObject connectMsg = new JSONObject();
-                connectMsg.put("type", "connect");
-                connectMsg.put("message", "Android app connected");
-                mSocket.emit("message", connectMsg.toString());  // 서버로 메시지 전송
-                //event =message이거이므로 서버에있는 @socketio.on('message')이거랑 매칭이 된다.
-                Log.d("socket", "연결 메시지 전송 완료");
-            } catch (Exception e) {
-                Log.e("socketcheck", "fail: " + e.getMessage());
-            }
-        });
-
-        // 연결 종료 시
-        mSocket.on(Socket.EVENT_DISCONNECT, args -> Log.d("socket", "웹소켓 연결 종료"));
-
-        // 메시지 수신
-        mSocket.on("response", args -> {
-            Log.d("socket", "서버로부터 메시지 수신: " + args[0].toString());
-        });
-
-
-        // 가장 가까운 사람 찾기 요청 처리
-        mSocket.on("find_nearest_person", args -> {
-            try {
-                JSONObject data = new JSONObject(args[0].toString());
-                String kioskId = data.getString("kioskId");
-                Log.d("socket", "키오스크 " + kioskId + "에서 가장 가까운 사람 찾기 요청 수신");
-
-                // 현재 프레임에서 키오스크에 가장 가까운 사람 찾기 요청
-                findNearestPersonToKiosk();
-            } catch (Exception e) {
-                Log.e("socket", "가장 가까운 사람 찾기 요청 처리 오류: " + e.getMessage());
-            }
-        });
-
-        //personFaceFind 배열로 받은 얼굴찾아주기
-        // 요청 핸들러 수정
-        mSocket.on("requestPersonFaceFind", args -> {
-            try {
-                JSONObject data = new JSONObject(args[0].toString());
-                JSONArray personIdsArray = data.getJSONArray("personIds"); // 문자열이 아닌 JSONArray로 받아야
-
-
-                // 이제 JSONArray를 List<Integer>로 변환 [4,5] 얼굴 찾아주세요~
-                List<Integer> personIdsList = new ArrayList<>();
-                for (int i = 0; i < personIdsArray.length(); i++) {
-                    personIdsList.add(personIdsArray.getInt(i));
-                }
-
-                captureAndSendNewFaces(personIdsList);
+    }
 
+    /**
+     * 엔진의 모델 로드가 끝나면 모델/추적기를 가져오고 결과를 알립니다. (UI 스레드)
+     * 카메라가 먼저 켜졌으면 여기서 탐지 파이프라인을 시작합니다. (예열이 끝나기 전이면 끝난 뒤)
+     */
+    private void onEngineReady(boolean loadedNow) {
+        if (destroyed) {
+            return;
+        }
+        faceDetector = detectionEngine.getFaceDetector();
+        productCatalog = detectionEngine.getProductCatalog();
+        tracker = detectionEngine.getTracker();
+        engineReady = true;
+        if (loadedNow) {
+            // 모델 로드 결과는 프로세스에서 처음 로드했을 때만 알림
+            Toast.makeText(this, detectionEngine.getImageProcessor() != null ? "yolo 모델 로드 성공!" : "yolo 모델 로드 실패!",
+                    Toast.LENGTH_SHORT).show();
+            Toast.makeText(this, faceDetector != null ? "face 모델 로드 성공!" : "face 모델 로드 실패!",
+                    Toast.LENGTH_SHORT).show();
+        }
+        Log.i(TAG, "탐지 엔진 연결: " + detectionEngine.summary());
+        if (isCameraMode) {
+            startDetectionPipelineWhenReady();
+        }
+    }
 
-            } catch (Exception e) {
-                Log.e("socket", "가장 가까운 사람 찾기 요청 처리 오류: " + e.getMessage());
-            }
-        });
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putBoolean(STATE_CAMERA_MODE, isCameraMode);
     }
 
     /**
@@ -585,7 +583,7 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
                 canvas.drawRect(left, top, right, bottom, boxPaint);
 
                 // 라벨 텍스트
-                String labelText = "ID " + obj.getId() + ": " + obj.getLabel() + " " +
+                String labelText = "ID " + obj.getId() + ": " + productCatalog.labelOf(obj.getClassId()) + " " +
                         String.format("%.1f", obj.getConfidence() * 100) + "%";
 
                 // 텍스트 크기 측정
@@ -672,11 +670,17 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
                 Integer facing = characteristics.get(CameraCharacteristics.LENS_FACING);
                 if (facing != null && facing == CameraCharacteristics.LENS_FACING_BACK) {
                     cameraId = camId;
+                    applyCameraProfile(camId);
 
                     // 카메라 해상도 설정
                     StreamConfigurationMap map = characteristics.get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP);
                     if (map != null) {
                         imageDimension = map.getOutputSizes(SurfaceTexture.class)[0];
+                        yuvDimension = chooseYuvSize(map.getOutputSizes(ImageFormat.YUV_420_888));
+                    }
+                    Integer orientation = characteristics.get(CameraCharacteristics.SENSOR_ORIENTATION);
+                    if (orientation != null) {
+                        sensorOrientation = orientation;
                     }
                     break;
                 }
@@ -695,6 +699,19 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
         }
     }
 
+    /**
+     * 선택된 카메라의 프로필(리사이즈 방식 등)을 이미지 프로세서에 적용
+     */
+    private void applyCameraProfile(String camId) {
+        CameraProfile profile = cameraProfiles.get(camId);
+        if (profile == null) {
+            profile = CameraProfile.defaults(camId);
+        }
+        currentCameraProfile = profile;
+        detectionEngine.setResizeMode(profile.getResizeMode(), profile.getPadValue());
+        Log.d(TAG, "카메라 프로필 적용: " + profile);
+    }
+
     /**
      * 카메라 상태 콜백
      */
@@ -740,9 +757,22 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
             // 캡처 요청 빌더 생성
             captureRequestBuilder = cameraDevice.createCaptureRequest(CameraDevice.TEMPLATE_PREVIEW);
             captureRequestBuilder.addTarget(surface);
+            List<Surface> outputs = new ArrayList<>();
+            outputs.add(surface);
+
+            // 탐지용 YUV 스트림 (최신 프레임만 쓰므로 버퍼는 적게)
+            if (USE_YUV_CAPTURE && yuvDimension != null) {
+                imageReader = ImageReader.newInstance(yuvDimension.getWidth(), yuvDimension.getHeight(),
+                        ImageFormat.YUV_420_888, YUV_MAX_IMAGES);
+                imageReader.setOnImageAvailableListener(this::onYuvImageAvailable, backgroundHandler);
+                captureRequestBuilder.addTarget(imageReader.getSurface());
+                outputs.add(imageReader.getSurface());
+                Log.d(TAG, "YUV 캡처 사용: " + yuvDimension.getWidth() + "x" + yuvDimension.getHeight()
+                        + ", 센서 방향 " + sensorOrientation);
+            }
 
             // 세션 생성
-            cameraDevice.createCaptureSession(Arrays.asList(surface), new CameraCaptureSession.StateCallback() {
+            cameraDevice.createCaptureSession(outputs, new CameraCaptureSession.StateCallback() {
                 @Override
                 public void onConfigured(@NonNull CameraCaptureSession session) {
                     if (cameraDevice == null) {
@@ -765,8 +795,9 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
 
     /**
      * 카메라 프리뷰 업데이트
+     * 프레임레이트 조절기가 정한 간격으로 프리뷰 프레임을 캡처해 탐지 파이프라인에 넣습니다.
+     * 처리 중인 프레임을 기다리지 않으며, 밀린 프레임은 파이프라인 큐가 정책에 따라 버립니다.
      */
-    // updatePreview 메서드 수정
     private void updatePreview() {
         if (cameraDevice == null) {
             return;
@@ -777,36 +808,21 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
             cameraCaptureSession.setRepeatingRequest(
                     captureRequestBuilder.build(), null, backgroundHandler);
 
-            // 일정 간격으로 프레임 처리
+            startDetectionPipelineWhenReady();
+
+            // 일정 간격으로 프레임 캡처
             backgroundHandler.post(new Runnable() {
                 @Override
                 public void run() {
                     //계속해서 카메라결과를 보낸다.
-                    if (isCameraMode && !isProcessingFrame) {
-                        isProcessingFrame = true;
-
-                        runOnUiThread(() -> {
-                            if (textureView.isAvailable()) {
-                                Bitmap bitmap = textureView.getBitmap();
-                                if (bitmap != null) {
-
-
-                                    // 객체 탐지 수행 - 결과만 가져오고 따로 그리진 않음
-                                    processFrameForOverlay(bitmap);
-
-
-                                } else {
-                                    isProcessingFrame = false;
-                                }
-                            } else {
-                                isProcessingFrame = false;
-                            }
-                        });
+                    // YUV 캡처 중이면 ImageReader 콜백이 프레임을 넣으므로 TextureView 캡처는 생략
+                    if (isCameraMode && imageReader == null) {
+                        runOnUiThread(() -> captureFrame());
                     }
 
-                    // 다음 프레임 처리 예약 (더 짧은 간격으로 처리 가능)
+                    // 다음 프레임 캡처 예약
                     if (backgroundHandler != null) {
-                        backgroundHandler.postDelayed(this, 100); // 100ms 간격으로 수정
+                        backgroundHandler.postDelayed(this, frameRateGovernor.getIntervalMs());
                     }
                 }
             });
@@ -816,288 +832,682 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
         }
     }
 
-    private void processFrameForOverlay(Bitmap bitmap) {
-        if (imageProcessor != null) {
-            new Thread(() -> {
-                // 객체 탐지 및 추적 수행
-
-                long startTime = System.currentTimeMillis();
-
+    /**
+     * 캡처 단계: 프리뷰 비트맵을 풀에서 꺼낸 프레임에 담아 파이프라인에 넣습니다. (UI 스레드)
+     */
+    private void captureFrame() {
+        FramePipeline<PipelineFrame> pipeline = detectionPipeline;
+        if (pipeline == null || !pipeline.isRunning() || !textureView.isAvailable()) {
+            return;
+        }
+        PipelineFrame frame = framePool.poll();
+        if (frame == null) {
+            // 모든 프레임이 처리 중이면 이번 캡처는 건너뜀
+            captureSkippedCount++;
+            return;
+        }
+        Bitmap bitmap = textureView.getBitmap();
+        if (bitmap == null) {
+            framePool.offer(frame);
+            return;
+        }
+        frame.reset(captureSequence++, bitmap);
+        pipeline.submit(frame);
+    }
 
+    /**
+     * 캡처 단계 (YUV 경로): 최신 카메라 이미지의 평면을 풀 프레임에 복사해 파이프라인에 넣습니다.
+     * 백그라운드 스레드에서 호출되며 메인 스레드 readback이 없습니다. 캡처 간격보다 빨리 온 이미지는 바로 닫습니다.
+     */
+    private void onYuvImageAvailable(ImageReader reader) {
+        Image image = reader.acquireLatestImage();
+        if (image == null) {
+            return;
+        }
+        try {
+            FramePipeline<PipelineFrame> pipeline = detectionPipeline;
+            long now = System.currentTimeMillis();
+            if (!isCameraMode || pipeline == null || !pipeline.isRunning()
+                    || now - lastYuvSubmitTime < frameRateGovernor.getIntervalMs()) {
+                return;
+            }
+            PipelineFrame frame = framePool.poll();
+            if (frame == null) {
+                captureSkippedCount++;
+                return;
+            }
+            lastYuvSubmitTime = now;
+            Image.Plane[] planes = image.getPlanes();
+            frame.resetYuv(captureSequence++).copyFrom(image.getWidth(), image.getHeight(),
+                    getUprightRotation(), image.getTimestamp(),
+                    planes[0].getBuffer(), planes[0].getRowStride(),
+                    planes[1].getBuffer(), planes[2].getBuffer(),
+                    planes[1].getRowStride(), planes[1].getPixelStride());
+            pipeline.submit(frame);
+        } finally {
+            image.close();
+        }
+    }
 
+    /**
+     * 센서 영상을 현재 화면 방향으로 세우기 위해 시계 방향으로 돌려야 하는 각도 (후면 카메라)
+     */
+    private int getUprightRotation() {
+        int displayRotation = 0;
+        if (getWindowManager() != null && getWindowManager().getDefaultDisplay() != null) {
+            displayRotation = getWindowManager().getDefaultDisplay().getRotation() * 90;
+        }
+        return (sensorOrientation - displayRotation + 360) % 360;
+    }
 
+    /**
+     * 짧은 변이 모델 입력 이상인 가장 작은 YUV 해상도를 고릅니다. (없으면 가장 큰 해상도)
+     */
+    private static Size chooseYuvSize(Size[] sizes) {
+        if (sizes == null || sizes.length == 0) {
+            return null;
+        }
+        Size best = null;
+        Size largest = sizes[0];
+        for (Size size : sizes) {
+            long area = (long) size.getWidth() * size.getHeight();
+            if (area > (long) largest.getWidth() * largest.getHeight()) {
+                largest = size;
+            }
+            if (Math.min(size.getWidth(), size.getHeight()) >= YUV_MIN_SHORT_SIDE
+                    && (best == null || area < (long) best.getWidth() * best.getHeight())) {
+                best = size;
+            }
+        }
+        return best != null ? best : largest;
+    }
 
+    /**
+     * 모델 로드와 예열이 끝났으면 바로, 아니면 끝나는 대로 탐지 파이프라인을 시작합니다.
+     * 로드가 끝나기 전이면 onEngineReady가 다시 호출하며, 그 전 프레임은 파이프라인이 없으므로 캡처 단계에서 버려집니다.
+     */
+    private void startDetectionPipelineWhenReady() {
+        if (!engineReady) {
+            Log.i(TAG, "모델 로드가 끝나면 탐지 파이프라인을 시작합니다");
+            return;
+        }
+        CompletableFuture<Void> warmUp = detectionEngine.getWarmUpReadiness();
+        if (warmUp.isDone()) {
+            startDetectionPipeline();
+            return;
+        }
+        Log.i(TAG, "모델 예열이 끝나면 탐지 파이프라인을 시작합니다");
+        warmUp.whenComplete((ignored, error) -> {
+            if (isCameraMode && !destroyed) {
+                startDetectionPipeline();
+            }
+        });
+    }
 
-                final List<SimpleTracker.TrackedObject> trackedObjects;
-                List<YoloImageProcessor.Detection> detections;
-                synchronized (imageLock){
-                    long anlstartTime = System.currentTimeMillis();
-                    detections=imageProcessor.processImage(bitmap);
-                    long anlendTime = System.currentTimeMillis();
-                    Log.i("worktime","imageProcessor processImage 작업시간 : "+(anlendTime-anlstartTime));
+    /**
+     * 캡처 -> 전처리 -> 추론 -> 후처리/NMS -> 추적 -> 이벤트 -> 게시 파이프라인을 시작합니다.
+     * 후처리 작업 배열과 추적기는 다른 탐지 경로와 공유하므로 해당 단계만 imageLock을 잡고,
+     * 추론은 인터프리터 풀에서 인터프리터를 빌려 풀 크기만큼 프레임을 동시에 돌린 뒤 캡처 순서대로 후처리에 넘깁니다.
+     * 프레임마다 전처리 때 엔진의 현재 모델을 빌리므로, 실행 중에 모델이 교체되어도 처리 중인 프레임은 원래 모델로 끝납니다.
+     */
+    private synchronized void startDetectionPipeline() {
+        YoloImageProcessor imageProcessor = detectionEngine.getImageProcessor();
+        if (imageProcessor == null || (detectionPipeline != null && detectionPipeline.isRunning())) {
+            return;
+        }
+        framePool.clear();
+        for (int i = 0; i < PIPELINE_FRAME_POOL_SIZE; i++) {
+            framePool.offer(new PipelineFrame());
+        }
+        int inferenceWorkers = Math.min(PIPELINE_MAX_INFERENCE_WORKERS, imageProcessor.getInterpreterPool().size());
+        frameContextPool.clear();
+        for (int i = 0; i < (1 + inferenceWorkers) * PipelineFrame.MAX_PASSES + SERVER_REQUEST_CONTEXTS; i++) {
+            frameContextPool.offer(imageProcessor.createFrameContext());
+        }
 
-                    long anlstartTime2 = System.currentTimeMillis();
-                    trackedObjects = tracker.update(detections,bitmap);
-                    long anlendTime2 = System.currentTimeMillis();
-                    Log.i("worktime","tracker update 작업시간 : "+(anlendTime2-anlstartTime2));
+        FramePipeline<PipelineFrame> pipeline = new FramePipeline<>("Detection",
+                PIPELINE_QUEUE_CAPACITY, PIPELINE_DROP_POLICY, this::recycleFrame);
+        motionGate.reset();
+        detectionScheduler.reset();
+        lastDetections.clear();
+        roiPlanner = createRoiPlanner();
+        tileScheduler = currentCameraProfile != null ? TileScheduler.fromProfile(currentCameraProfile) : null;
+        if (tileScheduler != null) {
+            Log.d(TAG, "타일 추론 사용: " + currentCameraProfile);
+        }
+        pipeline.addStage("preprocess", frame -> {
+            // 탐지 간격 사이의 프레임은 추론 없이 추적기 전파만 함
+            if (USE_DETECTION_INTERVAL && !detectionScheduler.shouldDetect()) {
+                frame.setPropagateOnly(detectionScheduler.getPropagationFraction());
+                return true;
+            }
+            // 장면 변화가 없으면 입출력 버퍼를 빌리지 않고 추론을 건너뜀
+            if (USE_MOTION_GATE) {
+                if (!motionGateAllows(frame)) {
+                    frame.setDetectionSkipped(true);
+                    return true;
                 }
+                frame.setMotionReference(true);
+            }
+            return preprocessFrame(frame);
+        });
+        // 인터프리터는 풀에서 빌리므로 imageLock 없이 작업 스레드마다 다른 프레임을 추론
+        pipeline.addParallelStage("inference", inferenceWorkers, frame -> {
+            if (frame.isDetectionSkipped()) {
+                return true;
+            }
+            long inferenceStart = System.currentTimeMillis();
+            for (int pass = 0; pass < frame.getPassCount(); pass++) {
+                if (!frame.getModel().runInference(frame.getFrameContext(pass))) {
+                    // 추론 기한 초과로 취소됨 - 출력을 버리고 마지막 추적 결과를 속도 모델로만 옮김 (나이 증가 없음)
+                    frame.releaseFrameContexts(frameContextPool);
+                    frame.releaseModel();
+                    frame.setPropagateOnly(detectionScheduler.getPropagationFraction());
+                    break;
+                }
+            }
+            detectionScheduler.onInference(System.currentTimeMillis() - inferenceStart,
+                    frameRateGovernor.getIntervalMs());
+            return true;
+        });
+        pipeline.addStage("postprocess", frame -> {
+            if (frame.isDetectionSkipped()) {
+                // 움직임 게이트: 추적기는 평소처럼 마지막 탐지 결과와 매칭하며 나이를 갱신함
+                // (전파 프레임은 탐지 결과 없이 추적 단계에서 박스만 옮김)
+                if (!frame.isPropagateOnly()) {
+                    frame.getDetections().copyFrom(lastDetections);
+                }
+            } else {
+                synchronized (imageLock) {
+                    if (frame.getPassTile(0) >= 0) {
+                        postprocessTiles(frame);
+                    } else {
+                        frame.getModel().postprocess(frame.getFrameContexts(), frame.getTransforms(),
+                                frame.getPassCount(), frame.getDetections());
+                    }
+                }
+                frame.releaseFrameContexts(frameContextPool);
+                frame.releaseModel();
+                frame.setMotionReference(false);
+                lastDetections.copyFrom(frame.getDetections());
+            }
+            // YUV 프레임은 추적(색상 특징)과 게시에 쓸 비트맵을 여기서 만듦 (다음 프레임 추론과 겹침)
+            if (frame.hasYuv() && frame.getBitmap() == null) {
+                frame.setBitmap(createUprightBitmap(frame));
+            }
+            return true;
+        });
+        pipeline.addStage("tracking", frame -> {
+            synchronized (imageLock) {
+                if (frame.isPropagateOnly()) {
+                    frame.setTrackedObjects(tracker.propagate(frame.getPropagationFraction()));
+                } else {
+                    frame.setTrackedObjects(tracker.update(frame.getDetections(), frame.getBitmap(),
+                            frame.getCaptureTimeNanos()));
+                    detectionScheduler.onTracks(frame.getTrackedObjects());
+                }
+                roiPlanner.updateTracks(frame.getTrackedObjects());
+            }
+            return true;
+        });
+        pipeline.addStage("events", frame -> {
+            detectPersonEvents(frame);
+            return true;
+        });
+        pipeline.addStage("publish", frame -> {
+            publishFrame(frame);
+            return true;
+        });
+        detectionPipeline = pipeline;
+        pipeline.start();
+        Log.d(TAG, "탐지 파이프라인 시작");
+    }
 
+    /**
+     * 가상 선 위아래 구역을 감시 구역으로 등록한 ROI 계획기를 만듭니다.
+     */
+    private RoiPlanner createRoiPlanner() {
+        RoiPlanner planner = new RoiPlanner();
+        float lineTop = Math.min(virtualLineStartY, virtualLineEndY) - ROI_LINE_ZONE_HALF_HEIGHT;
+        float lineBottom = Math.max(virtualLineStartY, virtualLineEndY) + ROI_LINE_ZONE_HALF_HEIGHT;
+        planner.addZone(0f, Math.max(0f, lineTop / 640f), 1f, Math.min(1f, lineBottom / 640f));
+        return planner;
+    }
 
+    /**
+     * 전처리 단계: 타일/크롭(또는 전체 프레임)마다 입출력 버퍼를 빌려 모델 입력으로 변환합니다.
+     * 필요한 버퍼를 모두 빌리지 못하면 빌린 것을 돌려주고 프레임을 버립니다.
+     */
+    private boolean preprocessFrame(PipelineFrame frame) {
+        int frameWidth = frame.hasYuv() ? frame.getYuv().getUprightWidth() : frame.getBitmap().getWidth();
+        int frameHeight = frame.hasYuv() ? frame.getYuv().getUprightHeight() : frame.getBitmap().getHeight();
+        int[] rects = roiRects;
+        TileScheduler tiles = tileScheduler;
+        int passes;
+        if (tiles != null) {
+            passes = tiles.plan(frameWidth, frameHeight, rects, plannedTiles);
+        } else if (USE_ROI_INFERENCE) {
+            passes = roiPlanner.plan(frameWidth, frameHeight, System.currentTimeMillis(), rects);
+        } else {
+            rects[0] = 0;
+            rects[1] = 0;
+            rects[2] = frameWidth;
+            rects[3] = frameHeight;
+            passes = 1;
+        }
 
+        for (int i = 0; i < passes; i++) {
+            FrameContext ctx = frameContextPool.poll();
+            if (ctx == null) {
+                frame.releaseFrameContexts(frameContextPool);
+                if (tiles == null && USE_ROI_INFERENCE && !roiPlanner.isLastPlanFullFrame()) {
+                    roiPlanner.requestFullFrame(); // 건너뛴 프레임 대신 다음 프레임에서 전체 탐색
+                }
+                return false;
+            }
+            frame.addPass(ctx);
+        }
+        ModelSlot.Lease<YoloImageProcessor> model = detectionEngine.acquireImageProcessor();
+        if (model == null) {
+            frame.releaseFrameContexts(frameContextPool);
+            return false;
+        }
+        frame.setModel(model);
+        YoloImageProcessor imageProcessor = model.get();
+        for (int pass = 0; pass < passes; pass++) {
+            FrameContext ctx = frame.getFrameContext(pass);
+            int r = pass * 4;
+            // 프레임 전체 영역이면 크롭 오프셋이 0인 전체 프레임 변환과 같음
+            ResizeTransform transform = frame.hasYuv()
+                    ? imageProcessor.preprocess(frame.getYuv(), rects[r], rects[r + 1], rects[r + 2], rects[r + 3], ctx)
+                    : imageProcessor.preprocess(frame.getBitmap(), rects[r], rects[r + 1], rects[r + 2], rects[r + 3], ctx);
+            frame.setTransform(pass, transform);
+            if (tiles != null) {
+                frame.setPassTile(pass, plannedTiles[pass]);
+            }
+        }
+        return true;
+    }
 
-                Bitmap workingCopy = bitmap.copy(bitmap.getConfig(), true);
-                final Bitmap resultBitmap = drawDetectionsDirectly(workingCopy, trackedObjects);
-
-
-                sendImageViaWebSocket(resultBitmap);
+    /**
+     * 후처리 단계 (타일): 타일별 결과를 저장하고, 이번 주기의 모든 타일 결과를 공용 병합 NMS로 합칩니다.
+     * (imageLock 안에서 호출)
+     */
+    private void postprocessTiles(PipelineFrame frame) {
+        TileScheduler tiles = tileScheduler;
+        YoloImageProcessor imageProcessor = frame.getModel();
+        for (int pass = 0; pass < frame.getPassCount(); pass++) {
+            imageProcessor.postprocess(frame.getFrameContext(pass), frame.getTransform(pass), tileBatch);
+            tiles.storeTile(frame.getPassTile(pass), tileBatch);
+        }
+        if (tileResults.length < tiles.getTileCount()) {
+            tileResults = new DetectionBatch[tiles.getTileCount()];
+        }
+        int count = tiles.collectFresh(tileResults);
+        imageProcessor.mergeDetections(tileResults, count, frame.getDetections());
+    }
 
-                // 현재 프레임에서 감지된 사람 ID 수집
-                Set<Integer> currentPersonIds = new HashSet<>();
-                for (SimpleTracker.TrackedObject obj : trackedObjects) {
-                    if (obj.getConfidence() >= 0.7f && "person".equals(obj.getLabel())) {
-                        currentPersonIds.add(obj.getId());
+    /**
+     * 파이프라인 밖(서버 요청)에서 현재 YOLO 모델로 한 장을 탐지해 추적기를 갱신합니다. (백그라운드 스레드)
+     * 전처리와 추론은 풀에서 빌린 입출력 버퍼로 잠금 없이 하고, 후처리 작업 배열과 추적기를 쓰는 동안만 imageLock을 잡습니다.
+     * 파이프라인이 멈춰 풀이 비어 있으면 버퍼를 새로 만들어 쓰고 풀에 남깁니다.
+     * 탐지 중 모델이 교체되어도 닫히지 않도록 빌려서 쓰며, 추론이 실패하거나 기한을 넘겨 취소되면 마지막 추적 결과를 그대로 돌려줍니다.
+     */
+    private List<SimpleTracker.TrackedObject> detectWithCurrentModel(Bitmap bitmap) throws InterruptedException {
+        FrameContext ctx = null;
+        try (ModelSlot.Lease<YoloImageProcessor> model = detectionEngine.acquireImageProcessor()) {
+            if (model != null) {
+                YoloImageProcessor imageProcessor = model.get();
+                ctx = frameContextPool.poll(SERVER_REQUEST_CONTEXT_WAIT_MS, TimeUnit.MILLISECONDS);
+                if (ctx == null) {
+                    ctx = imageProcessor.createFrameContext();
+                }
+                ResizeTransform transform = imageProcessor.preprocess(bitmap, ctx);
+                if (imageProcessor.runInference(ctx)) {
+                    synchronized (imageLock) {
+                        imageProcessor.postprocess(ctx, transform, detectionBatch);
+                        return tracker.update(detectionBatch, bitmap);
                     }
                 }
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "서버 요청 탐지 중 오류 발생: " + e.getMessage(), e);
+        } finally {
+            if (ctx != null) {
+                frameContextPool.offer(ctx);
+            }
+        }
+        Log.w(TAG, "탐지 실패 또는 기한 초과 - 마지막 추적 결과 사용");
+        synchronized (imageLock) {
+            return tracker.propagate(0f);
+        }
+    }
 
-                // 로깅
-                Log.d("person", "현재 프레임 사람들: " + currentPersonIds);
-                Log.d("person", "기존 관리 중인 사람들: " + personIdCountMap.keySet());
-                Log.d("person", "등장 카운트 중인 사람들: " + personAppearanceCount.keySet());
+    /**
+     * 프리뷰 비트맵을 UI 스레드에서 읽어 옵니다. 읽기만 UI 스레드에서 하고 탐지는 호출한 백그라운드 스레드에서 합니다.
+     *
+     * @return 프리뷰가 준비되지 않았으면 null
+     */
+    private Bitmap captureTextureBitmap() throws InterruptedException {
+        FutureTask<Bitmap> task = new FutureTask<>(() -> textureView.isAvailable() ? textureView.getBitmap() : null);
+        runOnUiThread(task);
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "프리뷰 비트맵 읽기 실패: " + e.getCause());
+            return null;
+        }
+    }
 
-                // 각 ID별 연속 탐지 횟수 업데이트
-                Set<Integer> confirmedNewPersons = new HashSet<>();
+    /**
+     * 움직임 게이트로 이 프레임을 추론할지 판정합니다. (전처리 단계 스레드)
+     */
+    private boolean motionGateAllows(PipelineFrame frame) {
+        long now = System.currentTimeMillis();
+        if (frame.hasYuv()) {
+            return motionGate.shouldDetect(frame.getYuv(), now);
+        }
+        // 비트맵 경로는 격자 크기로 줄인 뒤 비교
+        int gridWidth = motionGate.getGridWidth();
+        int gridHeight = motionGate.getGridHeight();
+        Bitmap small = Bitmap.createScaledBitmap(frame.getBitmap(), gridWidth, gridHeight, false);
+        small.getPixels(motionGatePixels, 0, gridWidth, 0, 0, gridWidth, gridHeight);
+        if (small != frame.getBitmap()) {
+            small.recycle();
+        }
+        return motionGate.shouldDetect(motionGatePixels, gridWidth, gridHeight, gridWidth, now);
+    }
 
-                // 현재 프레임에 있는 ID들의 카운트 증가
-                for (Integer id : currentPersonIds) {
-                    // 이미 등록된 사람은 처리하지 않음
-                    if (personIdCountMap.containsKey(id)) {
-                        // 기존에 있던 사람은 카운트 초기화
-                        personIdCountMap.put(id, 0);
-                    } else {
-                        // 새로운 사람 - 연속 탐지 횟수 증가
-                        int appearCount = personAppearanceCount.getOrDefault(id, 0) + 1;
-                        personAppearanceCount.put(id, appearCount);
-
-                        // 연속 탐지 임계값 도달 시 확정
-                        if (appearCount >= APPEARANCE_THRESHOLD) {
-                            confirmedNewPersons.add(id);
-                            // 확정된 사람은 관리 맵에 추가
-                            personIdCountMap.put(id, 0);
-                            // 연속 탐지 맵에서는 제거
-                            personAppearanceCount.remove(id);
-                        }
-                    }
-                }
+    private Bitmap createUprightBitmap(PipelineFrame frame) {
+        YuvFrame yuv = frame.getYuv();
+        int width = yuv.getUprightWidth();
+        int height = yuv.getUprightHeight();
+        int[] pixels = frame.getArgbPixels(width * height);
+        displayConverter.toArgb(yuv, pixels);
+        return Bitmap.createBitmap(pixels, width, height, Bitmap.Config.ARGB_8888);
+    }
 
-                // 이전 프레임에서 탐지되었으나 현재 프레임에 없는 ID의 연속 탐지 카운트 리셋
-                Iterator<Map.Entry<Integer, Integer>> appearanceIterator = personAppearanceCount.entrySet().iterator();
-                while (appearanceIterator.hasNext()) {
-                    Map.Entry<Integer, Integer> entry = appearanceIterator.next();
-                    if (!currentPersonIds.contains(entry.getKey())) {
-                        // 연속성이 끊겼으므로 제거
-                        appearanceIterator.remove();
-                        Log.d("person", "ID " + entry.getKey() + " 연속 탐지 끊어짐, 카운트 리셋");
-                    }
-                }
+    private synchronized void stopDetectionPipeline() {
+        if (detectionPipeline != null) {
+            detectionPipeline.stop();
+            Log.d(TAG, "탐지 파이프라인 중지: " + detectionPipeline.statsSummary());
+            detectionPipeline = null;
+        }
+    }
 
-                // 새 사람 등장 이벤트 발생 (수정된 코드)
-                if (!confirmedNewPersons.isEmpty()) {
-                    sendPersonAppearanceEvent(confirmedNewPersons, resultBitmap);
-                    Log.d("person", "새로 등장한 사람들(3프레임 연속 감지): " + confirmedNewPersons);
-                }
+    /**
+     * 처리가 끝났거나 도중에 버려진 프레임의 버퍼를 반납합니다.
+     */
+    private void recycleFrame(PipelineFrame frame) {
+        if (frame.isMotionReference()) {
+            // 게이트 기준 격자가 된 프레임이 탐지 결과 없이 끝남 - 다음 프레임을 반드시 추론
+            motionGate.invalidate();
+        }
+        frame.releaseFrameContexts(frameContextPool);
+        frame.releaseModel();
+        Bitmap bitmap = frame.takeBitmap();
+        if (bitmap != null) {
+            bitmap.recycle();
+        }
+        framePool.offer(frame);
+    }
 
-                // 현재 프레임에 없는 사람 처리 (카운트 증가)
-                Set<Integer> missingPersons = new HashSet<>(personIdCountMap.keySet());
-                missingPersons.removeAll(currentPersonIds);
+    /**
+     * 이벤트 단계: 사람 ID의 연속 탐지/미탐지 시간으로 등장/사라짐을 판정해 프레임에 기록합니다.
+     * (이 단계 스레드에서만 사람 상태 맵을 수정)
+     */
+    private void detectPersonEvents(PipelineFrame frame) {
+        // 현재 프레임에서 감지된 사람 ID 수집
+        Set<Integer> currentPersonIds = new HashSet<>();
+        for (SimpleTracker.TrackedObject obj : frame.getTrackedObjects()) {
+            if (obj.getConfidence() >= 0.7f && obj.getClassId() == productCatalog.getPersonClass()) {
+                currentPersonIds.add(obj.getId());
+            }
+        }
 
-                // 사라진 사람들의 카운트 증가
-                for (Integer id : missingPersons) {
-                    int count = personIdCountMap.get(id);
-                    count++;
-                    personIdCountMap.put(id, count);
-                    Log.d("person", "사람 ID " + id + " 사라짐 카운트 증가: " + count);
-                }
+        // 로깅
+        Log.d("person", "현재 프레임 사람들: " + currentPersonIds);
+        Log.d("person", "기존 관리 중인 사람들: " + trackEvents.getPersonLastSeenNanos().keySet());
+        Log.d("person", "등장 확인 중인 사람들: " + trackEvents.getPersonFirstSeenNanos().keySet());
 
-                // 임계값 초과한 사람 확인 (실제로 사라진 사람)
-                Set<Integer> actuallyDisappeared = new HashSet<>();
-                for (Map.Entry<Integer, Integer> entry : personIdCountMap.entrySet()) {
-                    if (entry.getValue() >= DISAPPEARANCE_THRESHOLD) {
-                        actuallyDisappeared.add(entry.getKey());
-                    }
-                }
+        trackEvents.updatePersons(currentPersonIds, frame.getCaptureTimeNanos(), APPEARANCE_MS, DISAPPEARANCE_MS,
+                frame.getNewPersonIds(), frame.getDisappearedPersonIds());
+    }
 
-                // 사라짐 이벤트 발생 및 목록에서 제거
-                if (!actuallyDisappeared.isEmpty()) {
-                    sendPersonDisappearanceEvent(actuallyDisappeared);
-                    Log.d("person", "실제로 사라진 사람들: " + actuallyDisappeared);
+    /**
+     * 게시 단계: 결과 이미지를 그려 전송하고 이벤트/오버레이/결과 텍스트를 갱신합니다.
+     */
+    private void publishFrame(PipelineFrame frame) {
+        List<SimpleTracker.TrackedObject> trackedObjects = frame.getTrackedObjects();
+        Bitmap bitmap = frame.getBitmap();
 
-                    // 사라진 사람은 목록에서 제거
-                    for (Integer id : actuallyDisappeared) {
-                        personIdCountMap.remove(id);
-                    }
-                }
+        Bitmap workingCopy = bitmap.copy(bitmap.getConfig(), true);
+        final Bitmap resultBitmap = drawDetectionsDirectly(workingCopy, trackedObjects);
 
-                // 오버레이 업데이트 (원본 비트맵은 변경하지 않음)
-                updateCameraOverlay(trackedObjects);
+        sendImageViaWebSocket(resultBitmap);
 
-                // 결과 텍스트 업데이트
-                runOnUiThread(() -> {
-                    if (trackedObjects.isEmpty()) {
-                        tvResult.setText("객체를 찾을 수 없습니다.");
-                    } else {
-                        // 결과 텍스트 구성
-                        StringBuilder resultTextBuilder = new StringBuilder();
-                        resultTextBuilder.append("추적 중인 객체: ").append(trackedObjects.size()).append("개\n");
-
-                        for (SimpleTracker.TrackedObject obj : trackedObjects) {
-                            if (obj.getConfidence() >= 0.7f) {
-                                resultTextBuilder.append("ID ").append(obj.getId())
-                                        .append(": ").append(obj.getLabel())
-                                        .append(" (").append(String.format("%.1f", obj.getConfidence() * 100))
-                                        .append("%)\n");
-                            }
-                        }
-                        tvResult.setText(resultTextBuilder.toString());
-                    }
+        // 새 사람 등장 이벤트 발생
+        Set<Integer> confirmedNewPersons = frame.getNewPersonIds();
+        if (!confirmedNewPersons.isEmpty()) {
+            sendPersonAppearanceEvent(confirmedNewPersons, resultBitmap);
+            Log.d("person", "새로 등장한 사람들(" + APPEARANCE_MS + "ms 연속 감지): " + confirmedNewPersons);
+        }
+
+        // 사라짐 이벤트 발생
+        Set<Integer> actuallyDisappeared = frame.getDisappearedPersonIds();
+        if (!actuallyDisappeared.isEmpty()) {
+            sendPersonDisappearanceEvent(actuallyDisappeared);
+            Log.d("person", "실제로 사라진 사람들: " + actuallyDisappeared);
+        }
 
-                    // 다음 프레임 처리 가능하도록 플래그 설정
-                    isProcessingFrame = false;
+        // 오버레이 업데이트 (원본 비트맵은 변경하지 않음)
+        updateCameraOverlay(trackedObjects);
 
-                    // 이미지뷰는 표시하지 않고, 텍스처뷰와 오버레이만 표시
-                    textureView.setVisibility(View.VISIBLE);
-                    overlayView.setVisibility(View.VISIBLE);
-                    imageView.setVisibility(View.GONE);
-                });
+        // 결과 텍스트 업데이트
+        runOnUiThread(() -> {
+            if (trackedObjects.isEmpty()) {
+                tvResult.setText("객체를 찾을 수 없습니다.");
+            } else {
+                // 결과 텍스트 구성
+                StringBuilder resultTextBuilder = new StringBuilder();
+                resultTextBuilder.append("추적 중인 객체: ").append(trackedObjects.size()).append("개\n");
 
-                // 처리 후 비트맵 해제
-                bitmap.recycle();
+                for (SimpleTracker.TrackedObject obj : trackedObjects) {
+                    if (obj.getConfidence() >= 0.7f) {
+                        resultTextBuilder.append("ID ").append(obj.getId())
+                                .append(": ").append(productCatalog.labelOf(obj.getClassId()))
+                                .append(" (").append(String.format("%.1f", obj.getConfidence() * 100))
+                                .append("%)\n");
+                    }
+                }
+                tvResult.setText(resultTextBuilder.toString());
+            }
 
-                long endTime = System.currentTimeMillis();
-                Log.i("worktime","작업시간 : "+(endTime-startTime));
+            // 이미지뷰는 표시하지 않고, 텍스처뷰와 오버레이만 표시
+            textureView.setVisibility(View.VISIBLE);
+            overlayView.setVisibility(View.VISIBLE);
+            imageView.setVisibility(View.GONE);
+        });
 
+        long latencyMs = (System.nanoTime() - frame.getCaptureTimeNanos()) / 1_000_000L;
+        publishLatency.record(latencyMs);
+        updateFrameRate(latencyMs, trackedObjects);
+        FramePipeline<PipelineFrame> pipeline = detectionPipeline;
+        if (pipeline != null && frame.getSequence() % PIPELINE_STATS_INTERVAL == 0) {
+            Log.i(TAG, "파이프라인 통계: " + pipeline.statsSummary() + ", 캡처 건너뜀=" + captureSkippedCount
+                    + ", 캡처~게시 지연: " + publishLatency.summary()
+                    + ", 프레임레이트: " + frameRateGovernor.summary() + ", 움직임 게이트: " + motionGate.summary()
+                    + ", 탐지 간격: " + detectionScheduler.summary()
+                    + ", " + detectionEngine.summary()
+                    + ", " + (tileScheduler != null ? tileScheduler.summary() : roiPlanner.summary()));
+        }
+    }
 
-            }).start();
+    /**
+     * 게시된 프레임의 지연, CPU 사용률, 장면 활동을 프레임레이트 조절기에 알립니다. (게시 단계 스레드)
+     */
+    private void updateFrameRate(long latencyMs, List<SimpleTracker.TrackedObject> trackedObjects) {
+        FrameRateGovernor.Activity activity = FrameRateGovernor.Activity.IDLE;
+        if (lineCrossingDetected) {
+            activity = FrameRateGovernor.Activity.CROSSING;
+            lineCrossingDetected = false;
+            detectionScheduler.requestDetection(); // 전파로 판정한 통과를 다음 프레임 탐지로 바로 확인
         } else {
-            isProcessingFrame = false;
+            for (SimpleTracker.TrackedObject obj : trackedObjects) {
+                float vx = obj.getVelocityX();
+                float vy = obj.getVelocityY();
+                if (obj.getConfidence() >= 0.7f && vx * vx + vy * vy >= MOTION_THRESHOLD_PX * MOTION_THRESHOLD_PX) {
+                    activity = FrameRateGovernor.Activity.MOVING;
+                    break;
+                }
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        sampleCpuLoad(now);
+        FrameRateGovernor.Reason previousReason = frameRateGovernor.getReason();
+        frameRateGovernor.onFrameProcessed(now, latencyMs, cpuLoad, activity);
+        if (frameRateGovernor.getReason() != previousReason) {
+            Log.i(TAG, "프레임레이트 변경: " + frameRateGovernor.summary());
         }
     }
+
+    /**
+     * 프로세스 CPU 시간 증가량을 벽시계 시간과 코어 수로 나눠 사용률(0~1)을 갱신합니다.
+     */
+    private void sampleCpuLoad(long nowMs) {
+        long cpuMs = Process.getElapsedCpuTime();
+        if (cpuSampleWallMs == 0) {
+            cpuSampleWallMs = nowMs;
+            cpuSampleCpuMs = cpuMs;
+            return;
+        }
+        long wallDelta = nowMs - cpuSampleWallMs;
+        if (wallDelta < CPU_SAMPLE_INTERVAL_MS) {
+            return;
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        cpuLoad = Math.min(1f, (float) (cpuMs - cpuSampleCpuMs) / (wallDelta * cores));
+        cpuSampleWallMs = nowMs;
+        cpuSampleCpuMs = cpuMs;
+    }
+
     private void captureAndSendNewFaces(List<Integer> newPersonIds) {
         new Thread(() -> {
             try {
                 Log.i("capture","캡처요청"+newPersonIds);
                 // 최신 프레임을 기다림
                 Thread.sleep(100);
-                runOnUiThread(() -> {
-                    Map<Integer, String> faceInfo = new HashMap<>();
-                    Bitmap currentBitmap = textureView.getBitmap();
+                Map<Integer, String> faceInfo = new HashMap<>();
+                // 비트맵 읽기만 UI 스레드에서 하고 탐지는 이 스레드에서 수행
+                Bitmap currentBitmap = captureTextureBitmap();
+                if (currentBitmap == null) {
+                    Log.d("face", "프리뷰 프레임이 없습니다.");
+                    sendEmptyFaceInfo(newPersonIds);
+                    return;
+                }
 
-                    // 객체 탐지 및 얼굴 감지 수행
-                    List<FaceDetector.Face> faces = faceDetector.detectFaces(currentBitmap);
+                // 객체 탐지 및 얼굴 감지 수행 (얼굴 모델은 요청 스레드끼리 직렬화)
+                List<FaceDetector.Face> faces;
+                synchronized (faceDetector) {
+                    faces = faceDetector.detectFaces(currentBitmap);
+                }
 
-                    List<YoloImageProcessor.Detection> detections;
-                    synchronized (imageLock){
-                        detections=imageProcessor.processImage(currentBitmap);
-                    }
-                    final List<SimpleTracker.TrackedObject> trackedObjects = tracker.update(detections,currentBitmap);
+                final List<SimpleTracker.TrackedObject> trackedObjects = detectWithCurrentModel(currentBitmap);
 
-                    if (faces.isEmpty()) {
-                        Log.d("face", "프레임에서 얼굴을 찾을 수 없습니다.");
-                        // 얼굴이 없더라도 null 값으로 응답 전송
-                        sendEmptyFaceInfo(newPersonIds);
-                        return;
-                    }
+                if (faces.isEmpty()) {
+                    Log.d("face", "프레임에서 얼굴을 찾을 수 없습니다.");
+                    // 얼굴이 없더라도 null 값으로 응답 전송
+                    sendEmptyFaceInfo(newPersonIds);
+                    return;
+                }
 
-                    // 각 새 사람 ID에 대해 처리
-                    for (Integer personId : newPersonIds) {
-                        // 해당 ID를 가진 사람 객체 찾기
-                        SimpleTracker.TrackedObject personObject = null;
-                        for (SimpleTracker.TrackedObject obj : trackedObjects) {
-                            if (obj.getId() == personId && "person".equals(obj.getLabel())) {
-                                personObject = obj;
-                                break;
-                            }
+                // 각 새 사람 ID에 대해 처리
+                for (Integer personId : newPersonIds) {
+                    // 해당 ID를 가진 사람 객체 찾기
+                    SimpleTracker.TrackedObject personObject = null;
+                    for (SimpleTracker.TrackedObject obj : trackedObjects) {
+                        if (obj.getId() == personId && obj.getClassId() == productCatalog.getPersonClass()) {
+                            personObject = obj;
+                            break;
                         }
+                    }
 
-                        if (personObject == null) {
-                            // 사람 객체를 찾지 못했을 때 null 값 저장
-                            faceInfo.put(personId, null);
-                            Log.d("face", "사람 ID " + personId + "에 해당하는 객체를 찾을 수 없습니다.");
-                            continue;
-                        }
+                    if (personObject == null) {
+                        // 사람 객체를 찾지 못했을 때 null 값 저장
+                        faceInfo.put(personId, null);
+                        Log.d("face", "사람 ID " + personId + "에 해당하는 객체를 찾을 수 없습니다.");
+                        continue;
+                    }
 
-                        // 사람 객체의 중심점 계산 (얼굴 쪽으로)
-                        float personCenterX = (personObject.getLeft() + personObject.getRight()) / 2;
-                        float personHeadY = personObject.getTop() + (personObject.getBottom() - personObject.getTop()) * 0.2f; // 상단 20% 지점
+                    // 사람 객체의 중심점 계산 (얼굴 쪽으로)
+                    float personCenterX = (personObject.getLeft() + personObject.getRight()) / 2;
+                    float personHeadY = personObject.getTop() + (personObject.getBottom() - personObject.getTop()) * 0.2f; // 상단 20% 지점
 
-                        // 가장 가까운 얼굴 찾기
-                        FaceDetector.Face bestMatchFace = null;
-                        float minDistance = Float.MAX_VALUE;
+                    // 가장 가까운 얼굴 찾기
+                    FaceDetector.Face bestMatchFace = null;
+                    float minDistance = Float.MAX_VALUE;
 
-                        for (FaceDetector.Face face : faces) {
-                            float faceX = (face.getLeft() + face.getRight()) / 2;
-                            float faceY = (face.getTop() + face.getBottom()) / 2;
+                    for (FaceDetector.Face face : faces) {
+                        float faceX = (face.getLeft() + face.getRight()) / 2;
+                        float faceY = (face.getTop() + face.getBottom()) / 2;
 
-                            // 거리 계산
-                            float distX = Math.abs(faceX - personCenterX);
-                            float distY = Math.abs(faceY - personHeadY) * 2; // Y축 거리에 가중치
-                            float distance = (float) Math.sqrt(distX * distX + distY * distY);
+                        // 거리 계산
+                        float distX = Math.abs(faceX - personCenterX);
+                        float distY = Math.abs(faceY - personHeadY) * 2; // Y축 거리에 가중치
+                        float distance = (float) Math.sqrt(distX * distX + distY * distY);
 
-                            // 거리가 이전 최소값보다 작으면 업데이트
-                            if (distance < minDistance) {
-                                minDistance = distance;
-                                bestMatchFace = face;
-                            }
+                        // 거리가 이전 최소값보다 작으면 업데이트
+                        if (distance < minDistance) {
+                            minDistance = distance;
+                            bestMatchFace = face;
                         }
+                    }
 
-                        // 얼굴-사람 매칭이 적절한지 확인
-                        float maxMatchDistance = Math.min(currentBitmap.getWidth(), currentBitmap.getHeight()) * 0.3f;
-
-                        if (bestMatchFace != null && minDistance < maxMatchDistance) {
-                            Log.d("face", "사람 ID " + personId + "와 매칭된 얼굴 발견 (거리: " + minDistance + ")");
-
-                            // 얼굴 영역 자르기
-                            Bitmap faceCrop = cropFace(currentBitmap, bestMatchFace);
-                            if (faceCrop != null) {
-                                String encodedFace = tobase64(faceCrop);
-                                faceInfo.put(personId, encodedFace);
-                                Log.d("face", "사람 ID " + personId + "의 얼굴 이미지 저장 완료");
-                                faceCrop.recycle(); // 메모리 누수 방지
-                            } else {
-                                faceInfo.put(personId, null);
-                                Log.d("face", "사람 ID " + personId + "의 얼굴 이미지 크롭 실패");
-                            }
+                    // 얼굴-사람 매칭이 적절한지 확인
+                    float maxMatchDistance = Math.min(currentBitmap.getWidth(), currentBitmap.getHeight()) * 0.3f;
+
+                    if (bestMatchFace != null && minDistance < maxMatchDistance) {
+                        Log.d("face", "사람 ID " + personId + "와 매칭된 얼굴 발견 (거리: " + minDistance + ")");
+
+                        // 얼굴 영역 자르기
+                        Bitmap faceCrop = cropFace(currentBitmap, bestMatchFace);
+                        if (faceCrop != null) {
+                            String encodedFace = tobase64(faceCrop);
+                            faceInfo.put(personId, encodedFace);
+                            Log.d("face", "사람 ID " + personId + "의 얼굴 이미지 저장 완료");
+                            faceCrop.recycle(); // 메모리 누수 방지
                         } else {
                             faceInfo.put(personId, null);
-                            Log.d("face", "사람 ID " + personId + "와 매칭되는 얼굴이 없거나 너무 멀리 있습니다.");
+                            Log.d("face", "사람 ID " + personId + "의 얼굴 이미지 크롭 실패");
                         }
+                    } else {
+                        faceInfo.put(personId, null);
+                        Log.d("face", "사람 ID " + personId + "와 매칭되는 얼굴이 없거나 너무 멀리 있습니다.");
                     }
+                }
 
-                    // Map을 JSONObject로 변환
-                    JSONObject facesData = new JSONObject();
+                // Map을 JSONObject로 변환
+                JSONObject facesData = new JSONObject();
 
-                    // JSONObject에 faceInfo Map 데이터 추가 (수정된 부분)
-                    for (Map.Entry<Integer, String> entry : faceInfo.entrySet()) {
-                        try {
-                            facesData.put(String.valueOf(entry.getKey()), entry.getValue());
+                // JSONObject에 faceInfo Map 데이터 추가 (수정된 부분)
+                for (Map.Entry<Integer, String> entry : faceInfo.entrySet()) {
+                    try {
+                        facesData.put(String.valueOf(entry.getKey()), entry.getValue());
 
-                            // 최종 전송할 데이터 포맷 구성
-                            JSONObject dataToSend = new JSONObject();
-                            dataToSend.put("faces", facesData);
+                        // 최종 전송할 데이터 포맷 구성
+                        JSONObject dataToSend = new JSONObject();
+                        dataToSend.put("faces", facesData);
 
 
-                            // 서버로 전송
-                            mSocket.emit("findPersonFace", dataToSend);
-                            Log.d("socket", "얼굴 데이터 전송 완료");
+                        // 서버로 전송
+                        mSocket.emit("findPersonFace", dataToSend);
+                        Log.d("socket", "얼굴 데이터 전송 완료");
 
-                        } catch (JSONException e) {
-                            throw new RuntimeException(e);
-                        }
+                    } catch (JSONException e) {
+                        throw new RuntimeException(e);
                     }
-
-
-
-                });
-
+                }
             } catch (Exception e) {
                 Log.e("face", "얼굴 데이터 처리 오류: " + e.getMessage());
                 e.printStackTrace();
@@ -1261,7 +1671,7 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
                 canvas.drawRect(left, top, right, bottom, boxPaint);
 
                 // 객체 정보 텍스트 그리기
-                String labelText = "ID " + obj.getId() + ": " + obj.getLabel() +
+                String labelText = "ID " + obj.getId() + ": " + productCatalog.labelOf(obj.getClassId()) +
                         " (" + String.format("%.1f", obj.getConfidence() * 100) + "%)";
 
                 Rect textBounds = new Rect();
@@ -1376,13 +1786,15 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
 
     // detectLineCrossing 메서드 내에서 수정
     private void detectLineCrossing(List<SimpleTracker.TrackedObject> trackedObjects, int canvasWidth, int canvasHeight) {
+        Map<Integer, Boolean> wasAboveLine = trackEvents.getWasAboveLine();
+        Map<Integer, Long> lastEventTime = trackEvents.getLastEventTime();
         long currentTime = System.currentTimeMillis();
         StringBuilder eventBuilder = new StringBuilder();
         boolean eventDetected = false;
 
         // 각 객체에 대해 가상 선과의 교차 확인
         for (SimpleTracker.TrackedObject obj : trackedObjects) {
-            if (obj.getConfidence() >= 0.7f && ("cup".equals(obj.getLabel())||"banana".equals(obj.getLabel())||"apple".equals(obj.getLabel()) )) {
+            if (obj.getConfidence() >= 0.7f && productCatalog.isProduct(obj.getClassId())) {
                 int objectId = obj.getId();
 
                 // 객체의 중심점 계산 캔버스에서의위치인것
@@ -1458,7 +1870,7 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
                                 JSONObject actionEventData = new JSONObject();
                                 actionEventData.put("type", "action");
                                 actionEventData.put("personId", personId);
-                                actionEventData.put("object", obj.getLabel());
+                                actionEventData.put("object", productCatalog.labelOf(obj.getClassId()));
                                 actionEventData.put("act", wasAbove == false && isAbove == true ? 0 : 1);
                                 // 0 이면 -> 내려놓기 1이면 -> 집기*****
                                 mSocket.emit("message", actionEventData.toString());
@@ -1470,7 +1882,7 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
 
                         // 이벤트 텍스트 생성
                         eventBuilder.append("ID ").append(objectId)
-                                .append(": ").append(obj.getLabel())
+                                .append(": ").append(productCatalog.labelOf(obj.getClassId()))
                                 .append(" - ").append(direction)
                                 .append(personInfo)
                                 .append("\n");
@@ -1489,6 +1901,7 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
 
         // 이벤트가 발생했으면 UI 업데이트
         if (eventDetected) {
+            lineCrossingDetected = true;
             final String eventText = eventBuilder.toString();
             runOnUiThread(() -> {
                 tvEvent.setText(eventText);
@@ -1510,77 +1923,69 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
                 // 최신 프레임을 기다림
                 Thread.sleep(100);
 
-                if (textureView.isAvailable()) {
-                    runOnUiThread(() -> {
-                        Bitmap bitmap = textureView.getBitmap();
-                        if (bitmap != null) {
-                            final List<SimpleTracker.TrackedObject> trackedObjects;
-                            List<YoloImageProcessor.Detection> detections;
-                            synchronized (imageLock){
-                                detections=imageProcessor.processImage(bitmap);
-                                trackedObjects = tracker.update(detections,bitmap);
-                            }
+                // 비트맵 읽기만 UI 스레드에서 하고 탐지는 이 스레드에서 수행
+                Bitmap bitmap = captureTextureBitmap();
+                if (bitmap != null) {
+                    final List<SimpleTracker.TrackedObject> trackedObjects = detectWithCurrentModel(bitmap);
 
-                            // 키오스크 영역 중심점 계산
-                            float kioskCenterX = (kioskLeft + kioskRight) / 2f;
-                            float kioskCenterY = (kioskTop + kioskBottom) / 2f;
-
-                            // 키오스크에 가장 가까운 사람 찾기
-                            SimpleTracker.TrackedObject nearestPerson = findNearestPerson(trackedObjects, kioskCenterX, kioskCenterY);
-
-                            // 결과 처리
-                            if (nearestPerson != null) {
-                                int personId = nearestPerson.getId();
-
-                                // 사람과 키오스크 간의 거리 계산
-                                float personCenterX = (nearestPerson.getLeft() + nearestPerson.getRight()) / 2f;
-                                float personCenterY = (nearestPerson.getTop() + nearestPerson.getBottom()) / 2f;
-                                float distance = calculateDistance(kioskCenterX, kioskCenterY, personCenterX, personCenterY);
-
-                                Log.d("kiosk", "키오스크에 가장 가까운 사람 ID: " + personId + ", 거리: " + distance);
-
-                                // 서버에 응답 전송
-                                try {
-                                    JSONObject responseData = new JSONObject();
-                                    responseData.put("type", "nearest_person_found");
-                                    responseData.put("personId", personId);
-                                    responseData.put("distance", distance);
-
-                                    mSocket.emit("nearest_person_found", responseData);
-
-                                    // 이벤트 표시
-                                    String eventText = "ID " + personId + ": 키오스크에서 가장 가까운 사람 감지";
-                                    runOnUiThread(() -> {
-                                        tvEvent.setText(eventText);
-                                        tvEvent.setVisibility(View.VISIBLE);
-                                        tvEvent.setBackgroundColor(Color.YELLOW);
-                                        new Handler().postDelayed(() -> {
-                                            tvEvent.setBackgroundColor(Color.parseColor("#22000000"));
-                                        }, 3000);
-                                    });
-                                } catch (Exception e) {
-                                    Log.e("kiosk", "응답 전송 오류: " + e.getMessage());
-                                }
-                            } else {
-                                // 가까운 사람이 없는 경우
-                                Log.d("kiosk", "키오스크 근처에 사람이 없습니다.");
-
-                                // 서버에 응답 전송 (사람 없음)
-                                try {
-                                    JSONObject responseData = new JSONObject();
-                                    responseData.put("type", "nearest_person_found");
-                                    responseData.put("personId", null);
-                                    responseData.put("distance", 0);
-
-                                    mSocket.emit("nearest_person_found", responseData);
-                                } catch (Exception e) {
-                                    Log.e("kiosk", "응답 전송 오류: " + e.getMessage());
-                                }
-                            }
+                    // 키오스크 영역 중심점 계산
+                    float kioskCenterX = (kioskLeft + kioskRight) / 2f;
+                    float kioskCenterY = (kioskTop + kioskBottom) / 2f;
+
+                    // 키오스크에 가장 가까운 사람 찾기
+                    SimpleTracker.TrackedObject nearestPerson = findNearestPerson(trackedObjects, kioskCenterX, kioskCenterY);
+
+                    // 결과 처리
+                    if (nearestPerson != null) {
+                        int personId = nearestPerson.getId();
+
+                        // 사람과 키오스크 간의 거리 계산
+                        float personCenterX = (nearestPerson.getLeft() + nearestPerson.getRight()) / 2f;
+                        float personCenterY = (nearestPerson.getTop() + nearestPerson.getBottom()) / 2f;
+                        float distance = calculateDistance(kioskCenterX, kioskCenterY, personCenterX, personCenterY);
+
+                        Log.d("kiosk", "키오스크에 가장 가까운 사람 ID: " + personId + ", 거리: " + distance);
 
-                            bitmap.recycle();
+                        // 서버에 응답 전송
+                        try {
+                            JSONObject responseData = new JSONObject();
+                            responseData.put("type", "nearest_person_found");
+                            responseData.put("personId", personId);
+                            responseData.put("distance", distance);
+
+                            mSocket.emit("nearest_person_found", responseData);
+
+                            // 이벤트 표시
+                            String eventText = "ID " + personId + ": 키오스크에서 가장 가까운 사람 감지";
+                            runOnUiThread(() -> {
+                                tvEvent.setText(eventText);
+                                tvEvent.setVisibility(View.VISIBLE);
+                                tvEvent.setBackgroundColor(Color.YELLOW);
+                                new Handler().postDelayed(() -> {
+                                    tvEvent.setBackgroundColor(Color.parseColor("#22000000"));
+                                }, 3000);
+                            });
+                        } catch (Exception e) {
+                            Log.e("kiosk", "응답 전송 오류: " + e.getMessage());
+                        }
+                    } else {
+                        // 가까운 사람이 없는 경우
+                        Log.d("kiosk", "키오스크 근처에 사람이 없습니다.");
+
+                        // 서버에 응답 전송 (사람 없음)
+                        try {
+                            JSONObject responseData = new JSONObject();
+                            responseData.put("type", "nearest_person_found");
+                            responseData.put("personId", null);
+                            responseData.put("distance", 0);
+
+                            mSocket.emit("nearest_person_found", responseData);
+                        } catch (Exception e) {
+                            Log.e("kiosk", "응답 전송 오류: " + e.getMessage());
                         }
-                    });
+                    }
+
+                    bitmap.recycle();
                 }
             } catch (Exception e) {
                 Log.e("kiosk", "가장 가까운 사람 찾기 오류: " + e.getMessage());
@@ -1595,7 +2000,7 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
 
         for (SimpleTracker.TrackedObject obj : trackedObjects) {
             // person 객체이고 신뢰도가 충분히 높은 경우만 고려
-            if (obj.getConfidence() >= 0.7f && "person".equals(obj.getLabel())) {
+            if (obj.getConfidence() >= 0.7f && obj.getClassId() == productCatalog.getPersonClass()) {
                 // 사람 객체의 중심점 계산
                 float personCenterX = (obj.getLeft() + obj.getRight()) / 2;
                 float personCenterY = (obj.getTop() + obj.getBottom()) / 2;
@@ -1672,33 +2077,7 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
         }
 
         // 존재하지 않는 객체의 데이터 제거
-        Iterator<Map.Entry<Integer, Float>> prevDistIt = previousDistanceToLine.entrySet().iterator();
-        while (prevDistIt.hasNext()) {
-            if (!currentIds.contains(prevDistIt.next().getKey())) {
-                prevDistIt.remove();
-            }
-        }
-
-        Iterator<Map.Entry<Integer, Float>> prevXIt = previousCenterX.entrySet().iterator();
-        while (prevXIt.hasNext()) {
-            if (!currentIds.contains(prevXIt.next().getKey())) {
-                prevXIt.remove();
-            }
-        }
-
-        Iterator<Map.Entry<Integer, Float>> prevYIt = previousCenterY.entrySet().iterator();
-        while (prevYIt.hasNext()) {
-            if (!currentIds.contains(prevYIt.next().getKey())) {
-                prevYIt.remove();
-            }
-        }
-
-        Iterator<Map.Entry<Integer, Long>> timeIt = lastEventTime.entrySet().iterator();
-        while (timeIt.hasNext()) {
-            if (!currentIds.contains(timeIt.next().getKey())) {
-                timeIt.remove();
-            }
-        }
+        trackEvents.retainObjects(currentIds);
     }
 
     private void closeCamera() {
@@ -1718,6 +2097,11 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
             cameraOpenCloseLock.release();
         }
 
+        stopDetectionPipeline();
+        if (imageReader != null) {
+            imageReader.close();
+            imageReader = null;
+        }
         stopBackgroundThread();
     }
 
@@ -1771,9 +2155,11 @@ public class MainActivity extends AppCompatActivity implements TextureView.Surfa
      */
     @Override
     protected void onDestroy() {
-        // TFLite 모델 리소스 해제
-        if (tfliteLoader != null) {
-            tfliteLoader.close();
+        // 모델/추적기/웹소켓은 엔진이 계속 들고 있으므로 관찰자만 떼고, 이 화면의 파이프라인만 정리
+        destroyed = true;
+        stopDetectionPipeline();
+        if (detectionEngine != null) {
+            detectionEngine.detach(engineListener);
         }
         super.onDestroy();
     }
@@ -0,0 +1,191 @@
+package com.example.quantiztest;
+
+import android.util.Log;
+
+import org.tensorflow.lite.DataType;
+import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.Tensor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * 로드된 모델의 입출력 텐서를 한 번 검증하고 메타데이터를 캐시하는 바인딩입니다.
+ * TFLiteLoader가 모델마다 하나씩 만들며, 프로세서는 프레임 처리 중 인터프리터의
+ * 메타데이터 API를 호출하지 않고 이 바인딩이 고른 입력 인코딩과 출력 디코더를 사용합니다.
+ */
+public class ModelBinding {
+    private static final String TAG = "ModelBinding";
+
+    private final ModelSignature signature;
+    private final TensorSpec input;
+    private final TensorSpec[] outputs;
+
+    public ModelBinding(ModelSignature signature, TensorSpec input, TensorSpec[] outputs) {
+        this.signature = signature;
+        this.input = input;
+        this.outputs = outputs.clone();
+        validate();
+    }
+
+    /**
+     * 인터프리터에서 텐서 정보를 읽어 바인딩을 만듭니다.
+     *
+     * @throws IllegalArgumentException 모델이 기대 형상/타입과 맞지 않을 때
+     */
+    public static ModelBinding bind(Interpreter interpreter, ModelSignature signature) {
+        if (interpreter.getInputTensorCount() != 1) {
+            throw new IllegalArgumentException(signature.getName() + ": 입력 텐서는 1개여야 합니다. (실제 "
+                    + interpreter.getInputTensorCount() + "개)");
+        }
+        TensorSpec input = readSpec(0, interpreter.getInputTensor(0));
+
+        int outputCount = interpreter.getOutputTensorCount();
+        TensorSpec[] outputs = new TensorSpec[outputCount];
+        for (int i = 0; i < outputCount; i++) {
+            outputs[i] = readSpec(i, interpreter.getOutputTensor(i));
+        }
+
+        ModelBinding binding = new ModelBinding(signature, input, outputs);
+        Log.d(TAG, signature.getName() + " 바인딩 완료 - 입력: " + input + ", 출력: " + Arrays.toString(outputs));
+        return binding;
+    }
+
+    private static TensorSpec readSpec(int index, Tensor tensor) {
+        Tensor.QuantizationParams params = tensor.quantizationParams();
+        return new TensorSpec(index, tensor.dataType(), tensor.shape(), params.getScale(), params.getZeroPoint());
+    }
+
+    private void validate() {
+        String name = signature.getName();
+        if (!ModelSignature.shapeMatches(signature.getInputShape(), input.getShape())) {
+            throw new IllegalArgumentException(name + ": 입력 형상 불일치 - 기대 "
+                    + Arrays.toString(signature.getInputShape()) + ", 실제 " + Arrays.toString(input.getShape()));
+        }
+        checkType("입력", input);
+
+        if (outputs.length != signature.getOutputCount()) {
+            throw new IllegalArgumentException(name + ": 출력 텐서 수 불일치 - 기대 "
+                    + signature.getOutputCount() + ", 실제 " + outputs.length);
+        }
+        for (int i = 0; i < outputs.length; i++) {
+            if (!ModelSignature.shapeMatches(signature.getOutputShape(i), outputs[i].getShape())) {
+                throw new IllegalArgumentException(name + ": 출력 #" + i + " 형상 불일치 - 기대 "
+                        + Arrays.toString(signature.getOutputShape(i)) + ", 실제 "
+                        + Arrays.toString(outputs[i].getShape()));
+            }
+            checkType("출력 #" + i, outputs[i]);
+            if (outputs[i].isQuantized() != input.isQuantized()) {
+                throw new IllegalArgumentException(name + ": 입력과 출력 #" + i + "의 양자화 여부가 다릅니다.");
+            }
+            if (outputs[i].isQuantized() && !outputs[i].hasQuantizationParams()) {
+                throw new IllegalArgumentException(name + ": 출력 #" + i + "에 양자화 파라미터(scale/zeroPoint)가 없거나 "
+                        + "범위를 벗어났습니다. (" + outputs[i] + ")");
+            }
+        }
+    }
+
+    private void checkType(String what, TensorSpec spec) {
+        DataType type = spec.getDataType();
+        boolean supported = type == DataType.UINT8 || type == DataType.INT8
+                || (type == DataType.FLOAT32 && signature.isFloatSupported());
+        if (!supported) {
+            throw new IllegalArgumentException(signature.getName() + ": " + what + " 타입 " + type
+                    + "은(는) 지원하지 않습니다.");
+        }
+    }
+
+    /**
+     * 입력 텐서 타입에 맞는 패킹 방식
+     */
+    public ImagePreprocessor.Encoding getInputEncoding() {
+        switch (input.getDataType()) {
+            case INT8:
+                return ImagePreprocessor.Encoding.INT8;
+            case FLOAT32:
+                return ImagePreprocessor.Encoding.FLOAT32;
+            default:
+                return ImagePreprocessor.Encoding.UINT8;
+        }
+    }
+
+    /**
+     * 모델이 양자화(UINT8/INT8) 모델인지 여부
+     */
+    public boolean isQuantized() {
+        return input.isQuantized();
+    }
+
+    /**
+     * 입력(NHWC) 너비
+     */
+    public int getInputWidth() {
+        return input.getDim(2);
+    }
+
+    /**
+     * 입력(NHWC) 높이
+     */
+    public int getInputHeight() {
+        return input.getDim(1);
+    }
+
+    /**
+     * 입력(NHWC) 채널 수
+     */
+    public int getInputChannels() {
+        return input.getDim(3);
+    }
+
+    /**
+     * 이 모델 형상에 맞는 입출력 버퍼를 할당합니다.
+     * 출력은 다차원 배열 대신 텐서 크기 그대로의 direct ByteBuffer(네이티브 바이트 순서)로 만들어,
+     * 인터프리터가 하위 배열 수천 개를 순회하지 않고 한 번에 복사하도록 합니다.
+     */
+    public FrameContext createFrameContext() {
+        FrameContext ctx = new FrameContext(getInputWidth(), getInputHeight(), getInputChannels(),
+                input.getDataType().byteSize());
+        for (TensorSpec output : outputs) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(output.getNumBytes());
+            buffer.order(ByteOrder.nativeOrder());
+            ctx.putOutput(output.getIndex(), buffer);
+        }
+        return ctx;
+    }
+
+    /**
+     * 다른 모델의 바인딩과 입출력 버퍼 형식이 같은지 확인합니다. (모델 교체 시 기존 FrameContext를 그대로 쓸 수 있는지)
+     * 양자화 파라미터는 디코더가 모델마다 따로 가지므로 달라도 됩니다.
+     */
+    public boolean isBufferCompatible(ModelBinding other) {
+        if (!Arrays.equals(input.getShape(), other.input.getShape())
+                || input.getDataType().byteSize() != other.input.getDataType().byteSize()
+                || outputs.length != other.outputs.length) {
+            return false;
+        }
+        for (int i = 0; i < outputs.length; i++) {
+            if (outputs[i].getIndex() != other.outputs[i].getIndex()
+                    || outputs[i].getNumBytes() != other.outputs[i].getNumBytes()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public ModelSignature getSignature() {
+        return signature;
+    }
+
+    public TensorSpec getInput() {
+        return input;
+    }
+
+    public int getOutputCount() {
+        return outputs.length;
+    }
+
+    public TensorSpec getOutput(int index) {
+        return outputs[index];
+    }
+}
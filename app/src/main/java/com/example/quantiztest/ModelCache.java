@@ -0,0 +1,144 @@
+package com.example.quantiztest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+/**
+ * 에셋을 메모리 매핑할 수 없을 때(압축 저장 등) 쓰는 모델 파일 캐시입니다.
+ * 모델 내용의 해시로 이름을 붙인 복사본 하나만 두고 실행마다 재사용하며,
+ * 모델이 바뀌면 새 복사본을 만든 뒤 같은 모델의 예전 복사본과 예전 방식의 임시 파일을 지웁니다.
+ *
+ * 해시는 TuningStore.hash와 같은 형식이라 튜닝 결과 키로 그대로 쓸 수 있습니다.
+ */
+public class ModelCache {
+    private static final String EXTENSION = ".tflite";
+    private static final String LEGACY_TEMP_PREFIX = "tflite"; // 예전에 createTempFile로 만들던 복사본
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 모델 내용을 처음부터 읽을 스트림 (해시 계산과 복사에 한 번씩 열 수 있음)
+     */
+    public interface Source {
+        InputStream open() throws IOException;
+    }
+
+    private final File directory;
+    private final String prefix;
+    private final Pattern copyName; // 이 모델의 복사본/임시 파일 이름 (다른 모델의 복사본과 구분)
+
+    private String hash;
+    private boolean hit;
+
+    /**
+     * @param directory 복사본을 둘 디렉터리 (없으면 만듦)
+     * @param modelName 에셋 이름 (복사본 이름 앞부분)
+     */
+    public ModelCache(File directory, String modelName) {
+        this.directory = directory;
+        String base = modelName.endsWith(EXTENSION)
+                ? modelName.substring(0, modelName.length() - EXTENSION.length())
+                : modelName;
+        this.prefix = base.replaceAll("[^A-Za-z0-9._]", "_") + "-";
+        this.copyName = Pattern.compile(Pattern.quote(prefix) + "[0-9a-f]{16}\\.(tflite|tmp)");
+    }
+
+    /**
+     * 내용 해시에 맞는 복사본을 돌려줍니다. 없으면 복사하고, 같은 모델의 다른 복사본은 지웁니다.
+     */
+    public File obtain(Source source) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("캐시 디렉터리를 만들 수 없습니다: " + directory);
+        }
+        // 1. 내용만 읽어 해시 계산 (쓰기 없음)
+        long[] length = new long[1];
+        hash = digest(source, null, length);
+        File cached = new File(directory, prefix + hash + EXTENSION);
+
+        hit = cached.isFile() && cached.length() == length[0];
+        if (!hit) {
+            // 2. 임시 파일에 복사한 뒤 이름을 바꿔, 도중에 끊긴 복사본이 캐시로 쓰이지 않게 함
+            File temp = new File(directory, prefix + hash + ".tmp");
+            String copied;
+            try (OutputStream out = new FileOutputStream(temp)) {
+                copied = digest(source, out, length);
+            }
+            if (!copied.equals(hash) || (cached.exists() && !cached.delete()) || !temp.renameTo(cached)) {
+                temp.delete();
+                throw new IOException("모델 캐시 복사 실패: " + cached);
+            }
+        }
+        removeStale(cached);
+        return cached;
+    }
+
+    /**
+     * 스트림을 끝까지 읽어 해시를 구하고, out이 있으면 같이 씁니다.
+     */
+    private static String digest(Source source, OutputStream out, long[] length) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long total = 0;
+        try (InputStream in = source.open()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                if (out != null) {
+                    out.write(buffer, 0, read);
+                }
+                total += read;
+            }
+        }
+        length[0] = total;
+        return TuningStore.toHex(digest.digest());
+    }
+
+    /**
+     * 이 모델의 복사본과 예전 방식의 임시 복사본을 모두 지웁니다. (에셋을 바로 매핑할 수 있게 된 경우)
+     */
+    public void clear() {
+        removeStale(null);
+    }
+
+    /**
+     * 같은 모델의 예전 해시 복사본(current 제외), 끊긴 임시 파일, 예전 방식의 임시 복사본을 지웁니다.
+     */
+    private void removeStale(File current) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            boolean stale = copyName.matcher(name).matches() && !file.equals(current);
+            boolean legacy = name.startsWith(LEGACY_TEMP_PREFIX) && name.endsWith(".tmp");
+            if (stale || legacy) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * 마지막 obtain의 모델 내용 해시
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * 마지막 obtain이 기존 복사본을 재사용했는지 여부
+     */
+    public boolean wasHit() {
+        return hit;
+    }
+}
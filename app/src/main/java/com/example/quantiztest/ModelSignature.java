@@ -0,0 +1,60 @@
+package com.example.quantiztest;
+
+/**
+ * 프로세서가 기대하는 모델 입출력 형상입니다. ModelBinding이 로드 시 실제 모델과 비교합니다.
+ * 형상의 -1은 어떤 크기든 허용한다는 의미입니다.
+ */
+public class ModelSignature {
+    private final String name;
+    private final int[] inputShape;
+    private final int[][] outputShapes;
+    private final boolean floatSupported;
+
+    public ModelSignature(String name, int[] inputShape, int[][] outputShapes, boolean floatSupported) {
+        this.name = name;
+        this.inputShape = inputShape.clone();
+        this.outputShapes = new int[outputShapes.length][];
+        for (int i = 0; i < outputShapes.length; i++) {
+            this.outputShapes[i] = outputShapes[i].clone();
+        }
+        this.floatSupported = floatSupported;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int[] getInputShape() {
+        return inputShape.clone();
+    }
+
+    public int getOutputCount() {
+        return outputShapes.length;
+    }
+
+    public int[] getOutputShape(int index) {
+        return outputShapes[index].clone();
+    }
+
+    /**
+     * FLOAT32 모델을 처리할 수 있는 프로세서인지 여부 (false면 UINT8/INT8만 허용)
+     */
+    public boolean isFloatSupported() {
+        return floatSupported;
+    }
+
+    /**
+     * 실제 텐서 형상이 기대 형상과 맞는지 확인합니다.
+     */
+    static boolean shapeMatches(int[] expected, int[] actual) {
+        if (expected.length != actual.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != -1 && expected[i] != actual[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
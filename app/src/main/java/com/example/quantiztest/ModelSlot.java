@@ -0,0 +1,190 @@
+package com.example.quantiztest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 실행 중인 파이프라인의 모델을 프레임 사이에 원자적으로 교체하는 슬롯입니다.
+ * 프레임은 처리를 시작할 때 acquire로 현재 모델을 빌려 끝날 때까지 같은 모델을 쓰고,
+ * swap은 새 모델을 현재 모델로, 직전 모델을 즉시 되돌릴 수 있는 예비 모델로 둡니다.
+ * 더 오래된 모델은 빌려 간 프레임이 모두 반납한 뒤에 닫습니다.
+ *
+ * @param <T> 모델 (닫기는 생성 시 넘긴 Closer가 담당)
+ */
+public class ModelSlot<T> {
+
+    /**
+     * 더 이상 쓰지 않는 모델을 닫는 방법
+     */
+    public interface Closer<T> {
+        void close(T model);
+    }
+
+    private final Closer<T> closer;
+    private final AtomicReference<Handle<T>> current = new AtomicReference<>();
+    private Handle<T> previous; // 되돌리기용 직전 모델 (swap/rollback은 this로 동기화)
+    private int generation;
+    private boolean closed;
+
+    public ModelSlot(T initial, Closer<T> closer) {
+        this.closer = closer;
+        this.current.set(new Handle<>(initial, 0, closer));
+    }
+
+    /**
+     * 현재 모델을 빌립니다. 반환한 Lease를 close할 때까지 모델은 닫히지 않습니다. (닫힌 슬롯이면 null)
+     */
+    public Lease<T> acquire() {
+        while (true) {
+            Handle<T> handle = current.get();
+            if (handle == null) {
+                return null;
+            }
+            if (handle.retain()) {
+                return new Lease<>(handle);
+            }
+            // 빌리는 사이에 교체되어 닫힌 모델 - 새 현재 모델로 다시 시도
+        }
+    }
+
+    /**
+     * 현재 모델 (빌리지 않고 잠깐 살펴볼 때만 사용, 닫힌 슬롯이면 null)
+     */
+    public T get() {
+        Handle<T> handle = current.get();
+        return handle != null ? handle.model : null;
+    }
+
+    /**
+     * 새 모델을 현재 모델로 바꿉니다. 직전 모델은 예비로 남기고, 그 전의 예비 모델은 반납되는 대로 닫습니다.
+     *
+     * @return 새 모델의 세대 번호 (처음 모델이 0)
+     */
+    public synchronized int swap(T next) {
+        if (closed) {
+            closer.close(next);
+            throw new IllegalStateException("닫힌 모델 슬롯입니다");
+        }
+        Handle<T> handle = new Handle<>(next, ++generation, closer);
+        Handle<T> replaced = current.getAndSet(handle);
+        if (previous != null) {
+            previous.release();
+        }
+        previous = replaced;
+        return handle.generation;
+    }
+
+    /**
+     * 예비 모델과 현재 모델을 맞바꿉니다. 다시 호출하면 원래대로 돌아갑니다.
+     *
+     * @return 되돌릴 예비 모델이 없으면 false
+     */
+    public synchronized boolean rollback() {
+        if (previous == null || current.get() == null) {
+            return false;
+        }
+        previous = current.getAndSet(previous);
+        return true;
+    }
+
+    /**
+     * 현재 모델의 세대 번호 (닫힌 슬롯이면 -1)
+     */
+    public int getGeneration() {
+        Handle<T> handle = current.get();
+        return handle != null ? handle.generation : -1;
+    }
+
+    /**
+     * 되돌릴 예비 모델이 있는지 여부
+     */
+    public synchronized boolean hasPrevious() {
+        return previous != null;
+    }
+
+    /**
+     * 현재/예비 모델을 모두 반납합니다. 빌려 간 프레임이 있으면 반납될 때 닫힙니다.
+     */
+    public synchronized void close() {
+        closed = true;
+        Handle<T> handle = current.getAndSet(null);
+        if (handle != null) {
+            handle.release();
+        }
+        if (previous != null) {
+            previous.release();
+            previous = null;
+        }
+    }
+
+    /**
+     * 로그용 한 줄 요약
+     */
+    public synchronized String summary() {
+        Handle<T> handle = current.get();
+        return "모델 세대=" + (handle != null ? handle.generation : -1)
+                + ", 예비=" + (previous != null ? previous.generation : -1)
+                + ", 사용 중=" + (handle != null ? handle.refs.get() - 1 : 0);
+    }
+
+    /**
+     * 모델과 참조 수 (슬롯이 현재/예비로 들고 있는 동안 1, 빌릴 때마다 1씩 증가)
+     */
+    private static class Handle<T> {
+        final T model;
+        final int generation;
+        final Closer<T> closer;
+        final AtomicInteger refs = new AtomicInteger(1);
+
+        Handle(T model, int generation, Closer<T> closer) {
+            this.model = model;
+            this.generation = generation;
+            this.closer = closer;
+        }
+
+        boolean retain() {
+            while (true) {
+                int count = refs.get();
+                if (count == 0) {
+                    return false;
+                }
+                if (refs.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (refs.decrementAndGet() == 0) {
+                closer.close(model);
+            }
+        }
+    }
+
+    /**
+     * 빌린 모델. close로 한 번만 반납합니다. (try-with-resources 가능)
+     */
+    public static class Lease<T> implements AutoCloseable {
+        private Handle<T> handle;
+
+        Lease(Handle<T> handle) {
+            this.handle = handle;
+        }
+
+        public T get() {
+            return handle.model;
+        }
+
+        public int getGeneration() {
+            return handle.generation;
+        }
+
+        @Override
+        public void close() {
+            if (handle != null) {
+                handle.release();
+                handle = null;
+            }
+        }
+    }
+}
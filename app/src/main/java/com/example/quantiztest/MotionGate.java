@@ -0,0 +1,233 @@
+package com.example.quantiztest;
+
+/**
+ * 장면이 바뀌지 않은 프레임의 추론을 건너뛰기 위한 움직임 게이트입니다.
+ * 프레임을 작은 휘도 격자(기본 80x60)로 줄여 마지막으로 추론한 프레임의 격자와 블록 단위로 비교하고,
+ * 가장 많이 바뀐 블록의 평균 차이가 노이즈 임계값 이하이면 추론을 건너뛰어도 된다고 판단합니다.
+ *
+ * 직전 프레임이 아니라 마지막 추론 프레임과 비교하므로 천천히 누적되는 변화도 결국 감지되며,
+ * 일정 시간마다 변화와 관계없이 한 번씩 전체 추론을 강제합니다.
+ * 스레드 안전하지 않으므로 한 스레드(전처리 단계)에서만 사용해야 합니다. (invalidate 제외)
+ */
+public class MotionGate {
+    public static final int DEFAULT_GRID_WIDTH = 80;
+    public static final int DEFAULT_GRID_HEIGHT = 60;
+    public static final int DEFAULT_BLOCK_SIZE = 8;
+    public static final int DEFAULT_NOISE_THRESHOLD = 10; // 블록 평균 휘도 차이 (0~255)
+
+    private final int gridWidth;
+    private final int gridHeight;
+    private final int blockSize;
+    private final int noiseThreshold;
+    private final long forceIntervalMs;
+
+    // 이번 프레임 격자와 마지막 추론 프레임 격자 (판정 후 교환)
+    private byte[] current;
+    private byte[] reference;
+    private boolean hasReference;
+    // 추론하기로 한 프레임이 결과를 내지 못함 - 다음 판정에서 기준 격자를 버림 (다른 단계 스레드가 설정)
+    private volatile boolean invalidated;
+    private int referenceSourceWidth;
+    private int referenceSourceHeight;
+    private long lastDetectMs;
+    private final int[] columnOffsets;
+
+    private int lastScore;
+    private long detectedCount;
+    private long skippedCount;
+    private long forcedCount;
+
+    public MotionGate(long forceIntervalMs) {
+        this(DEFAULT_GRID_WIDTH, DEFAULT_GRID_HEIGHT, DEFAULT_BLOCK_SIZE, DEFAULT_NOISE_THRESHOLD, forceIntervalMs);
+    }
+
+    /**
+     * @param gridWidth       축소 격자 가로 크기
+     * @param gridHeight      축소 격자 세로 크기
+     * @param blockSize       차이를 평균 내는 격자 블록 크기
+     * @param noiseThreshold  이 값 이하의 블록 평균 차이는 노이즈로 봄
+     * @param forceIntervalMs 변화가 없어도 추론을 강제하는 간격 (ms)
+     */
+    public MotionGate(int gridWidth, int gridHeight, int blockSize, int noiseThreshold, long forceIntervalMs) {
+        if (gridWidth <= 0 || gridHeight <= 0 || blockSize <= 0) {
+            throw new IllegalArgumentException("잘못된 격자 크기: " + gridWidth + "x" + gridHeight + "/" + blockSize);
+        }
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.blockSize = blockSize;
+        this.noiseThreshold = noiseThreshold;
+        this.forceIntervalMs = forceIntervalMs;
+        this.current = new byte[gridWidth * gridHeight];
+        this.reference = new byte[gridWidth * gridHeight];
+        this.columnOffsets = new int[gridWidth];
+    }
+
+    /**
+     * YUV 프레임의 Y 평면으로 판정합니다. (센서 방향 그대로 비교하므로 회전은 무시)
+     */
+    public boolean shouldDetect(YuvFrame frame, long nowMs) {
+        downsampleLuma(frame.getY(), frame.getYRowStride(), frame.getWidth(), frame.getHeight());
+        return decide(frame.getWidth(), frame.getHeight(), nowMs);
+    }
+
+    /**
+     * ARGB 픽셀로 판정합니다. (TextureView 비트맵 경로)
+     */
+    public boolean shouldDetect(int[] argb, int width, int height, int stride, long nowMs) {
+        downsampleArgb(argb, width, height, stride);
+        return decide(width, height, nowMs);
+    }
+
+    /**
+     * 다음 프레임은 반드시 추론하도록 기준 격자를 버립니다. (파이프라인 재시작, 모델 교체 등)
+     */
+    public void reset() {
+        hasReference = false;
+    }
+
+    /**
+     * 추론하기로 판정한 프레임이 전처리 실패, 큐에서 버려짐, 추론 기한 초과 등으로 탐지 결과를 내지 못했음을 알립니다.
+     * 기준 격자는 그 프레임으로 이미 바뀌었으므로 다음 판정에서 버려 반드시 다시 추론합니다. 어느 스레드에서나 호출할 수 있습니다.
+     */
+    public void invalidate() {
+        invalidated = true;
+    }
+
+    private boolean decide(int sourceWidth, int sourceHeight, long nowMs) {
+        if (invalidated) {
+            invalidated = false;
+            hasReference = false;
+        }
+        boolean detect;
+        if (!hasReference || sourceWidth != referenceSourceWidth || sourceHeight != referenceSourceHeight) {
+            lastScore = Integer.MAX_VALUE;
+            detect = true;
+        } else {
+            lastScore = maxBlockDifference(current, reference, gridWidth, gridHeight, blockSize);
+            detect = lastScore > noiseThreshold;
+            if (!detect && nowMs - lastDetectMs >= forceIntervalMs) {
+                forcedCount++;
+                detect = true;
+            }
+        }
+
+        if (detect) {
+            byte[] swap = reference;
+            reference = current;
+            current = swap;
+            hasReference = true;
+            referenceSourceWidth = sourceWidth;
+            referenceSourceHeight = sourceHeight;
+            lastDetectMs = nowMs;
+            detectedCount++;
+        } else {
+            skippedCount++;
+        }
+        return detect;
+    }
+
+    /**
+     * 각 격자 칸 중앙의 2x2 휘도 평균을 격자에 기록합니다.
+     */
+    private void downsampleLuma(byte[] y, int rowStride, int width, int height) {
+        buildColumnOffsets(width);
+        int lastRow = height - 1;
+        for (int gy = 0, o = 0; gy < gridHeight; gy++) {
+            int row = (int) ((gy + 0.5f) * height / gridHeight);
+            int row0 = Math.min(row, lastRow) * rowStride;
+            int row1 = Math.min(row + 1, lastRow) * rowStride;
+            for (int gx = 0; gx < gridWidth; gx++, o++) {
+                int x0 = columnOffsets[gx];
+                int x1 = Math.min(x0 + 1, width - 1);
+                int sum = (y[row0 + x0] & 0xFF) + (y[row0 + x1] & 0xFF)
+                        + (y[row1 + x0] & 0xFF) + (y[row1 + x1] & 0xFF);
+                current[o] = (byte) (sum >> 2);
+            }
+        }
+    }
+
+    /**
+     * 각 격자 칸 중앙 픽셀의 휘도(정수 BT.601 근사)를 격자에 기록합니다.
+     */
+    private void downsampleArgb(int[] argb, int width, int height, int stride) {
+        buildColumnOffsets(width);
+        for (int gy = 0, o = 0; gy < gridHeight; gy++) {
+            int row = Math.min((int) ((gy + 0.5f) * height / gridHeight), height - 1) * stride;
+            for (int gx = 0; gx < gridWidth; gx++, o++) {
+                int pixel = argb[row + columnOffsets[gx]];
+                int r = (pixel >> 16) & 0xFF;
+                int g = (pixel >> 8) & 0xFF;
+                int b = pixel & 0xFF;
+                current[o] = (byte) ((77 * r + 150 * g + 29 * b) >> 8);
+            }
+        }
+    }
+
+    private void buildColumnOffsets(int width) {
+        for (int gx = 0; gx < gridWidth; gx++) {
+            columnOffsets[gx] = Math.min((int) ((gx + 0.5f) * width / gridWidth), width - 1);
+        }
+    }
+
+    /**
+     * 두 격자를 blockSize 블록으로 나눠 블록별 평균 절대 차이 중 최댓값을 구합니다.
+     * (가장자리의 잘린 블록은 실제 칸 수로 나눔)
+     */
+    static int maxBlockDifference(byte[] a, byte[] b, int width, int height, int blockSize) {
+        int max = 0;
+        for (int by = 0; by < height; by += blockSize) {
+            int yEnd = Math.min(by + blockSize, height);
+            for (int bx = 0; bx < width; bx += blockSize) {
+                int xEnd = Math.min(bx + blockSize, width);
+                int sum = 0;
+                for (int y = by; y < yEnd; y++) {
+                    int row = y * width;
+                    for (int x = row + bx, end = row + xEnd; x < end; x++) {
+                        int diff = (a[x] & 0xFF) - (b[x] & 0xFF);
+                        sum += diff < 0 ? -diff : diff;
+                    }
+                }
+                int mean = sum / ((yEnd - by) * (xEnd - bx));
+                if (mean > max) {
+                    max = mean;
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 마지막 판정의 최대 블록 차이 (기준 격자가 없었으면 Integer.MAX_VALUE)
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    public long getDetectedCount() {
+        return detectedCount;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public long getForcedCount() {
+        return forcedCount;
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    /**
+     * 로그용 한 줄 요약
+     */
+    public String summary() {
+        return "추론=" + detectedCount + " 건너뜀=" + skippedCount + " 강제=" + forcedCount
+                + " 최근 차이=" + (lastScore == Integer.MAX_VALUE ? "-" : String.valueOf(lastScore));
+    }
+}
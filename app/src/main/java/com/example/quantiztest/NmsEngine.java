@@ -0,0 +1,297 @@
+package com.example.quantiztest;
+
+import java.util.Arrays;
+
+/**
+ * YOLO와 얼굴 탐지가 같이 쓰는 기본형 배열 기반 NMS 엔진입니다.
+ * 후보를 객체 대신 좌표/점수/클래스 병렬 배열(struct-of-arrays)로 받아
+ * 1) 0~255로 양자화한 점수로 256칸 계수 정렬 (같은 점수는 입력 순서 유지)
+ * 2) 클래스별로 안정 분할하여 같은 클래스끼리만 비교
+ * 3) 좌표가 떨어져 있거나 면적 비만으로 임계값을 넘을 수 없는 쌍은 IoU 계산 전에 제외
+ * 하는 순서로 처리합니다. 작업 배열은 재사용하므로 프레임 중 할당이 없습니다.
+ */
+public class NmsEngine {
+    private static final int SCORE_BUCKETS = 256;
+
+    // 입력 후보 (struct-of-arrays)
+    private float[] x1;
+    private float[] y1;
+    private float[] x2;
+    private float[] y2;
+    private float[] areas;
+    private float[] scores;
+    private int[] scoreKeys;
+    private int[] classIds;
+    private int count;
+    private int maxClassId = -1;
+
+    // 작업 배열
+    private int[] scoreOrder;
+    private int[] classOrder;
+    private boolean[] suppressed;
+    private final int[] scoreBucketStart = new int[SCORE_BUCKETS];
+    private int[] classBucketStart = new int[1];
+
+    // 클래스별 IoU 임계값 (설정되지 않은 클래스는 기본값)
+    private final float defaultIouThreshold;
+    private float[] iouThresholds = new float[0];
+
+    // 마지막 실행에서 실제로 IoU를 계산한 쌍 수 / 조기 제외된 쌍 수
+    private int iouComputations;
+    private int earlyRejections;
+
+    public NmsEngine(int initialCapacity, float defaultIouThreshold) {
+        this.defaultIouThreshold = defaultIouThreshold;
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    private void allocate(int capacity) {
+        x1 = new float[capacity];
+        y1 = new float[capacity];
+        x2 = new float[capacity];
+        y2 = new float[capacity];
+        areas = new float[capacity];
+        scores = new float[capacity];
+        scoreKeys = new int[capacity];
+        classIds = new int[capacity];
+        scoreOrder = new int[capacity];
+        classOrder = new int[capacity];
+        suppressed = new boolean[capacity];
+    }
+
+    private void grow() {
+        int capacity = x1.length * 2;
+        x1 = Arrays.copyOf(x1, capacity);
+        y1 = Arrays.copyOf(y1, capacity);
+        x2 = Arrays.copyOf(x2, capacity);
+        y2 = Arrays.copyOf(y2, capacity);
+        areas = Arrays.copyOf(areas, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+        scoreKeys = Arrays.copyOf(scoreKeys, capacity);
+        classIds = Arrays.copyOf(classIds, capacity);
+        scoreOrder = new int[capacity];
+        classOrder = new int[capacity];
+        suppressed = new boolean[capacity];
+    }
+
+    /**
+     * 클래스별 IoU 임계값을 설정합니다.
+     */
+    public void setIouThreshold(int classId, float threshold) {
+        if (classId >= iouThresholds.length) {
+            int oldLength = iouThresholds.length;
+            iouThresholds = Arrays.copyOf(iouThresholds, classId + 1);
+            Arrays.fill(iouThresholds, oldLength, iouThresholds.length, defaultIouThreshold);
+        }
+        iouThresholds[classId] = threshold;
+    }
+
+    private float iouThreshold(int classId) {
+        return classId < iouThresholds.length ? iouThresholds[classId] : defaultIouThreshold;
+    }
+
+    /**
+     * 새 프레임을 시작합니다.
+     */
+    public void clear() {
+        count = 0;
+        maxClassId = -1;
+    }
+
+    /**
+     * 후보를 추가합니다.
+     *
+     * @param score 0~1 범위 점수 (정렬 키는 255단계로 양자화)
+     * @return 후보 인덱스 (run 결과에서 이 값으로 원래 후보를 찾음)
+     */
+    public int add(int classId, float score, float left, float top, float right, float bottom) {
+        if (classId < 0) {
+            throw new IllegalArgumentException("잘못된 클래스: " + classId);
+        }
+        if (count == x1.length) {
+            grow();
+        }
+        int i = count++;
+        x1[i] = left;
+        y1[i] = top;
+        x2[i] = right;
+        y2[i] = bottom;
+        areas[i] = (right - left) * (bottom - top);
+        scores[i] = score;
+        int key = (int) (score * 255f + 0.5f);
+        scoreKeys[i] = key < 0 ? 0 : (key > 255 ? 255 : key);
+        classIds[i] = classId;
+        if (classId > maxClassId) {
+            maxClassId = classId;
+        }
+        return i;
+    }
+
+    /**
+     * NMS를 실행합니다.
+     *
+     * @param outKeep 남은 후보 인덱스를 점수 내림차순으로 기록할 배열 (후보 수 이상 크기)
+     * @return 남은 후보 수
+     */
+    public int run(int[] outKeep) {
+        int n = count;
+        iouComputations = 0;
+        earlyRejections = 0;
+        if (n == 0) {
+            return 0;
+        }
+
+        sortByScore(n);
+        partitionByClass(n);
+        Arrays.fill(suppressed, 0, n, false);
+
+        // 클래스 구간마다 점수 내림차순으로 억제
+        for (int c = 0; c <= maxClassId; c++) {
+            int start = classBucketStart[c];
+            int end = classBucketStart[c + 1];
+            if (end - start < 2) {
+                continue;
+            }
+            suppressClass(start, end, iouThreshold(c));
+        }
+
+        // 점수 순서를 유지하며 남은 후보 수집
+        int kept = 0;
+        for (int k = 0; k < n; k++) {
+            int i = scoreOrder[k];
+            if (!suppressed[i]) {
+                outKeep[kept++] = i;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * 점수 키 내림차순 계수 정렬 (같은 키는 입력 순서 유지) -> scoreOrder
+     */
+    private void sortByScore(int n) {
+        int[] start = scoreBucketStart;
+        Arrays.fill(start, 0);
+        for (int i = 0; i < n; i++) {
+            // 내림차순: 키 255가 0번 칸
+            start[255 - scoreKeys[i]]++;
+        }
+        for (int b = 0, sum = 0; b < SCORE_BUCKETS; b++) {
+            int bucketCount = start[b];
+            start[b] = sum;
+            sum += bucketCount;
+        }
+        for (int i = 0; i < n; i++) {
+            scoreOrder[start[255 - scoreKeys[i]]++] = i;
+        }
+    }
+
+    /**
+     * scoreOrder를 클래스별로 안정 분할 -> classOrder, classBucketStart
+     */
+    private void partitionByClass(int n) {
+        int buckets = maxClassId + 1;
+        if (classBucketStart.length < buckets + 1) {
+            classBucketStart = new int[buckets + 1];
+        }
+        int[] start = classBucketStart;
+        Arrays.fill(start, 0, buckets + 1, 0);
+        for (int k = 0; k < n; k++) {
+            start[classIds[k] + 1]++;
+        }
+        for (int c = 0; c < buckets; c++) {
+            start[c + 1] += start[c];
+        }
+        // 끝 위치에서 거꾸로 채우면 점수 순서가 유지되고 끝 위치가 시작 위치가 됨
+        for (int k = n - 1; k >= 0; k--) {
+            int i = scoreOrder[k];
+            classOrder[--start[classIds[i] + 1]] = i;
+        }
+        // start[c + 1]이 이제 클래스 c의 시작이므로 한 칸 당김
+        for (int c = 0; c < buckets; c++) {
+            start[c] = start[c + 1];
+        }
+        start[buckets] = n;
+    }
+
+    private void suppressClass(int start, int end, float threshold) {
+        int[] order = classOrder;
+        for (int a = start; a < end; a++) {
+            int i = order[a];
+            if (suppressed[i]) {
+                continue;
+            }
+            float ix1 = x1[i], iy1 = y1[i], ix2 = x2[i], iy2 = y2[i];
+            float iArea = areas[i];
+            for (int b = a + 1; b < end; b++) {
+                int j = order[b];
+                if (suppressed[j]) {
+                    continue;
+                }
+                // 좌표가 겹치지 않으면 IoU는 0
+                if (x1[j] > ix2 || x2[j] < ix1 || y1[j] > iy2 || y2[j] < iy1) {
+                    earlyRejections++;
+                    continue;
+                }
+                // IoU는 작은 면적 / 큰 면적을 넘을 수 없음
+                float jArea = areas[j];
+                float minArea = Math.min(iArea, jArea);
+                float maxArea = Math.max(iArea, jArea);
+                if (minArea <= threshold * maxArea) {
+                    earlyRejections++;
+                    continue;
+                }
+                iouComputations++;
+                float w = Math.min(ix2, x2[j]) - Math.max(ix1, x1[j]);
+                float h = Math.min(iy2, y2[j]) - Math.max(iy1, y1[j]);
+                float intersection = w * h;
+                float iou = intersection / (iArea + jArea - intersection);
+                if (iou > threshold) {
+                    suppressed[j] = true;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getClassId(int index) {
+        return classIds[index];
+    }
+
+    public float getScore(int index) {
+        return scores[index];
+    }
+
+    public float getLeft(int index) {
+        return x1[index];
+    }
+
+    public float getTop(int index) {
+        return y1[index];
+    }
+
+    public float getRight(int index) {
+        return x2[index];
+    }
+
+    public float getBottom(int index) {
+        return y2[index];
+    }
+
+    /**
+     * 마지막 실행에서 IoU를 실제로 계산한 쌍 수
+     */
+    public int getIouComputations() {
+        return iouComputations;
+    }
+
+    /**
+     * 마지막 실행에서 좌표/면적 검사로 조기 제외한 쌍 수
+     */
+    public int getEarlyRejections() {
+        return earlyRejections;
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.quantiztest;
+
+import android.graphics.Bitmap;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * 탐지 파이프라인의 단계 사이를 오가는 프레임 작업 객체입니다.
+ * 각 단계가 자기 결과 필드를 채워 다음 단계로 넘기며, 풀에서 꺼내 재사용합니다.
+ * 입출력 버퍼(FrameContext)는 전처리~후처리 구간에서만 빌려 쓰고 바로 반납합니다.
+ */
+public class PipelineFrame {
+    public static final int MAX_PASSES = 4; // 한 프레임에서 실행할 수 있는 최대 추론 횟수
+
+    private final DetectionBatch detections = new DetectionBatch(YoloImageProcessor.DEFAULT_TOP_K);
+    private final Set<Integer> newPersonIds = new HashSet<>();
+    private final Set<Integer> disappearedPersonIds = new HashSet<>();
+    // ImageReader 캡처 경로의 평면 복사본과 표시용 ARGB 픽셀 (프레임마다 재사용)
+    private final YuvFrame yuv = new YuvFrame();
+    private int[] argbPixels = new int[0];
+    private boolean hasYuv;
+    // 움직임 게이트가 추론을 건너뛰기로 한 프레임 (마지막 탐지 결과를 재사용)
+    private boolean detectionSkipped;
+    // 움직임 게이트 기준 격자가 된 프레임 - 탐지 결과를 내기 전에 버려지면 게이트를 무효화해야 함
+    private boolean motionReference;
+    // 탐지 간격 사이의 프레임: 추론 없이 추적기 속도 모델로만 박스를 옮김 (0이면 아님)
+    private float propagationFraction;
+
+    private long sequence;
+    private long captureTimeNanos;
+    private Bitmap bitmap;
+    // 추론 패스별 입출력 버퍼와 좌표 변환 (전체 프레임 1회 또는 ROI 크롭마다 1회)
+    private final FrameContext[] frameContexts = new FrameContext[MAX_PASSES];
+    private final ResizeTransform[] transforms = new ResizeTransform[MAX_PASSES];
+    private final int[] passTiles = new int[MAX_PASSES]; // 타일 추론일 때 패스별 타일 번호 (아니면 -1)
+    private int passCount;
+    // 전처리 때 빌린 YOLO 모델 - 모델이 교체되어도 이 프레임은 같은 모델로 추론/후처리
+    private ModelSlot.Lease<YoloImageProcessor> model;
+    private List<SimpleTracker.TrackedObject> trackedObjects = Collections.emptyList();
+
+    /**
+     * 캡처 단계: TextureView 비트맵으로 새 프레임을 초기화합니다.
+     */
+    public void reset(long sequence, Bitmap bitmap) {
+        this.hasYuv = false;
+        this.detectionSkipped = false;
+        this.motionReference = false;
+        this.propagationFraction = 0f;
+        this.sequence = sequence;
+        this.captureTimeNanos = System.nanoTime();
+        this.bitmap = bitmap;
+        Arrays.fill(frameContexts, null);
+        Arrays.fill(transforms, null);
+        Arrays.fill(passTiles, -1);
+        this.passCount = 0;
+        releaseModel();
+        this.trackedObjects = Collections.emptyList();
+        detections.clear();
+        newPersonIds.clear();
+        disappearedPersonIds.clear();
+    }
+
+    /**
+     * 캡처 단계: YUV 프레임으로 초기화합니다. 반환된 버퍼에 평면을 복사하며, 비트맵은 후처리 단계에서 만듭니다.
+     */
+    public YuvFrame resetYuv(long sequence) {
+        reset(sequence, null);
+        this.hasYuv = true;
+        return yuv;
+    }
+
+    public boolean hasYuv() {
+        return hasYuv;
+    }
+
+    public YuvFrame getYuv() {
+        return yuv;
+    }
+
+    /**
+     * 표시용 ARGB 변환에 쓸 픽셀 배열 (크기가 부족할 때만 다시 만듦)
+     */
+    public int[] getArgbPixels(int size) {
+        if (argbPixels.length < size) {
+            argbPixels = new int[size];
+        }
+        return argbPixels;
+    }
+
+    public boolean isDetectionSkipped() {
+        return detectionSkipped;
+    }
+
+    public void setDetectionSkipped(boolean detectionSkipped) {
+        this.detectionSkipped = detectionSkipped;
+    }
+
+    public boolean isMotionReference() {
+        return motionReference;
+    }
+
+    public void setMotionReference(boolean motionReference) {
+        this.motionReference = motionReference;
+    }
+
+    /**
+     * 전처리 단계: 추론을 건너뛰고 추적기 전파만 하는 프레임으로 표시합니다.
+     *
+     * @param fraction 탐지 간격 대비 이 프레임의 비율 (SimpleTracker.propagate에 넘김)
+     */
+    public void setPropagateOnly(float fraction) {
+        this.detectionSkipped = true;
+        this.propagationFraction = fraction;
+    }
+
+    public boolean isPropagateOnly() {
+        return propagationFraction > 0f;
+    }
+
+    public float getPropagationFraction() {
+        return propagationFraction;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getCaptureTimeNanos() {
+        return captureTimeNanos;
+    }
+
+    public Bitmap getBitmap() {
+        return bitmap;
+    }
+
+    public void setBitmap(Bitmap bitmap) {
+        this.bitmap = bitmap;
+    }
+
+    /**
+     * 반납 시 비트맵 참조를 넘겨받고 비웁니다.
+     */
+    public Bitmap takeBitmap() {
+        Bitmap taken = bitmap;
+        bitmap = null;
+        return taken;
+    }
+
+    /**
+     * 빌린 입출력 버퍼로 추론 패스를 하나 추가합니다.
+     *
+     * @return 패스 번호 (setTransform에 사용)
+     */
+    public int addPass(FrameContext frameContext) {
+        if (passCount == MAX_PASSES) {
+            throw new IllegalStateException("프레임당 추론 패스는 최대 " + MAX_PASSES + "개입니다");
+        }
+        frameContexts[passCount] = frameContext;
+        return passCount++;
+    }
+
+    public int getPassCount() {
+        return passCount;
+    }
+
+    public FrameContext getFrameContext(int pass) {
+        return frameContexts[pass];
+    }
+
+    public ResizeTransform getTransform(int pass) {
+        return transforms[pass];
+    }
+
+    public void setTransform(int pass, ResizeTransform transform) {
+        transforms[pass] = transform;
+    }
+
+    public int getPassTile(int pass) {
+        return passTiles[pass];
+    }
+
+    public void setPassTile(int pass, int tile) {
+        passTiles[pass] = tile;
+    }
+
+    /**
+     * 패스별 입출력 버퍼 배열 (앞의 getPassCount()개만 유효)
+     */
+    public FrameContext[] getFrameContexts() {
+        return frameContexts;
+    }
+
+    /**
+     * 패스별 좌표 변환 배열 (앞의 getPassCount()개만 유효)
+     */
+    public ResizeTransform[] getTransforms() {
+        return transforms;
+    }
+
+    /**
+     * 빌린 입출력 버퍼를 모두 풀에 반납하고 비웁니다. 좌표 변환은 남겨 둡니다.
+     */
+    public void releaseFrameContexts(Queue<FrameContext> pool) {
+        for (int i = 0; i < passCount; i++) {
+            if (frameContexts[i] != null) {
+                pool.offer(frameContexts[i]);
+                frameContexts[i] = null;
+            }
+        }
+    }
+
+    /**
+     * 전처리 단계: 이 프레임을 처리할 모델을 빌려 둡니다. (이전에 빌린 모델은 반납)
+     */
+    public void setModel(ModelSlot.Lease<YoloImageProcessor> model) {
+        releaseModel();
+        this.model = model;
+    }
+
+    /**
+     * 이 프레임이 빌린 모델 (빌리지 않았거나 반납했으면 null)
+     */
+    public YoloImageProcessor getModel() {
+        return model != null ? model.get() : null;
+    }
+
+    /**
+     * 빌린 모델을 반납합니다. (후처리가 끝났거나 프레임을 버릴 때, 여러 번 불러도 됨)
+     */
+    public void releaseModel() {
+        if (model != null) {
+            model.close();
+            model = null;
+        }
+    }
+
+    public DetectionBatch getDetections() {
+        return detections;
+    }
+
+    public List<SimpleTracker.TrackedObject> getTrackedObjects() {
+        return trackedObjects;
+    }
+
+    public void setTrackedObjects(List<SimpleTracker.TrackedObject> trackedObjects) {
+        this.trackedObjects = trackedObjects;
+    }
+
+    public Set<Integer> getNewPersonIds() {
+        return newPersonIds;
+    }
+
+    public Set<Integer> getDisappearedPersonIds() {
+        return disappearedPersonIds;
+    }
+}
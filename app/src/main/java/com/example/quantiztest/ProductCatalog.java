@@ -0,0 +1,237 @@
+package com.example.quantiztest;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 매장에서 추적할 클래스(사람, 상품)와 클래스별 파라미터를 담는 카탈로그입니다.
+ * assets/product_catalog.txt 에서 읽어 시작 시 labels.txt의 클래스 인덱스 기준 배열로 변환하므로,
+ * 프레임 처리 중에는 문자열 비교 없이 배열 조회 한 번으로 허용 여부와 임계값을 구합니다.
+ * 상품 구성이 바뀌어도 설정 파일만 수정하면 됩니다.
+ *
+ * 파일 형식 (한 줄에 클래스 하나, '#'으로 시작하면 주석):
+ * <pre>
+ * label  role     confidenceThreshold  nmsIou
+ * person PERSON   0.4                  0.65
+ * cup    PRODUCT  0.4                  0.7
+ * </pre>
+ */
+public class ProductCatalog {
+    private static final String TAG = "ProductCatalog";
+    public static final String ASSET_NAME = "product_catalog.txt";
+    public static final float DEFAULT_THRESHOLD = 0.4f;
+    public static final float DEFAULT_NMS_IOU = 0.7f;
+
+    // 설정 파일이 없을 때 사용하는 기존 하드코딩 목록
+    private static final String DEFAULT_CATALOG =
+            "person PERSON 0.4 0.65\n"
+                    + "cup PRODUCT 0.4 0.7\n"
+                    + "banana PRODUCT 0.4 0.7\n"
+                    + "apple PRODUCT 0.4 0.7\n";
+
+    /**
+     * 클래스의 역할
+     */
+    public enum Role {
+        PERSON,
+        PRODUCT
+    }
+
+    private final List<String> labels;
+    // 클래스 인덱스별 허용 여부/역할/파라미터 (허용되지 않은 클래스는 false/null)
+    private final boolean[] allowed;
+    private final Role[] roles;
+    private final float[] thresholds;
+    private final float[] nmsIous;
+    private final int personClass;
+    private final float minThreshold;
+    // 라벨 이름 -> 클래스 인덱스 (UI/설정용, 프레임 루프에서는 사용하지 않음)
+    private final Map<String, Integer> classIndexByLabel = new HashMap<>();
+
+    private ProductCatalog(List<String> labels, boolean[] allowed, Role[] roles, float[] thresholds, float[] nmsIous) {
+        this.labels = labels;
+        this.allowed = allowed;
+        this.roles = roles;
+        this.thresholds = thresholds;
+        this.nmsIous = nmsIous;
+
+        int person = -1;
+        float min = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < allowed.length; i++) {
+            if (!allowed[i]) {
+                continue;
+            }
+            if (person == -1 && roles[i] == Role.PERSON) {
+                person = i;
+            }
+            min = Math.min(min, thresholds[i]);
+        }
+        this.personClass = person;
+        this.minThreshold = min == Float.POSITIVE_INFINITY ? DEFAULT_THRESHOLD : min;
+        for (int i = 0; i < labels.size(); i++) {
+            classIndexByLabel.put(labels.get(i), i);
+        }
+    }
+
+    /**
+     * assets 폴더에서 카탈로그를 로드합니다. 파일이 없거나 형식이 잘못되면 기본 목록을 사용합니다.
+     *
+     * @param labels labels.txt 순서의 클래스 이름
+     */
+    public static ProductCatalog loadFromAssets(Context context, List<String> labels) {
+        try (Reader reader = new InputStreamReader(context.getAssets().open(ASSET_NAME))) {
+            ProductCatalog catalog = parse(reader, labels);
+            Log.d(TAG, "로드된 카탈로그: " + catalog);
+            return catalog;
+        } catch (IOException e) {
+            Log.w(TAG, "카탈로그 파일을 읽을 수 없어 기본 목록을 사용합니다: " + e.getMessage());
+            return defaults(labels);
+        }
+    }
+
+    /**
+     * 기존에 코드에 있던 목록 (person, cup, banana, apple)
+     */
+    public static ProductCatalog defaults(List<String> labels) {
+        try {
+            return parse(new StringReader(DEFAULT_CATALOG), labels);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 카탈로그 텍스트를 파싱하여 클래스 인덱스 기준 배열로 변환합니다.
+     * labels에 없는 이름은 경고만 남기고 건너뜁니다.
+     */
+    public static ProductCatalog parse(Reader source, List<String> labels) throws IOException {
+        int classCount = labels.size();
+        boolean[] allowed = new boolean[classCount];
+        Role[] roles = new Role[classCount];
+        float[] thresholds = new float[classCount];
+        float[] nmsIous = new float[classCount];
+
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            try {
+                String label = fields[0];
+                Role role = fields.length > 1 ? Role.valueOf(fields[1].toUpperCase()) : Role.PRODUCT;
+                float threshold = fields.length > 2 ? Float.parseFloat(fields[2]) : DEFAULT_THRESHOLD;
+                float nmsIou = fields.length > 3 ? Float.parseFloat(fields[3]) : DEFAULT_NMS_IOU;
+                if (threshold < 0 || threshold > 1 || nmsIou <= 0 || nmsIou > 1) {
+                    throw new IllegalArgumentException("임계값 범위 오류");
+                }
+
+                int classIndex = labels.indexOf(label);
+                if (classIndex < 0) {
+                    Log.w(TAG, "labels.txt에 없는 클래스는 무시합니다: " + label);
+                    continue;
+                }
+                allowed[classIndex] = true;
+                roles[classIndex] = role;
+                thresholds[classIndex] = threshold;
+                nmsIous[classIndex] = nmsIou;
+            } catch (IllegalArgumentException e) {
+                throw new IOException(ASSET_NAME + " " + lineNumber + "번째 줄 형식 오류: " + line, e);
+            }
+        }
+        return new ProductCatalog(labels, allowed, roles, thresholds, nmsIous);
+    }
+
+    /**
+     * 추적 대상 클래스인지 여부
+     */
+    public boolean isAllowed(int classIndex) {
+        return classIndex >= 0 && classIndex < allowed.length && allowed[classIndex];
+    }
+
+    /**
+     * 상품 클래스인지 여부
+     */
+    public boolean isProduct(int classIndex) {
+        return isAllowed(classIndex) && roles[classIndex] == Role.PRODUCT;
+    }
+
+    /**
+     * 사람 클래스인지 여부
+     */
+    public boolean isPerson(int classIndex) {
+        return isAllowed(classIndex) && roles[classIndex] == Role.PERSON;
+    }
+
+    /**
+     * 클래스별 신뢰도 임계값 (허용된 클래스만 유효)
+     */
+    public float getThreshold(int classIndex) {
+        return thresholds[classIndex];
+    }
+
+    /**
+     * 클래스별 NMS IoU 임계값 (허용된 클래스만 유효)
+     */
+    public float getNmsIou(int classIndex) {
+        return nmsIous[classIndex];
+    }
+
+    /**
+     * 허용된 클래스 중 가장 낮은 신뢰도 임계값 (후보 선별용)
+     */
+    public float getMinThreshold() {
+        return minThreshold;
+    }
+
+    /**
+     * 사람 역할 클래스의 인덱스 (없으면 -1)
+     */
+    public int getPersonClass() {
+        return personClass;
+    }
+
+    /**
+     * 라벨 이름의 클래스 인덱스 (없으면 -1)
+     */
+    public int classIndexOf(String label) {
+        Integer index = classIndexByLabel.get(label);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 클래스 인덱스의 이름 (UI/전송용)
+     */
+    public String labelOf(int classIndex) {
+        return classIndex >= 0 && classIndex < labels.size() ? labels.get(classIndex) : "unknown";
+    }
+
+    public int getClassCount() {
+        return allowed.length;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("ProductCatalog{");
+        for (int i = 0; i < allowed.length; i++) {
+            if (allowed[i]) {
+                builder.append(labels.get(i)).append('(').append(roles[i])
+                        .append(", ").append(thresholds[i]).append(", ").append(nmsIous[i]).append(") ");
+            }
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.quantiztest;
+
+import java.nio.ByteBuffer;
+
+/**
+ * YOLONas 양자화 출력(박스/점수/클래스)을 양자화 도메인에서 바로 해석하는 디코더입니다.
+ * 신뢰도 임계값은 생성 시 정수 키로 한 번만 변환해 두므로,
+ * 탈락하는 앵커는 정수 비교 한 번으로 건너뛰고 살아남은 후보만 룩업 테이블로 역양자화합니다.
+ * UINT8과 INT8 출력 모두 지원하며, INT8은 부호 비트를 뒤집어 같은 비교를 사용합니다.
+ */
+public class QuantizedDecoder implements YoloDecoder {
+    private final DequantTable boxTable;
+    private final DequantTable scoreTable;
+    private final int[] classTable = new int[256];
+    private final float confidenceThreshold;
+    private final int scoreThresholdKey;
+    private final int scoreKeyFlip;
+
+    public QuantizedDecoder(DequantTable boxTable, DequantTable scoreTable, DequantTable classTable,
+                            float confidenceThreshold) {
+        this.boxTable = boxTable;
+        this.scoreTable = scoreTable;
+        for (int q = 0; q < 256; q++) {
+            this.classTable[q] = (int) classTable.get((byte) q);
+        }
+        this.confidenceThreshold = confidenceThreshold;
+        this.scoreThresholdKey = scoreTable.thresholdKey(confidenceThreshold);
+        this.scoreKeyFlip = scoreTable.getKeyFlip();
+    }
+
+    @Override
+    public int selectCandidates(FrameContext ctx, int[] outIndices) {
+        ByteBuffer scores = ctx.getOutput(1);
+        return selectCandidates(scores, scores.capacity(), outIndices);
+    }
+
+    @Override
+    public float score(FrameContext ctx, int anchor) {
+        return score(ctx.getOutput(1).get(anchor));
+    }
+
+    @Override
+    public int classIndex(FrameContext ctx, int anchor) {
+        return classIndex(ctx.getOutput(2).get(anchor));
+    }
+
+    @Override
+    public void box(FrameContext ctx, int anchor, float[] out) {
+        // 박스 텐서 [1, N, 4]는 앵커당 4바이트
+        ByteBuffer boxes = ctx.getOutput(0);
+        int offset = anchor * 4;
+        out[0] = boxTable.get(boxes.get(offset));
+        out[1] = boxTable.get(boxes.get(offset + 1));
+        out[2] = boxTable.get(boxes.get(offset + 2));
+        out[3] = boxTable.get(boxes.get(offset + 3));
+    }
+
+    /**
+     * 점수 텐서에서 임계값을 넘는 앵커의 인덱스만 골라냅니다.
+     *
+     * @param scores     점수 텐서 원시 값 (절대 위치로 읽으므로 버퍼 위치는 바뀌지 않음)
+     * @param count      앵커 수
+     * @param outIndices 후보 인덱스를 기록할 배열 (count 이상 크기)
+     * @return 후보 수
+     */
+    public int selectCandidates(ByteBuffer scores, int count, int[] outIndices) {
+        int key = scoreThresholdKey;
+        int flip = scoreKeyFlip;
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            if (((scores.get(i) & 0xFF) ^ flip) >= key) {
+                outIndices[found++] = i;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 신뢰도 점수 역양자화 (1.0으로 상한 적용)
+     */
+    public float score(byte raw) {
+        return scoreTable.get(raw);
+    }
+
+    /**
+     * 클래스 인덱스 역양자화
+     */
+    public int classIndex(byte raw) {
+        return classTable[raw & 0xFF];
+    }
+
+    /**
+     * 바운딩 박스 좌표 역양자화 (모델 입력 픽셀 좌표)
+     */
+    public float box(byte raw) {
+        return boxTable.get(raw);
+    }
+
+    @Override
+    public float getConfidenceThreshold() {
+        return confidenceThreshold;
+    }
+
+    /**
+     * 신뢰도 임계값에 해당하는 점수 키 (DequantTable.key(raw)가 이 값 이상이면 통과)
+     */
+    public int getScoreThresholdKey() {
+        return scoreThresholdKey;
+    }
+}
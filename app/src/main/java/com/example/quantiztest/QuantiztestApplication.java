@@ -0,0 +1,32 @@
+package com.example.quantiztest;
+
+import android.app.Application;
+
+/**
+ * 탐지 엔진을 프로세스 단위로 들고 있는 애플리케이션 클래스입니다.
+ * 액티비티가 다시 만들어져도 같은 엔진을 돌려주므로 모델 로드 비용은 프로세스마다 한 번만 듭니다.
+ */
+public class QuantiztestApplication extends Application {
+    private static final String CONNECT_URL = "https://97f1-223-194-133-239.ngrok-free.app";
+
+    private DetectionEngine detectionEngine;
+
+    /**
+     * 프로세스 전역 탐지 엔진 (처음 호출할 때 만듦, 모델 로드는 DetectionEngine.start())
+     */
+    public synchronized DetectionEngine getDetectionEngine() {
+        if (detectionEngine == null) {
+            detectionEngine = new DetectionEngine(this, CONNECT_URL);
+        }
+        return detectionEngine;
+    }
+
+    @Override
+    public void onTerminate() {
+        // 에뮬레이터에서만 호출됨 - 실제 기기에서는 프로세스 종료로 해제
+        if (detectionEngine != null) {
+            detectionEngine.close();
+        }
+        super.onTerminate();
+    }
+}
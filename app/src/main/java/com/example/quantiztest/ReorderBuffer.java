@@ -0,0 +1,118 @@
+package com.example.quantiztest;
+
+/**
+ * 여러 작업 스레드가 순서 없이 끝낸 항목을 받은 순서(티켓 번호) 그대로 내보내는 재정렬 버퍼입니다.
+ * 병렬 추론 단계 뒤에 두어, 추적기처럼 순서에 의존하는 다음 단계가 프레임을 항상 캡처 순서로 보게 합니다.
+ *
+ * 티켓은 0부터 빈틈없이 하나씩 발급해야 하며, 동시에 처리 중인 티켓 수는 capacity를 넘으면 안 됩니다.
+ * 앞 티켓이 끝나기 전에 도착한 항목은 보관했다가 앞 티켓이 끝나는 즉시 이어서 내보냅니다.
+ * 내보내기는 버퍼 잠금 안에서 한 번에 한 스레드만 하므로, 받는 쪽이 단일 생산자 큐여도 안전합니다.
+ */
+public class ReorderBuffer<T> {
+
+    /**
+     * 순서대로 내보낸 항목을 받는 콜백
+     */
+    public interface Sink<T> {
+        /**
+         * @param forward 작업 결과 (false면 다음 단계로 넘기지 않고 끝낼 항목)
+         */
+        void accept(T item, boolean forward);
+    }
+
+    private final Object[] items;
+    private final boolean[] forwards;
+    private final boolean[] present;
+    private final int capacity;
+    private long nextTicket;
+    private int pending;
+
+    // 지표
+    private long reorderedCount;
+    private int maxPending;
+
+    public ReorderBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("재정렬 버퍼 크기는 1 이상이어야 합니다: " + capacity);
+        }
+        this.capacity = capacity;
+        this.items = new Object[capacity];
+        this.forwards = new boolean[capacity];
+        this.present = new boolean[capacity];
+    }
+
+    /**
+     * 끝난 항목을 넣고, 순서가 된 항목을 모두 sink로 내보냅니다.
+     *
+     * @param ticket  작업을 시작할 때 발급한 번호
+     * @param forward 작업 결과
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void put(long ticket, T item, boolean forward, Sink<T> sink) {
+        if (ticket < nextTicket || ticket - nextTicket >= capacity) {
+            throw new IllegalStateException("범위를 벗어난 티켓: " + ticket + " (다음 " + nextTicket + ", 크기 " + capacity + ")");
+        }
+        int slot = (int) (ticket % capacity);
+        if (present[slot]) {
+            throw new IllegalStateException("중복된 티켓: " + ticket);
+        }
+        items[slot] = item;
+        forwards[slot] = forward;
+        present[slot] = true;
+        pending++;
+        if (ticket != nextTicket) {
+            reorderedCount++;
+        }
+        maxPending = Math.max(maxPending, pending);
+
+        // 앞에서부터 끊김 없이 도착한 항목을 내보냄
+        for (int head = (int) (nextTicket % capacity); present[head]; head = (int) (nextTicket % capacity)) {
+            T ready = (T) items[head];
+            boolean readyForward = forwards[head];
+            items[head] = null;
+            present[head] = false;
+            pending--;
+            nextTicket++;
+            sink.accept(ready, readyForward);
+        }
+    }
+
+    /**
+     * 보관 중인 항목을 순서와 관계없이 모두 꺼내 sink로 넘기고 처음 상태로 되돌립니다. (파이프라인 중지)
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void drain(Sink<T> sink) {
+        for (int i = 0; i < capacity; i++) {
+            if (present[i]) {
+                T item = (T) items[i];
+                items[i] = null;
+                present[i] = false;
+                sink.accept(item, false);
+            }
+        }
+        pending = 0;
+        nextTicket = 0;
+    }
+
+    /**
+     * 다음으로 내보낼 티켓 번호
+     */
+    public synchronized long getNextTicket() {
+        return nextTicket;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending;
+    }
+
+    public synchronized int getMaxPending() {
+        return maxPending;
+    }
+
+    /**
+     * 앞 티켓보다 먼저 끝나 기다린 항목 수
+     */
+    public synchronized long getReorderedCount() {
+        return reorderedCount;
+    }
+}
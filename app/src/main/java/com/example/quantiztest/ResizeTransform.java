@@ -0,0 +1,170 @@
+package com.example.quantiztest;
+
+/**
+ * 원본 프레임 좌표와 모델 입력 좌표 사이의 변환을 나타내는 클래스입니다.
+ * 늘리기(STRETCH)는 가로/세로를 각각 다른 비율로 맞추고,
+ * 레터박스(LETTERBOX)는 종횡비를 유지한 채 남는 영역을 패딩으로 채웁니다.
+ * 원본 해상도마다 한 번만 계산하여 전처리와 좌표 역변환에 같이 사용합니다.
+ * 프레임 일부(ROI 크롭)를 입력으로 쓸 때는 크롭 시작 위치(offset)를 더해 전체 프레임 좌표로 되돌립니다.
+ */
+public class ResizeTransform {
+
+    /**
+     * 리사이즈 방식
+     */
+    public enum Mode {
+        STRETCH,
+        LETTERBOX
+    }
+
+    private final Mode mode;
+    private final int srcWidth;
+    private final int srcHeight;
+    private final int dstWidth;
+    private final int dstHeight;
+
+    // 모델 입력 안에서 실제 이미지가 차지하는 영역
+    private final int contentWidth;
+    private final int contentHeight;
+    private final int padX;
+    private final int padY;
+
+    // 모델 좌표 -> 원본 좌표 배율 (원본 / 콘텐츠)
+    private final float inverseScaleX;
+    private final float inverseScaleY;
+
+    // 원본이 프레임의 크롭일 때 크롭 왼쪽 위의 프레임 좌표
+    private final int offsetX;
+    private final int offsetY;
+
+    public ResizeTransform(Mode mode, int srcWidth, int srcHeight, int dstWidth, int dstHeight) {
+        this(mode, srcWidth, srcHeight, dstWidth, dstHeight, 0, 0);
+    }
+
+    /**
+     * @param offsetX 크롭 왼쪽 위의 프레임 X 좌표
+     * @param offsetY 크롭 왼쪽 위의 프레임 Y 좌표
+     */
+    public ResizeTransform(Mode mode, int srcWidth, int srcHeight, int dstWidth, int dstHeight,
+                           int offsetX, int offsetY) {
+        this.mode = mode;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.srcWidth = srcWidth;
+        this.srcHeight = srcHeight;
+        this.dstWidth = dstWidth;
+        this.dstHeight = dstHeight;
+
+        if (mode == Mode.LETTERBOX) {
+            float scale = Math.min((float) dstWidth / srcWidth, (float) dstHeight / srcHeight);
+            this.contentWidth = Math.max(1, Math.min(dstWidth, Math.round(srcWidth * scale)));
+            this.contentHeight = Math.max(1, Math.min(dstHeight, Math.round(srcHeight * scale)));
+            this.padX = (dstWidth - contentWidth) / 2;
+            this.padY = (dstHeight - contentHeight) / 2;
+        } else {
+            this.contentWidth = dstWidth;
+            this.contentHeight = dstHeight;
+            this.padX = 0;
+            this.padY = 0;
+        }
+
+        this.inverseScaleX = (float) srcWidth / contentWidth;
+        this.inverseScaleY = (float) srcHeight / contentHeight;
+    }
+
+    /**
+     * 같은 조건으로 만든 변환인지 확인합니다. (캐시 재사용 판단용)
+     */
+    public boolean matches(Mode mode, int srcWidth, int srcHeight) {
+        return this.mode == mode && this.srcWidth == srcWidth && this.srcHeight == srcHeight;
+    }
+
+    /**
+     * 같은 크기의 크롭을 다른 위치에서 잘랐을 때의 변환을 만듭니다. (배율/여백 계산 재사용)
+     */
+    public ResizeTransform withOffset(int offsetX, int offsetY) {
+        if (offsetX == this.offsetX && offsetY == this.offsetY) {
+            return this;
+        }
+        return new ResizeTransform(mode, srcWidth, srcHeight, dstWidth, dstHeight, offsetX, offsetY);
+    }
+
+    /**
+     * 모델 입력 X 좌표를 원본 프레임 X 좌표로 변환합니다.
+     */
+    public float toSourceX(float modelX) {
+        return (modelX - padX) * inverseScaleX + offsetX;
+    }
+
+    /**
+     * 모델 입력 Y 좌표를 원본 프레임 Y 좌표로 변환합니다.
+     */
+    public float toSourceY(float modelY) {
+        return (modelY - padY) * inverseScaleY + offsetY;
+    }
+
+    /**
+     * 원본 프레임 X 좌표를 모델 입력 X 좌표로 변환합니다.
+     */
+    public float toModelX(float sourceX) {
+        return (sourceX - offsetX) / inverseScaleX + padX;
+    }
+
+    /**
+     * 원본 프레임 Y 좌표를 모델 입력 Y 좌표로 변환합니다.
+     */
+    public float toModelY(float sourceY) {
+        return (sourceY - offsetY) / inverseScaleY + padY;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getSrcWidth() {
+        return srcWidth;
+    }
+
+    public int getSrcHeight() {
+        return srcHeight;
+    }
+
+    public int getDstWidth() {
+        return dstWidth;
+    }
+
+    public int getDstHeight() {
+        return dstHeight;
+    }
+
+    public int getContentWidth() {
+        return contentWidth;
+    }
+
+    public int getContentHeight() {
+        return contentHeight;
+    }
+
+    public int getPadX() {
+        return padX;
+    }
+
+    public int getPadY() {
+        return padY;
+    }
+
+    public int getOffsetX() {
+        return offsetX;
+    }
+
+    public int getOffsetY() {
+        return offsetY;
+    }
+
+    @Override
+    public String toString() {
+        return mode + " " + srcWidth + "x" + srcHeight + " -> " + contentWidth + "x" + contentHeight
+                + " (pad " + padX + "," + padY + ")"
+                + (offsetX != 0 || offsetY != 0 ? " @" + offsetX + "," + offsetY : "");
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.quantiztest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 활성 추적 객체와 설정된 구역(가상 선 주변 등)으로 이번 프레임에서 추론할 크롭 영역을 정하는 클래스입니다.
+ * 추적 박스를 여유 있게 넓힌 정사각형 크롭을 만들고, 겹치는 크롭은 합치며, 크롭 수가 많으면 가장 작게 합쳐지는 쌍부터 합칩니다.
+ * 추적 객체와 겹치는 구역은 함께 크롭에 포함해 이벤트가 일어나는 영역을 놓치지 않게 합니다.
+ *
+ * 크롭 면적이 프레임의 일정 비율을 넘거나, 추적 중인 객체가 없거나, 전체 프레임 주기가 되면
+ * 전체 프레임 한 장을 돌려 새로 들어온 객체를 찾습니다.
+ *
+ * updateTracks는 추적 단계, plan은 전처리 단계에서 호출하며 추적 박스 스냅샷만 락으로 보호합니다.
+ */
+public class RoiPlanner {
+    public static final int DEFAULT_MAX_CROPS = 2;
+    public static final float DEFAULT_TRACK_MARGIN = 0.25f;      // 박스 크기 대비 사방 여유
+    public static final int DEFAULT_MIN_CROP_SIZE = 320;          // 모델 입력(640)의 절반보다 작게 자르지 않음
+    public static final float DEFAULT_FULL_FRAME_RATIO = 0.6f;    // 크롭 면적이 이 비율을 넘으면 전체 프레임
+    public static final long DEFAULT_FULL_FRAME_INTERVAL_MS = 1000;
+
+    private final int maxCrops;
+    private final float trackMargin;
+    private final int minCropSize;
+    private final float fullFrameRatio;
+    private final long fullFrameIntervalMs;
+
+    // 정규화 좌표(0~1)의 구역 목록 [left, top, right, bottom]
+    private final List<float[]> zones = new ArrayList<>();
+
+    // 추적 단계가 넘긴 활성 박스 스냅샷 (프레임 좌표)
+    private final Object trackLock = new Object();
+    private float[] trackBoxes = new float[16 * 4];
+    private int trackCount;
+
+    // plan 작업 버퍼 (전처리 단계 스레드 전용)
+    private float[] snapshot = new float[16 * 4];
+    private int[] candidates = new int[16 * 4];
+    private long lastFullFrameMs = Long.MIN_VALUE / 2;
+    private boolean fullFrameRequested = true;
+    private boolean lastPlanFullFrame;
+
+    // 지표
+    private long plannedFrames;
+    private long fullFrames;
+    private double framePixels;
+    private double processedPixels;
+
+    public RoiPlanner() {
+        this(DEFAULT_MAX_CROPS, DEFAULT_TRACK_MARGIN, DEFAULT_MIN_CROP_SIZE,
+                DEFAULT_FULL_FRAME_RATIO, DEFAULT_FULL_FRAME_INTERVAL_MS);
+    }
+
+    /**
+     * @param maxCrops            프레임당 최대 크롭 수 (PipelineFrame.MAX_PASSES 이하)
+     * @param trackMargin         추적 박스 크기 대비 사방으로 넓힐 비율
+     * @param minCropSize         크롭 한 변의 최소 길이 (px)
+     * @param fullFrameRatio      크롭 면적 합이 프레임 대비 이 비율을 넘으면 전체 프레임으로 처리
+     * @param fullFrameIntervalMs 새 객체를 찾기 위한 전체 프레임 주기 (ms)
+     */
+    public RoiPlanner(int maxCrops, float trackMargin, int minCropSize, float fullFrameRatio, long fullFrameIntervalMs) {
+        if (maxCrops < 1 || maxCrops > PipelineFrame.MAX_PASSES) {
+            throw new IllegalArgumentException("크롭 수는 1~" + PipelineFrame.MAX_PASSES + " 범위여야 합니다: " + maxCrops);
+        }
+        this.maxCrops = maxCrops;
+        this.trackMargin = trackMargin;
+        this.minCropSize = minCropSize;
+        this.fullFrameRatio = fullFrameRatio;
+        this.fullFrameIntervalMs = fullFrameIntervalMs;
+    }
+
+    /**
+     * 감시 구역을 정규화 좌표(0~1)로 추가합니다. 추적 객체와 겹칠 때만 크롭에 포함됩니다.
+     */
+    public void addZone(float left, float top, float right, float bottom) {
+        if (left >= right || top >= bottom) {
+            throw new IllegalArgumentException("잘못된 구역: " + left + "," + top + "," + right + "," + bottom);
+        }
+        zones.add(new float[]{left, top, right, bottom});
+    }
+
+    /**
+     * 추적 단계: 현재 활성 추적 박스를 스냅샷으로 저장합니다. (프레임 좌표)
+     */
+    public void updateTracks(List<SimpleTracker.TrackedObject> tracks) {
+        synchronized (trackLock) {
+            if (trackBoxes.length < tracks.size() * 4) {
+                trackBoxes = new float[tracks.size() * 8];
+            }
+            int o = 0;
+            for (SimpleTracker.TrackedObject obj : tracks) {
+                trackBoxes[o++] = obj.getLeft();
+                trackBoxes[o++] = obj.getTop();
+                trackBoxes[o++] = obj.getRight();
+                trackBoxes[o++] = obj.getBottom();
+            }
+            trackCount = tracks.size();
+        }
+    }
+
+    /**
+     * 다음 프레임은 전체 프레임으로 처리하게 합니다. (파이프라인 재시작, 카메라 변경 등)
+     */
+    public void requestFullFrame() {
+        fullFrameRequested = true;
+    }
+
+    /**
+     * 전처리 단계: 이번 프레임의 크롭 영역을 정합니다.
+     *
+     * @param out [x, y, width, height] * 크롭 수를 기록할 배열 (최소 maxCrops * 4)
+     * @return 크롭 수 (전체 프레임이면 1이고 out에 프레임 전체가 기록됨)
+     */
+    public int plan(int frameWidth, int frameHeight, long nowMs, int[] out) {
+        int tracks;
+        synchronized (trackLock) {
+            tracks = trackCount;
+            if (snapshot.length < tracks * 4) {
+                snapshot = new float[trackBoxes.length];
+            }
+            System.arraycopy(trackBoxes, 0, snapshot, 0, tracks * 4);
+        }
+
+        int count = 0;
+        boolean full = fullFrameRequested || tracks == 0 || nowMs - lastFullFrameMs >= fullFrameIntervalMs;
+        if (!full) {
+            count = buildCandidates(frameWidth, frameHeight, tracks);
+            count = mergeOverlapping(count);
+            while (count > maxCrops) {
+                count = mergeSmallestPair(count);
+            }
+            long area = 0;
+            for (int i = 0; i < count; i++) {
+                area += (long) (candidates[i * 4 + 2] - candidates[i * 4]) * (candidates[i * 4 + 3] - candidates[i * 4 + 1]);
+            }
+            full = area > fullFrameRatio * frameWidth * frameHeight;
+            processedPixels += full ? 0 : area;
+        }
+
+        if (full) {
+            out[0] = 0;
+            out[1] = 0;
+            out[2] = frameWidth;
+            out[3] = frameHeight;
+            count = 1;
+            fullFrameRequested = false;
+            lastFullFrameMs = nowMs;
+            fullFrames++;
+            processedPixels += (double) frameWidth * frameHeight;
+        } else {
+            for (int i = 0; i < count; i++) {
+                int c = i * 4;
+                out[c] = candidates[c];
+                out[c + 1] = candidates[c + 1];
+                out[c + 2] = candidates[c + 2] - candidates[c];
+                out[c + 3] = candidates[c + 3] - candidates[c + 1];
+            }
+        }
+        lastPlanFullFrame = full;
+        plannedFrames++;
+        framePixels += (double) frameWidth * frameHeight;
+        return count;
+    }
+
+    /**
+     * 추적 박스마다 넓힌 정사각형 크롭과, 그 크롭과 겹치는 구역을 후보로 만듭니다. [left, top, right, bottom]
+     */
+    private int buildCandidates(int frameWidth, int frameHeight, int tracks) {
+        ensureCandidates(tracks + zones.size());
+        int count = 0;
+        for (int t = 0; t < tracks; t++) {
+            float left = snapshot[t * 4];
+            float top = snapshot[t * 4 + 1];
+            float right = snapshot[t * 4 + 2];
+            float bottom = snapshot[t * 4 + 3];
+            float side = Math.max(right - left, bottom - top) * (1 + 2 * trackMargin);
+            int size = Math.max(minCropSize, Math.round(side));
+            int c = count * 4;
+            placeAxis((left + right) / 2, size, frameWidth, c, c + 2);
+            placeAxis((top + bottom) / 2, size, frameHeight, c + 1, c + 3);
+            count++;
+        }
+        int trackCrops = count;
+        for (float[] zone : zones) {
+            int left = Math.max(0, Math.round(zone[0] * frameWidth));
+            int top = Math.max(0, Math.round(zone[1] * frameHeight));
+            int right = Math.min(frameWidth, Math.round(zone[2] * frameWidth));
+            int bottom = Math.min(frameHeight, Math.round(zone[3] * frameHeight));
+            for (int i = 0; i < trackCrops; i++) {
+                if (intersects(i, left, top, right, bottom)) {
+                    int c = count * 4;
+                    candidates[c] = left;
+                    candidates[c + 1] = top;
+                    candidates[c + 2] = right;
+                    candidates[c + 3] = bottom;
+                    count++;
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 중심이 center인 길이 size의 구간을 프레임 안으로 밀어 넣어 기록합니다. (프레임보다 길면 프레임 전체)
+     */
+    private void placeAxis(float center, int size, int frameSize, int startIndex, int endIndex) {
+        int length = Math.min(size, frameSize);
+        int start = Math.round(center - length / 2f);
+        start = Math.max(0, Math.min(start, frameSize - length));
+        candidates[startIndex] = start;
+        candidates[endIndex] = start + length;
+    }
+
+    private boolean intersects(int i, int left, int top, int right, int bottom) {
+        int c = i * 4;
+        return candidates[c] < right && left < candidates[c + 2]
+                && candidates[c + 1] < bottom && top < candidates[c + 3];
+    }
+
+    /**
+     * 겹치는 크롭이 없어질 때까지 합집합 사각형으로 합칩니다.
+     */
+    private int mergeOverlapping(int count) {
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < count && !merged; i++) {
+                for (int j = i + 1; j < count; j++) {
+                    int c = j * 4;
+                    if (intersects(i, candidates[c], candidates[c + 1], candidates[c + 2], candidates[c + 3])) {
+                        count = union(i, j, count);
+                        merged = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 합쳤을 때 사각형 면적이 가장 작은 쌍을 합칩니다.
+     */
+    private int mergeSmallestPair(int count) {
+        int bestI = 0;
+        int bestJ = 1;
+        long bestArea = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                int a = i * 4;
+                int b = j * 4;
+                long area = (long) (Math.max(candidates[a + 2], candidates[b + 2]) - Math.min(candidates[a], candidates[b]))
+                        * (Math.max(candidates[a + 3], candidates[b + 3]) - Math.min(candidates[a + 1], candidates[b + 1]));
+                if (area < bestArea) {
+                    bestArea = area;
+                    bestI = i;
+                    bestJ = j;
+                }
+            }
+        }
+        return union(bestI, bestJ, count);
+    }
+
+    /**
+     * j번째 크롭을 i번째에 합치고 마지막 크롭을 j 자리로 옮깁니다.
+     */
+    private int union(int i, int j, int count) {
+        int a = i * 4;
+        int b = j * 4;
+        candidates[a] = Math.min(candidates[a], candidates[b]);
+        candidates[a + 1] = Math.min(candidates[a + 1], candidates[b + 1]);
+        candidates[a + 2] = Math.max(candidates[a + 2], candidates[b + 2]);
+        candidates[a + 3] = Math.max(candidates[a + 3], candidates[b + 3]);
+        int last = (count - 1) * 4;
+        System.arraycopy(candidates, last, candidates, b, 4);
+        return count - 1;
+    }
+
+    private void ensureCandidates(int count) {
+        if (candidates.length < count * 4) {
+            candidates = new int[count * 8];
+        }
+    }
+
+    /**
+     * 마지막 plan이 전체 프레임이었는지 여부
+     */
+    public boolean isLastPlanFullFrame() {
+        return lastPlanFullFrame;
+    }
+
+    public int getMaxCrops() {
+        return maxCrops;
+    }
+
+    public long getPlannedFrames() {
+        return plannedFrames;
+    }
+
+    public long getFullFrames() {
+        return fullFrames;
+    }
+
+    /**
+     * 전체 프레임 대비 실제로 추론에 넣은 픽셀 비율의 누적 평균 (0~1)
+     */
+    public float getPixelRatio() {
+        return framePixels == 0 ? 1f : (float) (processedPixels / framePixels);
+    }
+
+    /**
+     * 로그용 한 줄 요약
+     */
+    public String summary() {
+        return String.format("ROI 프레임=%d/%d 픽셀 비율=%.0f%%",
+                plannedFrames - fullFrames, plannedFrames, getPixelRatio() * 100);
+    }
+}
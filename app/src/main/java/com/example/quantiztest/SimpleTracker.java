@@ -4,6 +4,7 @@ import android.graphics.Bitmap;
 import android.util.Log;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -12,25 +13,86 @@ import java.util.Map;
 public class SimpleTracker {
     private static final String TAG = "SimpleTracker";
     private static final float IOU_THRESHOLD = 0.25f; // 같은 객체로 간주할 IoU 임계값 낮출수록 잘 추정
-    private static final int MAX_AGE = 10; // 객체가 사라졌다고 판단하기 전 최대 프레임 수 즉 높을수록 일시적으로 가려져도 유지
+    // 객체가 사라졌다고 판단하기 전 마지막 탐지 이후 최대 시간 즉 높을수록 일시적으로 가려져도 유지
+    // (캡처 간격이 2~30fps로 바뀌므로 프레임 수가 아니라 캡처 시각으로 판단, 기존 100ms 간격 10프레임과 같음)
+    static final long MAX_AGE_NANOS = 1_000_000_000L;
     private static final float OVERLAP_THRESHOLD = 1.2f; // 평균 너비의 120%
     private static final boolean USE_VELOCITY_PREDICTION = true;
+    // 프레임/객체마다 남기는 매칭 디버그 로그 (켜면 매 프레임 문자열을 만듦)
+    private static final boolean DEBUG_LOG = false;
     private static final float VELOCITY_WEIGHT = 0.7f;
     // 추적 중인 객체 목록
     private final Map<Integer, TrackedObject> trackedObjects = new HashMap<>();
     private int nextId = 0;
 
+    // 프레임마다 재사용하는 매칭 표시 배열과 객체 목록 변환용 배치
+    private boolean[] matchedBuffer = new boolean[0];
+    private final DetectionBatch listBatch = new DetectionBatch(YoloImageProcessor.DEFAULT_TOP_K);
+
+    // 사람 클래스 인덱스 (색상 특징/교차 처리 대상, 없으면 -1)
+    private final int personClassId;
+
     /**
-     * 현재 프레임에서 탐지된 객체를 이전 프레임의 추적 객체와 연결
+     * @param personClassId 사람 클래스 인덱스 (ProductCatalog.getPersonClass())
+     */
+    public SimpleTracker(int personClassId) {
+        this.personClassId = personClassId;
+    }
+
+    private boolean isPerson(TrackedObject obj) {
+        return obj.getClassId() == personClassId;
+    }
+
+    /**
+     * 현재 프레임에서 탐지된 객체를 이전 프레임의 추적 객체와 연결 (객체 목록용)
      *
      * @param detections 현재 프레임에서 탐지된 객체 목록
      * @return 추적 ID가 할당된 객체 목록
      */
-    public List<TrackedObject> update(List<YoloImageProcessor.Detection> detections,Bitmap currentBitmap) {
+    public List<TrackedObject> update(List<YoloImageProcessor.Detection> detections, Bitmap currentBitmap) {
+        listBatch.clear();
+        if (detections != null) {
+            listBatch.addAll(detections);
+        }
+        return update(listBatch, currentBitmap);
+    }
+
+    /**
+     * 탐지 없이 속도 모델만으로 모든 추적 객체를 전진시킵니다. (탐지를 건너뛴 중간 프레임용)
+     * 탐지를 시도하지 않은 프레임이므로 나이는 늘리지 않습니다.
+     *
+     * @param fraction 탐지 간격 대비 이번 프레임의 비율 (N프레임마다 탐지하면 1/N)
+     * @return 추적 객체 목록 (호출마다 새 스냅샷)
+     */
+    public List<TrackedObject> propagate(float fraction) {
+        for (TrackedObject obj : trackedObjects.values()) {
+            obj.propagate(fraction);
+        }
+        return new ArrayList<>(trackedObjects.values());
+    }
+
+    /**
+     * 현재 프레임에서 탐지된 객체를 이전 프레임의 추적 객체와 연결 (지금 캡처한 프레임)
+     *
+     * @param detections 현재 프레임의 탐지 배치 (인덱스로만 읽음)
+     * @return 추적 ID가 할당된 객체 목록 (호출마다 새 스냅샷)
+     */
+    public List<TrackedObject> update(DetectionBatch detections, Bitmap currentBitmap) {
+        return update(detections, currentBitmap, System.nanoTime());
+    }
+
+    /**
+     * 현재 프레임에서 탐지된 객체를 이전 프레임의 추적 객체와 연결
+     *
+     * @param detections 현재 프레임의 탐지 배치 (인덱스로만 읽음)
+     * @param captureTimeNanos 프레임 캡처 시각 (System.nanoTime 기준) - 오래된 객체 제거 판단에 사용
+     * @return 추적 ID가 할당된 객체 목록 (호출마다 새 스냅샷)
+     */
+    public List<TrackedObject> update(DetectionBatch detections, Bitmap currentBitmap, long captureTimeNanos) {
         // 빈 탐지 목록이면 모든 추적 객체의 나이를 증가시키고 반환
         if (detections == null || detections.isEmpty()) {
             increaseAge();
-            removeOldObjects();
+            removeOldObjects(captureTimeNanos);
             return new ArrayList<>(trackedObjects.values());
         }
 
@@ -40,7 +102,11 @@ public class SimpleTracker {
         }
 
         // 현재 프레임에서 탐지된 객체에 일치하는 추적 객체 찾기
-        boolean[] matched = new boolean[detections.size()];
+        if (matchedBuffer.length < detections.size()) {
+            matchedBuffer = new boolean[detections.size()];
+        }
+        boolean[] matched = matchedBuffer;
+        Arrays.fill(matched, 0, detections.size(), false);
 
         // 1단계: 높은 IoU 기준으로 확실한 매칭부터 처리
         float highIoUThreshold = 0.5f; // 높은 확신을 가진 매칭을 위한 임계값
@@ -53,7 +119,7 @@ public class SimpleTracker {
         matchRemainingDetections(detections, matched,currentBitmap);
 
         // 모든 기존 추적 객체에 대해 반복
-        for (TrackedObject trackedObj : new ArrayList<>(trackedObjects.values())) {
+        for (TrackedObject trackedObj : trackedObjects.values()) {
             boolean matchFound = false;
             int bestMatchIdx = -1;
             float bestIoU = IOU_THRESHOLD;
@@ -63,14 +129,12 @@ public class SimpleTracker {
                 if (matched[i])
                     continue; // 이미 매칭된 객체 건너뛰기
 
-                YoloImageProcessor.Detection detection = detections.get(i);
-
-                // 라벨이 같은 객체만 비교
-                if (!trackedObj.getLabel().equals(detection.getLabel()))
+                // 클래스가 같은 객체만 비교
+                if (trackedObj.getClassId() != detections.getClassId(i))
                     continue;
 
                 // IoU 계산 - 여기서는 예측된 위치를 사용
-                float iou = calculateIoUWithPrediction(trackedObj, detection);
+                float iou = calculateIoUWithPrediction(trackedObj, detections, i);
 
                 // 최고 IoU 업데이트
                 if (iou > bestIoU) {
@@ -82,9 +146,8 @@ public class SimpleTracker {
 
             // 일치하는 객체가 있으면 추적 객체 업데이트
             if (matchFound && bestMatchIdx >= 0) {
-                YoloImageProcessor.Detection matchedDetection = detections.get(bestMatchIdx);
-                trackedObj.update(matchedDetection);
-                if ("person".equals(trackedObj.getLabel()) && !trackedObj.hasColorInfo()) {
+                trackedObj.update(detections, bestMatchIdx);
+                if (isPerson(trackedObj) && !trackedObj.hasColorInfo()) {
                     extractColorFeatures(trackedObj, currentBitmap);
                 }
                 matched[bestMatchIdx] = true;
@@ -96,18 +159,17 @@ public class SimpleTracker {
 
         for (int i = 0; i < detections.size(); i++) {
             if (!matched[i]) {
-                YoloImageProcessor.Detection detection = detections.get(i);
 
                 // 이미 비슷한 위치에 같은 종류의 객체가 있는지 확인
                 boolean duplicateFound = false;
                 for (TrackedObject existingObj : trackedObjects.values()) {
-                    // 같은 레이블의 객체만 확인
-                    if (existingObj.getLabel().equals(detection.getLabel())) {
+                    // 같은 클래스의 객체만 확인
+                    if (existingObj.getClassId() == detections.getClassId(i)) {
                         // 중심점 계산
                         float existingCenterX = (existingObj.getLeft() + existingObj.getRight()) / 2;
                         float existingCenterY = (existingObj.getTop() + existingObj.getBottom()) / 2;
-                        float detCenterX = (detection.getLeft() + detection.getRight()) / 2;
-                        float detCenterY = (detection.getTop() + detection.getBottom()) / 2;
+                        float detCenterX = (detections.getLeft(i) + detections.getRight(i)) / 2;
+                        float detCenterY = (detections.getTop(i) + detections.getBottom(i)) / 2;
 
                         // 거리 계산
                         float distance = (float) Math.sqrt(
@@ -116,7 +178,7 @@ public class SimpleTracker {
 
                         // 객체 크기 계산
                         float existingWidth = existingObj.getRight() - existingObj.getLeft();
-                        float detWidth = detection.getRight() - detection.getLeft();
+                        float detWidth = detections.getRight(i) - detections.getLeft(i);
                         float avgWidth = (existingWidth + detWidth) / 2;
 
                         // 너무 가까이 있으면 중복으로 간주
@@ -131,15 +193,15 @@ public class SimpleTracker {
                 if (!duplicateFound) {
                     TrackedObject newTrackedObj = new TrackedObject(
                             nextId++,
-                            detection.getLabel(),
-                            detection.getConfidence(),
-                            detection.getLeft(),
-                            detection.getTop(),
-                            detection.getRight(),
-                            detection.getBottom());
+                            detections.getClassId(i),
+                            detections.getScore(i),
+                            detections.getLeft(i),
+                            detections.getTop(i),
+                            detections.getRight(i),
+                            detections.getBottom(i));
                     trackedObjects.put(newTrackedObj.getId(), newTrackedObj);
                     // 사람 객체인 경우 색상 정보 추출
-                    if ("person".equals(newTrackedObj.getLabel())) {
+                    if (isPerson(newTrackedObj)) {
                         extractColorFeatures(newTrackedObj, currentBitmap);
                     }
                 }
@@ -148,25 +210,27 @@ public class SimpleTracker {
 
 
         // 오래된 객체 제거
-        removeOldObjects();
-        Log.d("personcheck", "===============================");
+        removeOldObjects(captureTimeNanos);
+        if (DEBUG_LOG) {
+            Log.d("personcheck", "===============================");
+        }
 
 
         // 현재 추적 중인 객체 목록 반환
         return new ArrayList<>(trackedObjects.values());
     }
 
-    private void detectCrossings(List<YoloImageProcessor.Detection> detections, boolean[] matched) {
+    private void detectCrossings(DetectionBatch detections, boolean[] matched) {
         List<TrackedObject> unmatchedPersons = new ArrayList<>();
 
         // 아직 매칭되지 않은 사람 객체만 필터링
         for (TrackedObject obj : trackedObjects.values()) {
-            if ("person".equals(obj.getLabel())) {
+            if (isPerson(obj)) {
                 // 이 객체가 이미 매칭되었는지 확인
                 boolean isMatched = false;
                 for (int i = 0; i < detections.size(); i++) {
-                    if (matched[i] && detections.get(i).getLabel().equals("person")) {
-                        float iou = calculateIoUWithPrediction(obj, detections.get(i));
+                    if (matched[i] && detections.getClassId(i) == personClassId) {
+                        float iou = calculateIoUWithPrediction(obj, detections, i);
                         if (iou > 0.5f) { // 높은 IoU로 매칭된 경우
                             isMatched = true;
                             break;
@@ -205,7 +269,9 @@ public class SimpleTracker {
 
                     // 두 사람이 충분히 가까우면 (겹치거나 거의 겹치는 경우)
                     if (distance < avgWidth * OVERLAP_THRESHOLD) { // 통일된 임계값 사용
-                        Log.i("personcross", "매칭되지 않은 사람들 겹침");
+                        if (DEBUG_LOG) {
+                            Log.i("personcross", "매칭되지 않은 사람들 겹침");
+                        }
 
                         // 두 사람의 이동 방향
                         float vx1 = person1.getVelocityX();
@@ -228,8 +294,10 @@ public class SimpleTracker {
                                 person1.boostVelocity(1.5f); // 50% 증가
                                 person2.boostVelocity(1.5f); // 50% 증가
 
-                                Log.d("personcheck", "교차 감지 (매칭되지 않은 객체): ID " + person1.getId() + " ↔ ID " + person2.getId());
-                                Log.d("personcheck", person1.getId() + "," + person2.getId() + " 방향 가중치 증가");
+                                if (DEBUG_LOG) {
+                                    Log.d("personcheck", "교차 감지 (매칭되지 않은 객체): ID " + person1.getId() + " ↔ ID " + person2.getId());
+                                    Log.d("personcheck", person1.getId() + "," + person2.getId() + " 방향 가중치 증가");
+                                }
                             }
                         }
                     }
@@ -237,14 +305,14 @@ public class SimpleTracker {
             }
         }
     }
-    private void matchRemainingDetections(List<YoloImageProcessor.Detection> detections, boolean[] matched,Bitmap currentBitmap) {
+    private void matchRemainingDetections(DetectionBatch detections, boolean[] matched,Bitmap currentBitmap) {
         // 1. 사람 객체들 간의 겹침 여부를 미리 확인
         Map<Integer, Boolean> personOverlapStatus = new HashMap<>();
 
         // 추적 중인 사람 객체들을 모두 가져옴
         List<TrackedObject> personObjects = new ArrayList<>();
         for (TrackedObject obj : trackedObjects.values()) {
-            if ("person".equals(obj.getLabel())) {
+            if (isPerson(obj)) {
                 personObjects.add(obj);
                 personOverlapStatus.put(obj.getId(), false); // 기본값: 겹치지 않음
             }
@@ -281,12 +349,12 @@ public class SimpleTracker {
         }
 
         // 2. 각 객체에 대해 매칭 수행
-        for (TrackedObject trackedObj : new ArrayList<>(trackedObjects.values())) {
+        for (TrackedObject trackedObj : trackedObjects.values()) {
             boolean alreadyMatched = false;
             for (int i = 0; i < detections.size(); i++) {
-                if (matched[i] && detections.get(i).getLabel().equals(trackedObj.getLabel())) {
-                    // 같은 라벨의 객체가 이미 매칭되었는지 IoU로 확인
-                    float iou = calculateIoUWithPrediction(trackedObj, detections.get(i));
+                if (matched[i] && detections.getClassId(i) == trackedObj.getClassId()) {
+                    // 같은 클래스의 객체가 이미 매칭되었는지 IoU로 확인
+                    float iou = calculateIoUWithPrediction(trackedObj, detections, i);
                     if (iou > 0.5) { // 높은 IoU라면 이미 매칭된 것으로 간주
                         alreadyMatched = true;
                         break;
@@ -303,19 +371,17 @@ public class SimpleTracker {
             for (int i = 0; i < detections.size(); i++) {
                 if (matched[i])
                     continue;
-
-                YoloImageProcessor.Detection detection = detections.get(i);
-                if (!trackedObj.getLabel().equals(detection.getLabel()))
+                if (trackedObj.getClassId() != detections.getClassId(i))
                     continue;
 
                 // IoU 계산 - 예측된 위치 사용
-                float iou = calculateIoUWithPrediction(trackedObj, detection);
+                float iou = calculateIoUWithPrediction(trackedObj, detections, i);
 
                 // 크기 유사성 측정
                 float trackedWidth = trackedObj.getRight() - trackedObj.getLeft();
                 float trackedHeight = trackedObj.getBottom() - trackedObj.getTop();
-                float detWidth = detection.getRight() - detection.getLeft();
-                float detHeight = detection.getBottom() - detection.getTop();
+                float detWidth = detections.getRight(i) - detections.getLeft(i);
+                float detHeight = detections.getBottom(i) - detections.getTop(i);
 
                 float sizeRatio = Math.min(trackedWidth / detWidth, detWidth / trackedWidth) *
                         Math.min(trackedHeight / detHeight, detHeight / trackedHeight);
@@ -323,8 +389,8 @@ public class SimpleTracker {
                 // 위치 유사성 (중심점 거리)
                 float trackedCenterX = trackedObj.getPredictedCenterX();
                 float trackedCenterY = trackedObj.getPredictedCenterY();
-                float detCenterX = (detection.getLeft() + detection.getRight()) / 2;
-                float detCenterY = (detection.getTop() + detection.getBottom()) / 2;
+                float detCenterX = (detections.getLeft(i) + detections.getRight(i)) / 2;
+                float detCenterY = (detections.getTop(i) + detections.getBottom(i)) / 2;
 
                 float centerDistance = (float) Math.sqrt(
                         Math.pow(trackedCenterX - detCenterX, 2) +
@@ -343,8 +409,8 @@ public class SimpleTracker {
 
                 float score;
 
-                if ("person".equals(trackedObj.getLabel())) {
-                    float colorSimilarity = calculateColorSimilarity(trackedObj, detection, currentBitmap);
+                if (isPerson(trackedObj)) {
+                    float colorSimilarity = calculateColorSimilarity(trackedObj, detections, i, currentBitmap);
                     // 사람이면서 겹침 상황인 경우
                     if (personOverlapStatus.containsKey(trackedObj.getId()) &&
                             personOverlapStatus.get(trackedObj.getId())) {
@@ -353,7 +419,9 @@ public class SimpleTracker {
 
 
                         //score = iou * 0.4f + sizeRatio * 0.05f + normDistance * 0.05f + colorSimilarity * 0.5f;
-                        Log.d("personcheck", "사람 겹침 상황 - ID: " + trackedObj.getId() );
+                        if (DEBUG_LOG) {
+                            Log.d("personcheck", "사람 겹침 상황 - ID: " + trackedObj.getId() );
+                        }
                     } else {
 
                         score = iou * 0.4f + sizeRatio * 0.1f +  colorSimilarity * 0.25f+directionScore * 0.25f;
@@ -361,13 +429,17 @@ public class SimpleTracker {
 
                         // 일반 상황: 방향성 가중치 낮음
                         //score = iou * 0.4f + sizeRatio * 0.05f + normDistance * 0.05f + colorSimilarity * 0.5f;
-                        Log.d("personcheck", "겹치지않을경우 " + trackedObj.getId() );
+                        if (DEBUG_LOG) {
+                            Log.d("personcheck", "겹치지않을경우 " + trackedObj.getId() );
+                        }
 
                     }
                 } else {
                     // 다른 객체는 방향성 가중치를 매우 낮게 설정
                     score = iou * 0.1f + sizeRatio * 0.2f + normDistance * 0.4f + directionScore * 0.3f;
-                    Log.d("other", " 컵,사과,바나나 매칭중 " + trackedObj.getId() );
+                    if (DEBUG_LOG) {
+                        Log.d("other", " 컵,사과,바나나 매칭중 " + trackedObj.getId() );
+                    }
                 }
 
                 if (score > bestScore) {
@@ -377,8 +449,7 @@ public class SimpleTracker {
             }
 
             if (bestMatchIdx >= 0) {
-                YoloImageProcessor.Detection matchedDetection = detections.get(bestMatchIdx);
-                trackedObj.update(matchedDetection);
+                trackedObj.update(detections, bestMatchIdx);
                 matched[bestMatchIdx] = true;
             } else {
                 trackedObj.incrementAge();
@@ -424,21 +495,19 @@ public class SimpleTracker {
     }
 
     // 높은 IoU 값으로 확실한 매칭 찾기
-    private void matchDetectionsWithHighIoU(List<YoloImageProcessor.Detection> detections,
+    private void matchDetectionsWithHighIoU(DetectionBatch detections,
                                             boolean[] matched, float highIoUThreshold) {
-        for (TrackedObject trackedObj : new ArrayList<>(trackedObjects.values())) {
+        for (TrackedObject trackedObj : trackedObjects.values()) {
             int bestMatchIdx = -1;
             float bestIoU = highIoUThreshold;
 
             for (int i = 0; i < detections.size(); i++) {
                 if (matched[i])
                     continue;
-
-                YoloImageProcessor.Detection detection = detections.get(i);
-                if (!trackedObj.getLabel().equals(detection.getLabel()))
+                if (trackedObj.getClassId() != detections.getClassId(i))
                     continue;
 
-                float iou = calculateIoUWithPrediction(trackedObj, detection);
+                float iou = calculateIoUWithPrediction(trackedObj, detections, i);
                 if (iou > bestIoU) {
                     bestIoU = iou;
                     bestMatchIdx = i;
@@ -446,9 +515,10 @@ public class SimpleTracker {
             }
 
             if (bestMatchIdx >= 0) {
-                YoloImageProcessor.Detection matchedDetection = detections.get(bestMatchIdx);
-                Log.d("personcheck","첫번째 탐지결과 " + trackedObj.getId() + "는 확실한 매칭완료");
-                trackedObj.update(matchedDetection);
+                if (DEBUG_LOG) {
+                    Log.d("personcheck","첫번째 탐지결과 " + trackedObj.getId() + "는 확실한 매칭완료");
+                }
+                trackedObj.update(detections, bestMatchIdx);
                 matched[bestMatchIdx] = true;
             }
         }
@@ -464,14 +534,18 @@ public class SimpleTracker {
     }
 
     /**
-     * 지정된 최대 나이보다 오래된 객체 제거
+     * 이번 프레임에 탐지된 객체의 마지막 탐지 시각을 갱신하고, 마지막 탐지 후 MAX_AGE_NANOS가 지난 객체 제거
      */
-    private void removeOldObjects() {
+    private void removeOldObjects(long captureTimeNanos) {
         Iterator<Map.Entry<Integer, TrackedObject>> it = trackedObjects.entrySet().iterator();
         while (it.hasNext()) {
             TrackedObject obj = it.next().getValue();
-            if (obj.getAge() > MAX_AGE) {
-                Log.d(TAG, "객체 제거: ID=" + obj.getId() + ", Label=" + obj.getLabel());
+            if (obj.getAge() == 0) {
+                obj.lastDetectedNanos = captureTimeNanos;
+            } else if (captureTimeNanos - obj.lastDetectedNanos > MAX_AGE_NANOS) {
+                if (DEBUG_LOG) {
+                    Log.d(TAG, "객체 제거: ID=" + obj.getId() + ", Class=" + obj.getClassId());
+                }
                 it.remove();
             }
         }
@@ -480,12 +554,12 @@ public class SimpleTracker {
     /**
      * 두 객체 간의 IoU(Intersection over Union)를 계산 - 예측된 위치 사용
      */
-    private float calculateIoUWithPrediction(TrackedObject trackedObj, YoloImageProcessor.Detection detection) {
+    private float calculateIoUWithPrediction(TrackedObject trackedObj, DetectionBatch detections, int i) {
         // 교차 영역 계산 - 예측된 위치 사용
-        float xLeft = Math.max(trackedObj.getPredictedLeft(), detection.getLeft());
-        float yTop = Math.max(trackedObj.getPredictedTop(), detection.getTop());
-        float xRight = Math.min(trackedObj.getPredictedRight(), detection.getRight());
-        float yBottom = Math.min(trackedObj.getPredictedBottom(), detection.getBottom());
+        float xLeft = Math.max(trackedObj.getPredictedLeft(), detections.getLeft(i));
+        float yTop = Math.max(trackedObj.getPredictedTop(), detections.getTop(i));
+        float xRight = Math.min(trackedObj.getPredictedRight(), detections.getRight(i));
+        float yBottom = Math.min(trackedObj.getPredictedBottom(), detections.getBottom(i));
 
         // 교차 영역이 없으면 0 반환
         if (xRight < xLeft || yBottom < yTop)
@@ -496,8 +570,8 @@ public class SimpleTracker {
         // 각 영역 계산
         float trackedObjArea = (trackedObj.getPredictedRight() - trackedObj.getPredictedLeft()) *
                 (trackedObj.getPredictedBottom() - trackedObj.getPredictedTop());
-        float detectionArea = (detection.getRight() - detection.getLeft()) *
-                (detection.getBottom() - detection.getTop());
+        float detectionArea = (detections.getRight(i) - detections.getLeft(i)) *
+                (detections.getBottom(i) - detections.getTop(i));
 
         // IoU 계산
         return intersectionArea / (trackedObjArea + detectionArea - intersectionArea);
@@ -506,12 +580,12 @@ public class SimpleTracker {
     /**
      * 원래 IoU 계산 메서드 (디스플레이용)
      */
-    private float calculateIoU(TrackedObject trackedObj, YoloImageProcessor.Detection detection) {
+    private float calculateIoU(TrackedObject trackedObj, DetectionBatch detections, int i) {
         // 교차 영역 계산
-        float xLeft = Math.max(trackedObj.getLeft(), detection.getLeft());
-        float yTop = Math.max(trackedObj.getTop(), detection.getTop());
-        float xRight = Math.min(trackedObj.getRight(), detection.getRight());
-        float yBottom = Math.min(trackedObj.getBottom(), detection.getBottom());
+        float xLeft = Math.max(trackedObj.getLeft(), detections.getLeft(i));
+        float yTop = Math.max(trackedObj.getTop(), detections.getTop(i));
+        float xRight = Math.min(trackedObj.getRight(), detections.getRight(i));
+        float yBottom = Math.min(trackedObj.getBottom(), detections.getBottom(i));
 
         // 교차 영역이 없으면 0 반환
         if (xRight < xLeft || yBottom < yTop)
@@ -522,8 +596,8 @@ public class SimpleTracker {
         // 각 영역 계산
         float trackedObjArea = (trackedObj.getRight() - trackedObj.getLeft()) *
                 (trackedObj.getBottom() - trackedObj.getTop());
-        float detectionArea = (detection.getRight() - detection.getLeft()) *
-                (detection.getBottom() - detection.getTop());
+        float detectionArea = (detections.getRight(i) - detections.getLeft(i)) *
+                (detections.getBottom(i) - detections.getTop(i));
 
         // IoU 계산
         return intersectionArea / (trackedObjArea + detectionArea - intersectionArea);
@@ -532,7 +606,7 @@ public class SimpleTracker {
     // SimpleTracker 클래스에 추가할 메서드
     private void extractColorFeatures(TrackedObject obj, Bitmap bitmap) {
         // 사람 객체만 처리
-        if (!"person".equals(obj.getLabel())) {
+        if (!isPerson(obj)) {
             return;
         }
 
@@ -597,14 +671,16 @@ public class SimpleTracker {
         obj.setColorFeatures(upperBodyColors, lowerBodyColors);
 
         // 색상 정보 로그 출력
-        Log.d("ColorInfo", String.format(
-                "사람 ID %d 색상 정보: " +
-                        "상체 [R:%.1f, G:%.1f, B:%.1f], " +
-                        "하체 [R:%.1f, G:%.1f, B:%.1f]",
-                obj.getId(),
-                upperBodyColors[0], upperBodyColors[1], upperBodyColors[2],
-                lowerBodyColors[0], lowerBodyColors[1], lowerBodyColors[2]
-        ));
+        if (DEBUG_LOG) {
+            Log.d("ColorInfo", String.format(
+                    "사람 ID %d 색상 정보: " +
+                            "상체 [R:%.1f, G:%.1f, B:%.1f], " +
+                            "하체 [R:%.1f, G:%.1f, B:%.1f]",
+                    obj.getId(),
+                    upperBodyColors[0], upperBodyColors[1], upperBodyColors[2],
+                    lowerBodyColors[0], lowerBodyColors[1], lowerBodyColors[2]
+            ));
+        }
 
 
     }
@@ -636,16 +712,16 @@ public class SimpleTracker {
 
         return avgColor;
     }
-    private float calculateColorSimilarity(TrackedObject obj1, YoloImageProcessor.Detection detection, Bitmap bitmap) {
+    private float calculateColorSimilarity(TrackedObject obj1, DetectionBatch detections, int i, Bitmap bitmap) {
         if (!obj1.hasColorInfo()) {
             return 0.3f; // 기본값
         }
 
         // 현재 탐지된 객체의 바운딩 박스
-        int left = (int) detection.getLeft();
-        int top = (int) detection.getTop();
-        int right = (int) detection.getRight();
-        int bottom = (int) detection.getBottom();
+        int left = (int) detections.getLeft(i);
+        int top = (int) detections.getTop(i);
+        int right = (int) detections.getRight(i);
+        int bottom = (int) detections.getBottom(i);
 
         // 경계 확인
         left = Math.max(0, left);
@@ -679,10 +755,12 @@ public class SimpleTracker {
         float lowerSim = colorDistance(obj1.getLowerBodyColors(), lowerBodyColors);
 
         // 색상 유사도 로그
-        Log.d("ColorSimilarity", String.format(
-                "ID %d 와 후보 객체 색상 유사도: 상체 %.2f, 하체 %.2f",
-                obj1.getId(), upperSim, lowerSim
-        ));
+        if (DEBUG_LOG) {
+            Log.d("ColorSimilarity", String.format(
+                    "ID %d 와 후보 객체 색상 유사도: 상체 %.2f, 하체 %.2f",
+                    obj1.getId(), upperSim, lowerSim
+            ));
+        }
 
         // 상체와 하체에 동일한 가중치 부여
         return (upperSim * 0.5f + lowerSim * 0.5f);
@@ -710,13 +788,15 @@ public class SimpleTracker {
      */
     public static class TrackedObject {
         private final int id;
-        private String label;
+        private final int classId;
         private float confidence;
         private float left;
         private float top;
         private float right;
         private float bottom;
         private int age;
+        // 마지막으로 탐지된 프레임의 캡처 시각 (추적기가 update 끝에 갱신)
+        private long lastDetectedNanos;
 
         // 속도 추적을 위한 필드 추가
         private float velocityX;
@@ -725,6 +805,10 @@ public class SimpleTracker {
         private float prevCenterY;
         private long lastMatchedTime;
 
+        // 마지막 탐지 이후 propagate로 옮긴 양 (속도는 탐지 위치 기준으로 계산)
+        private float propagatedX;
+        private float propagatedY;
+
         // 매칭 계산용 예측 위치 (화면에 표시되지 않음)
         private float predictedLeft;
         private float predictedTop;
@@ -736,10 +820,10 @@ public class SimpleTracker {
         private float[] lowerBodyColors; // 하체 영역 RGB 평균값 [R, G, B]
         private boolean hasColorInfo = false; // 색상 정보가 추출되었는지 여부
 
-        public TrackedObject(int id, String label, float confidence,
+        public TrackedObject(int id, int classId, float confidence,
                              float left, float top, float right, float bottom) {
             this.id = id;
-            this.label = label;
+            this.classId = classId;
             this.confidence = confidence;
             this.left = left;
             this.top = top;
@@ -796,20 +880,35 @@ public class SimpleTracker {
          * 새로운 탐지 결과로 추적 객체 업데이트
          */
         public void update(YoloImageProcessor.Detection detection) {
+            update(detection.getConfidence(), detection.getLeft(), detection.getTop(),
+                    detection.getRight(), detection.getBottom());
+        }
+
+        /**
+         * 탐지 배치의 i번째 결과로 추적 객체 업데이트
+         */
+        public void update(DetectionBatch detections, int i) {
+            update(detections.getScore(i), detections.getLeft(i), detections.getTop(i),
+                    detections.getRight(i), detections.getBottom(i));
+        }
+
+        private void update(float confidence, float left, float top, float right, float bottom) {
             // 속도 계산 (이전 중심점과 새 중심점 사용)
-            float centerX = (detection.getLeft() + detection.getRight()) / 2;
-            float centerY = (detection.getTop() + detection.getBottom()) / 2;
+            float centerX = (left + right) / 2;
+            float centerY = (top + bottom) / 2;
 
             // 속도 업데이트 (이동 평균 사용)
             velocityX = VELOCITY_WEIGHT * (centerX - prevCenterX) + (1 - VELOCITY_WEIGHT) * velocityX;
             velocityY = VELOCITY_WEIGHT * (centerY - prevCenterY) + (1 - VELOCITY_WEIGHT) * velocityY;
 
-            this.confidence = detection.getConfidence();
-            this.left = detection.getLeft();
-            this.top = detection.getTop();
-            this.right = detection.getRight();
-            this.bottom = detection.getBottom();
+            this.confidence = confidence;
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
             this.age = 0; // 탐지되었으므로 나이 초기화
+            this.propagatedX = 0;
+            this.propagatedY = 0;
 
             // 중심점 저장
             this.prevCenterX = centerX;
@@ -830,15 +929,32 @@ public class SimpleTracker {
             this.age++;
         }
 
+        /**
+         * 속도(탐지 간격당 이동량)의 fraction만큼 박스를 옮깁니다. 다음 탐지의 속도 계산에는 영향을 주지 않습니다.
+         */
+        public void propagate(float fraction) {
+            if (!USE_VELOCITY_PREDICTION) {
+                return;
+            }
+            float dx = velocityX * fraction;
+            float dy = velocityY * fraction;
+            left += dx;
+            right += dx;
+            top += dy;
+            bottom += dy;
+            propagatedX += dx;
+            propagatedY += dy;
+        }
+
         // 매칭 계산용 위치 예측 (실제 표시되는 위치는 변경되지 않음)
         public void predictForMatching() {
             if (age > 0 && USE_VELOCITY_PREDICTION) {
                 float width = right - left;
                 float height = bottom - top;
 
-                // 예측 위치만 업데이트
-                predictedLeft = left + velocityX;
-                predictedTop = top + velocityY;
+                // 예측 위치만 업데이트 (중간 프레임에서 옮긴 양은 빼고 마지막 탐지 위치 기준)
+                predictedLeft = left - propagatedX + velocityX;
+                predictedTop = top - propagatedY + velocityY;
                 predictedRight = predictedLeft + width;
                 predictedBottom = predictedTop + height;
             } else {
@@ -855,8 +971,11 @@ public class SimpleTracker {
             return id;
         }
 
-        public String getLabel() {
-            return label;
+        /**
+         * 클래스 인덱스 (이름은 ProductCatalog.labelOf로 UI/전송 시에만 변환)
+         */
+        public int getClassId() {
+            return classId;
         }
 
         public float getConfidence() {
@@ -922,7 +1041,7 @@ public class SimpleTracker {
 
         @Override
         public String toString() {
-            return id + ": " + label + " (" + String.format("%.2f", confidence * 100) + "%), age=" + age;
+            return id + ": class " + classId + " (" + String.format("%.2f", confidence * 100) + "%), age=" + age;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.example.quantiztest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 파이프라인 단계 사이를 잇는 단일 생산자/단일 소비자 고정 크기 링 버퍼입니다.
+ * 가득 찼을 때는 정책에 따라 가장 오래된 항목(DROP_OLDEST) 또는 새 항목(DROP_NEWEST)을 버리며,
+ * 생산자는 절대 막히지 않습니다. 버려진 항목은 offer의 반환값/콜백으로 돌려주어 재사용할 수 있게 합니다.
+ *
+ * 헤드는 소비자(poll)와 생산자(DROP_OLDEST로 버릴 때)가 함께 CAS로 옮기고, 테일은 생산자만 씁니다.
+ */
+public class SpscQueue<T> {
+
+    public enum DropPolicy {
+        DROP_OLDEST, // 최신 프레임 우선 (실시간 처리용)
+        DROP_NEWEST  // 이미 대기 중인 프레임 우선
+    }
+
+    /**
+     * 가득 차서 버려진 항목을 받는 콜백 (생산자 스레드에서 호출)
+     */
+    public interface DropListener<T> {
+        void onDropped(T item);
+    }
+
+    private final AtomicReferenceArray<T> slots;
+    private final int capacity;
+    private final DropPolicy policy;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile Thread waiter;
+
+    // 관측용 카운터 (생산자만 씀)
+    private volatile long offeredCount;
+    private volatile long droppedCount;
+    private volatile int maxDepth;
+
+    public SpscQueue(int capacity, DropPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("큐 크기는 1 이상이어야 합니다: " + capacity);
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    /**
+     * 항목을 넣습니다. 가득 차 있으면 정책에 따라 하나를 버립니다.
+     *
+     * @param listener 버려진 항목을 받을 콜백 (null 가능)
+     * @return 새 항목이 큐에 들어갔으면 true (DROP_NEWEST로 거부되면 false)
+     */
+    public boolean offer(T item, DropListener<T> listener) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+        long t = tail.get();
+        offeredCount++;
+        while (t - head.get() >= capacity) {
+            if (policy == DropPolicy.DROP_NEWEST) {
+                droppedCount++;
+                if (listener != null) {
+                    listener.onDropped(item);
+                }
+                return false;
+            }
+            long h = head.get();
+            if (t - h >= capacity && head.compareAndSet(h, h + 1)) {
+                T dropped = slots.getAndSet(slot(h), null);
+                droppedCount++;
+                if (listener != null && dropped != null) {
+                    listener.onDropped(dropped);
+                }
+            }
+        }
+        slots.set(slot(t), item);
+        tail.set(t + 1);
+
+        int depth = (int) (t + 1 - head.get());
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+        Thread w = waiter;
+        if (w != null) {
+            LockSupport.unpark(w);
+        }
+        return true;
+    }
+
+    /**
+     * 항목을 꺼냅니다. 비어 있으면 null을 반환합니다.
+     */
+    public T poll() {
+        while (true) {
+            long h = head.get();
+            if (h >= tail.get()) {
+                return null;
+            }
+            T item = slots.get(slot(h));
+            // 읽는 사이 생산자가 같은 항목을 버렸으면 CAS가 실패하므로 다시 읽음
+            if (item != null && head.compareAndSet(h, h + 1)) {
+                slots.compareAndSet(slot(h), item, null);
+                return item;
+            }
+        }
+    }
+
+    /**
+     * 항목이 들어올 때까지 최대 timeoutMs 동안 기다립니다. 소비자 스레드에서만 호출합니다.
+     *
+     * @return 꺼낸 항목, 시간 초과나 인터럽트 시 null
+     */
+    public T poll(long timeoutMs) {
+        T item = poll();
+        if (item != null) {
+            return item;
+        }
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        Thread current = Thread.currentThread();
+        waiter = current;
+        try {
+            while (true) {
+                item = poll();
+                if (item != null) {
+                    return item;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || current.isInterrupted()) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waiter = null;
+        }
+    }
+
+    /**
+     * 남은 항목을 모두 꺼내 콜백에 넘깁니다. (정지 시 프레임 반납용)
+     */
+    public void drain(DropListener<T> listener) {
+        T item;
+        while ((item = poll()) != null) {
+            if (listener != null) {
+                listener.onDropped(item);
+            }
+        }
+    }
+
+    /**
+     * 현재 대기 중인 항목 수
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public DropPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getOfferedCount() {
+        return offeredCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+}
@@ -1,124 +1,437 @@
 package com.example.quantiztest;
 
 import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.AssetFileDescriptor;
 import android.content.res.AssetManager;
+import android.os.Build;
 import android.util.Log;
 
 import org.tensorflow.lite.Interpreter;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class TFLiteLoader {
     private static final String TAG = "TFLiteLoader";
+    public static final int DEFAULT_WARMUP_RUNS = 3;
+    private static final long WARMUP_JOIN_MS = 2000; // close 시 진행 중인 예열을 기다리는 최대 시간
+
+    /**
+     * 모델 버퍼를 얻은 방법 (시작 지표용)
+     */
+    public enum LoadSource {
+        ASSET_MAPPED, // 압축되지 않은 에셋을 파일 디스크립터에서 바로 매핑
+        CACHE_HIT,    // 해시 이름의 캐시 복사본 재사용
+        CACHE_COPY,   // 에셋을 캐시로 새로 복사
+        FILE_MAPPED   // 에셋이 아닌 모델 파일을 바로 매핑 (모델 교체)
+    }
+
+    /**
+     * 모델 버퍼를 얻는 방법 (에셋 또는 파일)
+     */
+    private interface ModelSource {
+        MappedByteBuffer map() throws IOException;
+    }
     private  String modelName;
+    private final ModelSignature signature;
 
     private Interpreter tflite;
     private MappedByteBuffer tfliteModel;
     private Context context;
 
-    public TFLiteLoader(Context context,String modelName) {
+    // 로드 시 한 번 검증/캐시한 텐서 메타데이터
+    private ModelBinding binding;
+
+    // 같은 모델 버퍼를 공유하는 인터프리터 풀 설정 (0이면 코어 수로 결정, 크기 1이면 풀 없이 기존과 같음)
+    private int poolSize = 1;
+    private int threadsPerInterpreter;
+    private InterpreterPool interpreterPool;
+
+    // 기기 모델/모델 해시별 자동 튜닝 결과 저장소 (없으면 기본 설정)
+    private TuningStore tuningStore;
+    private String modelHash;
+    // 매핑한 에셋이 그대로인지 판단하는 값 (에셋 길이 + APK 업데이트 시각, 있으면 해시 캐시에 씀)
+    private String modelStamp;
+    private InferenceConfig inferenceConfig;
+    private boolean tuned;
+
+    // 시작 지표: 모델 버퍼를 얻은 방법과 로드(매핑~인터프리터 생성/바인딩) 시간
+    private LoadSource loadSource;
+    private long loadTimeMs;
+
+    // 로드 직후 백그라운드 예열: 첫 추론의 지연 할당/델리게이트 준비를 실제 프레임 전에 끝냄
+    private int warmUpRuns = DEFAULT_WARMUP_RUNS;
+    private final CompletableFuture<Void> readiness = new CompletableFuture<>();
+    // 저장된 튜닝 결과가 없으면 예열 뒤 준비 완료 전에 자동 튜닝 (첫 실행만 준비가 늦어짐)
+    private boolean autotuneOnWarmUp;
+    private Thread warmUpThread;
+    private volatile long coldLatencyMs = -1;
+    private volatile long warmLatencyMs = -1;
+
+    /**
+     * @param signature 모델이 만족해야 하는 입출력 형상 (로드 시 검증)
+     */
+    public TFLiteLoader(Context context, String modelName, ModelSignature signature) {
 
         this.context = context;
         this.modelName=modelName;
+        this.signature = signature;
+    }
+
+    /**
+     * 로드 전에 인터프리터 풀 크기와 인터프리터당 스레드 수를 설정합니다.
+     *
+     * @param poolSize              인터프리터 수 (0이면 코어 수로 결정)
+     * @param threadsPerInterpreter 인터프리터당 스레드 수 (0이면 코어 수를 풀 크기로 나눠 결정)
+     */
+    public void setInterpreterPool(int poolSize, int threadsPerInterpreter) {
+        if (poolSize < 0 || threadsPerInterpreter < 0) {
+            throw new IllegalArgumentException("잘못된 인터프리터 풀 설정: " + poolSize + "/" + threadsPerInterpreter);
+        }
+        this.poolSize = poolSize;
+        this.threadsPerInterpreter = threadsPerInterpreter;
+    }
+
+    /**
+     * 로드 전에 자동 튜닝 결과 저장소를 설정합니다. 저장된 결과가 있으면 로드할 때 그 설정을 씁니다.
+     */
+    public void setTuningStore(TuningStore tuningStore) {
+        this.tuningStore = tuningStore;
+    }
+
+    /**
+     * 로드 직후 인터프리터마다 돌릴 예열 추론 횟수를 설정합니다. (0이면 예열 없이 바로 준비 완료)
+     */
+    public void setWarmUpRuns(int warmUpRuns) {
+        if (warmUpRuns < 0) {
+            throw new IllegalArgumentException("잘못된 예열 횟수: " + warmUpRuns);
+        }
+        this.warmUpRuns = warmUpRuns;
+    }
+
+    /**
+     * 로드 전에 설정합니다. true면 이 기기의 튜닝 결과가 없을 때 예열 직후 설정 후보를 벤치마크한 뒤 준비 완료합니다.
+     * 준비 상태를 기다려 시작하는 카메라 파이프라인과 겹치지 않으므로 실제 추론 지연에 영향을 주지 않습니다.
+     */
+    public void setAutotuneOnWarmUp(boolean autotuneOnWarmUp) {
+        this.autotuneOnWarmUp = autotuneOnWarmUp;
     }
 
     /**
      * Assets 폴더에서 TFLite 모델을 로드합니다.
+     * 성공하면 백그라운드에서 예열을 시작하며, 끝나면 getReadiness()가 완료됩니다.
      */
     public boolean loadModelFromAssets() {
         Log.d(TAG, "Loading model from assets...");
-        try {
-            tfliteModel = loadModelFile(context, modelName);
-
-            // 인터프리터 옵션 설정
-            Interpreter.Options options = new Interpreter.Options();
+        return load(() -> loadModelFile(context, modelName));
+    }
 
-            // CPU 스레드 수 최적화
-            int availableProcessors = Runtime.getRuntime().availableProcessors();
-            int optimalThreads = Math.min(4, availableProcessors);
-            options.setNumThreads(optimalThreads);
-            Log.d(TAG, "Using " + optimalThreads + " threads for " + modelName);
+    /**
+     * 에셋이 아닌 모델 파일(내려받은 재학습 모델 등)을 매핑해 로드합니다. 검증/예열은 에셋과 같습니다.
+     */
+    public boolean loadModelFromFile(File file) {
+        Log.d(TAG, "Loading model from file: " + file);
+        return load(() -> {
+            modelHash = null;
+            modelStamp = null;
+            try (FileInputStream input = new FileInputStream(file);
+                 FileChannel fileChannel = input.getChannel()) {
+                MappedByteBuffer result = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+                loadSource = LoadSource.FILE_MAPPED;
+                Log.d(TAG, "Model file mapped: " + file.getName() + " Size: " + file.length() + " bytes");
+                return result;
+            }
+        });
+    }
 
-            // 성능 옵션
-            options.setAllowFp16PrecisionForFp32(true);
+    private boolean load(ModelSource source) {
+        long loadStart = System.nanoTime();
+        try {
+            tfliteModel = source.map();
 
-            // CPU 기반 NNAPI 활성화 (API 27+)
-            if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.P) {
-                options.setUseNNAPI(true);
-                Log.d(TAG, "NNAPI enabled for " + modelName);
+            // 이 기기에서 튜닝한 설정이 있으면 사용, 없으면 기본 설정
+            int availableProcessors = Runtime.getRuntime().availableProcessors();
+            InferenceConfig config = InferenceConfig.defaults(availableProcessors, isNnapiAvailable());
+            tuned = false;
+            if (tuningStore != null) {
+                if (modelHash == null) {
+                    // 캐시 경로는 복사할 때 이미 구함, 바로 매핑한 에셋은 APK가 그대로면 저장된 해시 사용
+                    modelHash = tuningStore.hash(modelName, modelStamp, tfliteModel);
+                }
+                InferenceConfig stored = tuningStore.get(Build.MODEL, modelHash);
+                if (stored != null) {
+                    config = stored;
+                    tuned = true;
+                }
             }
 
+            // CPU 스레드 수: 직접 설정 > 튜닝 결과(풀 크기로 나눈 코어 이내) > 코어 수로 결정
+            int size = poolSize > 0 ? poolSize : InterpreterPool.recommendedSize(availableProcessors);
+            int optimalThreads = threadsPerInterpreter > 0
+                    ? threadsPerInterpreter
+                    : tuned
+                    ? Math.min(config.getThreads(), Math.max(1, availableProcessors / size))
+                    : InterpreterPool.recommendedThreads(availableProcessors, size);
+            inferenceConfig = config.withThreads(optimalThreads);
+            Interpreter.Options options = createOptions(inferenceConfig);
+            Log.d(TAG, "Using " + size + " interpreter(s) x " + inferenceConfig + (tuned ? " (tuned)" : "")
+                    + " for " + modelName);
+
             tflite = new Interpreter(tfliteModel, options);
 
-            // 모델 텐서 정보 출력
+            // 모델 텐서 정보를 한 번만 읽어 검증하고 캐시
             Log.d(TAG, "Model loaded successfully: " + modelName);
-            Log.d(TAG, "Model input tensor count: " + tflite.getInputTensorCount());
-            Log.d(TAG, "Model output tensor count: " + tflite.getOutputTensorCount());
+            binding = ModelBinding.bind(tflite, signature);
 
-            // 모든 입력 텐서 정보 출력
-            for (int i = 0; i < tflite.getInputTensorCount(); i++) {
-                Log.d(TAG, "Input tensor #" + i + " type: " + tflite.getInputTensor(i).dataType());
-                Log.d(TAG, "Input tensor #" + i + " shape: " + java.util.Arrays.toString(tflite.getInputTensor(i).shape()));
-            }
-
-            // 모든 출력 텐서 정보 출력
-            for (int i = 0; i < tflite.getOutputTensorCount(); i++) {
-                Log.d(TAG, "Output tensor #" + i + " type: " + tflite.getOutputTensor(i).dataType());
-                Log.d(TAG, "Output tensor #" + i + " shape: " + java.util.Arrays.toString(tflite.getOutputTensor(i).shape()));
+            // 나머지 인터프리터는 같은 매핑 버퍼로 만듦 (모델 메모리는 공유, 텐서 메모리만 따로)
+            List<Interpreter> interpreters = new ArrayList<>(size);
+            interpreters.add(tflite);
+            for (int i = 1; i < size; i++) {
+                interpreters.add(new Interpreter(tfliteModel, createOptions(inferenceConfig)));
             }
+            interpreterPool = new InterpreterPool(interpreters, optimalThreads);
 
+            loadTimeMs = (System.nanoTime() - loadStart) / 1_000_000L;
+            Log.i(TAG, "Startup metric: " + modelName + " loaded in " + loadTimeMs + "ms (" + loadSource + ")");
+            startWarmUp();
             return true;
         } catch (IOException e) {
-            Log.e(TAG, "Error loading model from assets: " + e.getMessage(), e);
+            Log.e(TAG, "Error loading model " + modelName + ": " + e.getMessage(), e);
+            readiness.completeExceptionally(e);
+            return false;
+        } catch (IllegalArgumentException e) {
+            // 모델 형상/타입이 프로세서와 맞지 않음 - 프레임 처리 중 실패하지 않도록 로드 단계에서 거부
+            Log.e(TAG, "Model binding failed for " + modelName + ": " + e.getMessage(), e);
+            close();
+            readiness.completeExceptionally(e);
             return false;
         }
     }
+
     /**
-     * Assets에서 모델 파일을 읽어 MappedByteBuffer로 변환합니다.
+     * 백그라운드에서 예열(과 필요하면 자동 튜닝)을 마친 뒤 준비 상태를 완료합니다.
      */
-    private MappedByteBuffer loadModelFile(Context context, String modelFile) throws IOException {
-        AssetManager assetManager = context.getAssets();
-        InputStream is = assetManager.open(modelFile);
+    private void startWarmUp() {
+        final boolean autotune = autotuneOnWarmUp && !tuned && tuningStore != null;
+        if (warmUpRuns == 0 && !autotune) {
+            readiness.complete(null);
+            return;
+        }
+        final InterpreterPool pool = interpreterPool;
+        warmUpThread = new Thread(() -> {
+            try {
+                if (warmUpRuns > 0) {
+                    warmUp(pool);
+                }
+                if (autotune) {
+                    // 준비 완료 전(카메라 파이프라인 시작 전)에 벤치마크해 실제 추론과 CPU를 다투지 않게 함
+                    autotune();
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+                readiness.complete(null);
+            } catch (InterruptedException e) {
+                readiness.completeExceptionally(e); // 예열 중 close
+            } catch (Exception e) {
+                // 예열 실패는 첫 프레임이 느려질 뿐이므로 준비 완료로 처리
+                Log.e(TAG, "Warm-up failed for " + modelName + ": " + e.getMessage(), e);
+                readiness.complete(null);
+            }
+        }, "ModelWarmUp-" + modelName);
+        warmUpThread.start();
+    }
 
-        // 임시 파일 생성
-        File tempFile = File.createTempFile("tflite", null, context.getCacheDir());
+    /**
+     * 풀의 인터프리터를 모두 빌려 합성 입력으로 warmUpRuns번씩 추론합니다. (예열 스레드)
+     * 기본 인터프리터의 첫 추론을 콜드 지연, 나머지 추론의 중앙값을 웜 지연으로 기록합니다.
+     */
+    private void warmUp(InterpreterPool pool) throws InterruptedException {
+        FrameContext ctx = binding.createFrameContext();
+        fillSyntheticInput(ctx);
+        List<Interpreter> borrowed = new ArrayList<>(pool.size());
+        try {
+            for (int i = 0; i < pool.size(); i++) {
+                borrowed.add(pool.acquire());
+            }
+            long[] warm = new long[borrowed.size() * Math.max(0, warmUpRuns - 1)];
+            int warmCount = 0;
+            for (int i = 0; i < borrowed.size(); i++) {
+                for (int run = 0; run < warmUpRuns; run++) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                    long start = System.nanoTime();
+                    ctx.rewindOutputs();
+                    borrowed.get(i).runForMultipleInputsOutputs(ctx.getInputs(), ctx.getOutputs());
+                    long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+                    if (run > 0) {
+                        warm[warmCount++] = elapsedMs;
+                    } else if (i == 0) {
+                        coldLatencyMs = elapsedMs;
+                    }
+                }
+            }
+            if (warmCount > 0) {
+                Arrays.sort(warm, 0, warmCount);
+                warmLatencyMs = warm[warmCount / 2];
+            }
+            Log.i(TAG, "Startup metric: " + modelName + " warm-up " + warmUpRuns + " run(s) x "
+                    + borrowed.size() + " interpreter(s), cold " + coldLatencyMs + "ms, warm " + warmLatencyMs + "ms");
+        } finally {
+            for (Interpreter interpreter : borrowed) {
+                pool.release(interpreter);
+            }
+        }
+    }
+
+    /**
+     * 예열용 합성 입력: 양자화 모델은 회색 바탕의 대각선 그라디언트, FLOAT32 모델은 0.5
+     */
+    private static void fillSyntheticInput(FrameContext ctx) {
+        ByteBuffer input = ctx.getInputBuffer();
+        input.clear();
+        if (ctx.getBytesPerElement() == 4) {
+            while (input.remaining() >= 4) {
+                input.putFloat(0.5f);
+            }
+        } else {
+            int width = ctx.getInputWidth();
+            int channels = ctx.getChannels();
+            for (int i = 0; input.hasRemaining(); i++) {
+                int pixel = i / channels;
+                input.put((byte) (114 + ((pixel % width + pixel / width) & 0x3F)));
+            }
+        }
+        input.rewind();
+    }
+    /**
+     * 인터프리터 옵션을 만듭니다. (풀의 인터프리터와 튜닝 후보마다 같은 방식)
+     */
+    private Interpreter.Options createOptions(InferenceConfig config) {
+        Interpreter.Options options = new Interpreter.Options();
+        options.setNumThreads(config.getThreads());
 
-        // 임시 파일에 assets 내용 복사
-        copyInputStreamToFile(is, tempFile);
+        // 성능 옵션
+        options.setAllowFp16PrecisionForFp32(true);
+        options.setUseXNNPACK(config.isXnnpack());
+        // 추론 감시자가 기한을 넘긴 실행을 setCancelled로 멈출 수 있게 함
+        options.setCancellable(true);
 
-        // 임시 파일에서 MappedByteBuffer 생성
-        FileInputStream input = new FileInputStream(tempFile);
-        FileChannel fileChannel = input.getChannel();
-        MappedByteBuffer result = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, tempFile.length());
+        // NNAPI는 API 28 이상에서만 사용 (일부 기기에서는 CPU보다 느려 튜닝으로 끌 수 있음)
+        if (config.isNnapi() && isNnapiAvailable()) {
+            options.setUseNNAPI(true);
+        }
+        return options;
+    }
 
-        // 리소스 정리
-        fileChannel.close();
-        input.close();
-        is.close();
+    private static boolean isNnapiAvailable() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.P;
+    }
 
-        Log.d(TAG, "Model file loaded: " + modelFile + " Size: " + tempFile.length() + " bytes");
+    /**
+     * 설정 후보를 하나씩 벤치마크해 가장 빠른 설정을 저장소에 기록합니다. 다음 로드부터 적용됩니다.
+     * 후보마다 인터프리터를 새로 만들어 여러 번 추론하므로 백그라운드 스레드에서 호출해야 하며,
+     * 실제 추론과 CPU를 다투지 않도록 파이프라인이 돌지 않을 때 호출합니다. (setAutotuneOnWarmUp 참고)
+     *
+     * @return 튜닝 결과 (로드 전이거나 저장소가 없으면 null)
+     */
+    public Autotuner.Result autotune() {
+        if (tfliteModel == null || binding == null || tuningStore == null) {
+            return null;
+        }
+        int availableProcessors = Runtime.getRuntime().availableProcessors();
+        Autotuner.Result result = new Autotuner(new TfliteBackend())
+                .tune(Autotuner.candidates(availableProcessors, isNnapiAvailable()));
+        if (result.getBest() != null && !Thread.currentThread().isInterrupted()) {
+            tuningStore.put(Build.MODEL, modelHash, result.getBest(), result.getBestMillis());
+        }
+        Log.i(TAG, "Autotune " + modelName + " on " + Build.MODEL + ": " + result.summary());
         return result;
     }
 
     /**
-     * InputStream의 내용을 File로 복사합니다.
+     * 로드한 모델 버퍼로 후보 설정마다 인터프리터를 만들어 빈 입력으로 추론하는 튜닝 백엔드
      */
-    private void copyInputStreamToFile(InputStream in, File file) throws IOException {
-        OutputStream out = new FileOutputStream(file);
-        byte[] buffer = new byte[1024];
-        int read;
-        while ((read = in.read(buffer)) != -1) {
-            out.write(buffer, 0, read);
+    private class TfliteBackend implements InferenceBackend {
+        @Override
+        public Session open(InferenceConfig config) {
+            final Interpreter interpreter = new Interpreter(tfliteModel, createOptions(config));
+            final FrameContext ctx = binding.createFrameContext();
+            return new Session() {
+                @Override
+                public void run() {
+                    ctx.rewindOutputs();
+                    interpreter.runForMultipleInputsOutputs(ctx.getInputs(), ctx.getOutputs());
+                }
+
+                @Override
+                public void close() {
+                    interpreter.close();
+                }
+            };
+        }
+    }
+
+    /**
+     * Assets의 모델을 MappedByteBuffer로 가져옵니다.
+     * 압축되지 않은 에셋(noCompress)은 APK 안의 위치를 그대로 매핑하고,
+     * 압축된 에셋이면 캐시 디렉터리의 해시 이름 복사본을 재사용하거나 새로 만들어 매핑합니다.
+     */
+    private MappedByteBuffer loadModelFile(Context context, String modelFile) throws IOException {
+        AssetManager assetManager = context.getAssets();
+        modelHash = null;
+        modelStamp = null;
+        try (AssetFileDescriptor fd = assetManager.openFd(modelFile);
+             FileInputStream input = new FileInputStream(fd.getFileDescriptor());
+             FileChannel fileChannel = input.getChannel()) {
+            MappedByteBuffer result = fileChannel.map(FileChannel.MapMode.READ_ONLY,
+                    fd.getStartOffset(), fd.getDeclaredLength());
+            loadSource = LoadSource.ASSET_MAPPED;
+            long packageUpdateTime = packageUpdateTime(context);
+            if (packageUpdateTime > 0) {
+                modelStamp = fd.getDeclaredLength() + "@" + packageUpdateTime;
+            }
+            new ModelCache(context.getCacheDir(), modelFile).clear(); // 예전 실행이 남긴 복사본 정리
+            Log.d(TAG, "Model asset mapped: " + modelFile + " Size: " + fd.getDeclaredLength() + " bytes");
+            return result;
+        } catch (FileNotFoundException e) {
+            // 압축 저장된 에셋은 openFd로 열 수 없음
+            Log.w(TAG, "Model asset is compressed, using cache copy: " + modelFile);
+        }
+
+        ModelCache cache = new ModelCache(context.getCacheDir(), modelFile);
+        File cached = cache.obtain(() -> assetManager.open(modelFile));
+        modelHash = cache.getHash();
+        loadSource = cache.wasHit() ? LoadSource.CACHE_HIT : LoadSource.CACHE_COPY;
+        try (FileInputStream input = new FileInputStream(cached);
+             FileChannel fileChannel = input.getChannel()) {
+            MappedByteBuffer result = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, cached.length());
+            Log.d(TAG, "Model file loaded: " + cached.getName() + " Size: " + cached.length() + " bytes");
+            return result;
+        }
+    }
+
+    /**
+     * APK를 설치/업데이트한 시각 (에셋이 바뀌었는지 판단하는 데 씀, 알 수 없으면 -1)
+     */
+    private static long packageUpdateTime(Context context) {
+        try {
+            return context.getPackageManager().getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            Log.w(TAG, "패키지 정보를 읽지 못해 모델 해시를 매번 계산합니다: " + e.getMessage());
+            return -1;
         }
-        out.flush();
-        out.close();
     }
 
     /**
@@ -128,11 +441,96 @@ public class TFLiteLoader {
         return tflite;
     }
 
+    /**
+     * 로드와 예열이 끝나면 완료되는 준비 상태 (로드 실패 시 예외로 완료)
+     */
+    public CompletableFuture<Void> getReadiness() {
+        return readiness;
+    }
+
+    /**
+     * 예열까지 끝나 실제 프레임을 받을 준비가 되었는지 여부
+     */
+    public boolean isReady() {
+        return readiness.isDone() && !readiness.isCompletedExceptionally();
+    }
+
+    /**
+     * 시작 지표: 로드 직후 첫 추론 시간 (ms, 예열 전이면 -1)
+     */
+    public long getColdLatencyMs() {
+        return coldLatencyMs;
+    }
+
+    /**
+     * 시작 지표: 예열 중 두 번째 이후 추론 시간의 중앙값 (ms, 예열 횟수가 1 이하이면 -1)
+     */
+    public long getWarmLatencyMs() {
+        return warmLatencyMs;
+    }
+
+    /**
+     * 모델 버퍼를 얻은 방법 (로드 전이면 null)
+     */
+    public LoadSource getLoadSource() {
+        return loadSource;
+    }
+
+    /**
+     * 시작 지표: 마지막 로드에 걸린 시간 (ms, 모델 매핑~인터프리터 생성/바인딩)
+     */
+    public long getLoadTimeMs() {
+        return loadTimeMs;
+    }
+
+    /**
+     * 로드에 쓴 인터프리터 설정 (로드 전이면 null)
+     */
+    public InferenceConfig getInferenceConfig() {
+        return inferenceConfig;
+    }
+
+    /**
+     * 저장된 튜닝 결과로 로드했는지 여부
+     */
+    public boolean isTuned() {
+        return tuned;
+    }
+
+    /**
+     * 같은 모델을 공유하는 인터프리터 풀을 반환합니다. (로드 전이나 실패 시 null, 첫 인터프리터는 getTfliteInterpreter와 같음)
+     */
+    public InterpreterPool getInterpreterPool() {
+        return interpreterPool;
+    }
+
+    /**
+     * 로드 시 만든 텐서 바인딩을 반환합니다. (로드 전이나 실패 시 null)
+     */
+    public ModelBinding getBinding() {
+        return binding;
+    }
+
     /**
      * 리소스를 해제합니다.
      */
     public void close() {
-        if (tflite != null) {
+        // 예열이 빌려 간 인터프리터를 닫지 않도록 예열 스레드를 멈추고 기다림
+        Thread warmUp = warmUpThread;
+        if (warmUp != null && warmUp.isAlive()) {
+            warmUp.interrupt();
+            try {
+                warmUp.join(WARMUP_JOIN_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (interpreterPool != null) {
+            Log.d(TAG, "Closing TFLite interpreter pool: " + interpreterPool.size());
+            interpreterPool.close();
+            interpreterPool = null;
+            tflite = null;
+        } else if (tflite != null) {
             Log.d(TAG, "Closing TFLite interpreter");
             tflite.close();
             tflite = null;
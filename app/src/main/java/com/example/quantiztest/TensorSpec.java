@@ -0,0 +1,101 @@
+package com.example.quantiztest;
+
+import org.tensorflow.lite.DataType;
+
+import java.util.Arrays;
+
+/**
+ * 모델 로드 시 한 번 읽어 둔 텐서 메타데이터 (타입, 형상, 양자화 파라미터)입니다.
+ * 프레임 처리 중에는 인터프리터에 다시 묻지 않고 이 값을 사용합니다.
+ */
+public class TensorSpec {
+    private final int index;
+    private final DataType dataType;
+    private final int[] shape;
+    private final float scale;
+    private final int zeroPoint;
+
+    public TensorSpec(int index, DataType dataType, int[] shape, float scale, int zeroPoint) {
+        this.index = index;
+        this.dataType = dataType;
+        this.shape = shape.clone();
+        this.scale = scale;
+        this.zeroPoint = zeroPoint;
+    }
+
+    /**
+     * UINT8/INT8 양자화 텐서인지 여부
+     */
+    public boolean isQuantized() {
+        return dataType == DataType.UINT8 || dataType == DataType.INT8;
+    }
+
+    /**
+     * 양자화 파라미터가 유효한지 여부
+     * (스케일이 0/NaN/무한대이거나 제로포인트가 타입 범위를 벗어나면 모델에 양자화 정보가 없는 것)
+     */
+    public boolean hasQuantizationParams() {
+        if (!(scale > 0) || Float.isInfinite(scale)) {
+            return false;
+        }
+        return dataType == DataType.INT8 ? zeroPoint >= -128 && zeroPoint <= 127 : zeroPoint >= 0 && zeroPoint <= 255;
+    }
+
+    /**
+     * 이 텐서용 역양자화 테이블을 만듭니다. (ModelBinding이 양자화 파라미터를 검증한 텐서만)
+     *
+     * @throws IllegalStateException 양자화 파라미터가 없을 때
+     */
+    public DequantTable createDequantTable(float maxValue) {
+        if (!hasQuantizationParams()) {
+            throw new IllegalStateException("양자화 파라미터가 없는 텐서입니다: " + this);
+        }
+        return new DequantTable(scale, zeroPoint, dataType == DataType.INT8, maxValue);
+    }
+
+    public int getNumElements() {
+        int count = 1;
+        for (int dim : shape) {
+            count *= dim;
+        }
+        return count;
+    }
+
+    public int getNumBytes() {
+        return getNumElements() * dataType.byteSize();
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public DataType getDataType() {
+        return dataType;
+    }
+
+    public int[] getShape() {
+        return shape.clone();
+    }
+
+    public int getDim(int axis) {
+        return shape[axis];
+    }
+
+    public int getRank() {
+        return shape.length;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public int getZeroPoint() {
+        return zeroPoint;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + index + " " + dataType + " " + Arrays.toString(shape)
+                + (isQuantized() ? " (scale=" + scale + ", zeroPoint=" + zeroPoint + ")" : "");
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.quantiztest;
+
+import java.util.Arrays;
+
+/**
+ * 고해상도 프레임을 겹치는 모델 크기 타일로 나눠 추론하기 위한 타일 배치/스케줄러입니다.
+ * 0번 타일은 프레임 전체(축소, 큰 객체용)이고, 1번부터는 원본 해상도의 격자 타일(멀리 있는 작은 상품용)입니다.
+ *
+ * 한 프레임에 모든 타일을 돌릴 여유가 없으면 프레임마다 tilesPerFrame개씩 돌아가며(라운드 로빈) 처리하고,
+ * 이번 프레임에 돌리지 않은 타일은 한 주기 안에 얻은 마지막 결과를 재사용해 합칩니다.
+ *
+ * plan은 전처리 단계, storeTile/collectFresh는 후처리 단계에서 호출하므로 메서드 단위로 동기화합니다.
+ */
+public class TileScheduler {
+    public static final int FULL_FRAME_TILE = 0;
+
+    private final int tileSize;
+    private final int overlap;
+    private final int tilesPerFrame;
+
+    // 현재 프레임 크기의 타일 배치 [x, y, width, height] (0번은 프레임 전체)
+    private int frameWidth;
+    private int frameHeight;
+    private int tileCount;
+    private int[] tiles = new int[0];
+    private int cursor;
+
+    // 타일별 마지막 탐지 결과와 저장 시점 (collectFresh 호출 횟수 기준)
+    private DetectionBatch[] cached = new DetectionBatch[0];
+    private long[] storedRound = new long[0];
+    private long round;
+
+    // 지표
+    private long tilePasses;
+    private long plannedFrames;
+
+    /**
+     * @param tileSize      원본 해상도 기준 타일 한 변
+     * @param overlap       이웃 타일이 겹치는 폭
+     * @param tilesPerFrame 프레임마다 추론할 타일 수
+     */
+    public TileScheduler(int tileSize, int overlap, int tilesPerFrame) {
+        if (tileSize <= overlap || overlap < 0 || tilesPerFrame < 1 || tilesPerFrame > PipelineFrame.MAX_PASSES) {
+            throw new IllegalArgumentException("잘못된 타일 설정: " + tileSize + "/" + overlap + "/" + tilesPerFrame);
+        }
+        this.tileSize = tileSize;
+        this.overlap = overlap;
+        this.tilesPerFrame = tilesPerFrame;
+    }
+
+    public static TileScheduler fromProfile(CameraProfile profile) {
+        return profile.isTilingEnabled()
+                ? new TileScheduler(profile.getTileSize(), profile.getTileOverlap(), profile.getTilesPerFrame())
+                : null;
+    }
+
+    /**
+     * 전처리 단계: 이번 프레임에 추론할 타일을 라운드 로빈으로 고릅니다.
+     *
+     * @param outRects   [x, y, width, height] * 타일 수
+     * @param outTiles   고른 타일 번호 (storeTile에 넘김)
+     * @return 고른 타일 수
+     */
+    public synchronized int plan(int frameWidth, int frameHeight, int[] outRects, int[] outTiles) {
+        if (frameWidth != this.frameWidth || frameHeight != this.frameHeight) {
+            layout(frameWidth, frameHeight);
+        }
+        int count = Math.min(tilesPerFrame, tileCount);
+        for (int i = 0; i < count; i++) {
+            int tile = cursor;
+            cursor = (cursor + 1) % tileCount;
+            System.arraycopy(tiles, tile * 4, outRects, i * 4, 4);
+            outTiles[i] = tile;
+        }
+        plannedFrames++;
+        tilePasses += count;
+        return count;
+    }
+
+    /**
+     * 프레임 크기에 맞춰 타일을 고르게 배치하고 저장된 결과를 버립니다.
+     */
+    private void layout(int frameWidth, int frameHeight) {
+        int columns = axisCount(frameWidth);
+        int rows = axisCount(frameHeight);
+        // 격자가 한 칸이면 전체 프레임 타일과 같으므로 전체 프레임만 씀
+        int gridTiles = columns * rows == 1 ? 0 : columns * rows;
+        tileCount = 1 + gridTiles;
+        tiles = new int[tileCount * 4];
+        tiles[2] = frameWidth;
+        tiles[3] = frameHeight;
+        int width = Math.min(tileSize, frameWidth);
+        int height = Math.min(tileSize, frameHeight);
+        for (int r = 0, t = 1; gridTiles > 0 && r < rows; r++) {
+            for (int c = 0; c < columns; c++, t++) {
+                tiles[t * 4] = axisStart(c, columns, frameWidth);
+                tiles[t * 4 + 1] = axisStart(r, rows, frameHeight);
+                tiles[t * 4 + 2] = width;
+                tiles[t * 4 + 3] = height;
+            }
+        }
+        cached = new DetectionBatch[tileCount];
+        for (int i = 0; i < tileCount; i++) {
+            cached[i] = new DetectionBatch(YoloImageProcessor.DEFAULT_TOP_K);
+        }
+        storedRound = new long[tileCount];
+        Arrays.fill(storedRound, Long.MIN_VALUE / 2);
+        cursor = 0;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+    }
+
+    /**
+     * 한 축에 필요한 타일 수 (이웃 타일이 최소 overlap만큼 겹치도록)
+     */
+    private int axisCount(int frameSize) {
+        if (frameSize <= tileSize) {
+            return 1;
+        }
+        int step = tileSize - overlap;
+        return (frameSize - overlap + step - 1) / step;
+    }
+
+    /**
+     * 첫 타일은 0, 마지막 타일은 프레임 끝에 붙이고 나머지는 고르게 배치합니다.
+     */
+    private int axisStart(int index, int count, int frameSize) {
+        if (count == 1) {
+            return 0;
+        }
+        return Math.round((float) index * (frameSize - tileSize) / (count - 1));
+    }
+
+    /**
+     * 후처리 단계: 한 타일의 탐지 결과(프레임 좌표)를 저장합니다.
+     */
+    public synchronized void storeTile(int tile, DetectionBatch detections) {
+        if (tile < 0 || tile >= tileCount) {
+            return; // 배치가 바뀌기 전에 계획된 타일
+        }
+        cached[tile].copyFrom(detections);
+        storedRound[tile] = round;
+    }
+
+    /**
+     * 후처리 단계: 한 주기 안에 저장된 타일 결과를 모읍니다. 프레임마다 한 번 호출합니다.
+     *
+     * @param out 결과 배치를 담을 배열 (최소 getTileCount() 크기, 내부 배치를 그대로 담으므로 다음 호출 전까지만 유효)
+     * @return 모은 배치 수
+     */
+    public synchronized int collectFresh(DetectionBatch[] out) {
+        int cycle = getCycleFrames();
+        int count = 0;
+        for (int i = 0; i < tileCount; i++) {
+            if (round - storedRound[i] < cycle) {
+                out[count++] = cached[i];
+            }
+        }
+        round++;
+        return count;
+    }
+
+    /**
+     * 모든 타일을 한 번씩 돌리는 데 걸리는 프레임 수
+     */
+    public synchronized int getCycleFrames() {
+        return tileCount == 0 ? 1 : (tileCount + tilesPerFrame - 1) / tilesPerFrame;
+    }
+
+    public synchronized int getTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * 타일 배치 [x, y, width, height] (0번은 프레임 전체)
+     */
+    public synchronized int[] getTile(int tile) {
+        return Arrays.copyOfRange(tiles, tile * 4, tile * 4 + 4);
+    }
+
+    public int getTilesPerFrame() {
+        return tilesPerFrame;
+    }
+
+    /**
+     * 로그용 한 줄 요약
+     */
+    public synchronized String summary() {
+        return String.format("타일 %d개(%dx%d, 겹침 %d) 프레임당 %d개, 주기 %d프레임, 평균 패스 %.1f",
+                tileCount, tileSize, tileSize, overlap, Math.min(tilesPerFrame, tileCount), getCycleFrames(),
+                plannedFrames == 0 ? 0f : (float) tilePasses / plannedFrames);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.quantiztest;
+
+/**
+ * 후보 중 점수가 가장 높은 K개만 남기는 선택기입니다.
+ * 크기 K의 기본형 배열 최소 힙을 사용하므로, 장면이 아무리 복잡해도 NMS에 들어가는 후보 수가
+ * K로 제한되고 프레임 중 객체 할당이 없습니다. 상한이 걸린 횟수는 누적 통계로 남깁니다.
+ */
+public class TopKSelector {
+    private final int capacity;
+    // 최소 힙 (루트가 현재 남아 있는 후보 중 가장 낮은 점수)
+    private final int[] heapIndices;
+    private final float[] heapScores;
+    private int size;
+
+    // 현재 프레임에서 버려진 후보 수
+    private int droppedInFrame;
+
+    // 누적 통계
+    private long frameCount;
+    private long cappedFrameCount;
+    private long droppedCount;
+
+    public TopKSelector(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("K는 1 이상이어야 합니다: " + capacity);
+        }
+        this.capacity = capacity;
+        this.heapIndices = new int[capacity];
+        this.heapScores = new float[capacity];
+    }
+
+    /**
+     * 새 프레임을 시작합니다.
+     */
+    public void reset() {
+        size = 0;
+        droppedInFrame = 0;
+    }
+
+    /**
+     * 후보를 추가합니다. 이미 K개가 차 있으면 가장 낮은 점수의 후보와 비교해 교체하거나 버립니다.
+     */
+    public void offer(int index, float score) {
+        if (size < capacity) {
+            int i = size++;
+            // sift-up
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapScores[parent] <= score) {
+                    break;
+                }
+                heapIndices[i] = heapIndices[parent];
+                heapScores[i] = heapScores[parent];
+                i = parent;
+            }
+            heapIndices[i] = index;
+            heapScores[i] = score;
+            return;
+        }
+
+        droppedInFrame++;
+        if (score > heapScores[0]) {
+            siftDown(index, score, size);
+        }
+    }
+
+    /**
+     * 남은 후보를 점수 내림차순으로 기록하고 통계를 갱신합니다. 호출 후 힙은 비워집니다.
+     *
+     * @param outIndices 후보 인덱스를 기록할 배열 (K 이상 크기)
+     * @param outScores  후보 점수를 기록할 배열 (K 이상 크기, null이면 기록하지 않음)
+     * @return 남은 후보 수
+     */
+    public int finish(int[] outIndices, float[] outScores) {
+        int count = size;
+        // 힙 정렬: 루트(최솟값)를 뒤에서부터 채우면 내림차순이 됨
+        for (int n = count; n > 0; n--) {
+            int rootIndex = heapIndices[0];
+            float rootScore = heapScores[0];
+            outIndices[n - 1] = rootIndex;
+            if (outScores != null) {
+                outScores[n - 1] = rootScore;
+            }
+            if (n > 1) {
+                siftDown(heapIndices[n - 1], heapScores[n - 1], n - 1);
+            }
+        }
+        size = 0;
+
+        frameCount++;
+        if (droppedInFrame > 0) {
+            cappedFrameCount++;
+            droppedCount += droppedInFrame;
+        }
+        return count;
+    }
+
+    /**
+     * 루트 자리에 (index, score)를 넣고 힙 크기 n 안에서 아래로 내립니다.
+     */
+    private void siftDown(int index, float score, int n) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && heapScores[child + 1] < heapScores[child]) {
+                child++;
+            }
+            if (heapScores[child] >= score) {
+                break;
+            }
+            heapIndices[i] = heapIndices[child];
+            heapScores[i] = heapScores[child];
+            i = child;
+        }
+        heapIndices[i] = index;
+        heapScores[i] = score;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 마지막 프레임에서 상한 때문에 버려진 후보 수
+     */
+    public int getDroppedInLastFrame() {
+        return droppedInFrame;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * 상한이 걸린(후보가 K개를 넘은) 프레임 수
+     */
+    public long getCappedFrameCount() {
+        return cappedFrameCount;
+    }
+
+    /**
+     * 상한 때문에 버려진 후보의 누적 수
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.quantiztest;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 추적 ID별 이벤트 판정 상태입니다. (가상 선 통과, 사람 등장/사라짐)
+ * 추적 ID와 함께 이어져야 하므로 추적기와 같이 DetectionEngine이 소유하며, 액티비티가 다시 만들어져도 유지됩니다.
+ * 스레드 안전하지 않으므로 한 번에 한 파이프라인의 이벤트/게시 단계에서만 수정합니다.
+ */
+public class TrackEventState {
+    // 객체별 가상 선 위/아래 여부, 이전 선과의 거리, 마지막 이벤트 시간, 이전 중심 좌표
+    private final Map<Integer, Boolean> wasAboveLine = new HashMap<>();
+    private final Map<Integer, Float> previousDistanceToLine = new HashMap<>();
+    private final Map<Integer, Long> lastEventTime = new HashMap<>();
+    private final Map<Integer, Float> previousCenterX = new HashMap<>();
+    private final Map<Integer, Float> previousCenterY = new HashMap<>();
+
+    // 등장이 확정된 사람 ID별 마지막 탐지 시각, 확정 전 사람 ID별 연속 탐지 시작 시각 (캡처 시각, nanoTime 기준)
+    private final Map<Integer, Long> personLastSeenNanos = new HashMap<>();
+    private final Map<Integer, Long> personFirstSeenNanos = new HashMap<>();
+
+    public Map<Integer, Boolean> getWasAboveLine() {
+        return wasAboveLine;
+    }
+
+    public Map<Integer, Float> getPreviousDistanceToLine() {
+        return previousDistanceToLine;
+    }
+
+    public Map<Integer, Long> getLastEventTime() {
+        return lastEventTime;
+    }
+
+    public Map<Integer, Float> getPreviousCenterX() {
+        return previousCenterX;
+    }
+
+    public Map<Integer, Float> getPreviousCenterY() {
+        return previousCenterY;
+    }
+
+    public Map<Integer, Long> getPersonLastSeenNanos() {
+        return personLastSeenNanos;
+    }
+
+    public Map<Integer, Long> getPersonFirstSeenNanos() {
+        return personFirstSeenNanos;
+    }
+
+    /**
+     * 이번 프레임에 탐지된 사람 ID로 등장/사라짐을 판정합니다.
+     * appearanceMs 동안 끊김 없이 탐지된 사람은 등장으로 확정하고, 확정된 사람이 disappearanceMs 동안
+     * 탐지되지 않으면 사라진 것으로 봅니다. 캡처 간격이 바뀌어도 판정 시간이 같도록 프레임 수 대신 캡처 시각을 씁니다.
+     *
+     * @param currentIds 이번 프레임에 탐지된 사람 ID
+     * @param captureTimeNanos 이번 프레임의 캡처 시각 (PipelineFrame.getCaptureTimeNanos)
+     * @param appeared 등장이 확정된 ID를 받을 집합
+     * @param disappeared 사라진 ID를 받을 집합
+     */
+    public void updatePersons(Set<Integer> currentIds, long captureTimeNanos, long appearanceMs, long disappearanceMs,
+                              Set<Integer> appeared, Set<Integer> disappeared) {
+        long appearanceNanos = appearanceMs * 1_000_000L;
+        long disappearanceNanos = disappearanceMs * 1_000_000L;
+        for (Integer id : currentIds) {
+            if (personLastSeenNanos.containsKey(id)) {
+                personLastSeenNanos.put(id, captureTimeNanos);
+                continue;
+            }
+            Long firstSeen = personFirstSeenNanos.get(id);
+            if (firstSeen == null) {
+                firstSeen = captureTimeNanos;
+                personFirstSeenNanos.put(id, firstSeen);
+            }
+            if (captureTimeNanos - firstSeen >= appearanceNanos) {
+                appeared.add(id);
+                personLastSeenNanos.put(id, captureTimeNanos);
+                personFirstSeenNanos.remove(id);
+            }
+        }
+        // 이번 프레임에 없는 확정 전 ID는 연속성이 끊겼으므로 처음부터 다시 셈
+        personFirstSeenNanos.keySet().retainAll(currentIds);
+
+        Iterator<Map.Entry<Integer, Long>> it = personLastSeenNanos.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Long> entry = it.next();
+            if (captureTimeNanos - entry.getValue() >= disappearanceNanos) {
+                disappeared.add(entry.getKey());
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * 더 이상 추적하지 않는 객체의 선 통과 기록(거리, 이전 좌표, 마지막 이벤트 시간)을 지웁니다.
+     *
+     * @param currentIds 현재 추적 중인 객체 ID
+     */
+    public void retainObjects(Set<Integer> currentIds) {
+        previousDistanceToLine.keySet().retainAll(currentIds);
+        previousCenterX.keySet().retainAll(currentIds);
+        previousCenterY.keySet().retainAll(currentIds);
+        lastEventTime.keySet().retainAll(currentIds);
+    }
+
+    /**
+     * 모든 상태를 지웁니다. (추적기를 새로 만들 때)
+     */
+    public void clear() {
+        wasAboveLine.clear();
+        previousDistanceToLine.clear();
+        lastEventTime.clear();
+        previousCenterX.clear();
+        previousCenterY.clear();
+        personLastSeenNanos.clear();
+        personFirstSeenNanos.clear();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.quantiztest;
+
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 자동 튜닝으로 고른 인터프리터 설정을 기기 모델과 모델 해시별로 저장하는 파일 저장소입니다.
+ * 모델 파일이 바뀌면 해시가 달라지므로 예전 결과는 자연히 쓰이지 않습니다.
+ *
+ * 파일 형식 (한 줄에 하나, 탭 구분, '#'으로 시작하면 주석):
+ * <pre>
+ * deviceModel  modelHash         threads  nnapi  xnnpack  millis
+ * SM-T505      3fa2b1c4d5e6f708  4        false  true     83.2
+ * </pre>
+ *
+ * 모델 해시는 옆의 .hash 파일에 모델 이름별로 "스탬프 해시"로 캐시해, 모델이 그대로면 시작마다 모델 전체를 다시 읽지 않습니다.
+ */
+public class TuningStore {
+    private static final String TAG = "TuningStore";
+    private static final int HASH_HEX_LENGTH = 16;
+
+    private final File file;
+    private final File hashFile;
+    private Map<String, String[]> entries;
+    private Properties hashes;
+
+    public TuningStore(File file) {
+        this.file = file;
+        this.hashFile = new File(file.getPath() + ".hash");
+    }
+
+    /**
+     * 모델 해시를 돌려줍니다. 같은 모델 이름과 스탬프로 구한 해시가 캐시에 있으면 모델을 읽지 않습니다.
+     *
+     * @param stamp 모델이 바뀌면 함께 바뀌는 값 (에셋 길이 + APK 설치/업데이트 시각 등, null이면 항상 새로 계산)
+     */
+    public synchronized String hash(String modelName, String stamp, ByteBuffer model) {
+        if (stamp == null) {
+            return hash(model);
+        }
+        String prefix = clean(stamp) + " ";
+        String saved = loadHashes().getProperty(modelName);
+        if (saved != null && saved.startsWith(prefix) && saved.length() == prefix.length() + HASH_HEX_LENGTH) {
+            return saved.substring(prefix.length());
+        }
+        String modelHash = hash(model);
+        hashes.setProperty(modelName, prefix + modelHash);
+        File temp = new File(hashFile.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            hashes.store(writer, "modelName=stamp modelHash");
+        } catch (IOException e) {
+            Log.e(TAG, "모델 해시 캐시 저장 실패: " + e.getMessage(), e);
+            return modelHash;
+        }
+        if (!temp.renameTo(hashFile)) {
+            Log.e(TAG, "모델 해시 캐시 파일 교체 실패: " + hashFile);
+        }
+        return modelHash;
+    }
+
+    /**
+     * 모델 버퍼 내용의 SHA-256 앞 16자리 (버퍼 위치는 바꾸지 않음)
+     */
+    public static String hash(ByteBuffer model) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer view = model.duplicate();
+            view.rewind();
+            digest.update(view);
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    }
+
+    /**
+     * 다이제스트 앞부분을 모델 해시 형식(16자리 16진수)으로 바꿉니다. (스트림으로 해시를 구하는 ModelCache와 공유)
+     */
+    static String toHex(byte[] digest) {
+        StringBuilder hex = new StringBuilder(HASH_HEX_LENGTH);
+        for (int i = 0; i < HASH_HEX_LENGTH / 2; i++) {
+            hex.append(String.format("%02x", digest[i] & 0xFF));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * 저장된 설정을 찾습니다. (없거나 읽을 수 없으면 null)
+     */
+    public synchronized InferenceConfig get(String deviceModel, String modelHash) {
+        String[] fields = load().get(key(deviceModel, modelHash));
+        if (fields == null) {
+            return null;
+        }
+        try {
+            return new InferenceConfig(Integer.parseInt(fields[2]),
+                    Boolean.parseBoolean(fields[3]), Boolean.parseBoolean(fields[4]));
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "잘못된 튜닝 결과 무시: " + join(fields));
+            return null;
+        }
+    }
+
+    /**
+     * 설정을 저장하고 파일 전체를 다시 씁니다. (임시 파일에 쓴 뒤 교체)
+     */
+    public synchronized boolean put(String deviceModel, String modelHash, InferenceConfig config, float millis) {
+        String[] fields = {
+                clean(deviceModel), modelHash, String.valueOf(config.getThreads()),
+                String.valueOf(config.isNnapi()), String.valueOf(config.isXnnpack()), String.format(Locale.US, "%.1f", millis)
+        };
+        load().put(key(deviceModel, modelHash), fields);
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            writer.write("# deviceModel\tmodelHash\tthreads\tnnapi\txnnpack\tmillis\n");
+            for (String[] entry : entries.values()) {
+                writer.write(join(entry));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "튜닝 결과 저장 실패: " + e.getMessage(), e);
+            return false;
+        }
+        if (!temp.renameTo(file)) {
+            Log.e(TAG, "튜닝 결과 파일 교체 실패: " + file);
+            return false;
+        }
+        return true;
+    }
+
+    private Map<String, String[]> load() {
+        if (entries != null) {
+            return entries;
+        }
+        entries = new LinkedHashMap<>();
+        if (!file.exists()) {
+            return entries;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length < 6) {
+                    Log.w(TAG, "잘못된 줄 무시: " + line);
+                    continue;
+                }
+                entries.put(key(fields[0], fields[1]), fields);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "튜닝 결과를 읽지 못했습니다: " + e.getMessage(), e);
+        }
+        return entries;
+    }
+
+    private Properties loadHashes() {
+        if (hashes != null) {
+            return hashes;
+        }
+        hashes = new Properties();
+        if (!hashFile.exists()) {
+            return hashes;
+        }
+        try (InputStreamReader reader = new InputStreamReader(new FileInputStream(hashFile), StandardCharsets.UTF_8)) {
+            hashes.load(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            Log.w(TAG, "모델 해시 캐시를 읽지 못했습니다: " + e.getMessage());
+            hashes.clear();
+        }
+        return hashes;
+    }
+
+    private static String join(String[] fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            line.append(fields[i]);
+        }
+        return line.toString();
+    }
+
+    private static String key(String deviceModel, String modelHash) {
+        return clean(deviceModel) + "\t" + modelHash;
+    }
+
+    /**
+     * 기기 모델명의 탭/줄바꿈을 공백으로 바꿈 (파일 구분자와 겹치지 않게)
+     */
+    private static String clean(String deviceModel) {
+        return deviceModel.replace('\t', ' ').replace('\n', ' ');
+    }
+}
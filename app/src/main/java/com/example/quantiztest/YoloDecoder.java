@@ -0,0 +1,35 @@
+package com.example.quantiztest;
+
+/**
+ * YOLONas 출력(박스 [1, N, 4], 점수 [1, N], 클래스 [1, N])을 해석하는 디코더입니다.
+ * 모델 타입에 맞는 구현을 ModelBinding 생성 시점에 한 번 골라 둡니다.
+ * - UINT8/INT8 모델: QuantizedDecoder (양자화 도메인 비교 + 룩업 테이블)
+ * - FLOAT32 모델: FloatDecoder
+ */
+public interface YoloDecoder {
+
+    /**
+     * 신뢰도 임계값을 넘는 앵커의 인덱스만 골라냅니다.
+     *
+     * @param outIndices 후보 인덱스를 기록할 배열 (앵커 수 이상 크기)
+     * @return 후보 수
+     */
+    int selectCandidates(FrameContext ctx, int[] outIndices);
+
+    /**
+     * 앵커의 신뢰도 점수 (1.0으로 상한 적용)
+     */
+    float score(FrameContext ctx, int anchor);
+
+    /**
+     * 앵커의 클래스 인덱스
+     */
+    int classIndex(FrameContext ctx, int anchor);
+
+    /**
+     * 앵커의 바운딩 박스 좌표 (모델 입력 픽셀 좌표 x1, y1, x2, y2)를 out에 기록합니다.
+     */
+    void box(FrameContext ctx, int anchor, float[] out);
+
+    float getConfidenceThreshold();
+}
@@ -2,7 +2,6 @@ package com.example.quantiztest;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.Matrix;
 import android.util.Log;
 
 import org.tensorflow.lite.Interpreter;
@@ -10,39 +9,145 @@ import org.tensorflow.lite.Interpreter;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class YoloImageProcessor {
     private static final String TAG = "YoloImageProcessor";
     private static final int INPUT_SIZE = 640; // YOLONas 모델의 입력 크기, 모델에 맞게 조정 필요
     private static final int NUM_DETECTIONS = 8400; // 모델 출력 형상에 맞게 수정 (8400개 탐지)
     private static final int NUM_CLASSES = 80; // COCO 데이터셋 클래스 수
+    // 후보별 좌표/추론 시간 로그 (프레임마다 문자열을 만들므로 디버깅할 때만 켬)
+    private static final boolean DEBUG_LOG = false;
+    public static final int DEFAULT_TOP_K = 100; // NMS에 넘길 최대 후보 수
+
+    // 이 프로세서가 기대하는 모델 입출력 형상 (로드 시 ModelBinding이 검증)
+    static final ModelSignature SIGNATURE = new ModelSignature("YOLONas",
+            new int[]{1, INPUT_SIZE, INPUT_SIZE, 3},
+            new int[][]{
+                    {1, NUM_DETECTIONS, 4}, // 바운딩 박스 좌표
+                    {1, NUM_DETECTIONS},    // 신뢰도 점수
+                    {1, NUM_DETECTIONS}     // 클래스 인덱스
+            },
+            true);
 
     private Interpreter interpreter;
-    private List<String> labels;
-    private Context context;
+    // 같은 모델을 공유하는 인터프리터 풀 (있으면 추론마다 하나를 빌려 여러 프레임을 동시에 추론)
+    private volatile InterpreterPool interpreterPool;
 
-    public YoloImageProcessor(Context context, Interpreter interpreter) {
-        this.context = context;
+    // 추적할 클래스와 클래스별 임계값 (클래스 인덱스 기준 배열)
+    private final ProductCatalog catalog;
+
+    // 로드 시 검증/캐시된 텐서 메타데이터
+    private final ModelBinding binding;
+
+    // 프레임마다 재사용하는 입출력 버퍼 (processImage는 imageLock 안에서만 호출됨)
+    private final FrameContext frameContext;
+    private final int[] candidateIndices = new int[NUM_DETECTIONS];
+    private final float[] candidateScores = new float[NUM_DETECTIONS];
+    private final float[] boxCoords = new float[4];
+
+    // 클래스별 IoU 임계값을 카탈로그에서 미리 받아 둔 NMS 엔진
+    private final NmsEngine nmsEngine;
+    private final int[] keptIndices = new int[NUM_DETECTIONS];
+
+    // ROI 크롭/타일 여러 개의 결과를 합칠 때 경계에서 중복된 탐지를 지우는 NMS (postprocess와 같이 직렬화)
+    private final NmsEngine mergeNms;
+    private final DetectionBatch passBatch = new DetectionBatch(DEFAULT_TOP_K);
+    // processImage(Bitmap)가 목록으로 바꾸기 전에 채우는 배치 (같이 직렬화)
+    private final DetectionBatch imageBatch = new DetectionBatch(DEFAULT_TOP_K);
+
+    // NMS 전 상위 K개 후보 선택 (붐비는 장면에서도 후처리 비용 상한 보장)
+    private volatile TopKSelector topK = new TopKSelector(DEFAULT_TOP_K);
+
+    // 추론 기한 감시자 (엔진이 모든 모델에 같은 감시자를 설정, 없으면 기한 없음)
+    private volatile InferenceWatchdog watchdog;
+
+    // 모델 타입(UINT8/INT8/FLOAT32)에 맞게 로드 시 고른 디코더
+    private final YoloDecoder decoder;
+
+    // 원본 프레임을 입력 버퍼로 바로 리사이즈/패킹하는 커널 (카메라별 리사이즈 방식에 따라 교체됨)
+    private volatile ImagePreprocessor preprocessor;
+    // ImageReader YUV 프레임을 입력 버퍼로 바로 변환하는 커널 (리사이즈 방식은 preprocessor와 같게 유지)
+    private volatile YuvConverter yuvConverter;
+
+    public YoloImageProcessor(Context context, Interpreter interpreter, ModelBinding binding) {
+        this(interpreter, binding, loadCatalog(context));
+    }
+
+    /**
+     * 카탈로그를 직접 받아 만듭니다. (assets 없이 후처리 경로를 검증할 때)
+     */
+    YoloImageProcessor(Interpreter interpreter, ModelBinding binding, ProductCatalog catalog) {
         this.interpreter = interpreter;
+        this.binding = binding;
+        this.catalog = catalog;
+        this.frameContext = binding.createFrameContext();
+        this.decoder = createDecoder(binding, catalog.getMinThreshold());
+        if (decoder instanceof QuantizedDecoder) {
+            Log.d(TAG, "신뢰도 임계값 " + decoder.getConfidenceThreshold()
+                    + " -> 점수 키 " + ((QuantizedDecoder) decoder).getScoreThresholdKey());
+        } else {
+            Log.d(TAG, "FLOAT32 모델 - 실수 디코더 사용");
+        }
+        this.nmsEngine = createNmsEngine(catalog);
+        this.mergeNms = createNmsEngine(catalog);
+        this.preprocessor = new ImagePreprocessor(INPUT_SIZE, INPUT_SIZE, 3,
+                ImagePreprocessor.Interpolation.NEAREST, ResizeTransform.Mode.STRETCH, 0,
+                binding.getInputEncoding());
+        this.yuvConverter = new YuvConverter(INPUT_SIZE, INPUT_SIZE, 3,
+                ResizeTransform.Mode.STRETCH, 0, binding.getInputEncoding());
+    }
+
+    /**
+     * 바인딩된 출력 텐서 타입에 맞는 디코더를 만듭니다.
+     * 양자화 모델은 룩업 테이블과 정수 임계값을 씁니다. (양자화 파라미터는 ModelBinding이 로드 때 검증)
+     *
+     * @param confidenceThreshold 후보 선별 임계값 (카탈로그 클래스 중 가장 낮은 값)
+     */
+    static YoloDecoder createDecoder(ModelBinding binding, float confidenceThreshold) {
+        if (!binding.isQuantized()) {
+            return new FloatDecoder(confidenceThreshold);
+        }
+
+        return new QuantizedDecoder(
+                binding.getOutput(0).createDequantTable(Float.POSITIVE_INFINITY),  // 바운딩 박스
+                binding.getOutput(1).createDequantTable(1.0f),                     // 신뢰도
+                binding.getOutput(2).createDequantTable(Float.POSITIVE_INFINITY),  // 클래스 인덱스
+                confidenceThreshold);
+    }
+
+    /**
+     * 카탈로그의 클래스별 IoU 임계값으로 NMS 엔진을 만듭니다.
+     */
+    static NmsEngine createNmsEngine(ProductCatalog catalog) {
+        NmsEngine engine = new NmsEngine(DEFAULT_TOP_K, ProductCatalog.DEFAULT_NMS_IOU);
+        for (int c = 0; c < catalog.getClassCount(); c++) {
+            if (catalog.isAllowed(c)) {
+                engine.setIouThreshold(c, catalog.getNmsIou(c));
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * assets의 라벨과 추적 대상 카탈로그를 로드합니다. (라벨을 못 읽으면 빈 라벨로 진행)
+     */
+    private static ProductCatalog loadCatalog(Context context) {
+        List<String> labels;
         try {
-            this.labels = loadLabels();
+            labels = loadLabels(context);
         } catch (IOException e) {
             Log.e(TAG, "라벨 파일을 로드하는 중 오류 발생: " + e.getMessage());
-            this.labels = new ArrayList<>();
+            labels = new ArrayList<>();
         }
+        return ProductCatalog.loadFromAssets(context, labels);
     }
 
     /**
      * assets 폴더에서 labels.txt 파일을 로드합니다.
      */
-    private List<String> loadLabels() throws IOException {
+    private static List<String> loadLabels(Context context) throws IOException {
         List<String> labels = new ArrayList<>();
         BufferedReader reader = new BufferedReader(
                 new InputStreamReader(context.getAssets().open("labels.txt")));
@@ -55,263 +160,395 @@ public class YoloImageProcessor {
         return labels;
     }
 
+    /**
+     * 추적 대상 클래스 카탈로그
+     */
+    public ProductCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * NMS 전에 남길 최대 후보 수를 설정합니다.
+     */
+    public void setTopK(int k) {
+        if (k != topK.getCapacity()) {
+            topK = new TopKSelector(k);
+            Log.d(TAG, "후보 상한 변경: " + k);
+        }
+    }
+
+    /**
+     * 후보 상한 통계 (상한이 걸린 프레임 수, 버려진 후보 수)
+     */
+    public TopKSelector getTopKSelector() {
+        return topK;
+    }
+
+    /**
+     * 카메라별 리사이즈 방식을 설정합니다.
+     * 레터박스는 종횡비를 유지하고 남는 영역을 padValue로 채우며, 좌표 변환은 해상도별로 캐시됩니다.
+     */
+    public void setResizeMode(ResizeTransform.Mode mode, int padValue) {
+        ImagePreprocessor current = preprocessor;
+        if (current.getResizeMode() == mode && current.getPadValue() == padValue) {
+            return;
+        }
+        preprocessor = new ImagePreprocessor(INPUT_SIZE, INPUT_SIZE, 3,
+                ImagePreprocessor.Interpolation.NEAREST, mode, padValue, binding.getInputEncoding());
+        yuvConverter = new YuvConverter(INPUT_SIZE, INPUT_SIZE, 3, mode, padValue, binding.getInputEncoding());
+        Log.d(TAG, "리사이즈 방식 변경: " + mode + ", 패딩 값: " + padValue);
+    }
+
     /**
      * 비트맵 이미지를 처리하고 객체 탐지를 수행합니다.
+     * 내부 배치를 재사용하므로 processImage(Bitmap, DetectionBatch)처럼 호출자가 직렬화해야 합니다.
      * @param bitmap 처리할 이미지
      * @return 탐지된 객체 목록
      */
     public List<Detection> processImage(Bitmap bitmap) {
-        // 텐서 정보 출력
-        Log.d(TAG, "입력 텐서 수: " + interpreter.getInputTensorCount());
-        Log.d(TAG, "출력 텐서 수: " + interpreter.getOutputTensorCount());
-
-        for (int i = 0; i < interpreter.getOutputTensorCount(); i++) {
-            Log.d(TAG, "출력 텐서 #" + i + " 타입: " + interpreter.getOutputTensor(i).dataType());
-            Log.d(TAG, "출력 텐서 #" + i + " 형상: " + java.util.Arrays.toString(interpreter.getOutputTensor(i).shape()));
-        }
+        DetectionBatch batch = imageBatch;
+        processImage(bitmap, batch);
+        return batch.toList();
+    }
 
-        // 입력 이미지 준비
-        Bitmap resizedBitmap = resizeBitmap(bitmap, INPUT_SIZE, INPUT_SIZE);
+    /**
+     * 비트맵 이미지를 처리하고 탐지 결과를 재사용 배치에 기록합니다.
+     * 정상 상태 프레임에서는 탐지마다 객체를 만들지 않습니다.
+     * @param bitmap 처리할 이미지
+     * @param out 결과를 채울 배치 (먼저 비워짐, 실패 시 빈 상태)
+     * @return 추론이 기한 안에 끝나 결과가 유효하면 true (false면 빈 배치 - 마지막 추적 결과로 대신)
+     */
+    public boolean processImage(Bitmap bitmap, DetectionBatch out) {
+        out.clear();
+        // 입력 이미지 준비 - 원본 픽셀을 입력 버퍼로 바로 리사이즈/패킹
+        FrameContext ctx = frameContext;
+        ResizeTransform transform = preprocess(bitmap, ctx);
 
-        // 양자화된 모델용 UINT8 입력 버퍼 준비 (ByteBuffer 사용)
-        ByteBuffer inputBuffer = ByteBuffer.allocateDirect(1 * INPUT_SIZE * INPUT_SIZE * 3);
-        inputBuffer.order(ByteOrder.nativeOrder());
+        // 모델 실행
+        try {
+            if (!runInference(ctx)) {
+                return false;
+            }
+            postprocess(ctx, transform, out);
+            return true;
+        } catch (InterruptedException e) {
+            // 인터프리터를 기다리다 중단됨 (종료 중)
+            Thread.currentThread().interrupt();
+            out.clear();
+        } catch (Exception e) {
+            Log.e(TAG, "모델 실행 중 오류 발생: " + e.getMessage(), e);
+            e.printStackTrace();
+            out.clear();
+        }
+        return false;
+    }
 
-        // 이미지 데이터를 입력 버퍼에 복사
-        int[] pixels = new int[INPUT_SIZE * INPUT_SIZE];
-        resizedBitmap.getPixels(pixels, 0, INPUT_SIZE, 0, 0, INPUT_SIZE, INPUT_SIZE);
+    /**
+     * 파이프라인에서 프레임마다 쓸 입출력 버퍼를 만듭니다. (동시에 처리 중인 프레임 수만큼 필요)
+     */
+    public FrameContext createFrameContext() {
+        return binding.createFrameContext();
+    }
 
-        for (int i = 0; i < INPUT_SIZE * INPUT_SIZE; ++i) {
-            int pixel = pixels[i];
-            // RGB 채널 추출 (양자화된 모델은 0-255 범위 사용)
-            inputBuffer.put((byte) ((pixel >> 16) & 0xFF)); // R
-            inputBuffer.put((byte) ((pixel >> 8) & 0xFF));  // G
-            inputBuffer.put((byte) (pixel & 0xFF));         // B
+    /**
+     * 전처리 단계: 원본 비트맵을 ctx의 입력 버퍼로 리사이즈/패킹합니다.
+     * 인터프리터와 무관하므로 다른 프레임의 추론과 동시에 실행할 수 있습니다.
+     *
+     * @return 모델 좌표를 원본 좌표로 되돌리는 변환 (postprocess에 넘김)
+     */
+    public ResizeTransform preprocess(Bitmap bitmap, FrameContext ctx) {
+        ImagePreprocessor preprocessor = this.preprocessor;
+        // 전처리 커널의 해상도별 상태를 processImage 경로와 공유하므로 커널 단위로 직렬화
+        synchronized (preprocessor) {
+            packBitmap(bitmap, ctx, preprocessor);
+            return preprocessor.getTransform();
         }
+    }
 
-        inputBuffer.rewind(); // 버퍼 위치를 처음으로 되돌림
+    /**
+     * 전처리 단계 (ROI): 원본 비트맵의 크롭 영역만 ctx의 입력 버퍼로 리사이즈/패킹합니다.
+     *
+     * @return 모델 좌표를 전체 프레임 좌표로 되돌리는 변환
+     */
+    public ResizeTransform preprocess(Bitmap bitmap, int cropX, int cropY, int cropWidth, int cropHeight,
+                                      FrameContext ctx) {
+        ImagePreprocessor preprocessor = this.preprocessor;
+        synchronized (preprocessor) {
+            int[] sourcePixels = ctx.getSourcePixels(cropWidth, cropHeight);
+            bitmap.getPixels(sourcePixels, 0, cropWidth, cropX, cropY, cropWidth, cropHeight);
+            preprocessor.configure(cropWidth, cropHeight);
+            preprocessor.pack(sourcePixels, cropWidth, ctx.getInputBuffer());
+            return preprocessor.getTransform().withOffset(cropX, cropY);
+        }
+    }
 
-        // 출력 버퍼 준비 (UINT8 타입)
-        // YOLONas 모델의 출력은 3개의 텐서입니다:
-        // 1. 바운딩 박스 좌표 [1, 8400, 4]
-        // 2. 신뢰도 점수 [1, 8400]
-        // 3. 클래스 인덱스 [1, 8400]
+    /**
+     * 전처리 단계 (YUV 캡처 경로, ROI): 회전 후 영상의 크롭 영역만 ctx의 입력 버퍼로 변환합니다.
+     *
+     * @return 모델 좌표를 전체 프레임 좌표로 되돌리는 변환
+     */
+    public ResizeTransform preprocess(YuvFrame frame, int cropX, int cropY, int cropWidth, int cropHeight,
+                                      FrameContext ctx) {
+        YuvConverter converter = this.yuvConverter;
+        synchronized (converter) {
+            converter.pack(frame, cropX, cropY, cropWidth, cropHeight, ctx.getInputBuffer());
+            return converter.getTransform();
+        }
+    }
 
-        // 양자화된 모델이므로 UINT8로 출력을 준비하고, 나중에 dequantize 합니다
-        byte[][][] outputBoxes = new byte[1][NUM_DETECTIONS][4];
-        byte[][] outputScores = new byte[1][NUM_DETECTIONS];
-        byte[][] outputClasses = new byte[1][NUM_DETECTIONS];
+    /**
+     * 전처리 단계 (YUV 캡처 경로): 카메라 평면을 ARGB 비트맵 없이 ctx의 입력 버퍼로 바로 변환합니다.
+     *
+     * @return 모델 좌표를 회전 후 원본 좌표로 되돌리는 변환
+     */
+    public ResizeTransform preprocess(YuvFrame frame, FrameContext ctx) {
+        YuvConverter converter = this.yuvConverter;
+        synchronized (converter) {
+            converter.pack(frame, ctx.getInputBuffer());
+            return converter.getTransform();
+        }
+    }
 
-        // 모델 실행을 위한 입출력 매핑
-        Map<Integer, Object> outputs = new HashMap<>();
-        outputs.put(0, outputBoxes);
-        outputs.put(1, outputScores);
-        outputs.put(2, outputClasses);
+    /**
+     * 추론에 쓸 인터프리터 풀을 설정합니다. 풀의 첫 인터프리터는 생성자에 넘긴 인터프리터와 같아야 합니다.
+     */
+    public void setInterpreterPool(InterpreterPool pool) {
+        this.interpreterPool = pool;
+    }
 
-        // 모델 실행
-        try {
-            Log.d(TAG, "모델 입력 텐서 타입: " + interpreter.getInputTensor(0).dataType());
-            Log.d(TAG, "모델 입력 텐서 형상: " + java.util.Arrays.toString(interpreter.getInputTensor(0).shape()));
+    public InterpreterPool getInterpreterPool() {
+        return interpreterPool;
+    }
 
-            long startTime = System.currentTimeMillis();
-            interpreter.runForMultipleInputsOutputs(new Object[]{inputBuffer}, outputs);
-            long endTime = System.currentTimeMillis();
+    /**
+     * 추론마다 기한을 걸 감시자를 설정합니다. (null이면 기한 없음)
+     * 취소하려면 인터프리터를 setCancellable(true) 옵션으로 만들어야 합니다.
+     */
+    public void setWatchdog(InferenceWatchdog watchdog) {
+        this.watchdog = watchdog;
+    }
 
-            Log.d("timecheck", "모델 추론 시간: " + (endTime - startTime) + "ms");
+    /**
+     * 이 프로세서가 쓰는 모델 텐서 바인딩
+     */
+    public ModelBinding getBinding() {
+        return binding;
+    }
 
-            // 출력 처리
-            List<Detection> detections = new ArrayList<>();
-            float confidenceThreshold = 0.4f;
+    /**
+     * 추론 단계: ctx의 입력으로 모델을 실행해 ctx의 출력 버퍼를 채웁니다.
+     * 풀이 있으면 쉬는 인터프리터를 빌려 쓰므로 서로 다른 ctx로 동시에 호출할 수 있고,
+     * 풀이 없으면 인터프리터가 스레드 안전하지 않으므로 호출자가 직렬화해야 합니다.
+     * 감시자가 있으면 추론마다 기한을 걸고, 기한을 넘기면 인터프리터 실행을 취소합니다.
+     *
+     * @return 기한 안에 끝났으면 true (false면 출력 버퍼가 유효하지 않으므로 마지막 추적 결과로 대신)
+     */
+    public boolean runInference(FrameContext ctx) throws InterruptedException {
+        ctx.rewindOutputs();
+        long startTime = System.currentTimeMillis();
+        InterpreterPool pool = interpreterPool;
+        Interpreter target = pool != null ? pool.acquire() : interpreter;
+        boolean completed;
+        try {
+            completed = runWithDeadline(target, ctx);
+        } finally {
+            if (pool != null) {
+                pool.release(target);
+            }
+        }
+        long endTime = System.currentTimeMillis();
 
-            // 바운딩 박스 양자화 파라미터 (제대로 된 값으로 설정)
-            float boxScale = interpreter.getOutputTensor(0).quantizationParams().getScale();
-            int boxZeroPoint = interpreter.getOutputTensor(0).quantizationParams().getZeroPoint();
+        if (DEBUG_LOG) {
+            Log.d("timecheck", "모델 추론 시간: " + (endTime - startTime) + "ms" + (completed ? "" : " (기한 초과)"));
+        }
+        return completed;
+    }
 
-// 값이 0이거나 NaN이면 하드코딩된 값 사용
-            if (boxScale == 0 || Float.isNaN(boxScale)) {
-                boxScale = 0.01f;
-                boxZeroPoint = 0;
-            } else {
-                Log.d(TAG, "실제 바운딩 박스 양자화 스케일 사용: " + boxScale);
+    private boolean runWithDeadline(Interpreter target, FrameContext ctx) {
+        InferenceWatchdog dog = watchdog;
+        if (dog == null) {
+            target.runForMultipleInputsOutputs(ctx.getInputs(), ctx.getOutputs());
+            return true;
+        }
+        return dog.run(new InferenceWatchdog.Task() {
+            @Override
+            public void run() {
+                target.runForMultipleInputsOutputs(ctx.getInputs(), ctx.getOutputs());
             }
 
-// 신뢰도 스케일
-            float scoreScale = interpreter.getOutputTensor(1).quantizationParams().getScale();
-            int scoreZeroPoint = interpreter.getOutputTensor(1).quantizationParams().getZeroPoint();
-            if (scoreScale == 0 || Float.isNaN(scoreScale)) {
-                scoreScale = 0.004f;
-                scoreZeroPoint = 0;
+            @Override
+            public void setCancelled(boolean cancelled) {
+                target.setCancelled(cancelled);
             }
+        });
+    }
 
-// 클래스 인덱스에 대한 양자화 파라미터
-            float classScale = interpreter.getOutputTensor(2).quantizationParams().getScale();
-            int classZeroPoint = interpreter.getOutputTensor(2).quantizationParams().getZeroPoint();
-            if (classScale == 0 || Float.isNaN(classScale)) {
-                classScale = 1.0f;
-                classZeroPoint = 0;
+    /**
+     * 후처리 단계: ctx의 출력을 디코딩하고 상위 K개 선택과 NMS를 거쳐 out에 기록합니다.
+     * 후보/NMS 작업 배열을 재사용하므로 호출자가 직렬화해야 합니다.
+     */
+    public void postprocess(FrameContext ctx, ResizeTransform transform, DetectionBatch out) {
+        out.clear();
+
+        // 신뢰도 임계값을 넘는 앵커만 정수 비교로 골라냄
+        YoloDecoder decoder = this.decoder;
+        int candidateCount = decoder.selectCandidates(ctx, candidateIndices);
+
+        // 추적 대상 클래스와 클래스별 임계값으로 거른 뒤 상위 K개만 남김
+        TopKSelector topK = this.topK;
+        topK.reset();
+        for (int c = 0; c < candidateCount; ++c) {
+            int i = candidateIndices[c];
+            int classIndex = decoder.classIndex(ctx, i);
+            // 추적 대상이 아닌 클래스는 박스 디코딩 전에 배열 조회로 거름
+            if (!catalog.isAllowed(classIndex)) {
+                continue;
             }
-            // 모든 탐지 결과를 저장할 리스트
-            List<Detection> allDetections = new ArrayList<>();
-
-            // 각 탐지 결과 처리
-            for (int i = 0; i < NUM_DETECTIONS; ++i) {
-                // 신뢰도 점수 dequantize (UINT8 -> float)
-                float confidence = ((outputScores[0][i] & 0xFF) - scoreZeroPoint) * scoreScale;
-                 confidence = Math.min(confidence, 1.0f);
-
-                // 신뢰도 임계값 이상인 결과만 처리
-                if (confidence > confidenceThreshold) {
-// 클래스 인덱스 dequantize
-                    int classIndex = (int)(((outputClasses[0][i] & 0xFF) - classZeroPoint) * classScale);
-                    if (classIndex >= 0 && classIndex < labels.size()) {
-                        String label = labels.get(classIndex);
-                        if(!label.equals("cup") && !label.equals("person") && !label.equals("banana") && !label.equals("apple") ){ //********************여기서 상품등록하기!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!
-                            continue;
-                        }
-
-                        // 바운딩 박스 좌표 dequantize (UINT8 -> float)
-                        float x1 = ((outputBoxes[0][i][0] & 0xFF) - boxZeroPoint) * boxScale;
-                        float y1 = ((outputBoxes[0][i][1] & 0xFF) - boxZeroPoint) * boxScale;
-                        float x2 = ((outputBoxes[0][i][2] & 0xFF) - boxZeroPoint) * boxScale;
-                        float y2 = ((outputBoxes[0][i][3] & 0xFF) - boxZeroPoint) * boxScale;
-                        // 모델에서 반환한 원시 좌표값 로그 출력
-                        Log.d(TAG, "원시 좌표 (모델 출력): x1=" + x1 + ", y1=" + y1 + ", x2=" + x2 + ", y2=" + y2);
-
-
-                        // 정규화 (0~1 범위로)
-                        x1 = x1 / INPUT_SIZE;
-                        y1 = y1 / INPUT_SIZE;
-                        x2 = x2 / INPUT_SIZE;
-                        y2 = y2 / INPUT_SIZE;
-
-                        float left = x1 * bitmap.getWidth();
-                        float top = y1 * bitmap.getHeight();
-                        float right = x2 * bitmap.getWidth();
-                        float bottom = y2 * bitmap.getHeight();
-                        // 변환된 좌표값 로그 출력
-                        Log.d(TAG, "변환된 좌표 (이미지 크기 적용): left=" + left + ", top=" + top + ", right=" + right + ", bottom=" + bottom);
-
-                        // 좌표가 유효한지 확인
-                        if (left < 0) left = 0;
-                        if (top < 0) top = 0;
-
-                        // 바운딩 박스 크기가 유효한지 확인
-                        if (right > left && bottom > top) {
-                            Detection detection = new Detection(label, confidence, left, top, right, bottom);
-                            allDetections.add(detection);
-                            Log.d(TAG, "탐지: " + label + ", 신뢰도: " + confidence + ", 좌표: " + left + "," + top + "," + right + "," + bottom);
-                        }
-                    }
-                }
+            float confidence = decoder.score(ctx, i);
+            if (confidence <= catalog.getThreshold(classIndex)) {
+                continue;
             }
-
-            return  applyNMS(allDetections, 0.7f);
-
-        } catch (Exception e) {
-            Log.e(TAG, "모델 실행 중 오류 발생: " + e.getMessage(), e);
-            e.printStackTrace();
-            return new ArrayList<>();
+            topK.offer(i, confidence);
         }
-    }
-    private List<Detection> applyNMS(List<Detection> detections, float iouThreshold) {
-        // 신뢰도가 없으면 빈 리스트 반환
-        if (detections.isEmpty()) {
-            return new ArrayList<>();
+        int keptCount = topK.finish(candidateIndices, candidateScores);
+        if (DEBUG_LOG && topK.getDroppedInLastFrame() > 0) {
+            Log.d(TAG, "후보 상한 적용: " + topK.getDroppedInLastFrame() + "개 제외 (누적 "
+                    + topK.getCappedFrameCount() + "/" + topK.getFrameCount() + " 프레임)");
         }
 
-        // 신뢰도 기준으로 내림차순 정렬
-        List<Detection> sortedDetections = new ArrayList<>(detections);
-        Collections.sort(sortedDetections, (d1, d2) -> Float.compare(d2.getConfidence(), d1.getConfidence()));
-
-        List<Detection> selectedDetections = new ArrayList<>();
-        boolean[] isRemoved = new boolean[sortedDetections.size()];
-
-        // 사람 클래스에 대해 더 높은 IoU 임계값 사용
-        float personIouThreshold = 0.65f;  // 사람 클래스에 대한 더 높은 임계값
-
-        for (int i = 0; i < sortedDetections.size(); i++) {
-            if (isRemoved[i]) continue;
-
-            Detection current = sortedDetections.get(i);
-            selectedDetections.add(current);
-
-            for (int j = i + 1; j < sortedDetections.size(); j++) {
-                if (isRemoved[j]) continue;
-
-                Detection next = sortedDetections.get(j);
-
-                // 같은 클래스의 객체만 비교
-                if (!current.getLabel().equals(next.getLabel())) {
-                    continue;
-                }
+        // 남은 후보만 박스 역양자화해서 NMS 엔진의 기본형 배열에 기록
+        NmsEngine nms = nmsEngine;
+        nms.clear();
+        float[] box = boxCoords;
+        for (int c = 0; c < keptCount; ++c) {
+            int i = candidateIndices[c];
+            int classIndex = decoder.classIndex(ctx, i);
+            float confidence = candidateScores[c];
+            // 바운딩 박스 좌표 dequantize
+            decoder.box(ctx, i, box);
+            float x1 = box[0];
+            float y1 = box[1];
+            float x2 = box[2];
+            float y2 = box[3];
+            // 모델에서 반환한 원시 좌표값 로그 출력
+            if (DEBUG_LOG) {
+                Log.d(TAG, "원시 좌표 (모델 출력): x1=" + x1 + ", y1=" + y1 + ", x2=" + x2 + ", y2=" + y2);
+            }
 
-                // IoU 계산
-                float iou = calculateIoU(current, next);
+            // 모델 입력 좌표 -> 원본 이미지 좌표 (레터박스 여백과 비율을 정확히 되돌림)
+            float left = transform.toSourceX(x1);
+            float top = transform.toSourceY(y1);
+            float right = transform.toSourceX(x2);
+            float bottom = transform.toSourceY(y2);
+            // 변환된 좌표값 로그 출력
+            if (DEBUG_LOG) {
+                Log.d(TAG, "변환된 좌표 (이미지 크기 적용): left=" + left + ", top=" + top + ", right=" + right + ", bottom=" + bottom);
+            }
 
-                // 현재 클래스에 맞는 임계값 선택
-                float threshold = current.getLabel().equals("person") ? personIouThreshold : iouThreshold;
+            // 좌표가 유효한지 확인
+            if (left < 0) left = 0;
+            if (top < 0) top = 0;
 
-                // IoU가 임계값보다 크면 중복으로 간주하고 제거
-                if (iou > threshold) {
-                    isRemoved[j] = true;
+            // 바운딩 박스 크기가 유효한지 확인
+            if (right > left && bottom > top) {
+                nms.add(classIndex, confidence, left, top, right, bottom);
+                if (DEBUG_LOG) {
+                    Log.d(TAG, "탐지: 클래스 " + classIndex + ", 신뢰도: " + confidence + ", 좌표: " + left + "," + top + "," + right + "," + bottom);
                 }
             }
         }
 
-        Log.d(TAG, "NMS 적용 전 탐지 수: " + detections.size() + ", 적용 후: " + selectedDetections.size());
-        return selectedDetections;
+        // 같은 클래스끼리 NMS 적용 후 남은 후보만 배치에 기록
+        int kept = nms.run(keptIndices);
+        for (int k = 0; k < kept; k++) {
+            int i = keptIndices[k];
+            out.add(nms.getClassId(i), nms.getScore(i),
+                    nms.getLeft(i), nms.getTop(i), nms.getRight(i), nms.getBottom(i));
+        }
+        if (DEBUG_LOG) {
+            Log.d(TAG, "NMS 적용 전 탐지 수: " + nms.size() + ", 적용 후: " + kept);
+        }
     }
 
     /**
-     * 두 바운딩 박스 간의 IoU(Intersection over Union)를 계산합니다.
+     * 후처리 단계 (여러 패스): 패스마다 후처리한 결과를 프레임 좌표로 모으고,
+     * 크롭이 겹치는 곳에서 중복된 탐지를 클래스별 NMS로 한 번 더 지워 out에 기록합니다.
+     * postprocess와 같은 작업 배열을 쓰므로 호출자가 직렬화해야 합니다.
      */
-    private float calculateIoU(Detection d1, Detection d2) {
-        // 겹치는 영역 계산
-        float xLeft = Math.max(d1.getLeft(), d2.getLeft());
-        float yTop = Math.max(d1.getTop(), d2.getTop());
-        float xRight = Math.min(d1.getRight(), d2.getRight());
-        float yBottom = Math.min(d1.getBottom(), d2.getBottom());
-
-        // 겹치는 영역이 없으면 0 반환
-        if (xRight < xLeft || yBottom < yTop) return 0;
-
-        float intersectionArea = (xRight - xLeft) * (yBottom - yTop);
-
-        // 각 바운딩 박스의 면적 계산
-        float d1Area = (d1.getRight() - d1.getLeft()) * (d1.getBottom() - d1.getTop());
-        float d2Area = (d2.getRight() - d2.getLeft()) * (d2.getBottom() - d2.getTop());
-
-        // IoU 계산
-        return intersectionArea / (d1Area + d2Area - intersectionArea);
+    public void postprocess(FrameContext[] contexts, ResizeTransform[] transforms, int passCount, DetectionBatch out) {
+        if (passCount == 1) {
+            postprocess(contexts[0], transforms[0], out);
+            return;
+        }
+        mergeNms.clear();
+        DetectionBatch batch = passBatch;
+        for (int p = 0; p < passCount; p++) {
+            postprocess(contexts[p], transforms[p], batch);
+            addToMerge(batch);
+        }
+        finishMerge(out, passCount);
     }
 
+    /**
+     * 여러 배치(타일별 결과 등, 모두 프레임 좌표)를 공용 병합 NMS로 중복 제거해 out에 기록합니다.
+     * postprocess와 같은 작업 배열을 쓰므로 호출자가 직렬화해야 합니다.
+     */
+    public void mergeDetections(DetectionBatch[] batches, int count, DetectionBatch out) {
+        mergeNms.clear();
+        for (int b = 0; b < count; b++) {
+            addToMerge(batches[b]);
+        }
+        finishMerge(out, count);
+    }
 
+    private void addToMerge(DetectionBatch batch) {
+        NmsEngine merge = mergeNms;
+        for (int i = 0; i < batch.size(); i++) {
+            merge.add(batch.getClassId(i), batch.getScore(i),
+                    batch.getLeft(i), batch.getTop(i), batch.getRight(i), batch.getBottom(i));
+        }
+    }
 
+    private void finishMerge(DetectionBatch out, int sourceCount) {
+        out.clear();
+        NmsEngine merge = mergeNms;
+        int kept = merge.run(keptIndices);
+        for (int k = 0; k < kept; k++) {
+            int i = keptIndices[k];
+            out.add(merge.getClassId(i), merge.getScore(i),
+                    merge.getLeft(i), merge.getTop(i), merge.getRight(i), merge.getBottom(i));
+        }
+        if (DEBUG_LOG) {
+            Log.d(TAG, sourceCount + "개 결과 병합: " + merge.size() + " -> " + kept);
+        }
+    }
 
     /**
-     * 비트맵을 지정된 크기로 리사이즈합니다.
+     * 원본 비트맵의 픽셀을 중간 비트맵 없이 입력 버퍼로 리사이즈/패킹합니다.
      */
-    private Bitmap resizeBitmap(Bitmap bitmap, int width, int height) {
-        float scaleWidth = ((float) width) / bitmap.getWidth();
-        float scaleHeight = ((float) height) / bitmap.getHeight();
-        Matrix matrix = new Matrix();
-        matrix.postScale(scaleWidth, scaleHeight);
-        return Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, false);
+    private void packBitmap(Bitmap bitmap, FrameContext ctx, ImagePreprocessor preprocessor) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        int[] sourcePixels = ctx.getSourcePixels(width, height);
+        bitmap.getPixels(sourcePixels, 0, width, 0, 0, width, height);
+        preprocessor.configure(width, height);
+        preprocessor.pack(sourcePixels, width, ctx.getInputBuffer());
     }
 
     /**
      * 탐지 결과를 나타내는 클래스
      */
     public static class Detection {
-        private final String label;
+        // 클래스 인덱스 (이름은 ProductCatalog.labelOf로 UI/전송 시에만 변환)
+        private final int classId;
         private final float confidence;
         private final float left;
         private final float top;
         private final float right;
         private final float bottom;
 
-        public Detection(String label, float confidence, float left, float top, float right, float bottom) {
-            this.label = label;
+        public Detection(int classId, float confidence, float left, float top, float right, float bottom) {
+            this.classId = classId;
             this.confidence = confidence;
             this.left = left;
             this.top = top;
@@ -319,8 +556,8 @@ public class YoloImageProcessor {
             this.bottom = bottom;
         }
 
-        public String getLabel() {
-            return label;
+        public int getClassId() {
+            return classId;
         }
 
         public float getConfidence() {
@@ -345,7 +582,7 @@ public class YoloImageProcessor {
 
         @Override
         public String toString() {
-            return label + " (" + String.format("%.2f", confidence * 100) + "%)";
+            return "class " + classId + " (" + String.format("%.2f", confidence * 100) + "%)";
         }
     }
 
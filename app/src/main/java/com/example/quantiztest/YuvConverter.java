@@ -0,0 +1,346 @@
+package com.example.quantiztest;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * 카메라 YUV_420_888 평면을 ARGB 비트맵을 거치지 않고 모델 입력 버퍼로 바로 변환하는 전처리 커널입니다.
+ * 행/픽셀 간격과 센서 방향(0/90/180/270도)을 처리하며, 회전한 영상 기준으로 최근접 샘플링합니다.
+ * 3채널이면 BT.601 전범위 YUV -> RGB, 1채널이면 Y(휘도)를 그대로 그레이스케일로 씁니다.
+ *
+ * 회전 후 좌표 (ux, uy)의 센서 평면 위치는 ux만의 항 + uy만의 항으로 분리되므로,
+ * 해상도/간격/회전이 바뀔 때만 열/행 오프셋 테이블을 다시 계산하고 픽셀마다 두 번의 조회로 읽습니다.
+ * 출력 인코딩(UINT8/INT8/FLOAT32)과 레터박스 처리는 ImagePreprocessor와 같습니다.
+ * 회전 후 영상의 일부(ROI 크롭)만 모델 입력으로 변환할 수도 있습니다.
+ * 안드로이드 API에 의존하지 않으므로 데스크톱 JVM에서 합성 YUV 프레임으로 테스트/벤치마크할 수 있습니다.
+ */
+public class YuvConverter {
+
+    // BT.601 전범위 변환 계수 (카메라 YUV_420_888은 JFIF 전범위)
+    private static final int[] R_V = new int[256];
+    private static final int[] G_U = new int[256];
+    private static final int[] G_V = new int[256];
+    private static final int[] B_U = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int c = i - 128;
+            R_V[i] = Math.round(1.402f * c);
+            G_U[i] = Math.round(0.344136f * c);
+            G_V[i] = Math.round(0.714136f * c);
+            B_U[i] = Math.round(1.772f * c);
+        }
+    }
+
+    private final int dstWidth;
+    private final int dstHeight;
+    private final int channels;
+    private final ResizeTransform.Mode resizeMode;
+    private final ImagePreprocessor.Encoding encoding;
+
+    // 한 행 분량의 출력 - 레터박스 좌우 여백은 미리 패딩으로 채워 둠
+    private final byte[] rowBuffer;
+    private final byte[] padRow;
+    private final float[] floatRow;
+    private ByteBuffer floatTarget;
+    private FloatBuffer floatView;
+
+    // 마지막 configure 조건(크기/회전/간격, 크롭 영역)과 모델 입력용 오프셋 테이블
+    private ResizeTransform transform;
+    private final int[] configuredLayout = new int[6];
+    private final int[] configuredCrop = new int[4];
+    private final AxisTables columns;
+    private final AxisTables rows;
+
+    // 원본 해상도 ARGB 변환(표시/전송용) 조건과 테이블 - 처음 쓸 때 만듦
+    private final int[] argbLayout = new int[6];
+    private AxisTables argbColumns;
+    private AxisTables argbRows;
+
+    /**
+     * 한 축의 센서 평면 오프셋 테이블 (Y 평면용, U/V 평면용)
+     */
+    private static final class AxisTables {
+        final int[] luma;
+        final int[] chroma;
+
+        AxisTables(int size) {
+            luma = new int[size];
+            chroma = new int[size];
+        }
+    }
+
+    /**
+     * @param channels 3이면 RGB, 1이면 그레이스케일
+     * @param padValue 레터박스 여백에 채울 값 (0~255)
+     * @param encoding 입력 텐서 타입에 맞는 인코딩 (ModelBinding.getInputEncoding())
+     */
+    public YuvConverter(int dstWidth, int dstHeight, int channels, ResizeTransform.Mode resizeMode,
+                        int padValue, ImagePreprocessor.Encoding encoding) {
+        if (channels != 1 && channels != 3) {
+            throw new IllegalArgumentException("지원하지 않는 채널 수: " + channels);
+        }
+        this.dstWidth = dstWidth;
+        this.dstHeight = dstHeight;
+        this.channels = channels;
+        this.resizeMode = resizeMode;
+        this.encoding = encoding;
+        this.rowBuffer = new byte[dstWidth * channels];
+        this.padRow = new byte[dstWidth * channels];
+        // INT8은 행 버퍼에 이미 부호 변환된 값을 두므로 패딩도 미리 변환해 둠
+        Arrays.fill(padRow, encoding == ImagePreprocessor.Encoding.INT8 ? (byte) (padValue ^ 0x80) : (byte) padValue);
+        this.floatRow = encoding == ImagePreprocessor.Encoding.FLOAT32 ? new float[dstWidth * channels] : null;
+        this.columns = new AxisTables(dstWidth);
+        this.rows = new AxisTables(dstHeight);
+    }
+
+    /**
+     * 원본 해상도 ARGB 변환(toArgb) 전용 변환기를 만듭니다. (모델 입력 크기와 무관)
+     */
+    public static YuvConverter forDisplay() {
+        return new YuvConverter(1, 1, 3, ResizeTransform.Mode.STRETCH, 0, ImagePreprocessor.Encoding.UINT8);
+    }
+
+    /**
+     * 프레임 조건에 맞는 오프셋 테이블을 준비합니다. 조건이 같으면 아무것도 하지 않습니다.
+     */
+    public void configure(YuvFrame frame) {
+        configure(frame, 0, 0, frame.getUprightWidth(), frame.getUprightHeight());
+    }
+
+    /**
+     * 회전 후 영상의 크롭 영역만 모델 입력으로 쓰도록 오프셋 테이블을 준비합니다.
+     */
+    public void configure(YuvFrame frame, int cropX, int cropY, int cropWidth, int cropHeight) {
+        if (transform != null && matchesLayout(frame, configuredLayout) && configuredCrop[0] == cropX
+                && configuredCrop[1] == cropY && configuredCrop[2] == cropWidth && configuredCrop[3] == cropHeight) {
+            return;
+        }
+        if (frame.getWidth() <= 0 || frame.getHeight() <= 0) {
+            throw new IllegalArgumentException("잘못된 원본 크기: " + frame.getWidth() + "x" + frame.getHeight());
+        }
+        if (cropX < 0 || cropY < 0 || cropWidth <= 0 || cropHeight <= 0
+                || cropX + cropWidth > frame.getUprightWidth() || cropY + cropHeight > frame.getUprightHeight()) {
+            throw new IllegalArgumentException("잘못된 크롭 영역: " + cropX + "," + cropY + " " + cropWidth + "x" + cropHeight);
+        }
+        ResizeTransform newTransform = new ResizeTransform(resizeMode,
+                cropWidth, cropHeight, dstWidth, dstHeight, cropX, cropY);
+        buildColumns(frame, cropX, cropWidth, newTransform.getContentWidth(), columns);
+        buildRows(frame, cropY, cropHeight, newTransform.getContentHeight(), rows);
+
+        System.arraycopy(padRow, 0, rowBuffer, 0, rowBuffer.length);
+        storeLayout(frame, configuredLayout);
+        configuredCrop[0] = cropX;
+        configuredCrop[1] = cropY;
+        configuredCrop[2] = cropWidth;
+        configuredCrop[3] = cropHeight;
+        this.transform = newTransform;
+    }
+
+    private static boolean matchesLayout(YuvFrame frame, int[] layout) {
+        return layout[0] == frame.getWidth() && layout[1] == frame.getHeight()
+                && layout[2] == frame.getRotationDegrees() && layout[3] == frame.getYRowStride()
+                && layout[4] == frame.getUvRowStride() && layout[5] == frame.getUvPixelStride();
+    }
+
+    private static void storeLayout(YuvFrame frame, int[] layout) {
+        layout[0] = frame.getWidth();
+        layout[1] = frame.getHeight();
+        layout[2] = frame.getRotationDegrees();
+        layout[3] = frame.getYRowStride();
+        layout[4] = frame.getUvRowStride();
+        layout[5] = frame.getUvPixelStride();
+    }
+
+    /**
+     * 회전 후 x축(열) 테이블: 90/270도면 센서의 세로 축, 90/180도면 뒤집힘
+     */
+    private static void buildColumns(YuvFrame frame, int start, int size, int dstSize, AxisTables tables) {
+        int rotation = frame.getRotationDegrees();
+        boolean sensorVertical = rotation == 90 || rotation == 270;
+        boolean flip = rotation == 90 || rotation == 180;
+        buildAxis(frame, frame.getUprightWidth(), start, size, dstSize, flip, sensorVertical, tables);
+    }
+
+    /**
+     * 회전 후 y축(행) 테이블: 90/270도면 센서의 가로 축, 180/270도면 뒤집힘
+     */
+    private static void buildRows(YuvFrame frame, int start, int size, int dstSize, AxisTables tables) {
+        int rotation = frame.getRotationDegrees();
+        boolean sensorVertical = !(rotation == 90 || rotation == 270);
+        boolean flip = rotation == 180 || rotation == 270;
+        buildAxis(frame, frame.getUprightHeight(), start, size, dstSize, flip, sensorVertical, tables);
+    }
+
+    /**
+     * @param start 회전 후 영상에서 이 축의 크롭 시작 위치
+     * @param size  이 축의 크롭 길이
+     */
+    private static void buildAxis(YuvFrame frame, int uprightSize, int start, int size, int dstSize, boolean flip,
+                                  boolean sensorVertical, AxisTables tables) {
+        // ImagePreprocessor의 최근접 샘플링과 같은 식 (픽셀 중심 기준)
+        float scale = (float) size / dstSize;
+        for (int d = 0; d < dstSize; d++) {
+            int u = start + Math.min((int) ((d + 0.5f) * scale), size - 1);
+            int s = flip ? uprightSize - 1 - u : u;
+            if (sensorVertical) {
+                tables.luma[d] = s * frame.getYRowStride();
+                tables.chroma[d] = (s >> 1) * frame.getUvRowStride();
+            } else {
+                tables.luma[d] = s;
+                tables.chroma[d] = (s >> 1) * frame.getUvPixelStride();
+            }
+        }
+    }
+
+    /**
+     * YUV 프레임을 리사이즈/회전하면서 모델 입력 버퍼에 기록합니다.
+     *
+     * @param dst 모델 입력 버퍼 (처음부터 채운 뒤 rewind 됨, FLOAT32는 네이티브 바이트 순서)
+     */
+    public void pack(YuvFrame frame, ByteBuffer dst) {
+        pack(frame, 0, 0, frame.getUprightWidth(), frame.getUprightHeight(), dst);
+    }
+
+    /**
+     * 회전 후 영상의 크롭 영역만 리사이즈해 모델 입력 버퍼에 기록합니다. (getTransform()은 프레임 좌표로 되돌림)
+     */
+    public void pack(YuvFrame frame, int cropX, int cropY, int cropWidth, int cropHeight, ByteBuffer dst) {
+        configure(frame, cropX, cropY, cropWidth, cropHeight);
+        ResizeTransform t = transform;
+        int padY = t.getPadY();
+        int contentHeight = t.getContentHeight();
+        int contentWidth = t.getContentWidth();
+        int rowStart = t.getPadX() * channels;
+        int rowEnd = rowStart + contentWidth * channels;
+        byte[] yPlane = frame.getY();
+        byte[] uPlane = frame.getU();
+        byte[] vPlane = frame.getV();
+
+        dst.clear();
+        if (encoding == ImagePreprocessor.Encoding.FLOAT32 && dst != floatTarget) {
+            floatView = dst.asFloatBuffer();
+            floatTarget = dst;
+        }
+        if (floatView != null) {
+            floatView.clear();
+        }
+        for (int dy = 0; dy < padY; dy++) {
+            writeRow(dst, padRow);
+        }
+        for (int cy = 0; cy < contentHeight; cy++) {
+            if (channels == 3) {
+                packRgbRow(yPlane, uPlane, vPlane, rows.luma[cy], rows.chroma[cy], rowStart, contentWidth);
+            } else {
+                packLumaRow(yPlane, rows.luma[cy], rowStart, contentWidth);
+            }
+            if (encoding == ImagePreprocessor.Encoding.INT8) {
+                byte[] row = rowBuffer;
+                for (int i = rowStart; i < rowEnd; i++) {
+                    row[i] ^= (byte) 0x80;
+                }
+            }
+            writeRow(dst, rowBuffer);
+        }
+        for (int dy = padY + contentHeight; dy < dstHeight; dy++) {
+            writeRow(dst, padRow);
+        }
+        dst.rewind();
+    }
+
+    private void packRgbRow(byte[] yPlane, byte[] uPlane, byte[] vPlane, int lumaRow, int chromaRow,
+                            int rowStart, int contentWidth) {
+        byte[] row = rowBuffer;
+        int[] lumaCol = columns.luma;
+        int[] chromaCol = columns.chroma;
+        for (int dx = 0, o = rowStart; dx < contentWidth; dx++, o += 3) {
+            int yv = yPlane[lumaRow + lumaCol[dx]] & 0xFF;
+            int c = chromaRow + chromaCol[dx];
+            int uv = uPlane[c] & 0xFF;
+            int vv = vPlane[c] & 0xFF;
+            row[o] = (byte) clamp(yv + R_V[vv]);
+            row[o + 1] = (byte) clamp(yv - G_U[uv] - G_V[vv]);
+            row[o + 2] = (byte) clamp(yv + B_U[uv]);
+        }
+    }
+
+    private void packLumaRow(byte[] yPlane, int lumaRow, int rowStart, int contentWidth) {
+        byte[] row = rowBuffer;
+        int[] lumaCol = columns.luma;
+        for (int dx = 0, o = rowStart; dx < contentWidth; dx++, o++) {
+            row[o] = yPlane[lumaRow + lumaCol[dx]];
+        }
+    }
+
+    private void writeRow(ByteBuffer dst, byte[] row) {
+        if (encoding != ImagePreprocessor.Encoding.FLOAT32) {
+            dst.put(row);
+            return;
+        }
+        float[] out = floatRow;
+        for (int i = 0; i < row.length; i++) {
+            out[i] = (row[i] & 0xFF) * (1f / 255f);
+        }
+        floatView.put(out);
+    }
+
+    private static int clamp(int value) {
+        return value < 0 ? 0 : (value > 255 ? 255 : value);
+    }
+
+    /**
+     * 회전을 적용한 원본 해상도 ARGB 픽셀로 변환합니다. (화면 표시/전송용 비트맵 생성)
+     *
+     * @param out 최소 uprightWidth * uprightHeight 크기의 배열
+     */
+    public void toArgb(YuvFrame frame, int[] out) {
+        int width = frame.getUprightWidth();
+        int height = frame.getUprightHeight();
+        if (argbColumns == null || !matchesLayout(frame, argbLayout)) {
+            argbColumns = new AxisTables(width);
+            argbRows = new AxisTables(height);
+            buildColumns(frame, 0, width, width, argbColumns);
+            buildRows(frame, 0, height, height, argbRows);
+            storeLayout(frame, argbLayout);
+        }
+        byte[] yPlane = frame.getY();
+        byte[] uPlane = frame.getU();
+        byte[] vPlane = frame.getV();
+        int[] lumaCol = argbColumns.luma;
+        int[] chromaCol = argbColumns.chroma;
+        for (int uy = 0, o = 0; uy < height; uy++) {
+            int lumaRow = argbRows.luma[uy];
+            int chromaRow = argbRows.chroma[uy];
+            for (int ux = 0; ux < width; ux++, o++) {
+                int yv = yPlane[lumaRow + lumaCol[ux]] & 0xFF;
+                int c = chromaRow + chromaCol[ux];
+                int uv = uPlane[c] & 0xFF;
+                int vv = vPlane[c] & 0xFF;
+                out[o] = 0xFF000000
+                        | clamp(yv + R_V[vv]) << 16
+                        | clamp(yv - G_U[uv] - G_V[vv]) << 8
+                        | clamp(yv + B_U[uv]);
+            }
+        }
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public ImagePreprocessor.Encoding getEncoding() {
+        return encoding;
+    }
+
+    public ResizeTransform.Mode getResizeMode() {
+        return resizeMode;
+    }
+
+    /**
+     * 마지막 configure()로 계산된 좌표 변환 (회전 후 영상 기준, configure 전에는 null)
+     */
+    public ResizeTransform getTransform() {
+        return transform;
+    }
+}
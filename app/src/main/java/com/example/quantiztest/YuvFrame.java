@@ -0,0 +1,114 @@
+package com.example.quantiztest;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 카메라 YUV_420_888 프레임의 Y/U/V 평면을 복사해 두는 재사용 버퍼입니다.
+ * ImageReader의 Image는 빨리 닫아야 하므로 평면을 그대로(행/픽셀 간격 포함) 복사한 뒤 파이프라인으로 넘깁니다.
+ * 안드로이드 API에 의존하지 않으므로 데스크톱 JVM에서 합성 프레임으로 테스트할 수 있습니다.
+ */
+public class YuvFrame {
+    private byte[] y = new byte[0];
+    private byte[] u = new byte[0];
+    private byte[] v = new byte[0];
+    private int width;
+    private int height;
+    private int yRowStride;
+    private int uvRowStride;
+    private int uvPixelStride;
+    private int rotationDegrees;
+    private long timestampNanos;
+
+    /**
+     * 평면 버퍼를 복사합니다. 버퍼의 위치는 바뀌지 않으며, 내부 배열은 더 큰 프레임이 올 때만 다시 만듭니다.
+     *
+     * @param rotationDegrees 센서 영상을 바로 세우기 위해 시계 방향으로 돌려야 하는 각도 (0/90/180/270)
+     */
+    public void copyFrom(int width, int height, int rotationDegrees, long timestampNanos,
+                         ByteBuffer yPlane, int yRowStride,
+                         ByteBuffer uPlane, ByteBuffer vPlane, int uvRowStride, int uvPixelStride) {
+        if (rotationDegrees % 90 != 0) {
+            throw new IllegalArgumentException("지원하지 않는 회전 각도: " + rotationDegrees);
+        }
+        this.width = width;
+        this.height = height;
+        this.rotationDegrees = ((rotationDegrees % 360) + 360) % 360;
+        this.timestampNanos = timestampNanos;
+        this.yRowStride = yRowStride;
+        this.uvRowStride = uvRowStride;
+        this.uvPixelStride = uvPixelStride;
+        y = copyPlane(yPlane, y);
+        u = copyPlane(uPlane, u);
+        v = copyPlane(vPlane, v);
+    }
+
+    private static byte[] copyPlane(ByteBuffer plane, byte[] target) {
+        ByteBuffer source = plane.duplicate();
+        int size = source.remaining();
+        if (target.length < size) {
+            target = new byte[size];
+        }
+        source.get(target, 0, size);
+        return target;
+    }
+
+    public byte[] getY() {
+        return y;
+    }
+
+    public byte[] getU() {
+        return u;
+    }
+
+    public byte[] getV() {
+        return v;
+    }
+
+    /**
+     * 센서 기준 너비 (회전 전)
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * 센서 기준 높이 (회전 전)
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * 회전을 적용해 바로 세운 영상의 너비
+     */
+    public int getUprightWidth() {
+        return rotationDegrees == 90 || rotationDegrees == 270 ? height : width;
+    }
+
+    /**
+     * 회전을 적용해 바로 세운 영상의 높이
+     */
+    public int getUprightHeight() {
+        return rotationDegrees == 90 || rotationDegrees == 270 ? width : height;
+    }
+
+    public int getYRowStride() {
+        return yRowStride;
+    }
+
+    public int getUvRowStride() {
+        return uvRowStride;
+    }
+
+    public int getUvPixelStride() {
+        return uvPixelStride;
+    }
+
+    public int getRotationDegrees() {
+        return rotationDegrees;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+}
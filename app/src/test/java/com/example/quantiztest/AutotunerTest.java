@@ -0,0 +1,141 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 가짜 백엔드로 자동 튜너가 가장 빠른 설정을 고르고, 결과가 기기/모델 해시별로 저장되는지 확인합니다.
+ */
+public class AutotunerTest {
+
+    /**
+     * 설정별로 정해진 시간만큼 쉬는 가짜 백엔드 (등록되지 않은 설정은 열 때 실패)
+     */
+    static class FakeBackend implements InferenceBackend {
+        final Map<InferenceConfig, Long> sleepMillis = new HashMap<>();
+        final List<InferenceConfig> opened = new ArrayList<>();
+        int runs;
+        int closed;
+
+        @Override
+        public Session open(InferenceConfig config) {
+            final Long millis = sleepMillis.get(config);
+            if (millis == null) {
+                throw new IllegalArgumentException("지원하지 않는 설정: " + config);
+            }
+            opened.add(config);
+            return new Session() {
+                @Override
+                public void run() throws Exception {
+                    runs++;
+                    Thread.sleep(millis);
+                }
+
+                @Override
+                public void close() {
+                    closed++;
+                }
+            };
+        }
+    }
+
+    @Test
+    public void picksFastestConfigAndSkipsFailures() {
+        InferenceConfig cpu1 = new InferenceConfig(1, false, true);
+        InferenceConfig cpu4 = new InferenceConfig(4, false, true);
+        InferenceConfig nnapi = new InferenceConfig(4, true, true);
+        FakeBackend backend = new FakeBackend();
+        backend.sleepMillis.put(cpu1, 12L);
+        backend.sleepMillis.put(cpu4, 2L);
+        backend.sleepMillis.put(nnapi, 8L); // 이 기기에서는 NNAPI가 CPU보다 느림
+
+        Autotuner.Result result = new Autotuner(backend, 1, 3)
+                .tune(Arrays.asList(cpu1, cpu4, nnapi, new InferenceConfig(2, false, false)));
+        assertEquals(cpu4, result.getBest());
+        assertEquals(3, result.getMillis().size());
+        assertEquals(1, result.getFailures().size());
+        assertTrue(result.getBestMillis() < result.getMillis().get(nnapi));
+        assertEquals(3 * 4, backend.runs);
+        assertEquals(3, backend.closed);
+    }
+
+    @Test
+    public void allFailuresGiveNoBest() {
+        List<InferenceConfig> candidates = Autotuner.candidates(4, true);
+        Autotuner.Result result = new Autotuner(new FakeBackend(), 0, 1).tune(candidates);
+        assertNull(result.getBest());
+        assertTrue(result.getMillis().isEmpty());
+        assertEquals(candidates.size(), result.getFailures().size());
+    }
+
+    @Test
+    public void candidatesRespectCoresAndNnapi() {
+        List<InferenceConfig> configs = Autotuner.candidates(2, false);
+        assertEquals(4, configs.size());
+        for (InferenceConfig config : configs) {
+            assertTrue(config.getThreads() <= 2);
+            assertFalse(config.isNnapi());
+        }
+        List<InferenceConfig> withNnapi = Autotuner.candidates(8, true);
+        assertEquals(9, withNnapi.size());
+        assertTrue(withNnapi.contains(new InferenceConfig(8, false, true)));
+        assertTrue(withNnapi.contains(InferenceConfig.defaults(8, true)));
+    }
+
+    @Test
+    public void storeKeepsResultsPerDeviceAndModelHash() throws Exception {
+        File file = File.createTempFile("tuning", ".txt");
+        file.delete();
+        try {
+            String hash = TuningStore.hash(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+            assertEquals(16, hash.length());
+            assertFalse(hash.equals(TuningStore.hash(ByteBuffer.wrap(new byte[]{1, 2, 4}))));
+
+            TuningStore store = new TuningStore(file);
+            assertNull(store.get("SM-T505", hash));
+            assertTrue(store.put("SM-T505", hash, new InferenceConfig(2, false, false), 41.5f));
+            assertTrue(store.put("Pixel 7", hash, new InferenceConfig(4, true, true), 20f));
+
+            // 새로 읽어도 같은 결과, 모델 해시가 다르면 없음
+            TuningStore reloaded = new TuningStore(file);
+            assertEquals(new InferenceConfig(2, false, false), reloaded.get("SM-T505", hash));
+            assertEquals(new InferenceConfig(4, true, true), reloaded.get("Pixel 7", hash));
+            assertNull(reloaded.get("SM-T505", "0000000000000000"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void modelHashIsReusedWhileStampIsUnchanged() throws Exception {
+        File file = File.createTempFile("tuning", ".txt");
+        file.delete();
+        File hashFile = new File(file.getPath() + ".hash");
+        try {
+            ByteBuffer v1 = ByteBuffer.wrap(new byte[]{1, 2, 3});
+            ByteBuffer v2 = ByteBuffer.wrap(new byte[]{1, 2, 4});
+            String hash1 = TuningStore.hash(v1);
+
+            TuningStore store = new TuningStore(file);
+            assertEquals(hash1, store.hash("yolonas.tflite", "3@100", v1));
+            // 스탬프가 같으면 모델을 읽지 않고 저장된 해시 사용 (새로 읽은 저장소도 같음)
+            assertEquals(hash1, store.hash("yolonas.tflite", "3@100", v2));
+            assertEquals(hash1, new TuningStore(file).hash("yolonas.tflite", "3@100", v2));
+            // APK가 업데이트되거나 스탬프를 모르면 다시 계산
+            assertEquals(TuningStore.hash(v2), store.hash("yolonas.tflite", "3@200", v2));
+            assertEquals(TuningStore.hash(v1), store.hash("yolonas.tflite", null, v1));
+        } finally {
+            file.delete();
+            hashFile.delete();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.quantiztest;
+
+import org.junit.Assume;
+
+import java.util.Locale;
+
+/**
+ * 시간 측정 테스트 공용 도우미: -Pbench 게이트, 워밍업 후 프레임당 평균 측정, 결과 한 줄 출력을 맡습니다.
+ */
+final class Bench {
+    /**
+     * 측정할 한 프레임 작업. 반환값은 JIT가 작업을 지우지 못하도록 모아 둡니다.
+     */
+    interface Body {
+        long run(int iteration);
+    }
+
+    private final StringBuilder line;
+    private int entries;
+    private long sink;
+
+    private Bench(String title) {
+        this.line = new StringBuilder(title).append(" (프레임당 평균):");
+    }
+
+    /**
+     * 시간 측정만 하므로 ./gradlew test -Pbench 로 요청했을 때만 진행하고, 아니면 테스트를 건너뜁니다.
+     */
+    static Bench start(String title) {
+        Assume.assumeTrue(Boolean.getBoolean("bench"));
+        return new Bench(title);
+    }
+
+    /**
+     * 같은 횟수만큼 워밍업한 뒤 iterations회 실행한 평균 시간을 결과 줄에 덧붙입니다.
+     */
+    Bench measure(String name, int iterations, Body body) {
+        for (int i = 0; i < iterations; i++) {
+            sink += body.run(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += body.run(i);
+        }
+        double nanos = (System.nanoTime() - start) / (double) iterations;
+        line.append(entries++ == 0 ? " " : ", ").append(name).append(' ')
+                .append(nanos >= 1e6
+                        ? String.format(Locale.ROOT, "%.2fms", nanos / 1e6)
+                        : String.format(Locale.ROOT, "%.1fus", nanos / 1e3));
+        return this;
+    }
+
+    /**
+     * 결과 줄을 출력하고 작업 반환값의 합을 돌려줍니다.
+     */
+    long print() {
+        System.out.println(line);
+        return sink;
+    }
+}
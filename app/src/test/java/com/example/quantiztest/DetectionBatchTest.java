@@ -0,0 +1,56 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * DetectionBatch가 재사용/확장되고 필요할 때만 객체 뷰를 만드는지 확인합니다.
+ */
+public class DetectionBatchTest {
+
+    @Test
+    public void growsAndKeepsParallelArraysInSync() {
+        DetectionBatch batch = new DetectionBatch(1);
+        for (int i = 0; i < 5; i++) {
+            batch.add(i, 0.1f * i, i, i + 1, i + 10, i + 20);
+        }
+        assertEquals(5, batch.size());
+        assertEquals(3, batch.getClassId(3));
+        assertEquals(0.3f, batch.getScore(3), 1e-6f);
+        assertEquals(13f, batch.getRight(3), 0f);
+        assertEquals(23f, batch.getBottom(3), 0f);
+        assertEquals((3 + 13) / 2f, batch.getCenterX(3), 0f);
+    }
+
+    @Test
+    public void clearReusesBatch() {
+        DetectionBatch batch = new DetectionBatch(4);
+        batch.add(1, 0.9f, 0, 0, 10, 10);
+        batch.clear();
+        assertTrue(batch.isEmpty());
+        batch.add(2, 0.8f, 5, 5, 15, 15);
+        assertEquals(1, batch.size());
+        assertEquals(2, batch.getClassId(0));
+    }
+
+    @Test
+    public void convertsToAndFromObjectList() {
+        List<YoloImageProcessor.Detection> detections = Arrays.asList(
+                new YoloImageProcessor.Detection(41, 0.9f, 100, 100, 150, 160),
+                new YoloImageProcessor.Detection(47, 0.7f, 300, 300, 350, 360));
+        DetectionBatch batch = DetectionBatch.of(detections);
+
+        List<YoloImageProcessor.Detection> views = batch.toList();
+        assertEquals(2, views.size());
+        for (int i = 0; i < views.size(); i++) {
+            assertEquals(detections.get(i).getClassId(), views.get(i).getClassId());
+            assertEquals(detections.get(i).getConfidence(), views.get(i).getConfidence(), 0f);
+            assertEquals(detections.get(i).getLeft(), views.get(i).getLeft(), 0f);
+            assertEquals(detections.get(i).getBottom(), views.get(i).getBottom(), 0f);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 추론 시간, 장면 변화, 움직임 속도에 따라 탐지 간격 N이 조절되고 사이 프레임이 전파로 처리되는지 확인합니다.
+ */
+public class DetectionSchedulerTest {
+    private static final int CUP = 41;
+
+    @Test
+    public void detectsEveryFrameUntilInferenceIsMeasured() {
+        DetectionScheduler scheduler = new DetectionScheduler();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(scheduler.shouldDetect());
+        }
+        assertEquals(1, scheduler.getInterval());
+    }
+
+    @Test
+    public void slowInferenceWidensIntervalWithinBounds() {
+        DetectionScheduler scheduler = new DetectionScheduler(4, 0.5f, 0.25f);
+        // 프레임 간격 66ms, 추론 66ms -> 예산 33ms의 2배
+        scheduler.onInference(66, 66);
+        assertEquals(2, scheduler.getInterval());
+        assertEquals(0.5f, scheduler.getPropagationFraction(), 0f);
+
+        // 아주 느린 추론도 상한을 넘지 않음
+        for (int i = 0; i < 50; i++) {
+            scheduler.onInference(1000, 66);
+        }
+        assertEquals(4, scheduler.getInterval());
+
+        scheduler.shouldDetect(); // 시작 시 요청된 탐지
+        int detected = 0;
+        for (int i = 0; i < 40; i++) {
+            if (scheduler.shouldDetect()) {
+                detected++;
+            }
+        }
+        assertEquals(10, detected);
+        assertEquals(30, scheduler.getPropagatedFrames());
+    }
+
+    @Test
+    public void sceneChangeAndFastMotionShortenInterval() {
+        DetectionScheduler scheduler = new DetectionScheduler(4, 0.5f, 0.25f);
+        for (int i = 0; i < 50; i++) {
+            scheduler.onInference(1000, 66);
+        }
+        scheduler.onTracks(Collections.<SimpleTracker.TrackedObject>emptyList());
+        assertEquals(4, scheduler.getInterval());
+
+        // 추적 객체 수가 바뀌면 안정될 때까지 매 프레임 탐지
+        List<SimpleTracker.TrackedObject> slow = track(2);
+        scheduler.onTracks(slow);
+        assertEquals(1, scheduler.getInterval());
+        scheduler.onTracks(slow);
+        assertEquals(4, scheduler.getInterval());
+
+        // 탐지 간격당 박스(50px)의 1/4 넘게 움직이면 절반으로
+        scheduler.onTracks(track(20));
+        assertEquals(2, scheduler.getInterval());
+    }
+
+    @Test
+    public void requestedDetectionOverridesInterval() {
+        DetectionScheduler scheduler = new DetectionScheduler(4, 0.5f, 0.25f);
+        for (int i = 0; i < 50; i++) {
+            scheduler.onInference(1000, 66);
+        }
+        assertTrue(scheduler.shouldDetect());
+        assertFalse(scheduler.shouldDetect());
+        scheduler.requestDetection();
+        assertTrue(scheduler.shouldDetect());
+        assertFalse(scheduler.shouldDetect());
+
+        scheduler.reset();
+        assertEquals(1, scheduler.getInterval());
+        assertTrue(scheduler.shouldDetect());
+    }
+
+    /**
+     * 50x60 박스가 탐지마다 dx씩 움직이는 추적 객체 하나
+     */
+    private static List<SimpleTracker.TrackedObject> track(int dx) {
+        SimpleTracker tracker = new SimpleTracker(0);
+        List<SimpleTracker.TrackedObject> objects = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            objects = tracker.update(Arrays.asList(
+                    new YoloImageProcessor.Detection(CUP, 0.9f, 100 + i * dx, 100, 150 + i * dx, 160)), null);
+        }
+        return objects;
+    }
+}
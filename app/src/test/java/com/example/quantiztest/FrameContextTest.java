@@ -0,0 +1,94 @@
+package com.example.quantiztest;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * FrameContext 재사용 경로(전처리 패킹 -> 실제 후처리)가 정상 상태 프레임에서 힙 할당을 하지 않는지 확인합니다.
+ */
+public class FrameContextTest {
+    private static final int WARMUP_FRAMES = 20;
+    private static final int MEASURED_FRAMES = 50;
+    private static final int SOURCE_WIDTH = 1280;
+    private static final int SOURCE_HEIGHT = 720;
+
+    private final ImagePreprocessor preprocessor =
+            new ImagePreprocessor(640, 640, 3, ImagePreprocessor.Interpolation.NEAREST);
+    private final ResizeTransform transform =
+            new ResizeTransform(ResizeTransform.Mode.STRETCH, SOURCE_WIDTH, SOURCE_HEIGHT, 640, 640);
+    private final DetectionBatch batch = new DetectionBatch(YoloImageProcessor.DEFAULT_TOP_K);
+
+    @Test
+    public void buffersAreReusedAcrossFrames() throws Exception {
+        YoloImageProcessor processor = YoloImageProcessorTest.newProcessor();
+        FrameContext ctx = processor.createFrameContext();
+        Object input = ctx.getInputBuffer();
+        Object boxes = ctx.getOutput(0);
+
+        assertTrue(runFrame(processor, ctx, 1) > 0);
+        assertTrue(runFrame(processor, ctx, 2) > 0);
+
+        assertSame(input, ctx.getInputBuffer());
+        assertSame(boxes, ctx.getOutput(0));
+        assertSame(input, ctx.getInputs()[0]);
+        assertEquals(0, ctx.getInputBuffer().position());
+    }
+
+    @Test
+    public void steadyStateFramesDoNotAllocate() throws Exception {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+
+        YoloImageProcessor processor = YoloImageProcessorTest.newProcessor();
+        FrameContext ctx = processor.createFrameContext();
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            runFrame(processor, ctx, i);
+        }
+        assertSame(ctx.getSourcePixels(SOURCE_WIDTH, SOURCE_HEIGHT), ctx.getSourcePixels(SOURCE_WIDTH, SOURCE_HEIGHT));
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        int detections = 0;
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            detections += runFrame(processor, ctx, i);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // 측정 호출 자체의 오버헤드만 허용 (프레임당 버퍼 할당이 있으면 수 MB가 됨)
+        assertTrue("정상 상태 할당량: " + allocated + " bytes", allocated < 16 * 1024);
+        assertTrue(detections > 0);
+    }
+
+    /**
+     * processImage의 버퍼 사용 경로: 픽셀 채우기 -> 입력 패킹 -> (추론 출력 기록) -> 실제 후처리 (디코딩, 상위 K, NMS)
+     *
+     * @return 이 프레임의 탐지 수
+     */
+    private int runFrame(YoloImageProcessor processor, FrameContext ctx, int seed) {
+        int[] pixels = ctx.getSourcePixels(SOURCE_WIDTH, SOURCE_HEIGHT);
+        for (int i = 0; i < SOURCE_WIDTH * SOURCE_HEIGHT; i++) {
+            pixels[i] = seed * 31 + i;
+        }
+        preprocessor.configure(SOURCE_WIDTH, SOURCE_HEIGHT);
+        preprocessor.pack(pixels, SOURCE_WIDTH, ctx.getInputBuffer());
+
+        // 인터프리터 대신 출력 버퍼에 겹치는 사람 박스와 떨어진 컵 박스를 기록 (NMS까지 거치도록)
+        for (int k = 0; k < 20; k++) {
+            int x = (seed + k) % 40;
+            YoloImageProcessorTest.setAnchor(ctx, 100 + k, YoloImageProcessorTest.PERSON, 150 + k,
+                    x, 10, x + 30, 60);
+            YoloImageProcessorTest.setAnchor(ctx, 200 + k, YoloImageProcessorTest.CUP, 200,
+                    k * 12, 150, k * 12 + 10, 170);
+        }
+        ctx.rewindOutputs();
+        processor.postprocess(ctx, transform, batch);
+        return batch.size();
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * FramePipeline이 단계를 순서대로 겹쳐 실행하고, 버린 프레임을 포함해 모든 프레임을 반납하는지 확인합니다.
+ */
+public class FramePipelineTest {
+
+    static class Job {
+        final int id;
+        final StringBuilder trace = new StringBuilder();
+
+        Job(int id) {
+            this.id = id;
+        }
+    }
+
+    @Test
+    public void runsStagesInOrderAndRecyclesEveryFrame() throws Exception {
+        ConcurrentLinkedQueue<Job> recycled = new ConcurrentLinkedQueue<>();
+        FramePipeline<Job> pipeline = new FramePipeline<>("test", 8, SpscQueue.DropPolicy.DROP_NEWEST, recycled::add);
+        pipeline.addStage("a", job -> {
+            job.trace.append('a');
+            return true;
+        });
+        pipeline.addStage("b", job -> {
+            job.trace.append('b');
+            // 홀수 프레임은 여기서 끝냄
+            return job.id % 2 == 0;
+        });
+        pipeline.addStage("c", job -> {
+            job.trace.append('c');
+            return true;
+        });
+        pipeline.start();
+        for (int i = 0; i < 6; i++) {
+            assertTrue(pipeline.submit(new Job(i)));
+        }
+        waitFor(recycled, 6);
+        pipeline.stop();
+
+        for (Job job : recycled) {
+            assertEquals(job.id % 2 == 0 ? "abc" : "ab", job.trace.toString());
+        }
+        assertEquals(6, pipeline.getStats().get(0).getProcessedCount());
+        assertEquals(3, pipeline.getStats().get(1).getRejectedCount());
+        assertEquals(3, pipeline.getStats().get(2).getProcessedCount());
+    }
+
+    @Test
+    public void preprocessOfNextFrameOverlapsInferenceOfCurrentFrame() throws Exception {
+        CountDownLatch inferenceStarted = new CountDownLatch(1);
+        CountDownLatch secondPreprocessed = new CountDownLatch(1);
+        AtomicInteger preprocessed = new AtomicInteger();
+        ConcurrentLinkedQueue<Job> recycled = new ConcurrentLinkedQueue<>();
+
+        FramePipeline<Job> pipeline = new FramePipeline<>("overlap", 2, SpscQueue.DropPolicy.DROP_OLDEST, recycled::add);
+        pipeline.addStage("preprocess", job -> {
+            if (preprocessed.incrementAndGet() == 2) {
+                secondPreprocessed.countDown();
+            }
+            return true;
+        });
+        pipeline.addStage("inference", job -> {
+            if (job.id == 0) {
+                inferenceStarted.countDown();
+                // 프레임 0 추론 중에 프레임 1 전처리가 끝나야 진행됨
+                return secondPreprocessed.await(5, TimeUnit.SECONDS);
+            }
+            return true;
+        });
+        pipeline.start();
+        pipeline.submit(new Job(0));
+        assertTrue(inferenceStarted.await(5, TimeUnit.SECONDS));
+        pipeline.submit(new Job(1));
+        waitFor(recycled, 2);
+        pipeline.stop();
+
+        assertEquals(0, pipeline.getStats().get(1).getRejectedCount());
+    }
+
+    @Test
+    public void dropsOldestFramesWhenStageFallsBehind() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Job> recycled = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Integer> completed = new ConcurrentLinkedQueue<>();
+
+        FramePipeline<Job> pipeline = new FramePipeline<>("drop", 1, SpscQueue.DropPolicy.DROP_OLDEST, recycled::add);
+        pipeline.addStage("slow", job -> {
+            release.await(5, TimeUnit.SECONDS);
+            completed.add(job.id);
+            return true;
+        });
+        pipeline.start();
+        pipeline.submit(new Job(0));
+        // 첫 프레임이 단계에 들어갈 때까지 대기
+        while (pipeline.getStats().get(0).getQueueDepth() > 0) {
+            Thread.sleep(1);
+        }
+        for (int i = 1; i <= 5; i++) {
+            pipeline.submit(new Job(i));
+        }
+        release.countDown();
+        waitFor(recycled, 6);
+        pipeline.stop();
+
+        // 처리 중이던 0번과 가장 최근의 5번만 끝까지 처리됨
+        assertEquals(2, completed.size());
+        assertTrue(completed.contains(0));
+        assertTrue(completed.contains(5));
+        FramePipeline.StageStats stats = pipeline.getStats().get(0);
+        assertEquals(4, stats.getDroppedCount());
+        assertEquals(1, stats.getMaxQueueDepth());
+    }
+
+    @Test
+    public void stopReturnsQueuedFrames() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Job> recycled = new ConcurrentLinkedQueue<>();
+        FramePipeline<Job> pipeline = new FramePipeline<>("stop", 4, SpscQueue.DropPolicy.DROP_OLDEST, recycled::add);
+        pipeline.addStage("blocked", job -> {
+            release.await(50, TimeUnit.MILLISECONDS);
+            return true;
+        });
+        pipeline.start();
+        for (int i = 0; i < 3; i++) {
+            pipeline.submit(new Job(i));
+        }
+        pipeline.stop();
+        assertEquals(3, recycled.size());
+        assertFalse(pipeline.submit(new Job(9)));
+        assertEquals(4, recycled.size());
+    }
+
+    @Test
+    public void frameFinishingAfterStopTimeoutIsRecycled() throws Exception {
+        for (int workers : new int[]{1, 2}) {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            ConcurrentLinkedQueue<Job> recycled = new ConcurrentLinkedQueue<>();
+            FramePipeline<Job> pipeline = new FramePipeline<>("late", 4, SpscQueue.DropPolicy.DROP_OLDEST, recycled::add);
+            pipeline.addParallelStage("stuck", workers, job -> {
+                entered.countDown();
+                // 인터럽트를 무시하고 중지 대기 시간보다 오래 걸리는 추론
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+                return true;
+            });
+            pipeline.addStage("tracking", job -> true);
+            pipeline.start();
+            assertTrue(pipeline.submit(new Job(0)));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            pipeline.stop();
+            assertEquals(0, recycled.size());
+
+            release.countDown();
+            waitFor(recycled, 1);
+        }
+    }
+
+    @Test
+    public void parallelStageOverlapsFramesAndKeepsOrder() throws Exception {
+        CountDownLatch secondInferred = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Job> recycled = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Integer> tracked = new ConcurrentLinkedQueue<>();
+
+        FramePipeline<Job> pipeline = new FramePipeline<>("parallel", 8, SpscQueue.DropPolicy.DROP_NEWEST, recycled::add);
+        pipeline.addParallelStage("inference", 2, job -> {
+            if (job.id == 0) {
+                // 프레임 1이 다른 작업 스레드에서 먼저 끝나야 진행됨
+                return secondInferred.await(5, TimeUnit.SECONDS);
+            }
+            if (job.id == 1) {
+                secondInferred.countDown();
+            }
+            // 3번은 여기서 끝내도 뒤 프레임 순서는 유지됨
+            return job.id != 3;
+        });
+        pipeline.addStage("tracking", job -> {
+            tracked.add(job.id);
+            return true;
+        });
+        pipeline.start();
+        for (int i = 0; i < 6; i++) {
+            assertTrue(pipeline.submit(new Job(i)));
+        }
+        waitFor(recycled, 6);
+        pipeline.stop();
+
+        assertEquals("[0, 1, 2, 4, 5]", tracked.toString());
+        FramePipeline.StageStats stats = pipeline.getStats().get(0);
+        assertEquals(2, stats.getWorkers());
+        assertEquals(6, stats.getProcessedCount());
+        assertEquals(1, stats.getRejectedCount());
+        assertTrue(stats.getReorderedCount() >= 1);
+    }
+
+    private static void waitFor(ConcurrentLinkedQueue<?> queue, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queue.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, queue.size());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 장면 활동, 지연, CPU 사용률에 따라 프레임레이트가 범위 안에서 조절되는지 확인합니다.
+ */
+public class FrameRateGovernorTest {
+    private static final long FAST_LATENCY_MS = 20;
+
+    @Test
+    public void idleSceneRampsDownToMinimum() {
+        FrameRateGovernor governor = new FrameRateGovernor(2f, 15f, 30f);
+        long now = 0;
+        governor.onFrameProcessed(now, FAST_LATENCY_MS, 0.2f, FrameRateGovernor.Activity.MOVING);
+        assertEquals(15f, governor.getTargetFps(), 1e-3f);
+        assertEquals(FrameRateGovernor.Reason.MOTION, governor.getReason());
+
+        // 유지 시간 동안은 움직임 속도 유지
+        now += 1000;
+        governor.onFrameProcessed(now, FAST_LATENCY_MS, 0.2f, FrameRateGovernor.Activity.IDLE);
+        assertEquals(FrameRateGovernor.Reason.MOTION, governor.getReason());
+
+        float previous = governor.getTargetFps();
+        for (int i = 0; i < 100; i++) {
+            now += governor.getIntervalMs();
+            governor.onFrameProcessed(now + 2000, FAST_LATENCY_MS, 0.2f, FrameRateGovernor.Activity.IDLE);
+            assertTrue(governor.getTargetFps() <= previous);
+            previous = governor.getTargetFps();
+        }
+        assertEquals(2f, governor.getTargetFps(), 1e-3f);
+        assertEquals(500, governor.getIntervalMs());
+        assertEquals(FrameRateGovernor.Reason.IDLE, governor.getReason());
+    }
+
+    @Test
+    public void lineCrossingJumpsToMaximumAndHolds() {
+        FrameRateGovernor governor = new FrameRateGovernor(2f, 15f, 30f);
+        for (int i = 0; i < 50; i++) {
+            governor.onFrameProcessed(10_000 + i * 500L, FAST_LATENCY_MS, 0.2f, FrameRateGovernor.Activity.IDLE);
+        }
+        assertEquals(2f, governor.getTargetFps(), 1e-3f);
+
+        governor.onFrameProcessed(40_000, FAST_LATENCY_MS, 0.2f, FrameRateGovernor.Activity.CROSSING);
+        assertEquals(30f, governor.getTargetFps(), 1e-3f);
+        assertEquals(FrameRateGovernor.Reason.LINE_CROSSING, governor.getReason());
+
+        governor.onFrameProcessed(41_000, FAST_LATENCY_MS, 0.2f, FrameRateGovernor.Activity.IDLE);
+        assertEquals(30f, governor.getTargetFps(), 1e-3f);
+    }
+
+    @Test
+    public void latencyCapsRate() {
+        FrameRateGovernor governor = new FrameRateGovernor(2f, 15f, 30f);
+        for (int i = 0; i < 30; i++) {
+            governor.onFrameProcessed(i * 100L, 200, 0.2f, FrameRateGovernor.Activity.CROSSING);
+        }
+        assertEquals(5f, governor.getTargetFps(), 0.1f);
+        assertEquals(FrameRateGovernor.Reason.LATENCY_BOUND, governor.getReason());
+    }
+
+    @Test
+    public void cpuPressureBacksOff() {
+        FrameRateGovernor governor = new FrameRateGovernor(2f, 15f, 30f);
+        governor.onFrameProcessed(0, FAST_LATENCY_MS, 0.95f, FrameRateGovernor.Activity.MOVING);
+        assertEquals(12f, governor.getTargetFps(), 1e-3f);
+        assertEquals(FrameRateGovernor.Reason.CPU_BOUND, governor.getReason());
+        for (int i = 1; i < 30; i++) {
+            governor.onFrameProcessed(i * 100L, FAST_LATENCY_MS, 0.95f, FrameRateGovernor.Activity.MOVING);
+        }
+        assertEquals(2f, governor.getTargetFps(), 1e-3f);
+
+        // 여유가 생기면 바로 움직임 속도로 복귀
+        governor.onFrameProcessed(3000, FAST_LATENCY_MS, 0.3f, FrameRateGovernor.Activity.MOVING);
+        assertEquals(15f, governor.getTargetFps(), 1e-3f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvertedBounds() {
+        new FrameRateGovernor(10f, 5f, 30f);
+    }
+}
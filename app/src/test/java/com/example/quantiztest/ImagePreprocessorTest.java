@@ -0,0 +1,154 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 전처리 커널의 정확성 확인 및 기존 경로(리사이즈 비트맵 -> getPixels -> 바이트 단위 put)와의 비교 벤치마크
+ */
+public class ImagePreprocessorTest {
+    private static final int SRC_WIDTH = 1280;
+    private static final int SRC_HEIGHT = 960;
+    private static final int DST_SIZE = 640;
+    private static final int BENCH_ITERATIONS = 30;
+
+    @Test
+    public void nearestMatchesLegacyPath() {
+        int[] src = randomPixels(SRC_WIDTH, SRC_HEIGHT, 1);
+
+        ImagePreprocessor preprocessor =
+                new ImagePreprocessor(DST_SIZE, DST_SIZE, 3, ImagePreprocessor.Interpolation.NEAREST);
+        preprocessor.configure(SRC_WIDTH, SRC_HEIGHT);
+        ByteBuffer fused = newInputBuffer(DST_SIZE * DST_SIZE * 3);
+        preprocessor.pack(src, SRC_WIDTH, fused);
+
+        ByteBuffer legacy = legacyRgbPath(src, SRC_WIDTH, SRC_HEIGHT);
+
+        assertEquals(0, fused.position());
+        assertEquals(legacy, fused);
+    }
+
+    @Test
+    public void grayMatchesLegacyFormula() {
+        int[] src = randomPixels(SRC_WIDTH, SRC_HEIGHT, 2);
+
+        ImagePreprocessor preprocessor =
+                new ImagePreprocessor(640, 480, 1, ImagePreprocessor.Interpolation.NEAREST);
+        preprocessor.configure(SRC_WIDTH, SRC_HEIGHT);
+        ByteBuffer fused = newInputBuffer(640 * 480);
+        preprocessor.pack(src, SRC_WIDTH, fused);
+
+        int[] resized = legacyResize(src, SRC_WIDTH, SRC_HEIGHT, 640, 480);
+        for (int i = 0; i < resized.length; i++) {
+            int pixel = resized[i];
+            int gray = (((pixel >> 16) & 0xFF) + ((pixel >> 8) & 0xFF) + (pixel & 0xFF)) / 3;
+            assertEquals((byte) gray, fused.get(i));
+        }
+    }
+
+    @Test
+    public void bilinearKeepsFlatColorAndInterpolates() {
+        // 단색 이미지는 보간 후에도 같은 색이어야 함
+        int[] flat = new int[4 * 4];
+        java.util.Arrays.fill(flat, 0xFF405060);
+        ImagePreprocessor preprocessor =
+                new ImagePreprocessor(7, 5, 3, ImagePreprocessor.Interpolation.BILINEAR);
+        preprocessor.configure(4, 4);
+        ByteBuffer out = newInputBuffer(7 * 5 * 3);
+        preprocessor.pack(flat, 4, out);
+        for (int i = 0; i < 7 * 5; i++) {
+            assertEquals(0x40, out.get(i * 3));
+            assertEquals(0x50, out.get(i * 3 + 1));
+            assertEquals(0x60, out.get(i * 3 + 2));
+        }
+
+        // 검정 -> 흰색 가로 그라데이션을 2배 확대하면 중간값이 나와야 함
+        int[] gradient = {0xFF000000, 0xFFFFFFFF};
+        ImagePreprocessor upscale =
+                new ImagePreprocessor(4, 1, 1, ImagePreprocessor.Interpolation.BILINEAR);
+        upscale.configure(2, 1);
+        ByteBuffer gray = newInputBuffer(4);
+        upscale.pack(gradient, 2, gray);
+        assertEquals(0, gray.get(0) & 0xFF);
+        assertEquals(64, gray.get(1) & 0xFF);
+        assertEquals(191, gray.get(2) & 0xFF);
+        assertEquals(255, gray.get(3) & 0xFF);
+    }
+
+    @Test
+    public void benchmarkAgainstLegacyPath() {
+        Bench bench = Bench.start(String.format("전처리 %dx%d -> %dx%d", SRC_WIDTH, SRC_HEIGHT, DST_SIZE, DST_SIZE));
+        int[] src = randomPixels(SRC_WIDTH, SRC_HEIGHT, 3);
+        ImagePreprocessor nearest =
+                new ImagePreprocessor(DST_SIZE, DST_SIZE, 3, ImagePreprocessor.Interpolation.NEAREST);
+        ImagePreprocessor bilinear =
+                new ImagePreprocessor(DST_SIZE, DST_SIZE, 3, ImagePreprocessor.Interpolation.BILINEAR);
+        nearest.configure(SRC_WIDTH, SRC_HEIGHT);
+        bilinear.configure(SRC_WIDTH, SRC_HEIGHT);
+        ByteBuffer out = newInputBuffer(DST_SIZE * DST_SIZE * 3);
+
+        bench.measure("기존", BENCH_ITERATIONS, i -> legacyRgbPath(src, SRC_WIDTH, SRC_HEIGHT).get(0))
+                .measure("최근접", BENCH_ITERATIONS, i -> {
+                    nearest.pack(src, SRC_WIDTH, out);
+                    return out.get(0);
+                })
+                .measure("양선형", BENCH_ITERATIONS, i -> {
+                    bilinear.pack(src, SRC_WIDTH, out);
+                    return out.get(0);
+                })
+                .print();
+    }
+
+    /**
+     * 기존 YoloImageProcessor 경로: 리사이즈 비트맵(새 int[]) -> 새 입력 버퍼 -> 바이트 3개씩 put
+     */
+    private static ByteBuffer legacyRgbPath(int[] src, int srcWidth, int srcHeight) {
+        int[] pixels = legacyResize(src, srcWidth, srcHeight, DST_SIZE, DST_SIZE);
+        ByteBuffer inputBuffer = newInputBuffer(DST_SIZE * DST_SIZE * 3);
+        for (int i = 0; i < DST_SIZE * DST_SIZE; ++i) {
+            int pixel = pixels[i];
+            inputBuffer.put((byte) ((pixel >> 16) & 0xFF));
+            inputBuffer.put((byte) ((pixel >> 8) & 0xFF));
+            inputBuffer.put((byte) (pixel & 0xFF));
+        }
+        inputBuffer.rewind();
+        return inputBuffer;
+    }
+
+    /**
+     * 필터 없는 Bitmap.createBitmap 스케일링(최근접)을 흉내 냅니다.
+     */
+    private static int[] legacyResize(int[] src, int srcWidth, int srcHeight, int width, int height) {
+        int[] resized = new int[width * height];
+        float scaleX = (float) srcWidth / width;
+        float scaleY = (float) srcHeight / height;
+        for (int y = 0; y < height; y++) {
+            int sy = Math.min((int) ((y + 0.5f) * scaleY), srcHeight - 1);
+            for (int x = 0; x < width; x++) {
+                int sx = Math.min((int) ((x + 0.5f) * scaleX), srcWidth - 1);
+                resized[y * width + x] = src[sy * srcWidth + sx];
+            }
+        }
+        return resized;
+    }
+
+    private static int[] randomPixels(int width, int height, long seed) {
+        Random random = new Random(seed);
+        int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = 0xFF000000 | random.nextInt(0x1000000);
+        }
+        return pixels;
+    }
+
+    private static ByteBuffer newInputBuffer(int size) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        buffer.order(ByteOrder.nativeOrder());
+        return buffer;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * InferenceWatchdog의 기한 초과 취소/집계와 LatencyStats의 백분위 계산을 확인합니다.
+ */
+public class InferenceWatchdogTest {
+
+    /**
+     * 취소될 때까지 멈춰 있다가 TFLite 2.12처럼 IllegalArgumentException으로 끝나는 가짜 인터프리터
+     */
+    static class StuckInterpreter implements InferenceWatchdog.Task {
+        final List<Boolean> cancelCalls = new ArrayList<>();
+        final CountDownLatch cancelled = new CountDownLatch(1);
+
+        @Override
+        public void run() {
+            try {
+                cancelled.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalArgumentException("Client requested cancel during Invoke()");
+        }
+
+        @Override
+        public synchronized void setCancelled(boolean value) {
+            cancelCalls.add(value);
+            if (value) {
+                cancelled.countDown();
+            }
+        }
+    }
+
+    @Test
+    public void cancelsOverrunningInference() throws InterruptedException {
+        InferenceWatchdog watchdog = new InferenceWatchdog(20);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        try {
+            // 멈춘 추론: 취소될 때까지 기다림
+            InferenceWatchdog.Deadline deadline = watchdog.arm(cancelled::countDown);
+            assertTrue(cancelled.await(2, TimeUnit.SECONDS));
+            assertFalse(deadline.finish());
+            assertEquals(1, watchdog.getMissedCount());
+            assertEquals(1, watchdog.getCancelledCount());
+            assertEquals(1, watchdog.getLatency().getCount());
+        } finally {
+            watchdog.shutdown();
+        }
+    }
+
+    @Test
+    public void finishedInTimeIsNeverCancelled() throws InterruptedException {
+        InferenceWatchdog watchdog = new InferenceWatchdog(30);
+        AtomicInteger cancels = new AtomicInteger();
+        try {
+            assertTrue(watchdog.arm(cancels::incrementAndGet).finish());
+            Thread.sleep(80); // 기한이 지나도 이미 끝난 추론은 취소하지 않음
+            assertEquals(0, cancels.get());
+            assertEquals(0, watchdog.getMissedCount());
+        } finally {
+            watchdog.shutdown();
+        }
+    }
+
+    @Test
+    public void unsupportedCancellationStillCountsMiss() throws InterruptedException {
+        InferenceWatchdog watchdog = new InferenceWatchdog(10);
+        try {
+            InferenceWatchdog.Deadline deadline = watchdog.arm(() -> {
+                throw new IllegalStateException("not cancellable");
+            });
+            Thread.sleep(100);
+            assertFalse(deadline.finish());
+            assertEquals(1, watchdog.getMissedCount());
+            assertEquals(0, watchdog.getCancelledCount());
+        } finally {
+            watchdog.shutdown();
+        }
+    }
+
+    @Test
+    public void cancelledRunIsReportedAsMissAndCancelFlagIsCleared() {
+        InferenceWatchdog watchdog = new InferenceWatchdog(20);
+        try {
+            StuckInterpreter interpreter = new StuckInterpreter();
+            assertFalse(watchdog.run(interpreter));
+            assertEquals("[true, false]", interpreter.cancelCalls.toString());
+            assertEquals(1, watchdog.getMissedCount());
+            assertEquals(1, watchdog.getCancelledCount());
+        } finally {
+            watchdog.shutdown();
+        }
+    }
+
+    @Test
+    public void errorWithinDeadlineIsRethrown() {
+        InferenceWatchdog watchdog = new InferenceWatchdog(1000);
+        List<Boolean> cancelCalls = new ArrayList<>();
+        try {
+            watchdog.run(new InferenceWatchdog.Task() {
+                @Override
+                public void run() {
+                    throw new IllegalArgumentException("입력 텐서 크기 불일치");
+                }
+
+                @Override
+                public void setCancelled(boolean cancelled) {
+                    cancelCalls.add(cancelled);
+                }
+            });
+            fail("기한 안에 난 오류는 그대로 던져야 합니다");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(cancelCalls.isEmpty());
+            assertEquals(0, watchdog.getMissedCount());
+        } finally {
+            watchdog.shutdown();
+        }
+    }
+
+    @Test
+    public void deadlineFollowsWarmLatencyWithFloor() {
+        assertEquals(160, InferenceWatchdog.deadlineFor(40, 4f, 150));
+        assertEquals(150, InferenceWatchdog.deadlineFor(10, 4f, 150));
+        assertEquals(InferenceWatchdog.DEFAULT_DEADLINE_MS, InferenceWatchdog.deadlineFor(-1, 4f, 150));
+    }
+
+    @Test
+    public void latencyPercentilesUseRecentWindow() {
+        LatencyStats stats = new LatencyStats(100);
+        assertEquals(0f, stats.getP50(), 0f);
+        stats.record(500f); // 창에서 밀려나도 최댓값에는 남음
+        for (int i = 1; i <= 100; i++) {
+            stats.record(i);
+        }
+        assertEquals(50f, stats.getP50(), 0f);
+        assertEquals(99f, stats.getP99(), 0f);
+        assertEquals(500f, stats.getMax(), 0f);
+        assertEquals(101, stats.getCount());
+    }
+}
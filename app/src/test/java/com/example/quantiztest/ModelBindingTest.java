@@ -0,0 +1,165 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+import org.tensorflow.lite.DataType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+/**
+ * ModelBinding의 형상/타입 검증과 모델 타입별 패킹/디코더 선택을 확인합니다.
+ */
+public class ModelBindingTest {
+
+    /**
+     * YOLONas 형상의 바인딩을 만듭니다. (양자화 파라미터: 박스 0.01, 점수 0.004, 클래스 1.0)
+     */
+    static ModelBinding yoloBinding(DataType type) {
+        int zeroPoint = type == DataType.INT8 ? -128 : 0;
+        TensorSpec input = new TensorSpec(0, type, new int[]{1, 640, 640, 3}, 1f / 255, zeroPoint);
+        TensorSpec[] outputs = {
+                new TensorSpec(0, type, new int[]{1, 8400, 4}, 0.01f, zeroPoint),
+                new TensorSpec(1, type, new int[]{1, 8400}, 0.004f, zeroPoint),
+                new TensorSpec(2, type, new int[]{1, 8400}, 1.0f, zeroPoint)
+        };
+        return new ModelBinding(YoloImageProcessor.SIGNATURE, input, outputs);
+    }
+
+    @Test
+    public void selectsEncodingAndBuffersFromTensorType() {
+        ModelBinding uint8 = yoloBinding(DataType.UINT8);
+        assertEquals(ImagePreprocessor.Encoding.UINT8, uint8.getInputEncoding());
+        FrameContext ctx = uint8.createFrameContext();
+        assertEquals(640 * 640 * 3, ctx.getInputBuffer().capacity());
+        assertEquals(8400 * 4, ctx.getOutput(0).capacity());
+        assertTrue(ctx.getOutput(0).isDirect());
+        assertTrue(YoloImageProcessor.createDecoder(uint8, 0.4f) instanceof QuantizedDecoder);
+
+        ModelBinding float32 = yoloBinding(DataType.FLOAT32);
+        assertEquals(ImagePreprocessor.Encoding.FLOAT32, float32.getInputEncoding());
+        FrameContext floatCtx = float32.createFrameContext();
+        assertEquals(640 * 640 * 3 * 4, floatCtx.getInputBuffer().capacity());
+        assertEquals(8400 * 4, floatCtx.getOutput(1).capacity());
+        assertEquals(ByteOrder.nativeOrder(), floatCtx.getOutput(1).order());
+        assertTrue(YoloImageProcessor.createDecoder(float32, 0.4f) instanceof FloatDecoder);
+
+        assertEquals(ImagePreprocessor.Encoding.INT8, yoloBinding(DataType.INT8).getInputEncoding());
+    }
+
+    @Test
+    public void bufferCompatibilityIgnoresQuantizationParams() {
+        ModelBinding current = yoloBinding(DataType.UINT8);
+        TensorSpec input = new TensorSpec(0, DataType.UINT8, new int[]{1, 640, 640, 3}, 1f / 255, 3);
+        TensorSpec[] outputs = {
+                new TensorSpec(0, DataType.UINT8, new int[]{1, 8400, 4}, 0.02f, 3),
+                new TensorSpec(1, DataType.UINT8, new int[]{1, 8400}, 0.005f, 3),
+                new TensorSpec(2, DataType.UINT8, new int[]{1, 8400}, 1.0f, 3)
+        };
+        ModelBinding retrained = new ModelBinding(YoloImageProcessor.SIGNATURE, input, outputs);
+        assertTrue(current.isBufferCompatible(retrained));
+        assertTrue(current.isBufferCompatible(yoloBinding(DataType.INT8)));
+        assertFalse(current.isBufferCompatible(yoloBinding(DataType.FLOAT32)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMismatchedOutputShape() {
+        TensorSpec input = new TensorSpec(0, DataType.UINT8, new int[]{1, 640, 640, 3}, 1f, 0);
+        TensorSpec[] outputs = {
+                new TensorSpec(0, DataType.UINT8, new int[]{1, 8400, 4}, 0.01f, 0),
+                new TensorSpec(1, DataType.UINT8, new int[]{1, 2100}, 0.004f, 0),
+                new TensorSpec(2, DataType.UINT8, new int[]{1, 8400}, 1.0f, 0)
+        };
+        new ModelBinding(YoloImageProcessor.SIGNATURE, input, outputs);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFloatModelWhenProcessorIsQuantizedOnly() {
+        TensorSpec input = new TensorSpec(0, DataType.FLOAT32, new int[]{1, 480, 640, 1}, 0f, 0);
+        TensorSpec[] outputs = {
+                new TensorSpec(0, DataType.FLOAT32, new int[]{1, 60, 80, 1}, 0f, 0),
+                new TensorSpec(1, DataType.FLOAT32, new int[]{1, 60, 80, 4}, 0f, 0),
+                new TensorSpec(2, DataType.FLOAT32, new int[]{1, 60, 80, 10}, 0f, 0)
+        };
+        new ModelBinding(FaceDetector.SIGNATURE, input, outputs);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsQuantizedOutputWithoutScale() {
+        TensorSpec input = new TensorSpec(0, DataType.UINT8, new int[]{1, 640, 640, 3}, 1f / 255, 0);
+        TensorSpec[] outputs = {
+                new TensorSpec(0, DataType.UINT8, new int[]{1, 8400, 4}, 0.01f, 0),
+                new TensorSpec(1, DataType.UINT8, new int[]{1, 8400}, 0f, 0),
+                new TensorSpec(2, DataType.UINT8, new int[]{1, 8400}, 1.0f, 0)
+        };
+        new ModelBinding(YoloImageProcessor.SIGNATURE, input, outputs);
+    }
+
+    @Test
+    public void quantizationParamsMustFitTensorType() {
+        assertTrue(new TensorSpec(1, DataType.INT8, new int[]{1, 8400}, 0.004f, -128).hasQuantizationParams());
+        assertFalse(new TensorSpec(1, DataType.UINT8, new int[]{1, 8400}, 0.004f, -128).hasQuantizationParams());
+        assertFalse(new TensorSpec(1, DataType.INT8, new int[]{1, 8400}, 0.004f, 200).hasQuantizationParams());
+        assertFalse(new TensorSpec(1, DataType.UINT8, new int[]{1, 8400}, Float.NaN, 0).hasQuantizationParams());
+    }
+
+    @Test
+    public void int8DecoderMatchesUint8Decoder() {
+        // 같은 실수 값을 UINT8(zp 0)과 INT8(zp -128)로 양자화하면 디코딩 결과가 같아야 함
+        QuantizedDecoder uint8 = (QuantizedDecoder) YoloImageProcessor.createDecoder(yoloBinding(DataType.UINT8), 0.4f);
+        QuantizedDecoder int8 = (QuantizedDecoder) YoloImageProcessor.createDecoder(yoloBinding(DataType.INT8), 0.4f);
+
+        byte[] unsignedScores = new byte[256];
+        byte[] signedScores = new byte[256];
+        for (int q = 0; q < 256; q++) {
+            unsignedScores[q] = (byte) q;
+            signedScores[q] = (byte) (q - 128);
+            assertEquals(uint8.score(unsignedScores[q]), int8.score(signedScores[q]), 0f);
+            assertEquals(uint8.box(unsignedScores[q]), int8.box(signedScores[q]), 0f);
+        }
+
+        int[] unsignedIndices = new int[256];
+        int[] signedIndices = new int[256];
+        int unsignedCount = uint8.selectCandidates(ByteBuffer.wrap(unsignedScores), 256, unsignedIndices);
+        int signedCount = int8.selectCandidates(ByteBuffer.wrap(signedScores), 256, signedIndices);
+        assertEquals(unsignedCount, signedCount);
+        for (int i = 0; i < unsignedCount; i++) {
+            assertEquals(unsignedIndices[i], signedIndices[i]);
+        }
+    }
+
+    @Test
+    public void packerEncodesInt8AndFloatInputs() {
+        int[] pixels = {0xFF000000, 0xFF80FF10};
+        ByteBuffer uint8 = pack(ImagePreprocessor.Encoding.UINT8, pixels, 1);
+        ByteBuffer int8 = pack(ImagePreprocessor.Encoding.INT8, pixels, 1);
+        ByteBuffer float32 = pack(ImagePreprocessor.Encoding.FLOAT32, pixels, 4);
+
+        for (int i = 0; i < 6; i++) {
+            int value = uint8.get(i) & 0xFF;
+            assertEquals(value - 128, int8.get(i));
+            assertEquals(value / 255f, float32.getFloat(i * 4), 1e-6f);
+        }
+    }
+
+    @Test
+    public void int8PaddingIsEncoded() {
+        ImagePreprocessor preprocessor = new ImagePreprocessor(4, 4, 1, ImagePreprocessor.Interpolation.NEAREST,
+                ResizeTransform.Mode.LETTERBOX, 114, ImagePreprocessor.Encoding.INT8);
+        preprocessor.configure(4, 2);
+        ByteBuffer dst = ByteBuffer.allocateDirect(16).order(ByteOrder.nativeOrder());
+        preprocessor.pack(new int[8], 4, dst);
+        assertEquals(114 - 128, dst.get(0));
+        assertEquals(-128, dst.get(4 * 1)); // 콘텐츠 영역의 검은 픽셀
+    }
+
+    private static ByteBuffer pack(ImagePreprocessor.Encoding encoding, int[] pixels, int bytesPerElement) {
+        ImagePreprocessor preprocessor = new ImagePreprocessor(2, 1, 3, ImagePreprocessor.Interpolation.NEAREST,
+                ResizeTransform.Mode.STRETCH, 0, encoding);
+        preprocessor.configure(2, 1);
+        ByteBuffer dst = ByteBuffer.allocateDirect(6 * bytesPerElement).order(ByteOrder.nativeOrder());
+        preprocessor.pack(pixels, 2, dst);
+        return dst;
+    }
+}
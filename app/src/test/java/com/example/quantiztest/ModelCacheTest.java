@@ -0,0 +1,81 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 모델 캐시가 해시 이름 복사본 하나를 재사용하고, 모델이 바뀌면 예전 복사본만 정리하는지 확인합니다.
+ */
+public class ModelCacheTest {
+
+    @Test
+    public void reusesHashNamedCopyAndRemovesStaleFiles() throws Exception {
+        File dir = Files.createTempDirectory("models").toFile();
+        try {
+            byte[] v1 = {1, 2, 3, 4, 5};
+            byte[] v2 = {9, 8, 7};
+            // 예전 방식의 임시 복사본과 다른 모델의 복사본
+            File legacy = touch(new File(dir, "tflite123456.tmp"));
+            File otherModel = touch(new File(dir, "yolonas_quantized-v2-0123456789abcdef.tflite"));
+
+            ModelCache cache = new ModelCache(dir, "yolonas_quantized.tflite");
+            AtomicInteger opens = new AtomicInteger();
+            File first = cache.obtain(() -> {
+                opens.incrementAndGet();
+                return new ByteArrayInputStream(v1);
+            });
+            assertFalse(cache.wasHit());
+            assertEquals(2, opens.get()); // 해시 + 복사
+            assertEquals(TuningStore.hash(ByteBuffer.wrap(v1)), cache.getHash());
+            assertEquals("yolonas_quantized-" + cache.getHash() + ".tflite", first.getName());
+            assertArrayEquals(v1, Files.readAllBytes(first.toPath()));
+            assertFalse(legacy.exists());
+            assertTrue(otherModel.exists());
+
+            // 다음 실행: 해시만 읽고 복사본 재사용
+            ModelCache next = new ModelCache(dir, "yolonas_quantized.tflite");
+            opens.set(0);
+            File again = next.obtain(() -> {
+                opens.incrementAndGet();
+                return new ByteArrayInputStream(v1);
+            });
+            assertTrue(next.wasHit());
+            assertEquals(1, opens.get());
+            assertEquals(first, again);
+
+            // 모델이 바뀌면 새 복사본만 남음
+            File updated = new ModelCache(dir, "yolonas_quantized.tflite").obtain(() -> new ByteArrayInputStream(v2));
+            assertFalse(first.getName().equals(updated.getName()));
+            assertFalse(first.exists());
+            assertArrayEquals(v2, Files.readAllBytes(updated.toPath()));
+            assertTrue(otherModel.exists());
+
+            new ModelCache(dir, "yolonas_quantized.tflite").clear();
+            assertFalse(updated.exists());
+            assertTrue(otherModel.exists());
+        } finally {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    private static File touch(File file) throws Exception {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(0);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * ModelSlot의 교체/되돌리기와 빌린 프레임이 반납된 뒤에만 모델을 닫는 동작을 확인합니다.
+ */
+public class ModelSlotTest {
+
+    @Test
+    public void inFlightLeaseKeepsReplacedModelOpen() {
+        List<String> closed = new ArrayList<>();
+        ModelSlot<String> slot = new ModelSlot<>("v0", closed::add);
+
+        ModelSlot.Lease<String> inFlight = slot.acquire();
+        assertEquals(1, slot.swap("v1"));
+        assertEquals(2, slot.swap("v2"));
+
+        // v0은 예비에서도 밀려났지만 처리 중인 프레임이 빌리고 있음
+        assertEquals("v0", inFlight.get());
+        assertTrue(closed.isEmpty());
+        inFlight.close();
+        inFlight.close(); // 두 번 반납해도 한 번만 닫힘
+        assertEquals("[v0]", closed.toString());
+
+        try (ModelSlot.Lease<String> next = slot.acquire()) {
+            assertEquals("v2", next.get());
+            assertEquals(2, next.getGeneration());
+        }
+    }
+
+    @Test
+    public void rollbackSwapsWithPreviousModel() {
+        List<String> closed = new ArrayList<>();
+        ModelSlot<String> slot = new ModelSlot<>("v0", closed::add);
+        assertFalse(slot.rollback());
+
+        slot.swap("v1");
+        assertTrue(slot.rollback());
+        assertEquals("v0", slot.get());
+        assertEquals(0, slot.getGeneration());
+        assertTrue(slot.rollback());
+        assertEquals("v1", slot.get());
+        assertTrue(closed.isEmpty());
+    }
+
+    @Test
+    public void closeReleasesCurrentAndPrevious() {
+        List<String> closed = new ArrayList<>();
+        ModelSlot<String> slot = new ModelSlot<>("v0", closed::add);
+        slot.swap("v1");
+        ModelSlot.Lease<String> inFlight = slot.acquire();
+
+        slot.close();
+        assertNull(slot.acquire());
+        assertEquals("[v0]", closed.toString());
+        inFlight.close();
+        assertEquals("[v0, v1]", closed.toString());
+
+        try {
+            slot.swap("v2");
+            fail("닫힌 슬롯에 교체할 수 없어야 합니다");
+        } catch (IllegalStateException expected) {
+            assertEquals("[v0, v1, v2]", closed.toString());
+        }
+    }
+}
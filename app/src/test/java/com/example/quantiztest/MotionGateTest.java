@@ -0,0 +1,142 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 움직임 게이트가 변화 없는 프레임의 추론을 건너뛰고, 변화/강제 간격에서는 추론하게 하는지 확인합니다.
+ */
+public class MotionGateTest {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+    private static final int BENCHMARK_ITERATIONS = 200;
+
+    @Test
+    public void unchangedSceneIsSkippedUntilForced() {
+        MotionGate gate = new MotionGate(3000);
+        byte[] scene = scene(1);
+        assertTrue("첫 프레임은 항상 추론", gate.shouldDetect(frame(scene), 0));
+        assertFalse(gate.shouldDetect(frame(scene), 100));
+        assertFalse(gate.shouldDetect(frame(scene), 2900));
+        assertEquals(0, gate.getLastScore());
+
+        assertTrue("강제 간격이 지나면 추론", gate.shouldDetect(frame(scene), 3000));
+        assertEquals(1, gate.getForcedCount());
+        assertFalse(gate.shouldDetect(frame(scene), 3100));
+        assertEquals(3, gate.getSkippedCount());
+    }
+
+    @Test
+    public void sensorNoiseStaysBelowThreshold() {
+        MotionGate gate = new MotionGate(60_000);
+        byte[] scene = scene(2);
+        gate.shouldDetect(frame(scene), 0);
+
+        Random random = new Random(3);
+        byte[] noisy = scene.clone();
+        for (int i = 0; i < noisy.length; i++) {
+            int value = (noisy[i] & 0xFF) + random.nextInt(7) - 3;
+            noisy[i] = (byte) Math.max(0, Math.min(255, value));
+        }
+        assertFalse(gate.shouldDetect(frame(noisy), 100));
+        assertTrue(gate.getLastScore() <= MotionGate.DEFAULT_NOISE_THRESHOLD);
+    }
+
+    @Test
+    public void smallMovingObjectTriggersDetection() {
+        MotionGate gate = new MotionGate(60_000);
+        byte[] scene = scene(4);
+        gate.shouldDetect(frame(scene), 0);
+
+        // 화면의 약 1% 크기 물체가 들어옴
+        byte[] changed = scene.clone();
+        for (int y = 300; y < 400; y++) {
+            Arrays.fill(changed, y * WIDTH + 600, y * WIDTH + 700, (byte) 250);
+        }
+        assertTrue(gate.shouldDetect(frame(changed), 100));
+        assertTrue(gate.getLastScore() > MotionGate.DEFAULT_NOISE_THRESHOLD);
+
+        // 기준 격자가 바뀌었으므로 같은 장면은 다시 건너뜀
+        assertFalse(gate.shouldDetect(frame(changed), 200));
+    }
+
+    @Test
+    public void invalidatedReferenceForcesNextDetection() {
+        MotionGate gate = new MotionGate(60_000);
+        byte[] scene = scene(7);
+        assertTrue(gate.shouldDetect(frame(scene), 0));
+        // 추론하기로 한 프레임이 결과 없이 버려짐
+        gate.invalidate();
+        assertTrue("무효화 후에는 같은 장면도 다시 추론", gate.shouldDetect(frame(scene), 100));
+        assertFalse(gate.shouldDetect(frame(scene), 200));
+    }
+
+    @Test
+    public void argbPathMatchesLumaDecision() {
+        MotionGate gate = new MotionGate(60_000);
+        int[] pixels = new int[64 * 48];
+        Arrays.fill(pixels, 0xFF404040);
+        assertTrue(gate.shouldDetect(pixels, 64, 48, 64, 0));
+        assertFalse(gate.shouldDetect(pixels, 64, 48, 64, 100));
+        Arrays.fill(pixels, 0, 64 * 12, 0xFFFFFFFF);
+        assertTrue(gate.shouldDetect(pixels, 64, 48, 64, 200));
+    }
+
+    @Test
+    public void partialEdgeBlocksUseTheirOwnArea() {
+        byte[] a = new byte[10 * 10];
+        byte[] b = new byte[10 * 10];
+        // 8x8 블록 기준 오른쪽 아래 2x2 블록만 100 차이
+        for (int y = 8; y < 10; y++) {
+            for (int x = 8; x < 10; x++) {
+                b[y * 10 + x] = 100;
+            }
+        }
+        assertEquals(100, MotionGate.maxBlockDifference(a, b, 10, 10, 8));
+    }
+
+    @Test
+    public void benchmarkGateKernel() {
+        MotionGate gate = new MotionGate(60_000);
+        Bench bench = Bench.start(String.format("움직임 게이트 %dx%d -> %dx%d", WIDTH, HEIGHT,
+                gate.getGridWidth(), gate.getGridHeight()));
+        YuvFrame still = frame(scene(5));
+        gate.shouldDetect(still, 0);
+        bench.measure("판정", BENCHMARK_ITERATIONS, i -> gate.shouldDetect(still, 100 + i) ? 1 : 0)
+                .print();
+
+        byte[] a = new byte[80 * 60];
+        byte[] b = new byte[80 * 60];
+        new Random(6).nextBytes(a);
+        Bench.start("블록 차이 80x60")
+                .measure("최대 블록 차이", BENCHMARK_ITERATIONS, i -> MotionGate.maxBlockDifference(a, b, 80, 60, 8))
+                .print();
+    }
+
+    /**
+     * 부드러운 그라데이션 + 텍스처가 있는 휘도 평면
+     */
+    private static byte[] scene(long seed) {
+        Random random = new Random(seed);
+        byte[] y = new byte[WIDTH * HEIGHT];
+        for (int row = 0; row < HEIGHT; row++) {
+            for (int col = 0; col < WIDTH; col++) {
+                y[row * WIDTH + col] = (byte) (40 + (col * 120 / WIDTH) + (row * 60 / HEIGHT) + random.nextInt(8));
+            }
+        }
+        return y;
+    }
+
+    private static YuvFrame frame(byte[] luma) {
+        byte[] chroma = new byte[(WIDTH / 2) * (HEIGHT / 2)];
+        YuvFrame frame = new YuvFrame();
+        frame.copyFrom(WIDTH, HEIGHT, 90, 0L, ByteBuffer.wrap(luma), WIDTH,
+                ByteBuffer.wrap(chroma), ByteBuffer.wrap(chroma), WIDTH / 2, 1);
+        return frame;
+    }
+}
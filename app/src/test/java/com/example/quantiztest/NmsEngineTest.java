@@ -0,0 +1,182 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * NmsEngine이 기존 리스트 기반 NMS와 같은 결과를 내는지 확인하고 후보 수별 속도를 비교합니다.
+ */
+public class NmsEngineTest {
+    private static final int NUM_CLASSES = 4;
+    private static final float[] IOU_THRESHOLDS = {0.65f, 0.7f, 0.5f, 0.1f};
+    private static final int[] BENCH_SIZES = {100, 1000, 8400};
+    private static final int BENCH_ROUNDS = 20;
+
+    @Test
+    public void matchesLegacyNms() {
+        for (int seed = 0; seed < 20; seed++) {
+            for (int size : new int[]{0, 1, 2, 50, 300}) {
+                Candidate[] candidates = generate(seed, size);
+                NmsEngine engine = newEngine(1);
+                int[] keep = new int[Math.max(1, size)];
+                int kept = fill(engine, candidates).run(keep);
+
+                List<Candidate> expected = legacyNms(candidates);
+                assertEquals("seed=" + seed + " size=" + size, expected.size(), kept);
+                for (int k = 0; k < kept; k++) {
+                    assertSame(expected.get(k), candidates[keep[k]]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void keepsHighestScoreAndOnlySuppressesSameClass() {
+        NmsEngine engine = new NmsEngine(4, 0.5f);
+        engine.add(0, 0.5f, 0, 0, 10, 10);
+        int high = engine.add(0, 0.9f, 1, 1, 11, 11);
+        int otherClass = engine.add(1, 0.6f, 0, 0, 10, 10);
+        int[] keep = new int[3];
+
+        assertEquals(2, engine.run(keep));
+        assertEquals(high, keep[0]);
+        assertEquals(otherClass, keep[1]);
+    }
+
+    @Test
+    public void rejectsDisjointAndMismatchedBoxesWithoutIou() {
+        NmsEngine engine = new NmsEngine(4, 0.5f);
+        engine.add(0, 0.9f, 0, 0, 10, 10);
+        engine.add(0, 0.8f, 100, 100, 110, 110);  // 떨어진 박스
+        engine.add(0, 0.7f, 0, 0, 100, 100);      // 면적 비 0.01
+        int[] keep = new int[3];
+
+        assertEquals(3, engine.run(keep));
+        assertEquals(0, engine.getIouComputations());
+        assertEquals(3, engine.getEarlyRejections());
+    }
+
+    @Test
+    public void growsPastInitialCapacityAndClearsBetweenFrames() {
+        NmsEngine engine = new NmsEngine(2, 0.5f);
+        for (int i = 0; i < 10; i++) {
+            engine.add(i % 3, 0.5f, i * 20, 0, i * 20 + 10, 10);
+        }
+        int[] keep = new int[10];
+        assertEquals(10, engine.run(keep));
+
+        engine.clear();
+        assertEquals(0, engine.size());
+        assertEquals(0, engine.run(keep));
+    }
+
+    @Test
+    public void benchmarkAgainstLegacyNms() {
+        for (int size : BENCH_SIZES) {
+            Bench bench = Bench.start(String.format("NMS 후보 %d개", size));
+            Candidate[][] frames = new Candidate[4][];
+            for (int f = 0; f < frames.length; f++) {
+                frames[f] = generate(1000 + f, size);
+            }
+            NmsEngine engine = newEngine(size);
+            int[] keep = new int[size];
+
+            long sink = bench.measure("기존", BENCH_ROUNDS, r -> legacyNms(frames[r % frames.length]).size())
+                    .measure("엔진", BENCH_ROUNDS, r -> fill(engine, frames[r % frames.length]).run(keep))
+                    .print();
+            assertTrue(sink > 0);
+        }
+    }
+
+    private static NmsEngine newEngine(int capacity) {
+        NmsEngine engine = new NmsEngine(capacity, 0.7f);
+        for (int c = 0; c < NUM_CLASSES; c++) {
+            engine.setIouThreshold(c, IOU_THRESHOLDS[c]);
+        }
+        return engine;
+    }
+
+    private static NmsEngine fill(NmsEngine engine, Candidate[] candidates) {
+        engine.clear();
+        for (Candidate d : candidates) {
+            engine.add(d.classId, d.score, d.left, d.top, d.right, d.bottom);
+        }
+        return engine;
+    }
+
+    /**
+     * 기존 YoloImageProcessor.applyNMS: 신뢰도 정렬 후 같은 클래스끼리 O(n²) 비교
+     */
+    private static List<Candidate> legacyNms(Candidate[] candidates) {
+        List<Candidate> sorted = new ArrayList<>();
+        Collections.addAll(sorted, candidates);
+        Collections.sort(sorted, (d1, d2) -> Float.compare(d2.score, d1.score));
+
+        List<Candidate> selected = new ArrayList<>();
+        boolean[] isRemoved = new boolean[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            if (isRemoved[i]) continue;
+            Candidate current = sorted.get(i);
+            selected.add(current);
+            for (int j = i + 1; j < sorted.size(); j++) {
+                if (isRemoved[j]) continue;
+                Candidate next = sorted.get(j);
+                if (current.classId != next.classId) continue;
+                if (legacyIoU(current, next) > IOU_THRESHOLDS[current.classId]) {
+                    isRemoved[j] = true;
+                }
+            }
+        }
+        return selected;
+    }
+
+    private static float legacyIoU(Candidate d1, Candidate d2) {
+        float xLeft = Math.max(d1.left, d2.left);
+        float yTop = Math.max(d1.top, d2.top);
+        float xRight = Math.min(d1.right, d2.right);
+        float yBottom = Math.min(d1.bottom, d2.bottom);
+        if (xRight < xLeft || yBottom < yTop) return 0;
+        float intersectionArea = (xRight - xLeft) * (yBottom - yTop);
+        float d1Area = (d1.right - d1.left) * (d1.bottom - d1.top);
+        float d2Area = (d2.right - d2.left) * (d2.bottom - d2.top);
+        return intersectionArea / (d1Area + d2Area - intersectionArea);
+    }
+
+    /**
+     * 양자화 점수(k/255)와 640x640 안에 몰린 박스로 만든 합성 후보
+     */
+    private static Candidate[] generate(long seed, int size) {
+        Random random = new Random(seed);
+        Candidate[] candidates = new Candidate[size];
+        for (int i = 0; i < size; i++) {
+            float left = random.nextInt(600);
+            float top = random.nextInt(600);
+            float width = 10 + random.nextInt(120);
+            float height = 10 + random.nextInt(120);
+            candidates[i] = new Candidate(random.nextInt(NUM_CLASSES), (100 + random.nextInt(156)) / 255f,
+                    left, top, left + width, top + height);
+        }
+        return candidates;
+    }
+
+    private static class Candidate {
+        final int classId;
+        final float score;
+        final float left, top, right, bottom;
+
+        Candidate(int classId, float score, float left, float top, float right, float bottom) {
+            this.classId = classId;
+            this.score = score;
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+        }
+    }
+}
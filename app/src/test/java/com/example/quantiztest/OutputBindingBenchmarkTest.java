@@ -0,0 +1,114 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 출력 텐서를 다차원 배열로 받을 때와 flat direct 버퍼로 받을 때의 프레임당 복사 비용을 비교합니다.
+ * 데스크톱 JVM에는 TFLite 네이티브 런타임이 없으므로, 인터프리터의 출력 복사 방식을 그대로 흉내 냅니다.
+ * - 다차원 배열: 하위 배열을 재귀적으로 순회하며 가장 안쪽 배열마다 따로 복사
+ * - ByteBuffer: 텐서 메모리 전체를 한 번에 복사
+ */
+public class OutputBindingBenchmarkTest {
+    private static final int BENCH_FRAMES = 200;
+
+    private static final int[][] YOLO_SHAPES = {{1, 8400, 4}, {1, 8400}, {1, 8400}};
+    private static final int[][] FACE_SHAPES = {{1, 60, 80, 1}, {1, 60, 80, 4}, {1, 60, 80, 10}};
+
+    @Test
+    public void flatBufferOffsetsMatchNestedArrays() {
+        ByteBuffer tensor = randomTensor(new int[]{1, 60, 80, 4}, 3);
+        byte[][][][] nested = (byte[][][][]) Array.newInstance(byte.class, 1, 60, 80, 4);
+        copyNested(tensor, nested);
+        ByteBuffer flat = newBuffer(tensor.capacity());
+        copyFlat(tensor, flat);
+
+        for (int y = 0; y < 60; y++) {
+            for (int x = 0; x < 80; x++) {
+                for (int k = 0; k < 4; k++) {
+                    assertEquals(nested[0][y][x][k], flat.get((y * 80 + x) * 4 + k));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void benchmarkOutputCopy() {
+        report("YOLONas", YOLO_SHAPES);
+        report("얼굴", FACE_SHAPES);
+    }
+
+    private static void report(String name, int[][] shapes) {
+        Bench bench = Bench.start(name + " 출력 복사");
+        ByteBuffer[] tensors = new ByteBuffer[shapes.length];
+        Object[] nested = new Object[shapes.length];
+        ByteBuffer[] flat = new ByteBuffer[shapes.length];
+        for (int i = 0; i < shapes.length; i++) {
+            tensors[i] = randomTensor(shapes[i], i);
+            nested[i] = Array.newInstance(byte.class, shapes[i]);
+            flat[i] = newBuffer(tensors[i].capacity());
+        }
+
+        bench.measure("다차원 배열", BENCH_FRAMES, f -> {
+            for (int i = 0; i < shapes.length; i++) {
+                copyNested(tensors[i], nested[i]);
+            }
+            return 0;
+        }).measure("flat 버퍼", BENCH_FRAMES, f -> {
+            for (int i = 0; i < shapes.length; i++) {
+                copyFlat(tensors[i], flat[i]);
+            }
+            return 0;
+        }).print();
+    }
+
+    /**
+     * 다차원 배열 출력: 하위 배열을 하나씩 꺼내 가장 안쪽 byte[]마다 복사합니다.
+     */
+    private static void copyNested(ByteBuffer tensor, Object dst) {
+        tensor.clear();
+        copyNestedRecursive(tensor, dst);
+    }
+
+    private static void copyNestedRecursive(ByteBuffer tensor, Object dst) {
+        if (dst instanceof byte[]) {
+            tensor.get((byte[]) dst);
+            return;
+        }
+        int length = Array.getLength(dst);
+        for (int i = 0; i < length; i++) {
+            copyNestedRecursive(tensor, Array.get(dst, i));
+        }
+    }
+
+    /**
+     * ByteBuffer 출력: 인터프리터와 같이 텐서 전체를 한 번에 put 합니다.
+     */
+    private static void copyFlat(ByteBuffer tensor, ByteBuffer dst) {
+        tensor.clear();
+        dst.clear();
+        dst.put(tensor);
+    }
+
+    private static ByteBuffer randomTensor(int[] shape, long seed) {
+        int size = 1;
+        for (int dim : shape) {
+            size *= dim;
+        }
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        ByteBuffer tensor = newBuffer(size);
+        tensor.put(data).clear();
+        return tensor;
+    }
+
+    private static ByteBuffer newBuffer(int size) {
+        return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+    }
+}
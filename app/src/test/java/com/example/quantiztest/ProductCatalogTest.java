@@ -0,0 +1,79 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 상품 카탈로그가 클래스 인덱스 기준 배열로 올바르게 변환되는지 확인합니다.
+ */
+public class ProductCatalogTest {
+    private static final List<String> LABELS = Arrays.asList("person", "bicycle", "cup", "banana", "apple");
+
+    @Test
+    public void compilesCatalogToClassIndexArrays() throws IOException {
+        ProductCatalog catalog = ProductCatalog.parse(new StringReader(
+                "# 주석\n"
+                        + "person PERSON 0.5 0.65\n"
+                        + "cup PRODUCT 0.3 0.7\n"
+                        + "\n"
+                        + "banana\n"), LABELS);
+
+        assertTrue(catalog.isPerson(0));
+        assertFalse(catalog.isAllowed(1));
+        assertTrue(catalog.isProduct(2));
+        assertTrue(catalog.isProduct(3));
+        assertFalse(catalog.isAllowed(4));
+        assertFalse(catalog.isAllowed(-1));
+        assertFalse(catalog.isAllowed(80));
+
+        assertEquals(0.5f, catalog.getThreshold(0), 0f);
+        assertEquals(0.65f, catalog.getNmsIou(0), 0f);
+        assertEquals(ProductCatalog.DEFAULT_THRESHOLD, catalog.getThreshold(3), 0f);
+        assertEquals(ProductCatalog.DEFAULT_NMS_IOU, catalog.getNmsIou(3), 0f);
+        assertEquals(0.3f, catalog.getMinThreshold(), 0f);
+        assertEquals(0, catalog.getPersonClass());
+        assertEquals("cup", catalog.labelOf(catalog.classIndexOf("cup")));
+    }
+
+    @Test
+    public void unknownLabelsAreSkipped() throws IOException {
+        ProductCatalog catalog = ProductCatalog.parse(new StringReader("toaster PRODUCT 0.4 0.7\n"), LABELS);
+        for (int i = 0; i < LABELS.size(); i++) {
+            assertFalse(catalog.isAllowed(i));
+        }
+        assertEquals(-1, catalog.getPersonClass());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsInvalidThreshold() throws IOException {
+        ProductCatalog.parse(new StringReader("cup PRODUCT 1.5 0.7\n"), LABELS);
+    }
+
+    @Test
+    public void bundledCatalogMatchesPreviousHardcodedFilter() throws IOException {
+        List<String> labels = Files.readAllLines(Paths.get("src/main/assets/labels.txt"), StandardCharsets.UTF_8);
+        ProductCatalog bundled;
+        try (Reader reader = Files.newBufferedReader(Paths.get("src/main/assets/product_catalog.txt"), StandardCharsets.UTF_8)) {
+            bundled = ProductCatalog.parse(reader, labels);
+        }
+        ProductCatalog defaults = ProductCatalog.defaults(labels);
+
+        for (int i = 0; i < labels.size(); i++) {
+            String label = labels.get(i);
+            boolean legacy = label.equals("cup") || label.equals("person") || label.equals("banana") || label.equals("apple");
+            assertEquals(label, legacy, bundled.isAllowed(i));
+            assertEquals(label, legacy, defaults.isAllowed(i));
+        }
+        assertEquals(0.65f, bundled.getNmsIou(bundled.getPersonClass()), 0f);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 양자화 도메인 디코더가 기존 float 디코딩 루프와 같은 결과를 내는지 확인하고 속도를 비교합니다.
+ */
+public class QuantizedDecoderTest {
+    private static final int NUM_DETECTIONS = 8400;
+    private static final float THRESHOLD = 0.4f;
+    private static final int BENCH_FRAMES = 200;
+
+    // 실제 모델과 비슷한 양자화 파라미터
+    private static final float BOX_SCALE = 2.6f;
+    private static final int BOX_ZERO_POINT = 0;
+    private static final float SCORE_SCALE = 0.00392f;
+    private static final int SCORE_ZERO_POINT = 0;
+
+    @Test
+    public void thresholdKeyMatchesFloatComparison() {
+        float[] scales = {0.00392f, 0.004f, 0.01f, 0.0051f};
+        int[] zeroPoints = {0, 3, -5, 128};
+        float[] thresholds = {0f, 0.1f, 0.4f, 0.55f, 0.99f, 1.0f};
+        for (float scale : scales) {
+            for (int zeroPoint : zeroPoints) {
+                DequantTable table = new DequantTable(scale, zeroPoint, 1.0f);
+                for (float threshold : thresholds) {
+                    int key = table.thresholdKey(threshold);
+                    for (int q = 0; q < 256; q++) {
+                        float legacy = Math.min((q - zeroPoint) * scale, 1.0f);
+                        assertEquals("scale=" + scale + " zp=" + zeroPoint + " t=" + threshold + " q=" + q,
+                                legacy > threshold, q >= key);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void decodesSameCandidatesAsLegacyLoop() {
+        RecordedFrame frame = RecordedFrame.generate(7);
+        QuantizedDecoder decoder = newDecoder();
+
+        int[] indices = new int[NUM_DETECTIONS];
+        int count = decoder.selectCandidates(frame.scoreBuffer, NUM_DETECTIONS, indices);
+
+        float[] legacy = new float[NUM_DETECTIONS * 6];
+        int legacyCount = legacyDecode(frame, legacy);
+        assertEquals(legacyCount, count);
+
+        for (int c = 0; c < count; c++) {
+            int i = indices[c];
+            int o = c * 6;
+            assertEquals(i, (int) legacy[o]);
+            assertEquals(legacy[o + 1], decoder.score(frame.scoreBuffer.get(i)), 0f);
+            assertEquals((int) legacy[o + 2], decoder.classIndex(frame.classBuffer.get(i)));
+            for (int k = 0; k < 3; k++) {
+                assertEquals(legacy[o + 3 + k], decoder.box(frame.boxBuffer.get(i * 4 + k)), 0f);
+            }
+        }
+    }
+
+    @Test
+    public void benchmarkAgainstLegacyLoop() {
+        Bench bench = Bench.start("출력 디코딩");
+        RecordedFrame[] frames = new RecordedFrame[8];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = RecordedFrame.generate(100 + i);
+        }
+        QuantizedDecoder decoder = newDecoder();
+        int[] indices = new int[NUM_DETECTIONS];
+        float[] out = new float[NUM_DETECTIONS * 6];
+        float[] box = new float[4];
+
+        long sink = bench.measure("기존", BENCH_FRAMES, i -> legacyDecode(frames[i % frames.length], out))
+                .measure("양자화 도메인", BENCH_FRAMES,
+                        i -> decodeWithTables(decoder, frames[i % frames.length], indices, box))
+                .print();
+        assertTrue(sink > 0);
+    }
+
+    private static QuantizedDecoder newDecoder() {
+        return new QuantizedDecoder(
+                new DequantTable(BOX_SCALE, BOX_ZERO_POINT),
+                new DequantTable(SCORE_SCALE, SCORE_ZERO_POINT, 1.0f),
+                new DequantTable(1.0f, 0),
+                THRESHOLD);
+    }
+
+    private static int decodeWithTables(QuantizedDecoder decoder, RecordedFrame frame, int[] indices, float[] box) {
+        int count = decoder.selectCandidates(frame.scoreBuffer, NUM_DETECTIONS, indices);
+        for (int c = 0; c < count; c++) {
+            int i = indices[c];
+            float confidence = decoder.score(frame.scoreBuffer.get(i));
+            int classIndex = decoder.classIndex(frame.classBuffer.get(i));
+            int offset = i * 4;
+            box[0] = decoder.box(frame.boxBuffer.get(offset)) + confidence + classIndex;
+            box[1] = decoder.box(frame.boxBuffer.get(offset + 1));
+            box[2] = decoder.box(frame.boxBuffer.get(offset + 2));
+            box[3] = decoder.box(frame.boxBuffer.get(offset + 3));
+        }
+        return count;
+    }
+
+    /**
+     * 기존 processImage의 디코딩 루프: 모든 앵커를 float로 역양자화한 뒤 비교
+     * 결과는 [인덱스, 신뢰도, 클래스, x1, y1, x2] 순서로 기록합니다.
+     */
+    private static int legacyDecode(RecordedFrame frame, float[] out) {
+        int found = 0;
+        for (int i = 0; i < NUM_DETECTIONS; ++i) {
+            float confidence = ((frame.scores[i] & 0xFF) - SCORE_ZERO_POINT) * SCORE_SCALE;
+            confidence = Math.min(confidence, 1.0f);
+            if (confidence > THRESHOLD) {
+                int classIndex = (int) (((frame.classes[i] & 0xFF) - 0) * 1.0f);
+                float x1 = ((frame.boxes[i][0] & 0xFF) - BOX_ZERO_POINT) * BOX_SCALE;
+                float y1 = ((frame.boxes[i][1] & 0xFF) - BOX_ZERO_POINT) * BOX_SCALE;
+                float x2 = ((frame.boxes[i][2] & 0xFF) - BOX_ZERO_POINT) * BOX_SCALE;
+                int o = found * 6;
+                out[o] = i;
+                out[o + 1] = confidence;
+                out[o + 2] = classIndex;
+                out[o + 3] = x1;
+                out[o + 4] = y1;
+                out[o + 5] = x2;
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 녹화된 출력 텐서와 같은 분포의 합성 프레임 (대부분 낮은 점수, 일부 앵커만 높은 점수)
+     * 기존 루프용 배열과, 인터프리터가 채우는 것과 같은 flat direct 버퍼를 함께 가집니다.
+     */
+    static class RecordedFrame {
+        final byte[][] boxes = new byte[NUM_DETECTIONS][4];
+        final byte[] scores = new byte[NUM_DETECTIONS];
+        final byte[] classes = new byte[NUM_DETECTIONS];
+        final ByteBuffer boxBuffer = newBuffer(NUM_DETECTIONS * 4);
+        final ByteBuffer scoreBuffer = newBuffer(NUM_DETECTIONS);
+        final ByteBuffer classBuffer = newBuffer(NUM_DETECTIONS);
+
+        static RecordedFrame generate(long seed) {
+            Random random = new Random(seed);
+            RecordedFrame frame = new RecordedFrame();
+            for (int i = 0; i < NUM_DETECTIONS; i++) {
+                int score = random.nextInt(100) < 3 ? 80 + random.nextInt(176) : random.nextInt(60);
+                frame.scores[i] = (byte) score;
+                frame.classes[i] = (byte) random.nextInt(80);
+                random.nextBytes(frame.boxes[i]);
+                frame.boxBuffer.put(frame.boxes[i]);
+            }
+            frame.scoreBuffer.put(frame.scores).clear();
+            frame.classBuffer.put(frame.classes).clear();
+            frame.boxBuffer.clear();
+            return frame;
+        }
+
+        private static ByteBuffer newBuffer(int size) {
+            return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        }
+    }
+}
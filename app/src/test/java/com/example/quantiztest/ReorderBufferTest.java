@@ -0,0 +1,62 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 순서 없이 끝난 항목을 티켓 순서대로 내보내고, 버린 항목도 순서를 막지 않는지 확인합니다.
+ */
+public class ReorderBufferTest {
+
+    @Test
+    public void releasesItemsInTicketOrder() {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>(3);
+        List<String> out = new ArrayList<>();
+        ReorderBuffer.Sink<String> sink = (item, forward) -> out.add(forward ? item : "-" + item);
+
+        buffer.put(1, "b", true, sink);
+        buffer.put(2, "c", false, sink);
+        assertTrue(out.isEmpty());
+        assertEquals(2, buffer.getPendingCount());
+
+        buffer.put(0, "a", true, sink);
+        assertEquals(3, out.size());
+        assertEquals("a", out.get(0));
+        assertEquals("b", out.get(1));
+        assertEquals("-c", out.get(2));
+        assertEquals(3, buffer.getNextTicket());
+        assertEquals(0, buffer.getPendingCount());
+        assertEquals(3, buffer.getMaxPending());
+        assertEquals(2, buffer.getReorderedCount());
+
+        // 슬롯을 돌려 써도 순서 유지
+        buffer.put(4, "e", true, sink);
+        buffer.put(3, "d", true, sink);
+        assertEquals("d", out.get(3));
+        assertEquals("e", out.get(4));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsTicketBeyondCapacity() {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>(2);
+        buffer.put(2, "c", true, (item, forward) -> { });
+    }
+
+    @Test
+    public void drainReturnsPendingItemsAndResets() {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>(2);
+        List<String> out = new ArrayList<>();
+        buffer.put(1, "b", true, (item, forward) -> out.add(item));
+        buffer.drain((item, forward) -> {
+            assertFalse(forward);
+            out.add(item);
+        });
+        assertEquals(1, out.size());
+        assertEquals(0, buffer.getNextTicket());
+        assertEquals(0, buffer.getPendingCount());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ResizeTransformTest {
+
+    @Test
+    public void letterboxKeepsAspectRatioAndCentersContent() {
+        // 16:9 -> 640x640 : 640x360, 위아래 140씩 여백
+        ResizeTransform wide = new ResizeTransform(ResizeTransform.Mode.LETTERBOX, 1920, 1080, 640, 640);
+        assertEquals(640, wide.getContentWidth());
+        assertEquals(360, wide.getContentHeight());
+        assertEquals(0, wide.getPadX());
+        assertEquals(140, wide.getPadY());
+
+        // 4:3 세로 -> 640x640 : 480x640, 좌우 80씩 여백
+        ResizeTransform tall = new ResizeTransform(ResizeTransform.Mode.LETTERBOX, 1080, 1440, 640, 640);
+        assertEquals(480, tall.getContentWidth());
+        assertEquals(640, tall.getContentHeight());
+        assertEquals(80, tall.getPadX());
+        assertEquals(0, tall.getPadY());
+    }
+
+    @Test
+    public void inverseMapsModelBoxesBackExactly() {
+        ResizeTransform t = new ResizeTransform(ResizeTransform.Mode.LETTERBOX, 1920, 1080, 640, 640);
+        // 콘텐츠 영역의 모서리는 원본 프레임의 모서리로 돌아가야 함
+        assertEquals(0f, t.toSourceX(0), 1e-3f);
+        assertEquals(0f, t.toSourceY(140), 1e-3f);
+        assertEquals(1920f, t.toSourceX(640), 1e-3f);
+        assertEquals(1080f, t.toSourceY(500), 1e-3f);
+
+        // 왕복 변환
+        float[] xs = {0f, 13.5f, 777f, 1919f};
+        for (float x : xs) {
+            assertEquals(x, t.toSourceX(t.toModelX(x)), 1e-2f);
+            assertEquals(x * 0.5f, t.toSourceY(t.toModelY(x * 0.5f)), 1e-2f);
+        }
+    }
+
+    @Test
+    public void stretchMatchesLegacyMapping() {
+        ResizeTransform t = new ResizeTransform(ResizeTransform.Mode.STRETCH, 1280, 720, 640, 640);
+        float modelX = 321.7f;
+        float modelY = 100.25f;
+        // 기존 processImage: (x / INPUT_SIZE) * bitmap.getWidth()
+        assertEquals(modelX / 640 * 1280, t.toSourceX(modelX), 1e-3f);
+        assertEquals(modelY / 640 * 720, t.toSourceY(modelY), 1e-3f);
+    }
+
+    @Test
+    public void preprocessorFillsPaddingAndCachesTransform() {
+        int srcWidth = 8;
+        int srcHeight = 4;
+        int[] src = new int[srcWidth * srcHeight];
+        java.util.Arrays.fill(src, 0xFF0A0B0C);
+
+        ImagePreprocessor preprocessor = new ImagePreprocessor(8, 8, 3,
+                ImagePreprocessor.Interpolation.NEAREST, ResizeTransform.Mode.LETTERBOX, 114);
+        preprocessor.configure(srcWidth, srcHeight);
+        ResizeTransform transform = preprocessor.getTransform();
+        assertEquals(2, transform.getPadY());
+
+        ByteBuffer out = ByteBuffer.allocateDirect(8 * 8 * 3).order(ByteOrder.nativeOrder());
+        preprocessor.pack(src, srcWidth, out);
+        for (int y = 0; y < 8; y++) {
+            boolean content = y >= 2 && y < 6;
+            int r = out.get((y * 8) * 3) & 0xFF;
+            assertEquals("row " + y, content ? 0x0A : 114, r);
+        }
+
+        preprocessor.configure(srcWidth, srcHeight);
+        assertSame(transform, preprocessor.getTransform());
+    }
+
+    @Test
+    public void parsesCameraProfiles() throws IOException {
+        Map<String, CameraProfile> profiles = CameraProfile.parse(new StringReader(
+                "# comment\n0 LETTERBOX 114\n1 stretch\n"));
+        assertEquals(2, profiles.size());
+        assertEquals(ResizeTransform.Mode.LETTERBOX, profiles.get("0").getResizeMode());
+        assertEquals(114, profiles.get("0").getPadValue());
+        assertEquals(ResizeTransform.Mode.STRETCH, profiles.get("1").getResizeMode());
+    }
+}
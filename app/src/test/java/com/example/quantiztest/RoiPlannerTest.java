@@ -0,0 +1,139 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * ROI 계획기가 활성 추적 객체 주변만 잘라 추론하고, 필요할 때 전체 프레임으로 돌아가는지 확인합니다.
+ */
+public class RoiPlannerTest {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+    private static final int CUP = 41;
+
+    private final int[] rects = new int[PipelineFrame.MAX_PASSES * 4];
+
+    @Test
+    public void firstFrameAndEmptySceneUseFullFrame() {
+        RoiPlanner planner = new RoiPlanner();
+        assertEquals(1, planner.plan(WIDTH, HEIGHT, 0, rects));
+        assertTrue(planner.isLastPlanFullFrame());
+        assertArrayEquals(new int[]{0, 0, WIDTH, HEIGHT}, java.util.Arrays.copyOf(rects, 4));
+
+        // 추적 객체가 없으면 계속 전체 프레임
+        planner.updateTracks(new ArrayList<>());
+        planner.plan(WIDTH, HEIGHT, 100, rects);
+        assertTrue(planner.isLastPlanFullFrame());
+    }
+
+    @Test
+    public void singleShopperGetsOneSquareCrop() {
+        RoiPlanner planner = new RoiPlanner();
+        planner.plan(WIDTH, HEIGHT, 0, rects);
+        planner.updateTracks(tracks(new float[]{600, 300, 700, 400}));
+
+        assertEquals(1, planner.plan(WIDTH, HEIGHT, 100, rects));
+        assertFalse(planner.isLastPlanFullFrame());
+        // 100px 박스 + 사방 25% -> 150px이지만 최소 크롭 320px, 중심 유지
+        assertEquals(320, rects[2]);
+        assertEquals(320, rects[3]);
+        assertEquals(650 - 160, rects[0]);
+        assertEquals(350 - 160, rects[1]);
+
+        for (int i = 2; i < 10; i++) {
+            planner.plan(WIDTH, HEIGHT, i * 100L, rects);
+        }
+        assertTrue("픽셀 비율: " + planner.getPixelRatio(), planner.getPixelRatio() < 0.3f);
+    }
+
+    @Test
+    public void cropsArePushedInsideTheFrame() {
+        RoiPlanner planner = new RoiPlanner();
+        planner.plan(WIDTH, HEIGHT, 0, rects);
+        planner.updateTracks(tracks(new float[]{0, 650, 40, 720}));
+        planner.plan(WIDTH, HEIGHT, 100, rects);
+        assertEquals(0, rects[0]);
+        assertEquals(HEIGHT - 320, rects[1]);
+        assertEquals(320, rects[2]);
+        assertEquals(320, rects[3]);
+    }
+
+    @Test
+    public void overlappingCropsAreMergedAndCountIsCapped() {
+        RoiPlanner planner = new RoiPlanner(2, 0.25f, 100, 0.9f, 1000);
+        planner.plan(WIDTH, HEIGHT, 0, rects);
+
+        // 겹치는 두 객체 -> 하나
+        planner.updateTracks(tracks(new float[]{100, 100, 180, 180}, new float[]{150, 120, 230, 200}));
+        assertEquals(1, planner.plan(WIDTH, HEIGHT, 100, rects));
+
+        // 떨어진 세 객체 -> 최대 2개, 가까운 두 개가 합쳐짐
+        planner.updateTracks(tracks(
+                new float[]{50, 50, 100, 100}, new float[]{300, 50, 350, 100}, new float[]{1100, 600, 1150, 650}));
+        assertEquals(2, planner.plan(WIDTH, HEIGHT, 200, rects));
+        assertFalse(planner.isLastPlanFullFrame());
+        int small = rects[2] < rects[6] ? 0 : 4;
+        int merged = 4 - small;
+        assertTrue(rects[merged] <= 50 && rects[merged] + rects[merged + 2] >= 350);
+        assertTrue(rects[small] <= 1100 && rects[small] + rects[small + 2] >= 1150);
+    }
+
+    @Test
+    public void periodicFullFrameAndLargeCropsFallBack() {
+        RoiPlanner planner = new RoiPlanner(2, 0.25f, 320, 0.6f, 1000);
+        planner.plan(WIDTH, HEIGHT, 0, rects);
+        planner.updateTracks(tracks(new float[]{600, 300, 700, 400}));
+        planner.plan(WIDTH, HEIGHT, 500, rects);
+        assertFalse(planner.isLastPlanFullFrame());
+        planner.plan(WIDTH, HEIGHT, 1000, rects);
+        assertTrue("전체 프레임 주기", planner.isLastPlanFullFrame());
+
+        // 화면 대부분을 덮는 객체는 전체 프레임이 더 쌈
+        planner.updateTracks(tracks(new float[]{100, 0, 1100, 720}));
+        planner.plan(WIDTH, HEIGHT, 1100, rects);
+        assertTrue(planner.isLastPlanFullFrame());
+        assertEquals(3, planner.getFullFrames());
+    }
+
+    @Test
+    public void zoneIsIncludedOnlyWhenATrackTouchesIt() {
+        RoiPlanner planner = new RoiPlanner(2, 0.25f, 100, 0.9f, 10_000);
+        planner.addZone(0f, 0.7f, 1f, 0.85f);
+        planner.plan(WIDTH, HEIGHT, 0, rects);
+
+        planner.updateTracks(tracks(new float[]{100, 50, 150, 100}));
+        assertEquals(1, planner.plan(WIDTH, HEIGHT, 100, rects));
+        assertTrue(rects[3] < 200);
+
+        // 구역 근처 객체 -> 크롭이 구역 전체 폭으로 합쳐짐
+        planner.updateTracks(tracks(new float[]{600, 470, 650, 520}));
+        assertEquals(1, planner.plan(WIDTH, HEIGHT, 200, rects));
+        assertEquals(0, rects[0]);
+        assertEquals(WIDTH, rects[2]);
+        assertTrue(rects[1] + rects[3] >= Math.round(0.85f * HEIGHT));
+    }
+
+    @Test
+    public void cropTransformMapsBackToFrameCoordinates() {
+        ResizeTransform crop = new ResizeTransform(ResizeTransform.Mode.LETTERBOX, 320, 320, 640, 640)
+                .withOffset(490, 190);
+        assertEquals(490f, crop.toSourceX(0), 1e-3f);
+        assertEquals(190f + 160f, crop.toSourceY(320), 1e-3f);
+        assertEquals(320f, crop.toModelX(650), 1e-3f);
+    }
+
+    /**
+     * 상품 클래스 박스로 추적 객체 목록을 만듭니다.
+     */
+    private static List<SimpleTracker.TrackedObject> tracks(float[]... boxes) {
+        DetectionBatch batch = new DetectionBatch(boxes.length);
+        for (float[] box : boxes) {
+            batch.add(CUP, 0.9f, box[0], box[1], box[2], box[3]);
+        }
+        return new SimpleTracker(0).update(batch, null);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 추적기가 클래스 인덱스로 탐지 결과와 추적 객체를 연결하는지 확인합니다.
+ * (사람이 아닌 클래스만 사용하므로 색상 특징 추출용 비트맵은 필요 없음)
+ */
+public class SimpleTrackerTest {
+    private static final int PERSON = 0;
+    private static final int CUP = 41;
+    private static final int APPLE = 47;
+
+    @Test
+    public void keepsIdForSameClassAcrossFrames() {
+        SimpleTracker tracker = new SimpleTracker(PERSON);
+        List<SimpleTracker.TrackedObject> first = tracker.update(Arrays.asList(
+                new YoloImageProcessor.Detection(CUP, 0.9f, 100, 100, 150, 160)), null);
+        assertEquals(1, first.size());
+        int id = first.get(0).getId();
+
+        List<SimpleTracker.TrackedObject> second = tracker.update(Arrays.asList(
+                new YoloImageProcessor.Detection(CUP, 0.8f, 104, 102, 154, 162)), null);
+        assertEquals(1, second.size());
+        assertEquals(id, second.get(0).getId());
+        assertEquals(CUP, second.get(0).getClassId());
+        assertEquals(104f, second.get(0).getLeft(), 0f);
+    }
+
+    @Test
+    public void differentClassIsNotMatched() {
+        SimpleTracker tracker = new SimpleTracker(PERSON);
+        tracker.update(Arrays.asList(new YoloImageProcessor.Detection(CUP, 0.9f, 100, 100, 150, 160)), null);
+
+        List<SimpleTracker.TrackedObject> objects = tracker.update(Arrays.asList(
+                new YoloImageProcessor.Detection(APPLE, 0.9f, 300, 300, 350, 360)), null);
+        assertEquals(2, objects.size());
+        for (SimpleTracker.TrackedObject obj : objects) {
+            if (obj.getClassId() == CUP) {
+                assertTrue(obj.getAge() > 0);
+            } else {
+                assertEquals(APPLE, obj.getClassId());
+                assertEquals(0, obj.getAge());
+            }
+        }
+    }
+
+    @Test
+    public void batchUpdateMatchesListUpdate() {
+        SimpleTracker listTracker = new SimpleTracker(PERSON);
+        SimpleTracker batchTracker = new SimpleTracker(PERSON);
+        // 같은 배치 객체를 프레임마다 비우고 다시 채워 사용
+        DetectionBatch batch = new DetectionBatch(2);
+        for (int frame = 0; frame < 3; frame++) {
+            List<YoloImageProcessor.Detection> detections = Arrays.asList(
+                    new YoloImageProcessor.Detection(CUP, 0.9f - frame * 0.1f, 100 + frame * 3, 100, 150 + frame * 3, 160),
+                    new YoloImageProcessor.Detection(APPLE, 0.8f, 300, 300 + frame * 2, 350, 360 + frame * 2));
+            batch.clear();
+            batch.addAll(detections);
+
+            List<SimpleTracker.TrackedObject> expected = listTracker.update(detections, null);
+            List<SimpleTracker.TrackedObject> actual = batchTracker.update(batch, null);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getId(), actual.get(i).getId());
+                assertEquals(expected.get(i).getAge(), actual.get(i).getAge());
+                assertEquals(expected.get(i).getLeft(), actual.get(i).getLeft(), 0f);
+                assertEquals(expected.get(i).getConfidence(), actual.get(i).getConfidence(), 0f);
+            }
+        }
+    }
+
+    @Test
+    public void propagateMovesBoxesWithoutAgingOrChangingVelocity() {
+        SimpleTracker tracker = new SimpleTracker(PERSON);
+        tracker.update(Arrays.asList(new YoloImageProcessor.Detection(CUP, 0.9f, 100, 100, 150, 160)), null);
+        SimpleTracker.TrackedObject obj = tracker.update(Arrays.asList(
+                new YoloImageProcessor.Detection(CUP, 0.9f, 108, 100, 158, 160)), null).get(0);
+        float velocityX = obj.getVelocityX();
+        int age = obj.getAge();
+        assertTrue(velocityX > 0);
+
+        // 탐지 간격 N=4: 사이 프레임 3개 동안 속도의 1/4씩 이동
+        for (int i = 1; i <= 3; i++) {
+            List<SimpleTracker.TrackedObject> objects = tracker.propagate(0.25f);
+            assertEquals(1, objects.size());
+            assertEquals(108f + velocityX * 0.25f * i, objects.get(0).getLeft(), 1e-3f);
+            assertEquals(age, objects.get(0).getAge());
+            assertEquals(velocityX, objects.get(0).getVelocityX(), 0f);
+        }
+
+        // 다음 탐지는 같은 ID로 이어지고, 속도는 전파 위치가 아닌 마지막 탐지 위치 기준으로 계산
+        SimpleTracker.TrackedObject updated = tracker.update(Arrays.asList(
+                new YoloImageProcessor.Detection(CUP, 0.9f, 116, 100, 166, 160)), null).get(0);
+        assertEquals(obj.getId(), updated.getId());
+        assertEquals(116f, updated.getLeft(), 0f);
+        // 이동 평균(가중치 0.7): 탐지 위치 108 -> 116
+        assertEquals(0.7f * 8 + 0.3f * velocityX, updated.getVelocityX(), 1e-3f);
+    }
+
+    @Test
+    public void lostTrackIsRemovedByElapsedTimeNotFrameCount() {
+        long ms = 1_000_000L;
+        DetectionBatch cup = new DetectionBatch(1);
+        cup.add(CUP, 0.9f, 100, 100, 150, 160);
+        DetectionBatch empty = new DetectionBatch(1);
+
+        // 30fps로 MAX_AGE 동안 20프레임 넘게 놓쳐도 유지
+        SimpleTracker fast = new SimpleTracker(PERSON);
+        fast.update(cup, null, 0);
+        for (long t = 33; t <= 990; t += 33) {
+            assertEquals(1, fast.update(empty, null, t * ms).size());
+        }
+        assertEquals(0, fast.update(empty, null, 1100 * ms).size());
+
+        // 2fps면 두 프레임만 놓쳐도 MAX_AGE가 지나 제거
+        SimpleTracker slow = new SimpleTracker(PERSON);
+        slow.update(cup, null, 0);
+        assertEquals(1, slow.update(empty, null, 500 * ms).size());
+        assertEquals(1, slow.update(empty, null, SimpleTracker.MAX_AGE_NANOS).size());
+        assertEquals(0, slow.update(empty, null, 1500 * ms).size());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * SpscQueue의 버림 정책과 단일 생산자/단일 소비자 동시 사용 시 순서/집계를 확인합니다.
+ */
+public class SpscQueueTest {
+    private static final int STRESS_ITEMS = 200_000;
+
+    @Test
+    public void dropOldestKeepsNewestItems() {
+        SpscQueue<Integer> queue = new SpscQueue<>(2, SpscQueue.DropPolicy.DROP_OLDEST);
+        List<Integer> dropped = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(queue.offer(i, dropped::add));
+        }
+        assertEquals(2, queue.size());
+        assertEquals(Integer.valueOf(3), queue.poll());
+        assertEquals(Integer.valueOf(4), queue.poll());
+        assertNull(queue.poll());
+
+        assertEquals(3, queue.getDroppedCount());
+        assertEquals(5, queue.getOfferedCount());
+        assertEquals(2, queue.getMaxDepth());
+        assertEquals(3, dropped.size());
+        assertEquals(Integer.valueOf(0), dropped.get(0));
+    }
+
+    @Test
+    public void dropNewestRejectsIncomingItem() {
+        SpscQueue<Integer> queue = new SpscQueue<>(2, SpscQueue.DropPolicy.DROP_NEWEST);
+        List<Integer> dropped = new ArrayList<>();
+        assertTrue(queue.offer(0, dropped::add));
+        assertTrue(queue.offer(1, dropped::add));
+        assertFalse(queue.offer(2, dropped::add));
+
+        assertEquals(Integer.valueOf(0), queue.poll());
+        assertEquals(Integer.valueOf(1), queue.poll());
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(Integer.valueOf(2), dropped.get(0));
+    }
+
+    @Test
+    public void timedPollReturnsNullWhenEmpty() {
+        SpscQueue<Integer> queue = new SpscQueue<>(1, SpscQueue.DropPolicy.DROP_OLDEST);
+        assertNull(queue.poll(10));
+        queue.offer(7, null);
+        assertEquals(Integer.valueOf(7), queue.poll(10));
+    }
+
+    @Test
+    public void concurrentProducerAndConsumerLoseNothingButDrops() throws Exception {
+        final SpscQueue<Integer> queue = new SpscQueue<>(4, SpscQueue.DropPolicy.DROP_OLDEST);
+        final long[] droppedByListener = new long[1];
+        final long[] consumed = new long[1];
+        final int[] lastSeen = {-1};
+        final boolean[] outOfOrder = new boolean[1];
+        final boolean[] producerDone = new boolean[1];
+
+        Thread consumer = new Thread(() -> {
+            while (true) {
+                Integer item = queue.poll(5);
+                if (item == null) {
+                    synchronized (producerDone) {
+                        if (producerDone[0] && queue.size() == 0) {
+                            return;
+                        }
+                    }
+                    continue;
+                }
+                if (item <= lastSeen[0]) {
+                    outOfOrder[0] = true;
+                }
+                lastSeen[0] = item;
+                consumed[0]++;
+            }
+        });
+        consumer.start();
+        for (int i = 0; i < STRESS_ITEMS; i++) {
+            queue.offer(i, item -> droppedByListener[0]++);
+        }
+        synchronized (producerDone) {
+            producerDone[0] = true;
+        }
+        consumer.join(10_000);
+
+        assertFalse(consumer.isAlive());
+        assertFalse("소비 순서가 뒤바뀜", outOfOrder[0]);
+        assertEquals(queue.getDroppedCount(), droppedByListener[0]);
+        assertEquals(STRESS_ITEMS, consumed[0] + droppedByListener[0]);
+        assertEquals(STRESS_ITEMS - 1, lastSeen[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroCapacity() {
+        new SpscQueue<Integer>(0, SpscQueue.DropPolicy.DROP_OLDEST);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 타일 배치가 프레임을 겹치게 덮고, 예산이 부족하면 프레임마다 돌아가며 처리되는지 확인합니다.
+ */
+public class TileSchedulerTest {
+    private final int[] rects = new int[PipelineFrame.MAX_PASSES * 4];
+    private final int[] tiles = new int[PipelineFrame.MAX_PASSES];
+
+    @Test
+    public void tilesCoverFrameWithOverlap() {
+        TileScheduler scheduler = new TileScheduler(640, 64, 4);
+        scheduler.plan(1280, 720, rects, tiles);
+        // 전체 프레임 + 3x2 격자
+        assertEquals(7, scheduler.getTileCount());
+        assertArrayEquals(new int[]{0, 0, 1280, 720}, scheduler.getTile(TileScheduler.FULL_FRAME_TILE));
+        assertArrayEquals(new int[]{0, 0, 640, 640}, scheduler.getTile(1));
+        assertArrayEquals(new int[]{320, 0, 640, 640}, scheduler.getTile(2));
+        assertArrayEquals(new int[]{640, 80, 640, 640}, scheduler.getTile(6));
+
+        // 모든 픽셀이 어떤 격자 타일엔가 포함되고, 이웃 타일은 overlap 이상 겹침
+        for (int t = 1; t < 6; t++) {
+            int[] a = scheduler.getTile(t);
+            int[] b = scheduler.getTile(t + 1);
+            if (a[1] == b[1]) {
+                assertTrue(a[0] + a[2] - b[0] >= 64);
+            }
+        }
+        int[] last = scheduler.getTile(6);
+        assertEquals(1280, last[0] + last[2]);
+        assertEquals(720, last[1] + last[3]);
+    }
+
+    @Test
+    public void roundRobinVisitsEveryTileOncePerCycle() {
+        TileScheduler scheduler = new TileScheduler(640, 64, 3);
+        boolean[] seen = new boolean[7];
+        for (int frame = 0; frame < 3; frame++) {
+            int count = scheduler.plan(1280, 720, rects, tiles);
+            assertTrue(count <= 3);
+            for (int i = 0; i < count; i++) {
+                seen[tiles[i]] = true;
+                assertArrayEquals(scheduler.getTile(tiles[i]), java.util.Arrays.copyOfRange(rects, i * 4, i * 4 + 4));
+            }
+        }
+        for (boolean s : seen) {
+            assertTrue(s);
+        }
+        assertEquals(3, scheduler.getCycleFrames());
+    }
+
+    @Test
+    public void staleTileResultsExpireAfterOneCycle() {
+        TileScheduler scheduler = new TileScheduler(640, 64, 4);
+        scheduler.plan(1280, 720, rects, tiles);
+        assertEquals(2, scheduler.getCycleFrames());
+
+        DetectionBatch cup = new DetectionBatch(1);
+        cup.add(41, 0.9f, 10, 10, 20, 20);
+        DetectionBatch[] out = new DetectionBatch[7];
+        scheduler.storeTile(1, cup);
+        assertEquals(1, scheduler.collectFresh(out));
+        assertEquals(1, out[0].size());
+
+        // 다음 프레임까지는 재사용, 그 다음에는 만료
+        assertEquals(1, scheduler.collectFresh(out));
+        assertEquals(0, scheduler.collectFresh(out));
+    }
+
+    @Test
+    public void smallFrameUsesOnlyTheFullFrame() {
+        TileScheduler scheduler = new TileScheduler(640, 64, 2);
+        assertEquals(1, scheduler.plan(640, 480, rects, tiles));
+        assertEquals(TileScheduler.FULL_FRAME_TILE, tiles[0]);
+        assertEquals(1, scheduler.getTileCount());
+    }
+
+    @Test
+    public void profileCarriesTileLayout() throws IOException {
+        Map<String, CameraProfile> profiles = CameraProfile.parse(new StringReader(
+                "0 LETTERBOX 114\n1 LETTERBOX 114 640 32 3\n"));
+        assertFalse(profiles.get("0").isTilingEnabled());
+        assertNull(TileScheduler.fromProfile(profiles.get("0")));
+        CameraProfile tiled = profiles.get("1");
+        assertTrue(tiled.isTilingEnabled());
+        assertEquals(640, tiled.getTileSize());
+        assertEquals(32, tiled.getTileOverlap());
+        assertEquals(3, tiled.getTilesPerFrame());
+        assertEquals(3, TileScheduler.fromProfile(tiled).getTilesPerFrame());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOverlapLargerThanTile() throws IOException {
+        CameraProfile.parse(new StringReader("0 LETTERBOX 114 640 640 2\n"));
+    }
+}
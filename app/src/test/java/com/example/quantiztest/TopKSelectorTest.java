@@ -0,0 +1,66 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 상위 K개 선택이 전체 정렬 결과와 같은지, 상한 통계가 올바른지 확인합니다.
+ */
+public class TopKSelectorTest {
+
+    @Test
+    public void keepsHighestScoresInDescendingOrder() {
+        Random random = new Random(3);
+        TopKSelector selector = new TopKSelector(100);
+        int[] outIndices = new int[100];
+        float[] outScores = new float[100];
+
+        for (int count : new int[]{0, 5, 100, 101, 2000}) {
+            Integer[] order = new Integer[count];
+            float[] scores = new float[count];
+            selector.reset();
+            for (int i = 0; i < count; i++) {
+                scores[i] = random.nextFloat();
+                order[i] = i;
+                selector.offer(i, scores[i]);
+            }
+            int kept = selector.finish(outIndices, outScores);
+
+            Arrays.sort(order, Comparator.comparingDouble(i -> -scores[i]));
+            assertEquals(Math.min(count, 100), kept);
+            for (int k = 0; k < kept; k++) {
+                assertEquals(scores[order[k]], outScores[k], 0f);
+                assertEquals(scores[outIndices[k]], outScores[k], 0f);
+            }
+        }
+    }
+
+    @Test
+    public void countsFramesWhereCapTriggers() {
+        TopKSelector selector = new TopKSelector(3);
+        int[] out = new int[3];
+
+        selector.reset();
+        selector.offer(0, 0.5f);
+        selector.offer(1, 0.6f);
+        selector.finish(out, null);
+        assertEquals(0, selector.getDroppedInLastFrame());
+
+        selector.reset();
+        for (int i = 0; i < 5; i++) {
+            selector.offer(i, i * 0.1f);
+        }
+        assertEquals(3, selector.finish(out, null));
+        assertArrayEquals(new int[]{4, 3, 2}, out);
+        assertEquals(2, selector.getDroppedInLastFrame());
+
+        assertEquals(2, selector.getFrameCount());
+        assertEquals(1, selector.getCappedFrameCount());
+        assertEquals(2, selector.getDroppedCount());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * TrackEventState가 사라진 객체의 선 통과 기록만 지우고, 사람 등장/사라짐을 프레임 수가 아닌 시간으로 판정하는지 확인합니다.
+ */
+public class TrackEventStateTest {
+
+    @Test
+    public void retainObjectsDropsOnlyLineStateOfLostTracks() {
+        TrackEventState state = new TrackEventState();
+        state.getLastEventTime().put(1, 100L);
+        state.getLastEventTime().put(2, 200L);
+        state.getPreviousCenterX().put(2, 10f);
+        state.getPreviousCenterY().put(2, 20f);
+        state.getPreviousDistanceToLine().put(2, 5f);
+        state.getWasAboveLine().put(2, true);
+        state.getPersonLastSeenNanos().put(2, 3L);
+
+        state.retainObjects(new HashSet<>(Arrays.asList(1, 3)));
+        assertEquals("[1]", state.getLastEventTime().keySet().toString());
+        assertTrue(state.getPreviousCenterX().isEmpty());
+        assertTrue(state.getPreviousCenterY().isEmpty());
+        assertTrue(state.getPreviousDistanceToLine().isEmpty());
+        // 선 위/아래 여부와 사람 마지막 탐지 시각은 이벤트 단계가 관리
+        assertEquals(Boolean.TRUE, state.getWasAboveLine().get(2));
+        assertEquals(Long.valueOf(3), state.getPersonLastSeenNanos().get(2));
+
+        state.clear();
+        assertTrue(state.getWasAboveLine().isEmpty());
+        assertTrue(state.getPersonLastSeenNanos().isEmpty());
+        assertTrue(state.getLastEventTime().isEmpty());
+    }
+
+    @Test
+    public void personEventsFollowCaptureTimeNotFrameCount() {
+        long ms = 1_000_000L;
+        // 30fps로 1초 미만 동안 탐지된 사람은 프레임이 많아도 아직 등장이 아님
+        TrackEventState fast = new TrackEventState();
+        Set<Integer> appeared = new HashSet<>();
+        Set<Integer> disappeared = new HashSet<>();
+        for (long t = 0; t < 1000; t += 33) {
+            fast.updatePersons(Collections.singleton(7), t * ms, 1000, 1000, appeared, disappeared);
+        }
+        assertTrue(appeared.isEmpty());
+        fast.updatePersons(Collections.singleton(7), 1000 * ms, 1000, 1000, appeared, disappeared);
+        assertEquals("[7]", appeared.toString());
+
+        // 2fps면 세 프레임 만에 1초가 지나 등장, 두 프레임(1초) 동안 안 보이면 사라짐
+        TrackEventState slow = new TrackEventState();
+        appeared.clear();
+        for (long t = 0; t <= 1000; t += 500) {
+            slow.updatePersons(Collections.singleton(7), t * ms, 1000, 1000, appeared, disappeared);
+        }
+        assertEquals("[7]", appeared.toString());
+        slow.updatePersons(Collections.<Integer>emptySet(), 1500 * ms, 1000, 1000, appeared, disappeared);
+        assertTrue(disappeared.isEmpty());
+        slow.updatePersons(Collections.<Integer>emptySet(), 2000 * ms, 1000, 1000, appeared, disappeared);
+        assertEquals("[7]", disappeared.toString());
+        assertTrue(slow.getPersonLastSeenNanos().isEmpty());
+    }
+
+    @Test
+    public void gapRestartsAppearance() {
+        long ms = 1_000_000L;
+        TrackEventState state = new TrackEventState();
+        Set<Integer> appeared = new HashSet<>();
+        Set<Integer> disappeared = new HashSet<>();
+        state.updatePersons(Collections.singleton(3), 0, 1000, 1000, appeared, disappeared);
+        state.updatePersons(Collections.<Integer>emptySet(), 500 * ms, 1000, 1000, appeared, disappeared);
+        state.updatePersons(Collections.singleton(3), 1000 * ms, 1000, 1000, appeared, disappeared);
+        assertTrue(appeared.isEmpty());
+        assertEquals(Long.valueOf(1000 * ms), state.getPersonFirstSeenNanos().get(3));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+import org.tensorflow.lite.DataType;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 실제 후처리 경로(후보 선별 -> 카탈로그 필터 -> 상위 K -> 좌표 변환 -> NMS)가 양자화 출력에서 기대한 탐지를 내는지 확인합니다.
+ */
+public class YoloImageProcessorTest {
+    private static final List<String> LABELS = Arrays.asList("person", "bicycle", "cup");
+    static final int PERSON = 0;
+    private static final int BICYCLE = 1;
+    static final int CUP = 2;
+
+    // 실제 모델과 비슷한 양자화 파라미터 (박스는 모델 입력 픽셀 좌표)
+    private static final float BOX_SCALE = 2.6f;
+    private static final float SCORE_SCALE = 0.004f;
+
+    @Test
+    public void postprocessFiltersMapsAndSuppresses() throws Exception {
+        YoloImageProcessor processor = newProcessor();
+        FrameContext ctx = processor.createFrameContext();
+        // 사람 두 개는 크게 겹쳐 NMS에서 하나만 남고, 임계값 미만 컵과 추적 대상이 아닌 자전거는 제외
+        setAnchor(ctx, 10, PERSON, 200, 10, 10, 20, 20);
+        setAnchor(ctx, 11, PERSON, 150, 11, 11, 21, 21);
+        setAnchor(ctx, 20, CUP, 110, 50, 50, 60, 60);
+        setAnchor(ctx, 30, BICYCLE, 250, 70, 70, 90, 90);
+        setAnchor(ctx, 40, CUP, 150, 100, 100, 120, 130);
+
+        // 1280x720 -> 640x640 늘리기: x는 2배, y는 1.125배
+        ResizeTransform transform = new ResizeTransform(ResizeTransform.Mode.STRETCH, 1280, 720, 640, 640);
+        DetectionBatch out = new DetectionBatch(YoloImageProcessor.DEFAULT_TOP_K);
+        processor.postprocess(ctx, transform, out);
+
+        assertEquals(2, out.size());
+        assertDetection(out, 0, PERSON, 0.8f, 10, 10, 20, 20);
+        assertDetection(out, 1, CUP, 0.6f, 100, 100, 120, 130);
+
+        // 작업 배열을 재사용해도 같은 프레임은 같은 결과
+        processor.postprocess(ctx, transform, out);
+        assertEquals(2, out.size());
+        assertDetection(out, 0, PERSON, 0.8f, 10, 10, 20, 20);
+    }
+
+    @Test
+    public void topKLimitsCandidatesBeforeNms() throws Exception {
+        YoloImageProcessor processor = newProcessor();
+        processor.setTopK(1);
+        FrameContext ctx = processor.createFrameContext();
+        setAnchor(ctx, 5, CUP, 150, 100, 100, 120, 130);
+        setAnchor(ctx, 6, PERSON, 200, 10, 10, 20, 20);
+
+        ResizeTransform transform = new ResizeTransform(ResizeTransform.Mode.STRETCH, 1280, 720, 640, 640);
+        DetectionBatch out = new DetectionBatch(YoloImageProcessor.DEFAULT_TOP_K);
+        processor.postprocess(ctx, transform, out);
+
+        assertEquals(1, out.size());
+        assertEquals(PERSON, out.getClassId(0));
+        assertEquals(1, processor.getTopKSelector().getDroppedInLastFrame());
+    }
+
+    static YoloImageProcessor newProcessor() throws Exception {
+        ProductCatalog catalog = ProductCatalog.parse(
+                new StringReader("person PERSON 0.4 0.65\ncup PRODUCT 0.5 0.7"), LABELS);
+        TensorSpec input = new TensorSpec(0, DataType.UINT8, new int[]{1, 640, 640, 3}, 1f / 255, 0);
+        TensorSpec[] outputs = {
+                new TensorSpec(0, DataType.UINT8, new int[]{1, 8400, 4}, BOX_SCALE, 0),
+                new TensorSpec(1, DataType.UINT8, new int[]{1, 8400}, SCORE_SCALE, 0),
+                new TensorSpec(2, DataType.UINT8, new int[]{1, 8400}, 1.0f, 0)
+        };
+        ModelBinding binding = new ModelBinding(YoloImageProcessor.SIGNATURE, input, outputs);
+        return new YoloImageProcessor(null, binding, catalog);
+    }
+
+    /**
+     * 앵커 하나의 양자화 출력을 기록합니다. (박스는 양자화 값, 점수는 q * SCORE_SCALE)
+     */
+    static void setAnchor(FrameContext ctx, int anchor, int classIndex, int score,
+                          int x1, int y1, int x2, int y2) {
+        ByteBuffer boxes = ctx.getOutput(0);
+        boxes.put(anchor * 4, (byte) x1);
+        boxes.put(anchor * 4 + 1, (byte) y1);
+        boxes.put(anchor * 4 + 2, (byte) x2);
+        boxes.put(anchor * 4 + 3, (byte) y2);
+        ctx.getOutput(1).put(anchor, (byte) score);
+        ctx.getOutput(2).put(anchor, (byte) classIndex);
+    }
+
+    private static void assertDetection(DetectionBatch out, int i, int classId, float score,
+                                        int x1, int y1, int x2, int y2) {
+        assertEquals(classId, out.getClassId(i));
+        assertEquals(score, out.getScore(i), 1e-4f);
+        assertEquals(x1 * BOX_SCALE * 2f, out.getLeft(i), 1e-3f);
+        assertEquals(y1 * BOX_SCALE * 1.125f, out.getTop(i), 1e-3f);
+        assertEquals(x2 * BOX_SCALE * 2f, out.getRight(i), 1e-3f);
+        assertEquals(y2 * BOX_SCALE * 1.125f, out.getBottom(i), 1e-3f);
+    }
+}
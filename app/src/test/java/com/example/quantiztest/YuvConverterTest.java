@@ -0,0 +1,174 @@
+package com.example.quantiztest;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * YUV -> 모델 입력 직접 변환이 기존 경로(ARGB 비트맵 -> ImagePreprocessor)와 같은 결과를 내는지 확인합니다.
+ */
+public class YuvConverterTest {
+    private static final int BENCHMARK_ITERATIONS = 20;
+
+    @Test
+    public void directPackMatchesArgbPath() {
+        for (int pixelStride = 1; pixelStride <= 2; pixelStride++) {
+            for (int rotation = 0; rotation < 360; rotation += 90) {
+                YuvFrame frame = syntheticFrame(96, 64, 8, pixelStride, rotation, 7);
+                assertPackMatches(frame, ResizeTransform.Mode.STRETCH);
+                assertPackMatches(frame, ResizeTransform.Mode.LETTERBOX);
+            }
+        }
+    }
+
+    @Test
+    public void cropPackMatchesCroppedArgb() {
+        for (int rotation = 0; rotation < 360; rotation += 90) {
+            YuvFrame frame = syntheticFrame(96, 64, 4, 2, rotation, 9);
+            int width = frame.getUprightWidth();
+            int height = frame.getUprightHeight();
+            int[] argb = new int[width * height];
+            YuvConverter.forDisplay().toArgb(frame, argb);
+
+            int cropX = 10;
+            int cropY = 6;
+            int cropWidth = 30;
+            int cropHeight = 22;
+            int[] cropped = new int[cropWidth * cropHeight];
+            for (int y = 0; y < cropHeight; y++) {
+                System.arraycopy(argb, (cropY + y) * width + cropX, cropped, y * cropWidth, cropWidth);
+            }
+            ImagePreprocessor preprocessor = new ImagePreprocessor(40, 40, 3,
+                    ImagePreprocessor.Interpolation.NEAREST, ResizeTransform.Mode.LETTERBOX, 114);
+            preprocessor.configure(cropWidth, cropHeight);
+            ByteBuffer expected = ByteBuffer.allocateDirect(40 * 40 * 3);
+            preprocessor.pack(cropped, cropWidth, expected);
+
+            YuvConverter converter = new YuvConverter(40, 40, 3, ResizeTransform.Mode.LETTERBOX, 114,
+                    ImagePreprocessor.Encoding.UINT8);
+            ByteBuffer actual = ByteBuffer.allocateDirect(40 * 40 * 3);
+            converter.pack(frame, cropX, cropY, cropWidth, cropHeight, actual);
+            for (int i = 0; i < expected.capacity(); i++) {
+                assertEquals("rotation " + rotation + " @" + i, expected.get(i), actual.get(i));
+            }
+            assertEquals(cropX, converter.getTransform().toSourceX(converter.getTransform().getPadX()), 1e-3f);
+        }
+    }
+
+    @Test
+    public void grayscalePackUsesLuma() {
+        YuvFrame frame = syntheticFrame(64, 48, 0, 2, 0, 3);
+        YuvConverter converter = new YuvConverter(64, 48, 1, ResizeTransform.Mode.STRETCH, 0,
+                ImagePreprocessor.Encoding.UINT8);
+        ByteBuffer dst = ByteBuffer.allocateDirect(64 * 48);
+        converter.pack(frame, dst);
+        for (int y = 0; y < 48; y++) {
+            for (int x = 0; x < 64; x++) {
+                assertEquals(frame.getY()[y * frame.getYRowStride() + x], dst.get(y * 64 + x));
+            }
+        }
+    }
+
+    @Test
+    public void rotationMovesPixelsClockwise() {
+        // 4x2 센서 영상의 좌상단 픽셀만 밝게: 90도 회전 후에는 2x4 영상의 우상단에 있어야 함
+        YuvFrame frame = syntheticFrame(4, 2, 0, 1, 90, 0);
+        java.util.Arrays.fill(frame.getY(), (byte) 0);
+        frame.getY()[0] = (byte) 255;
+        java.util.Arrays.fill(frame.getU(), (byte) 128);
+        java.util.Arrays.fill(frame.getV(), (byte) 128);
+
+        int[] argb = new int[8];
+        YuvConverter.forDisplay().toArgb(frame, argb);
+        assertEquals(2, frame.getUprightWidth());
+        assertEquals(0xFFFFFFFF, argb[1]);
+        for (int i = 0; i < argb.length; i++) {
+            if (i != 1) {
+                assertEquals(0xFF000000, argb[i]);
+            }
+        }
+    }
+
+    @Test
+    public void neutralChromaGivesGray() {
+        YuvFrame frame = syntheticFrame(8, 8, 0, 1, 0, 0);
+        java.util.Arrays.fill(frame.getY(), (byte) 128);
+        java.util.Arrays.fill(frame.getU(), (byte) 128);
+        java.util.Arrays.fill(frame.getV(), (byte) 128);
+        int[] argb = new int[64];
+        YuvConverter.forDisplay().toArgb(frame, argb);
+        for (int pixel : argb) {
+            assertEquals(0xFF808080, pixel);
+        }
+    }
+
+    @Test
+    public void benchmarkDirectVersusArgbPath() {
+        Bench bench = Bench.start("YUV 1280x720 -> 640x640");
+        YuvFrame frame = syntheticFrame(1280, 720, 0, 2, 90, 11);
+        ByteBuffer dst = ByteBuffer.allocateDirect(640 * 640 * 3);
+        YuvConverter direct = new YuvConverter(640, 640, 3, ResizeTransform.Mode.LETTERBOX, 114,
+                ImagePreprocessor.Encoding.UINT8);
+        YuvConverter display = YuvConverter.forDisplay();
+        ImagePreprocessor preprocessor = new ImagePreprocessor(640, 640, 3,
+                ImagePreprocessor.Interpolation.NEAREST, ResizeTransform.Mode.LETTERBOX, 114);
+        preprocessor.configure(720, 1280);
+        int[] argb = new int[1280 * 720];
+
+        bench.measure("직접", BENCHMARK_ITERATIONS, i -> {
+            direct.pack(frame, dst);
+            return dst.get(0);
+        }).measure("ARGB 경유", BENCHMARK_ITERATIONS, i -> {
+            display.toArgb(frame, argb);
+            preprocessor.pack(argb, 720, dst);
+            return dst.get(0);
+        }).print();
+    }
+
+    private static void assertPackMatches(YuvFrame frame, ResizeTransform.Mode mode) {
+        int width = frame.getUprightWidth();
+        int height = frame.getUprightHeight();
+        int[] argb = new int[width * height];
+        YuvConverter.forDisplay().toArgb(frame, argb);
+
+        ImagePreprocessor preprocessor = new ImagePreprocessor(40, 40, 3,
+                ImagePreprocessor.Interpolation.NEAREST, mode, 114);
+        preprocessor.configure(width, height);
+        ByteBuffer expected = ByteBuffer.allocateDirect(40 * 40 * 3);
+        preprocessor.pack(argb, width, expected);
+
+        YuvConverter converter = new YuvConverter(40, 40, 3, mode, 114, ImagePreprocessor.Encoding.UINT8);
+        ByteBuffer actual = ByteBuffer.allocateDirect(40 * 40 * 3);
+        converter.pack(frame, actual);
+
+        String message = "rotation " + frame.getRotationDegrees() + ", pixelStride " + frame.getUvPixelStride()
+                + ", " + mode;
+        for (int i = 0; i < expected.capacity(); i++) {
+            assertEquals(message + " @" + i, expected.get(i), actual.get(i));
+        }
+        assertEquals(preprocessor.getTransform().getPadX(), converter.getTransform().getPadX());
+        assertEquals(preprocessor.getTransform().getPadY(), converter.getTransform().getPadY());
+    }
+
+    /**
+     * 행 끝 여백(rowPadding)과 크로마 픽셀 간격을 가진 임의의 YUV_420_888 프레임
+     */
+    static YuvFrame syntheticFrame(int width, int height, int rowPadding, int pixelStride, int rotation, long seed) {
+        Random random = new Random(seed);
+        int yRowStride = width + rowPadding;
+        int uvRowStride = (width / 2) * pixelStride + rowPadding;
+        byte[] y = new byte[yRowStride * height];
+        byte[] u = new byte[uvRowStride * (height / 2)];
+        byte[] v = new byte[uvRowStride * (height / 2)];
+        random.nextBytes(y);
+        random.nextBytes(u);
+        random.nextBytes(v);
+        YuvFrame frame = new YuvFrame();
+        frame.copyFrom(width, height, rotation, 0L, ByteBuffer.wrap(y), yRowStride,
+                ByteBuffer.wrap(u), ByteBuffer.wrap(v), uvRowStride, pixelStride);
+        return frame;
+    }
+}